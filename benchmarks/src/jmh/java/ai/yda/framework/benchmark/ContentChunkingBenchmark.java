@@ -0,0 +1,82 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ai.yda.framework.rag.core.util.ContentUtil;
+import ai.yda.framework.rag.core.util.TextChunker;
+
+/**
+ * Measures the ingestion path that normalizes extracted text and splits it into chunks, comparing
+ * {@link ContentUtil#preprocessAndSplitContent(String, Integer)} with the {@link TextChunker}.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentChunkingBenchmark {
+
+    private static final int CHUNK_MAX_LENGTH = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    private int length;
+
+    @Param({"prose", "html"})
+    private String format;
+
+    private String content;
+
+    private TextChunker chunker;
+
+    @Setup
+    public void setUp() {
+        content = format.equals("html") ? SyntheticText.html(length, 42) : SyntheticText.prose(length, 42);
+        chunker = TextChunker.builder()
+                .maxCharacters(CHUNK_MAX_LENGTH)
+                .overlapCharacters(100)
+                .stripMarkup(format.equals("html"))
+                .lowerCase(true)
+                .build();
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public void preprocessAndSplitContent(final Blackhole blackhole) {
+        blackhole.consume(ContentUtil.preprocessAndSplitContent(content, CHUNK_MAX_LENGTH));
+    }
+
+    @Benchmark
+    public void textChunker(final Blackhole blackhole) {
+        chunker.chunks(content).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.autoconfigure.MetadataContextualQueryAugmenter;
+
+/**
+ * Measures the request path that renders the retrieved {@link Document} into the augmented {@link Query}, with and
+ * without a token budget.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContextAugmentationBenchmark {
+
+    @Param({"5", "20", "100"})
+    private int documentCount;
+
+    @Param({"1000", "4000"})
+    private int documentLength;
+
+    private Query query;
+
+    private List<Document> documents;
+
+    private MetadataContextualQueryAugmenter unboundedAugmenter;
+
+    private MetadataContextualQueryAugmenter budgetedAugmenter;
+
+    @Setup
+    public void setUp() {
+        query = new Query("What does the quarterly report say about revenue?");
+        documents = new ArrayList<>(documentCount);
+        for (var i = 0; i < documentCount; i++) {
+            documents.add(Document.builder()
+                    .text(SyntheticText.prose(documentLength, i))
+                    .metadata(Map.of(
+                            "fileName", "report-" + i + ".pdf",
+                            "url", "https://example.com/reports/" + i,
+                            "distance", 0.1 + i * 0.01,
+                            "summary", SyntheticText.prose(600, -i)))
+                    .score(1.0 - i * 0.001)
+                    .build());
+        }
+        unboundedAugmenter = MetadataContextualQueryAugmenter.builder().build();
+        budgetedAugmenter = MetadataContextualQueryAugmenter.builder()
+                .maxTokens(4000)
+                .maxDocumentTokens(800)
+                .build();
+    }
+
+    @Benchmark
+    public Query augment() {
+        return unboundedAugmenter.augment(query, documents);
+    }
+
+    @Benchmark
+    public Query augmentWithTokenBudget() {
+        return budgetedAugmenter.augment(query, documents);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.benchmark;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.ai.rag.Query;
+import org.springframework.context.support.StaticApplicationContext;
+
+import ai.yda.framework.channel.shared.QueryDeserializer;
+
+/**
+ * Measures the request path that deserializes the JSON payload of a channel Request into a {@link Query}.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryDeserializationBenchmark {
+
+    @Param({"64", "1024", "16384"})
+    private int queryLength;
+
+    private ObjectMapper objectMapper;
+
+    private String payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        var module = new SimpleModule();
+        module.addDeserializer(Query.class, new QueryDeserializer(new StaticApplicationContext()));
+        objectMapper = new ObjectMapper().registerModule(module);
+        payload = objectMapper.writeValueAsString(
+                Map.of("query", SyntheticText.prose(queryLength, 7), "assistantId", "assistant-1"));
+    }
+
+    @Benchmark
+    public Query deserialize() throws IOException {
+        return objectMapper.readValue(payload, Query.class);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.benchmark;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import ai.yda.framework.session.core.InMemorySessionStore;
+import ai.yda.framework.session.core.Session;
+import ai.yda.framework.session.core.SessionStore;
+import ai.yda.framework.session.core.ShardedSessionStore;
+
+/**
+ * Measures the {@link SessionStore} implementations under contention, with many Sessions of a single attribute, like
+ * the thread ID kept per Slack channel. Both stores are bounded and expire idle Sessions, as configured by the Slack
+ * channel.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionStoreContentionBenchmark {
+
+    private static final String THREAD_ID_KEY = "threadId";
+
+    @Param({"inMemory", "sharded"})
+    private String storeType;
+
+    @Param({"1000", "100000"})
+    private int sessionCount;
+
+    private SessionStore sessionStore;
+
+    private String[] sessionIds;
+
+    @Setup
+    public void setUp() {
+        sessionStore = "sharded".equals(storeType)
+                ? ShardedSessionStore.builder()
+                        .maxEntries(2L * sessionCount)
+                        .idleTimeToLive(Duration.ofHours(1))
+                        .build()
+                : InMemorySessionStore.builder()
+                        .maxEntries(2L * sessionCount)
+                        .idleTimeToLive(Duration.ofHours(1))
+                        .build();
+        sessionIds = new String[sessionCount];
+        for (var i = 0; i < sessionCount; i++) {
+            sessionIds[i] = "C" + i;
+            sessionStore.getOrCreate(sessionIds[i]).setAttribute(THREAD_ID_KEY, "thread_" + i);
+        }
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Optional<Session> findById() {
+        return sessionStore.findById(randomSessionId());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Optional<Object> getAttribute() {
+        return sessionStore.findById(randomSessionId()).flatMap(session -> session.getAttribute(THREAD_ID_KEY));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(7)
+    public Optional<Object> readWriteRead() {
+        return sessionStore.findById(randomSessionId()).flatMap(session -> session.getAttribute(THREAD_ID_KEY));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void readWriteWrite() {
+        var sessionId = randomSessionId();
+        sessionStore.getOrCreate(sessionId).setAttribute(THREAD_ID_KEY, sessionId);
+    }
+
+    private String randomSessionId() {
+        return sessionIds[ThreadLocalRandom.current().nextInt(sessionIds.length)];
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import ai.yda.framework.rag.retriever.google_drive.service.document.reader.SplitSheetBodyContentHandler;
+
+/**
+ * Measures the ingestion path that splits the XHTML events produced by Tika for a workbook into per-sheet contents
+ * with the {@link SplitSheetBodyContentHandler}. The events mimic the output of the Tika Excel parser: one
+ * {@code h1} heading and one table per sheet, with cell comments after a {@code br} element.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SheetContentHandlerBenchmark {
+
+    private static final String XHTML = "http://www.w3.org/1999/xhtml";
+
+    private static final AttributesImpl NO_ATTRIBUTES = new AttributesImpl();
+
+    /**
+     * The number of sheets in the workbook. The total content stays below the default write limit of the Tika body
+     * content handler.
+     */
+    @Param({"1", "5", "15"})
+    private int sheetCount;
+
+    @Param({"50"})
+    private int rowCount;
+
+    private char[][][] cells;
+
+    @Setup
+    public void setUp() {
+        var columnCount = 5;
+        cells = new char[sheetCount * rowCount][columnCount][];
+        for (var row = 0; row < cells.length; row++) {
+            for (var column = 0; column < columnCount; column++) {
+                cells[row][column] = SyntheticText.prose(8 + (row * 31 + column * 7) % 24, row * 10L + column)
+                        .toCharArray();
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, String> splitSheets() throws SAXException {
+        var handler = new SplitSheetBodyContentHandler();
+        handler.startDocument();
+        start(handler, "html");
+        start(handler, "body");
+        for (var sheet = 0; sheet < sheetCount; sheet++) {
+            start(handler, "div");
+            start(handler, "h1");
+            text(handler, ("Sheet" + sheet).toCharArray());
+            end(handler, "h1");
+            start(handler, "table");
+            start(handler, "tbody");
+            for (var row = sheet * rowCount; row < (sheet + 1) * rowCount; row++) {
+                start(handler, "tr");
+                for (var cell : cells[row]) {
+                    start(handler, "td");
+                    text(handler, cell);
+                    if (row % 10 == 0) {
+                        start(handler, "br");
+                        end(handler, "br");
+                        text(handler, "Comment by reviewer".toCharArray());
+                    }
+                    end(handler, "td");
+                }
+                end(handler, "tr");
+            }
+            end(handler, "tbody");
+            end(handler, "table");
+            end(handler, "div");
+        }
+        end(handler, "body");
+        end(handler, "html");
+        handler.endDocument();
+        return handler.getSheetContents();
+    }
+
+    private static void start(final SplitSheetBodyContentHandler handler, final String name) throws SAXException {
+        handler.startElement(XHTML, name, name, NO_ATTRIBUTES);
+    }
+
+    private static void end(final SplitSheetBodyContentHandler handler, final String name) throws SAXException {
+        handler.endElement(XHTML, name, name);
+    }
+
+    private static void text(final SplitSheetBodyContentHandler handler, final char[] text) throws SAXException {
+        handler.characters(text, 0, text.length);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates deterministic synthetic content resembling the documents, web pages and sheets ingested by the Retrievers.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+final class SyntheticText {
+
+    private static final String[] WORDS = {
+        "the",
+        "retrieval",
+        "augmented",
+        "generation",
+        "pipeline",
+        "splits",
+        "documents",
+        "into",
+        "chunks",
+        "before",
+        "embedding",
+        "them",
+        "vector",
+        "store",
+        "query",
+        "assistant",
+        "answers",
+        "questions",
+        "about",
+        "policy",
+        "invoice",
+        "customer",
+        "contract",
+        "quarterly",
+        "report",
+        "revenue",
+        "of",
+        "and",
+        "with",
+        "a",
+        "is",
+        "for"
+    };
+
+    private SyntheticText() {}
+
+    /**
+     * Generates prose of the given length with sentences, paragraphs and irregular whitespace.
+     */
+    static String prose(final int length, final long seed) {
+        var random = new Random(seed);
+        var text = new StringBuilder(length + 32);
+        var wordsInSentence = 0;
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+            if (++wordsInSentence > 8 + random.nextInt(12)) {
+                text.append(random.nextInt(10) == 0 ? "?" : ".");
+                wordsInSentence = 0;
+                text.append(random.nextInt(6) == 0 ? "\n\n" : " ");
+            } else {
+                text.append(random.nextInt(15) == 0 ? "  \t" : " ");
+            }
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    /**
+     * Generates an HTML page whose visible text has roughly the given length.
+     */
+    static String html(final int length, final long seed) {
+        var random = new Random(seed);
+        var page = new StringBuilder(length * 2);
+        page.append("<html><head><title>Synthetic page</title><style>p { margin: 0; }</style>")
+                .append("<script>var tracking = '<b>';</script></head><body>");
+        var written = 0;
+        while (written < length) {
+            var paragraph = prose(200 + random.nextInt(400), random.nextLong());
+            page.append("<div class=\"section\"><p>")
+                    .append(paragraph)
+                    .append(" &amp; <a href=\"/next\">more</a></p></div>\n");
+            written += paragraph.length();
+        }
+        return page.append("</body></html>").toString();
+    }
+
+    /**
+     * Generates an extracted PDF page with indented lines, runs of blank lines and trailing spaces.
+     */
+    static String page(final int lines, final long seed) {
+        var random = new Random(seed);
+        var page = new StringBuilder(lines * 80);
+        for (var line = 0; line < lines; line++) {
+            if (random.nextInt(5) == 0) {
+                page.append("   \n\n  \n");
+            }
+            page.append(" ".repeat(random.nextInt(6)))
+                    .append(prose(40 + random.nextInt(60), random.nextLong()).replace('\n', ' '))
+                    .append("   \n");
+        }
+        return page.toString();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ai.yda.framework.rag.retriever.google_drive.service.document.reader.OptimizedExtractedTextFormatter;
+
+/**
+ * Measures the ingestion path that reformats the text extracted from a document page with the
+ * {@link OptimizedExtractedTextFormatter}, using the default configuration and a configuration that also aligns the
+ * text to the left and deletes header and footer lines.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TextFormatterBenchmark {
+
+    @Param({"50", "500", "5000"})
+    private int lineCount;
+
+    private String pageText;
+
+    private OptimizedExtractedTextFormatter defaultFormatter;
+
+    private OptimizedExtractedTextFormatter fullFormatter;
+
+    @Setup
+    public void setUp() {
+        pageText = SyntheticText.page(lineCount, 13);
+        defaultFormatter = OptimizedExtractedTextFormatter.defaults();
+        fullFormatter = OptimizedExtractedTextFormatter.builder()
+                .withLeftAlignment(true)
+                .withNumberOfTopTextLinesToDelete(2)
+                .withNumberOfBottomTextLinesToDelete(2)
+                .build();
+    }
+
+    @Benchmark
+    public String format() {
+        return defaultFormatter.format(pageText);
+    }
+
+    @Benchmark
+    public String formatWithAlignmentAndLineDeletion() {
+        return fullFormatter.format(pageText);
+    }
+}
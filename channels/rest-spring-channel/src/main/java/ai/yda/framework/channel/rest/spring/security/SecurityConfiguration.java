@@ -19,6 +19,8 @@
 */
 package ai.yda.framework.channel.rest.spring.security;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -56,7 +58,8 @@ public class SecurityConfiguration {
      * Channel. This configuration includes settings for {@link TokenAuthenticationFilter}, HTTP security configurations
      * such as enabling or disabling CORS, disabling CSRF, and setting the session management creation policy to always.
      * It also specifies authorization rules: requests to the endpoint are authorized and require authentication, while
-     * all other requests are not authorized and do not require authentication.
+     * all other requests are not authorized and do not require authentication. The asynchronous dispatch writing the
+     * Response of an already authorized request is permitted, as the token is not stored between the dispatches.
      * </p>
      *
      * @param http       the {@link HttpSecurity} to configure.
@@ -70,6 +73,8 @@ public class SecurityConfiguration {
             throws Exception {
         http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorize -> authorize
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                        .permitAll()
                         .requestMatchers(properties.getEndpointRelativePath())
                         .authenticated()
                         .anyRequest()
@@ -0,0 +1,62 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.channel.rest.spring.session;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Exposes the {@link RequestAttributes} bound by Spring MVC to the Micrometer context propagation, so that the
+ * executors propagating context snapshots carry the current Request, and with it the {@link RestSessionProvider}
+ * Session, over to the threads processing the Request asynchronously. It is registered through the
+ * {@link java.util.ServiceLoader}.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class RequestAttributesThreadLocalAccessor implements ThreadLocalAccessor<RequestAttributes> {
+
+    /**
+     * The key of the {@link RequestAttributes} in a context snapshot.
+     */
+    public static final String KEY = "ai.yda.framework.channel.rest.request-attributes";
+
+    @Override
+    public Object key() {
+        return KEY;
+    }
+
+    @Override
+    public RequestAttributes getValue() {
+        return RequestContextHolder.getRequestAttributes();
+    }
+
+    @Override
+    public void setValue(final RequestAttributes value) {
+        RequestContextHolder.setRequestAttributes(value);
+    }
+
+    @Override
+    public void setValue() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+}
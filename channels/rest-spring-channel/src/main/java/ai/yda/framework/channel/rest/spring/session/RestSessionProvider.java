@@ -32,7 +32,9 @@ import ai.yda.framework.session.core.SessionProvider;
  * context.
  * <p>
  * This component interacts with the {@link HttpSession} to manage Session attributes. It provides methods to
- * add and retrieve objects from the Session based on a key.
+ * add and retrieve objects from the Session based on a key. The {@link HttpSession} is resolved from the Request bound
+ * to the current thread, which {@link RequestAttributesThreadLocalAccessor} carries over to the threads processing the
+ * Request asynchronously.
  * </p>
  *
  * @author Nikita Litvinov
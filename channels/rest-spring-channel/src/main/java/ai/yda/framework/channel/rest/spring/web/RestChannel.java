@@ -21,6 +21,7 @@ package ai.yda.framework.channel.rest.spring.web;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.message.Message;
 
@@ -31,49 +32,50 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import ai.yda.framework.channel.core.Channel;
+import ai.yda.framework.channel.core.AsyncChannel;
 import ai.yda.framework.channel.rest.spring.RestSpringProperties;
-import ai.yda.framework.core.assistant.Assistant;
+import ai.yda.framework.core.assistant.AsyncAssistant;
 import ai.yda.framework.rag.core.model.RagResponse;
 
 /**
  * Provides REST controller logic that handles incoming requests for processing using an assistant. The path of the
- * endpoint is configurable via properties, allowing for flexibility in deployment.
+ * endpoint is configurable via properties, allowing for flexibility in deployment. Requests are processed
+ * asynchronously, so the servlet thread is released while the Response is generated.
  *
  * @author Nikita Litvinov
- * @see Assistant
+ * @see AsyncAssistant
  * @since 0.1.0
  */
 @RestController
 @RequestMapping(
         path = "${" + RestSpringProperties.CONFIG_PREFIX + ".endpoint-relative-path:"
                 + RestSpringProperties.DEFAULT_ENDPOINT_RELATIVE_PATH + "}")
-public class RestChannel extends Channel<Query, List<Message>, RagResponse> {
+public class RestChannel extends AsyncChannel<Query, List<Message>, RagResponse> {
 
     /**
-     * Constructs a new {@link RestChannel} instance with the specified {@link Assistant} instance.
+     * Constructs a new {@link RestChannel} instance with the specified {@link AsyncAssistant} instance.
      *
-     * @param assistant the {@link Assistant} instance used to process {@link Query} and generate
+     * @param assistant the {@link AsyncAssistant} instance used to process {@link Query} and generate
      *                  {@link RagResponse}.
      */
-    public RestChannel(final Assistant<Query, RagResponse> assistant) {
+    public RestChannel(final AsyncAssistant<Query, RagResponse> assistant) {
         super(assistant);
     }
 
     /**
-     * Processes the incoming {@link Query} by delegating it to the {@link Assistant}.
+     * Processes the incoming {@link Query} by delegating it to the {@link AsyncAssistant}.
      *
      * <p>
      * This method is mapped to the HTTP POST method and handles the logic for processing a validated
      * {@link Query}. The request is passed to the assistant, which performs the necessary operations
-     * to generate a {@link RagResponse}.
+     * to generate a {@link RagResponse}. The response is written once the returned future completes.
      * </p>
      *
      * @param query the {@link Query} object containing the data to be processed.
-     * @return the {@link RagResponse} object generated by the assistant.
+     * @return a {@link CompletableFuture} completed with the {@link RagResponse} generated by the assistant.
      */
     @PostMapping
-    public RagResponse processRequest(@RequestBody @Validated final Query query) {
+    public CompletableFuture<RagResponse> processRequest(@RequestBody @Validated final Query query) {
         return super.processRequest(query, Collections.emptyList());
     }
 }
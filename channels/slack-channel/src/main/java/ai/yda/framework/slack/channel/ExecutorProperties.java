@@ -0,0 +1,51 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.slack.channel;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import ai.yda.framework.slack.channel.executor.ConversationExecutor;
+
+@Getter
+@Setter
+@ConfigurationProperties(ExecutorProperties.CONFIG_PREFIX)
+public class ExecutorProperties {
+
+    public static final String CONFIG_PREFIX = "ai.yda.framework.channel.slack.executor";
+
+    /**
+     * The maximum number of messages processed at once, four times the number of available processors when not set.
+     */
+    private Integer maxConcurrency;
+
+    private Integer maxQueuedTasks = ConversationExecutor.DEFAULT_MAX_QUEUED_TASKS;
+
+    /**
+     * Whether the messages are processed on virtual threads, which requires Java 21.
+     */
+    private Boolean virtualThreads = Boolean.FALSE;
+
+    private Duration shutdownTimeout = ConversationExecutor.DEFAULT_SHUTDOWN_TIMEOUT;
+}
@@ -0,0 +1,45 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.slack.channel;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import ai.yda.framework.session.core.ConversationHistoryStore;
+
+@Getter
+@Setter
+@ConfigurationProperties(HistoryProperties.CONFIG_PREFIX)
+public class HistoryProperties {
+
+    public static final String CONFIG_PREFIX = "ai.yda.framework.channel.slack.history";
+
+    private Integer tokenBudget = ConversationHistoryStore.DEFAULT_TOKEN_BUDGET;
+
+    private Long maxConversations = ConversationHistoryStore.DEFAULT_MAX_CONVERSATIONS;
+
+    /**
+     * Whether the messages sliding out of the token budget are summarized with the chat model, when one is
+     * configured, instead of being dropped.
+     */
+    private Boolean summarizationEnabled = Boolean.TRUE;
+}
@@ -0,0 +1,70 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.slack.channel;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(SessionStoreProperties.CONFIG_PREFIX)
+public class SessionStoreProperties {
+
+    public static final String CONFIG_PREFIX = "ai.yda.framework.channel.slack.session";
+
+    public static final Duration DEFAULT_ABSOLUTE_TIME_TO_LIVE = Duration.ofDays(7);
+
+    /**
+     * The file persisting the sessions across restarts; the sessions are kept in memory only when it is not set. The
+     * file store enforces the max entries and both times to live, checked every tick duration, but neither the shard
+     * count nor the max weight, which must be left unset.
+     */
+    private Path path;
+
+    /**
+     * The number of shards of a sharded in-memory store, for many concurrently active sessions; the single-lock store,
+     * which also enforces the weight and absolute time to live, is used when it is not set. The sharded store only
+     * enforces the max entries and the idle time to live; the max weight, the absolute time to live and the tick
+     * duration must be left unset.
+     */
+    private Integer shardCount;
+
+    private Long maxEntries = 10_000L;
+
+    private Long maxWeight;
+
+    private Duration idleTimeToLive = Duration.ofHours(24);
+
+    /**
+     * The time after the creation at which a session expires, {@link #DEFAULT_ABSOLUTE_TIME_TO_LIVE} if not set and
+     * the store enforces it.
+     */
+    private Duration absoluteTimeToLive;
+
+    /**
+     * The precision of the expiry, one second if not set.
+     */
+    private Duration tickDuration;
+}
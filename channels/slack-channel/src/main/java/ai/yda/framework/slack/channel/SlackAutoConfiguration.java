@@ -19,27 +19,52 @@
 */
 package ai.yda.framework.slack.channel;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongBiFunction;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
 import com.slack.api.Slack;
 import com.slack.api.bolt.App;
 import com.slack.api.bolt.AppConfig;
 
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.servlet.ServletComponentScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 
+import ai.yda.framework.session.core.ConversationHistoryStore;
 import ai.yda.framework.session.core.InMemorySessionStore;
+import ai.yda.framework.session.core.MappedFileSessionStore;
+import ai.yda.framework.session.core.RemovalCause;
 import ai.yda.framework.session.core.SessionStore;
+import ai.yda.framework.session.core.ShardedSessionStore;
 import ai.yda.framework.session.core.ThreadLocalSessionContext;
 import ai.yda.framework.session.core.ThreadLocalSessionProvider;
+import ai.yda.framework.slack.channel.executor.ConversationExecutor;
+import ai.yda.framework.slack.channel.history.ChatClientHistorySummarizer;
 import ai.yda.framework.slack.channel.servlet.SlackOAuthInstallController;
 import ai.yda.framework.slack.channel.servlet.SlackOAuthRedirectController;
 
 @AutoConfiguration
 @ComponentScan
 @ServletComponentScan
-@EnableConfigurationProperties({SlackProperties.class})
+@EnableConfigurationProperties({
+    SlackProperties.class,
+    SessionStoreProperties.class,
+    HistoryProperties.class,
+    ExecutorProperties.class
+})
 public class SlackAutoConfiguration {
     /**
      * Default constructor for {@link SlackAutoConfiguration}.
@@ -55,8 +80,119 @@ public class SlackAutoConfiguration {
     }
 
     @Bean
-    public SessionStore sessionStore() {
-        return new InMemorySessionStore();
+    public SessionStore sessionStore(
+            final SessionStoreProperties properties, final ObjectProvider<MeterRegistry> meterRegistry) {
+        if (properties.getPath() != null) {
+            if (properties.getShardCount() != null || properties.getMaxWeight() != null) {
+                throw new IllegalStateException("Shard count and max weight are not supported by the session file");
+            }
+            return MappedFileSessionStore.builder()
+                    .path(properties.getPath())
+                    .maxEntries(properties.getMaxEntries())
+                    .idleTimeToLive(properties.getIdleTimeToLive())
+                    .absoluteTimeToLive(absoluteTimeToLive(properties))
+                    .expirationInterval(properties.getTickDuration())
+                    .build();
+        }
+        if (properties.getShardCount() != null) {
+            if (properties.getAbsoluteTimeToLive() != null
+                    || properties.getMaxWeight() != null
+                    || properties.getTickDuration() != null) {
+                throw new IllegalStateException(
+                        "Absolute time to live, max weight and tick duration are not supported by the sharded store");
+            }
+            var shardedStore = ShardedSessionStore.builder()
+                    .shardCount(properties.getShardCount())
+                    .maxEntries(properties.getMaxEntries())
+                    .idleTimeToLive(properties.getIdleTimeToLive())
+                    .build();
+            meterRegistry.ifAvailable(registry -> bindSessionStoreMetrics(
+                    registry, shardedStore, ShardedSessionStore::size, ShardedSessionStore::getRemovalCount));
+            return shardedStore;
+        }
+        var sessionStore = InMemorySessionStore.builder()
+                .maxEntries(properties.getMaxEntries())
+                .maxWeight(properties.getMaxWeight())
+                .idleTimeToLive(properties.getIdleTimeToLive())
+                .absoluteTimeToLive(absoluteTimeToLive(properties))
+                .tickDuration(properties.getTickDuration())
+                .build();
+        meterRegistry.ifAvailable(registry -> {
+            bindSessionStoreMetrics(
+                    registry, sessionStore, InMemorySessionStore::size, InMemorySessionStore::getRemovalCount);
+            Gauge.builder("yda.session.store.weight", sessionStore, InMemorySessionStore::getWeight)
+                    .description("Total weight of the sessions held by the Slack channel")
+                    .register(registry);
+        });
+        return sessionStore;
+    }
+
+    private Duration absoluteTimeToLive(final SessionStoreProperties properties) {
+        return properties.getAbsoluteTimeToLive() != null
+                ? properties.getAbsoluteTimeToLive()
+                : SessionStoreProperties.DEFAULT_ABSOLUTE_TIME_TO_LIVE;
+    }
+
+    private <T extends SessionStore> void bindSessionStoreMetrics(
+            final MeterRegistry registry,
+            final T sessionStore,
+            final ToDoubleFunction<T> size,
+            final ToLongBiFunction<T, RemovalCause> removalCount) {
+        Gauge.builder("yda.session.store.size", sessionStore, size)
+                .description("Number of sessions held by the Slack channel")
+                .register(registry);
+        Arrays.stream(RemovalCause.values()).forEach(cause -> FunctionCounter.builder(
+                        "yda.session.store.removals", sessionStore, store -> removalCount.applyAsLong(store, cause))
+                .description("Sessions removed from the Slack channel store")
+                .tag("cause", cause.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+    }
+
+    @Bean
+    public ConversationExecutor conversationExecutor(
+            final ExecutorProperties properties, final ObjectProvider<MeterRegistry> meterRegistry) {
+        var executor = ConversationExecutor.builder()
+                .maxConcurrency(properties.getMaxConcurrency())
+                .maxQueuedTasks(properties.getMaxQueuedTasks())
+                .virtualThreads(properties.getVirtualThreads())
+                .shutdownTimeout(properties.getShutdownTimeout())
+                .build();
+        meterRegistry.ifAvailable(registry -> {
+            Gauge.builder("yda.slack.executor.queued", executor, ConversationExecutor::getQueuedTaskCount)
+                    .description("Slack messages waiting to be processed")
+                    .register(registry);
+            Gauge.builder(
+                            "yda.slack.executor.conversations",
+                            executor,
+                            ConversationExecutor::getActiveConversationCount)
+                    .description("Slack conversations with messages waiting or being processed")
+                    .register(registry);
+            FunctionCounter.builder("yda.slack.executor.rejected", executor, ConversationExecutor::getRejectedTaskCount)
+                    .description("Slack messages rejected because the queue was full")
+                    .register(registry);
+            FunctionCounter.builder(
+                            "yda.slack.executor.completed", executor, ConversationExecutor::getCompletedTaskCount)
+                    .description("Slack messages processed")
+                    .register(registry);
+        });
+        return executor;
+    }
+
+    @Bean
+    public ConversationHistoryStore<Message> conversationHistoryStore(
+            final HistoryProperties properties, final ObjectProvider<ChatClient.Builder> chatClientBuilder) {
+        var tokenCountEstimator = new JTokkitTokenCountEstimator();
+        var summarizerClientBuilder = properties.getSummarizationEnabled() ? chatClientBuilder.getIfAvailable() : null;
+        return ConversationHistoryStore.<Message>builder()
+                .tokenBudget(properties.getTokenBudget())
+                .maxConversations(properties.getMaxConversations())
+                .tokenCounter(
+                        message -> message.getText() != null ? tokenCountEstimator.estimate(message.getText()) : 0)
+                .summarizer(
+                        summarizerClientBuilder != null
+                                ? new ChatClientHistorySummarizer(summarizerClientBuilder)
+                                : null)
+                .build();
     }
 
     @Bean
@@ -20,8 +20,9 @@
 package ai.yda.framework.slack.channel.channel;
 
 import java.io.IOException;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 
 import com.slack.api.Slack;
 import com.slack.api.methods.SlackApiException;
@@ -31,6 +32,8 @@ import com.slack.api.methods.request.conversations.ConversationsRepliesRequest;
 import com.slack.api.model.Message;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.rag.Query;
 import org.springframework.stereotype.Component;
 
@@ -38,59 +41,94 @@ import ai.yda.framework.channel.core.Channel;
 import ai.yda.framework.core.assistant.Assistant;
 import ai.yda.framework.core.assistant.query.QueryProcessor;
 import ai.yda.framework.rag.core.model.RagResponse;
+import ai.yda.framework.session.core.ConversationHistory;
+import ai.yda.framework.session.core.ConversationHistoryStore;
 import ai.yda.framework.session.core.ThreadLocalSessionContext;
 import ai.yda.framework.slack.channel.SlackProperties;
+import ai.yda.framework.slack.channel.executor.ConversationExecutor;
 
 @Slf4j
 @Component
-public class SlackChannel extends Channel<String, List<Message>, RagResponse> {
+public class SlackChannel
+        extends Channel<String, ConversationHistory<org.springframework.ai.chat.messages.Message>, RagResponse> {
 
     private final Slack slack;
     private final SlackProperties properties;
     private final ThreadLocalSessionContext sessionContext;
+    private final ConversationHistoryStore<org.springframework.ai.chat.messages.Message> historyStore;
+    private final ConversationExecutor conversationExecutor;
 
     public SlackChannel(
             final Assistant<Query, RagResponse> assistant,
-            final QueryProcessor<String, List<Message>> queryProcessor,
+            final QueryProcessor<String, ConversationHistory<org.springframework.ai.chat.messages.Message>>
+                    queryProcessor,
             final Slack slack,
             final SlackProperties properties,
-            final ThreadLocalSessionContext sessionContext) {
+            final ThreadLocalSessionContext sessionContext,
+            final ConversationHistoryStore<org.springframework.ai.chat.messages.Message> historyStore,
+            final ConversationExecutor conversationExecutor) {
         super(assistant, queryProcessor);
         this.slack = slack;
         this.properties = properties;
         this.sessionContext = sessionContext;
+        this.historyStore = historyStore;
+        this.conversationExecutor = conversationExecutor;
     }
 
     public void sendMessage(
             final String channel, final String threadTs, final String userMessageId, final String message) {
-        var concurrentExecutor = new ForkJoinPool(1);
-        concurrentExecutor.submit(() -> {
-            try {
-                sessionContext.setSessionId(channel);
-
-                var slackMessageHistory = getSlackMessageHistory(channel, threadTs, userMessageId);
-                var botMessage =
-                        super.processRequest(message, slackMessageHistory).getResult();
+        var conversationId = threadTs != null ? channel + ":" + threadTs : channel;
+        try {
+            // The messages of a conversation are processed in order; the executor carries the current Observation
+            // over, so the processing joins the trace of the incoming event
+            conversationExecutor.execute(
+                    conversationId,
+                    () -> sessionContext.run(
+                            channel, () -> processMessage(conversationId, channel, threadTs, userMessageId, message)));
+        } catch (RejectedExecutionException e) {
+            log.warn("Dropped a message to Slack channel {}: {}", channel, e.getMessage());
+        }
+    }
 
-                var slackResponse = slack.methods(properties.getBotToken())
-                        .chatPostMessage(ChatPostMessageRequest.builder()
-                                .channel(channel)
-                                .text(botMessage)
-                                .threadTs(threadTs)
-                                .build());
-
-                if (slackResponse.isOk()) {
-                    log.debug("Message successfully sent to channel {}: {}", channel, botMessage);
-                } else {
-                    log.error(
-                            "Failed to send message to Slack channel {}. Slack API returned error: {}",
-                            channel,
-                            slackResponse.getError());
-                }
-            } catch (Exception e) {
-                log.error(e.getMessage());
+    private void processMessage(
+            final String conversationId,
+            final String channel,
+            final String threadTs,
+            final String userMessageId,
+            final String message) {
+        try {
+            var history = historyStore.find(conversationId).orElse(null);
+            if (history == null) {
+                // Unknown conversation, e.g. after a restart: load it from Slack once, later messages are appended
+                history = historyStore.seed(
+                        conversationId,
+                        getSlackMessageHistory(channel, threadTs, userMessageId).stream()
+                                .sorted(Comparator.comparing(Message::getTs))
+                                .map(this::toChatMessage)
+                                .toList());
             }
-        });
+            var botMessage = super.processRequest(message, history).getResult();
+            historyStore.append(conversationId, new UserMessage(message));
+            historyStore.append(conversationId, new AssistantMessage(botMessage));
+
+            var slackResponse = slack.methods(properties.getBotToken())
+                    .chatPostMessage(ChatPostMessageRequest.builder()
+                            .channel(channel)
+                            .text(botMessage)
+                            .threadTs(threadTs)
+                            .build());
+
+            if (slackResponse.isOk()) {
+                log.debug("Message successfully sent to channel {}: {}", channel, botMessage);
+            } else {
+                log.error(
+                        "Failed to send message to Slack channel {}. Slack API returned error: {}",
+                        channel,
+                        slackResponse.getError());
+            }
+        } catch (Exception e) {
+            log.error(e.getMessage());
+        }
     }
 
     private List<Message> getSlackMessageHistory(
@@ -113,4 +151,10 @@ public class SlackChannel extends Channel<String, List<Message>, RagResponse> {
                 .filter(message -> !userMessageId.equals(message.getClientMsgId()))
                 .toList();
     }
+
+    private org.springframework.ai.chat.messages.Message toChatMessage(final Message message) {
+        return message.getBotId() != null
+                ? new AssistantMessage(message.getText())
+                : new UserMessage(message.getText());
+    }
 }
@@ -0,0 +1,303 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.slack.channel.executor;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import ai.yda.framework.rag.core.executor.ContextPropagatingExecutor;
+
+/**
+ * Runs the processing of incoming messages on a shared, bounded set of threads. The tasks of a conversation run one
+ * at a time in submission order, so that replies stay in order, while different conversations run in parallel up to
+ * {@code maxConcurrency}. A conversation yields its thread after each task, so a busy conversation does not starve
+ * the others.
+ * <p>
+ * At most {@code maxQueuedTasks} tasks wait for a thread; further tasks are rejected with a
+ * {@link RejectedExecutionException}. The context of the submitting thread, such as the current Observation, is
+ * propagated to the tasks.
+ * </p>
+ * <p>
+ * With {@code virtualThreads} enabled, each task runs on a virtual thread and {@code maxConcurrency} bounds the tasks
+ * running at once. Virtual threads require Java 21; on older runtimes the platform threads are used.
+ * </p>
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@Slf4j
+public class ConversationExecutor implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_QUEUED_TASKS = 1000;
+
+    public static final Duration DEFAULT_SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final int maxQueuedTasks;
+
+    private final Duration shutdownTimeout;
+
+    private final ExecutorService executor;
+
+    /**
+     * Bounds the tasks running at once on virtual threads, {@code null} with platform threads, which are bounded by
+     * the size of the pool.
+     */
+    private final Semaphore virtualThreadPermits;
+
+    /**
+     * The tasks waiting per conversation. A conversation is present while its tasks are scheduled or running, so that
+     * a single task of it runs at a time.
+     */
+    private final ConcurrentHashMap<String, ArrayDeque<Runnable>> conversations = new ConcurrentHashMap<>();
+
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+
+    private final LongAdder rejectedTasks = new LongAdder();
+
+    private final LongAdder completedTasks = new LongAdder();
+
+    /**
+     * Constructs a new {@link ConversationExecutor} instance.
+     *
+     * @param maxConcurrency  the maximum number of tasks running at once, four times the number of available
+     *                        processors by default.
+     * @param maxQueuedTasks  the maximum number of tasks waiting for a thread, {@link #DEFAULT_MAX_QUEUED_TASKS} by
+     *                        default.
+     * @param virtualThreads  whether the tasks run on virtual threads, {@code false} by default.
+     * @param shutdownTimeout the time {@link #close()} waits for the submitted tasks,
+     *                        {@link #DEFAULT_SHUTDOWN_TIMEOUT} by default.
+     * @throws IllegalArgumentException if a bound is not positive.
+     */
+    @Builder
+    public ConversationExecutor(
+            final Integer maxConcurrency,
+            final Integer maxQueuedTasks,
+            final Boolean virtualThreads,
+            final Duration shutdownTimeout) {
+        var concurrency = maxConcurrency != null
+                ? positive(maxConcurrency, "maxConcurrency")
+                : 4 * Runtime.getRuntime().availableProcessors();
+        this.maxQueuedTasks =
+                maxQueuedTasks != null ? positive(maxQueuedTasks, "maxQueuedTasks") : DEFAULT_MAX_QUEUED_TASKS;
+        this.shutdownTimeout = shutdownTimeout != null ? shutdownTimeout : DEFAULT_SHUTDOWN_TIMEOUT;
+
+        var virtualThreadExecutor = Boolean.TRUE.equals(virtualThreads) ? newVirtualThreadExecutor() : null;
+        if (virtualThreadExecutor != null) {
+            executor = virtualThreadExecutor;
+            virtualThreadPermits = new Semaphore(concurrency);
+        } else {
+            var pool = new ThreadPoolExecutor(
+                    concurrency, concurrency, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                        var thread = new Thread(runnable, "yda-slack-" + THREAD_COUNT.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+            virtualThreadPermits = null;
+        }
+    }
+
+    private static int positive(final int value, final String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    /**
+     * Looks the virtual thread executor up reflectively, as the code is compiled for Java 17.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService)
+                    Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on Java {}, using platform threads", Runtime.version());
+            return null;
+        }
+    }
+
+    /**
+     * Submits a task, which runs after the tasks of the same conversation submitted before it.
+     *
+     * @param conversationId the ID of the conversation, e.g. the Slack channel and thread.
+     * @param task           the task to run.
+     * @throws RejectedExecutionException if {@code maxQueuedTasks} tasks are waiting already or the executor is
+     *                                    closed.
+     */
+    public void execute(final String conversationId, final Runnable task) {
+        if (executor.isShutdown()) {
+            rejectedTasks.increment();
+            throw new RejectedExecutionException("The conversation executor is closed");
+        }
+        if (queuedTasks.incrementAndGet() > maxQueuedTasks) {
+            queuedTasks.decrementAndGet();
+            rejectedTasks.increment();
+            throw new RejectedExecutionException(maxQueuedTasks + " tasks are waiting already");
+        }
+
+        var wrappedTask = ContextPropagatingExecutor.wrap(task);
+        var idle = new boolean[1];
+        conversations.compute(conversationId, (key, tasks) -> {
+            if (tasks == null) {
+                tasks = new ArrayDeque<>();
+                idle[0] = true;
+            }
+            tasks.addLast(wrappedTask);
+            return tasks;
+        });
+        if (idle[0]) {
+            schedule(conversationId);
+        }
+    }
+
+    /**
+     * Returns the number of tasks waiting for a thread.
+     *
+     * @return the number of waiting tasks.
+     */
+    public int getQueuedTaskCount() {
+        return queuedTasks.get();
+    }
+
+    /**
+     * Returns the number of conversations with tasks waiting or running.
+     *
+     * @return the number of active conversations.
+     */
+    public int getActiveConversationCount() {
+        return conversations.size();
+    }
+
+    /**
+     * Returns the number of tasks rejected so far.
+     *
+     * @return the number of rejected tasks.
+     */
+    public long getRejectedTaskCount() {
+        return rejectedTasks.sum();
+    }
+
+    /**
+     * Returns the number of tasks completed so far, successfully or not.
+     *
+     * @return the number of completed tasks.
+     */
+    public long getCompletedTaskCount() {
+        return completedTasks.sum();
+    }
+
+    /**
+     * Stops accepting tasks and waits up to the {@code shutdownTimeout} for the submitted ones.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("{} queued Slack messages were not processed before the shutdown", queuedTasks.get());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void schedule(final String conversationId) {
+        try {
+            executor.execute(() -> runNext(conversationId));
+        } catch (RejectedExecutionException e) {
+            // Closed in between, the waiting tasks of the conversation are dropped
+            var tasks = conversations.remove(conversationId);
+            if (tasks != null) {
+                queuedTasks.addAndGet(-tasks.size());
+                rejectedTasks.add(tasks.size());
+            }
+            throw e;
+        }
+    }
+
+    private void runNext(final String conversationId) {
+        while (true) {
+            var next = new Runnable[1];
+            conversations.computeIfPresent(conversationId, (key, tasks) -> {
+                next[0] = tasks.pollFirst();
+                return tasks;
+            });
+            if (next[0] != null) {
+                queuedTasks.decrementAndGet();
+                run(next[0]);
+            }
+
+            // The conversation stays present, holding back the tasks submitted meanwhile, until its queue is empty
+            var remaining =
+                    conversations.computeIfPresent(conversationId, (key, tasks) -> tasks.isEmpty() ? null : tasks);
+            if (remaining == null) {
+                return;
+            }
+            if (!executor.isShutdown()) {
+                try {
+                    executor.execute(() -> runNext(conversationId));
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // Closed in between, the remaining tasks run on this thread
+                }
+            }
+        }
+    }
+
+    private void run(final Runnable task) {
+        try {
+            if (virtualThreadPermits != null) {
+                virtualThreadPermits.acquire();
+                try {
+                    task.run();
+                } finally {
+                    virtualThreadPermits.release();
+                }
+            } else {
+                task.run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Failed to process a Slack message", e);
+        } finally {
+            completedTasks.increment();
+        }
+    }
+}
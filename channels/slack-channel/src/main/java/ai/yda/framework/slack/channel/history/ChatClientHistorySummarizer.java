@@ -0,0 +1,89 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.slack.channel.history;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.util.StringUtils;
+
+import ai.yda.framework.session.core.HistorySummarizer;
+
+/**
+ * Summarizes the earlier messages of a Slack conversation with the chat model. The summary is a
+ * {@link SystemMessage}, so that it precedes the recent messages in the history of the Query.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class ChatClientHistorySummarizer implements HistorySummarizer<Message> {
+
+    private static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+
+    private static final PromptTemplate PROMPT_TEMPLATE = new PromptTemplate(
+            """
+			Update the summary of a conversation with the new messages below.
+			Keep the facts, decisions and open questions the conversation may refer to later, and stay concise.
+
+			Current summary:
+			{summary}
+
+			New messages:
+			{messages}
+
+			Updated summary:
+			""");
+
+    private final ChatClient chatClient;
+
+    public ChatClientHistorySummarizer(final ChatClient.Builder chatClientBuilder) {
+        this.chatClient = chatClientBuilder.build();
+    }
+
+    @Override
+    public Message summarize(final Message previousSummary, final List<Message> messages) {
+        var currentSummary = previousSummary != null ? stripPrefix(previousSummary.getText()) : "";
+        var summary = chatClient
+                .prompt()
+                .user(user -> user.text(PROMPT_TEMPLATE.getTemplate())
+                        .param("summary", currentSummary)
+                        .param("messages", format(messages)))
+                .call()
+                .content();
+        if (!StringUtils.hasText(summary)) {
+            return previousSummary;
+        }
+        return new SystemMessage(SUMMARY_PREFIX + summary);
+    }
+
+    private String stripPrefix(final String summary) {
+        return summary.startsWith(SUMMARY_PREFIX) ? summary.substring(SUMMARY_PREFIX.length()) : summary;
+    }
+
+    private String format(final List<Message> messages) {
+        return messages.stream()
+                .map(message -> "%s: %s".formatted(message.getMessageType(), message.getText()))
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -20,27 +20,20 @@
 package ai.yda.framework.slack.channel.processor;
 
 import java.util.Collections;
-import java.util.List;
 
-import com.slack.api.model.Message;
-
-import org.springframework.ai.chat.messages.AssistantMessage;
-import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.rag.Query;
 import org.springframework.stereotype.Component;
 
 import ai.yda.framework.core.assistant.query.QueryProcessor;
+import ai.yda.framework.session.core.ConversationHistory;
 
 @Component
-public class SlackQueryProcessor implements QueryProcessor<String, List<Message>> {
+public class SlackQueryProcessor implements QueryProcessor<String, ConversationHistory<Message>> {
 
     @Override
-    public Query processQuery(String query, List<Message> history) {
-        var messages = history.parallelStream()
-                .map(message -> message.getBotId() != null
-                        ? (org.springframework.ai.chat.messages.Message) new AssistantMessage(message.getText())
-                        : new UserMessage(message.getText()))
-                .toList();
-        return new Query(query, messages, Collections.emptyMap());
+    public Query processQuery(String query, ConversationHistory<Message> history) {
+        // The history is compacted by the ConversationHistoryStore already, the summary comes first
+        return new Query(query, history.toList(), Collections.emptyMap());
     }
 }
@@ -0,0 +1,177 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.slack.channel.executor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConversationExecutorTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    void runsTasksOfConversationOneAtATimeInSubmissionOrder() throws InterruptedException {
+        try (var executor = ConversationExecutor.builder().maxConcurrency(4).build()) {
+            var order = new CopyOnWriteArrayList<Integer>();
+            var running = new AtomicInteger();
+            var overlapped = new AtomicBoolean();
+            var done = new CountDownLatch(200);
+            for (var i = 0; i < 100; i++) {
+                var index = i;
+                executor.execute("first", () -> {
+                    if (running.incrementAndGet() > 1) {
+                        overlapped.set(true);
+                    }
+                    order.add(index);
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+                executor.execute("second", done::countDown);
+            }
+
+            assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            var expected = new ArrayList<Integer>();
+            for (var i = 0; i < 100; i++) {
+                expected.add(i);
+            }
+            assertEquals(expected, order);
+            assertFalse(overlapped.get());
+        }
+    }
+
+    @Test
+    void runsConversationsInParallel() throws InterruptedException {
+        try (var executor = ConversationExecutor.builder().maxConcurrency(2).build()) {
+            var otherConversationRan = new CountDownLatch(1);
+            var done = new CountDownLatch(1);
+            executor.execute("blocked", () -> {
+                try {
+                    if (otherConversationRan.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                        done.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute("other", otherConversationRan::countDown);
+
+            assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void rejectsTasksBeyondMaxQueuedTasks() throws InterruptedException {
+        var release = new CountDownLatch(1);
+        try (var executor = ConversationExecutor.builder()
+                .maxConcurrency(1)
+                .maxQueuedTasks(2)
+                .build()) {
+            var started = new CountDownLatch(1);
+            executor.execute("conversation", () -> {
+                started.countDown();
+                awaitQuietly(release);
+            });
+            assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            executor.execute("conversation", () -> {});
+            executor.execute("other", () -> {});
+
+            assertThrows(RejectedExecutionException.class, () -> executor.execute("third", () -> {}));
+            assertEquals(2, executor.getQueuedTaskCount());
+            assertEquals(1, executor.getRejectedTaskCount());
+            release.countDown();
+        }
+    }
+
+    @Test
+    void keepsRunningConversationAfterFailedTask() throws InterruptedException {
+        try (var executor = ConversationExecutor.builder().maxConcurrency(1).build()) {
+            var done = new CountDownLatch(1);
+            executor.execute("conversation", () -> {
+                throw new IllegalStateException("Failed");
+            });
+            executor.execute("conversation", done::countDown);
+
+            assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void completesSubmittedTasksOnCloseAndRejectsLaterOnes() {
+        var completed = new AtomicInteger();
+        var executor = ConversationExecutor.builder()
+                .maxConcurrency(2)
+                .shutdownTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                .build();
+        for (var i = 0; i < 20; i++) {
+            executor.execute("conversation-" + i % 3, () -> {
+                sleepQuietly(5);
+                completed.incrementAndGet();
+            });
+        }
+
+        executor.close();
+
+        assertEquals(20, completed.get());
+        assertEquals(20, executor.getCompletedTaskCount());
+        assertEquals(0, executor.getQueuedTaskCount());
+        assertEquals(0, executor.getActiveConversationCount());
+        assertThrows(RejectedExecutionException.class, () -> executor.execute("conversation-0", () -> {}));
+        assertEquals(1, executor.getRejectedTaskCount());
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ConversationExecutor.builder().maxConcurrency(0).build());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ConversationExecutor.builder().maxQueuedTasks(-1).build());
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepQuietly(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.core.assistant;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.ai.rag.Query;
+
+/**
+ * Represents an Assistant that processes Requests without blocking the calling thread. The Response is delivered
+ * through a {@link CompletableFuture}, so Channels can release their threads while the Request is in flight.
+ *
+ * @param <QUERY>    the generic type of the query from the User.
+ * @param <RESPONSE> the generic type of the Response that will be generated based on the given Request.
+ * @author Nikita Litvinov
+ * @see Assistant
+ * @since 0.2.0
+ */
+public interface AsyncAssistant<QUERY extends Query, RESPONSE> {
+
+    /**
+     * Processes the given Request asynchronously.
+     *
+     * @param query the Request to be processed.
+     * @return a {@link CompletableFuture} completed with the Response generated from processing the Request.
+     */
+    CompletableFuture<RESPONSE> assistAsync(QUERY query);
+
+    /**
+     * Adapts a synchronous {@link Assistant} by running it on the given {@link Executor}. The adapted Assistant still
+     * occupies a thread of the Executor for the whole processing.
+     *
+     * @param assistant  the {@link Assistant} to adapt.
+     * @param executor   the {@link Executor} running the blocking processing.
+     * @param <QUERY>    the generic type of the Request.
+     * @param <RESPONSE> the generic type of the Response.
+     * @return the asynchronous view of the {@link Assistant}.
+     */
+    static <QUERY extends Query, RESPONSE> AsyncAssistant<QUERY, RESPONSE> of(
+            final Assistant<QUERY, RESPONSE> assistant, final Executor executor) {
+        return query -> CompletableFuture.supplyAsync(() -> assistant.assist(query), executor);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.core.assistant;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.AsyncRag;
+import ai.yda.framework.rag.core.model.RagResponse;
+import ai.yda.framework.rag.core.observation.RagObservations;
+
+/**
+ * Represents a RAG Assistant that asynchronously processes a {@link Query} and returns a {@link CompletableFuture} of
+ * the corresponding {@link RagResponse}.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@Slf4j
+public class AsyncRagAssistant implements AsyncAssistant<Query, RagResponse> {
+
+    /**
+     * The {@link AsyncRag} instance responsible for asynchronous RAG processing.
+     */
+    private final AsyncRag<Query, RagResponse> asyncRag;
+
+    /**
+     * The {@link ObservationRegistry} reporting each assisted Request as the root span of its trace.
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Constructs a new {@link AsyncRagAssistant} instance.
+     *
+     * @param asyncRag the {@link AsyncRag} instance used for asynchronous request-response processing.
+     */
+    public AsyncRagAssistant(final AsyncRag<Query, RagResponse> asyncRag) {
+        this(asyncRag, ObservationRegistry.NOOP);
+    }
+
+    /**
+     * Constructs a new {@link AsyncRagAssistant} instance that observes each assisted Request.
+     *
+     * @param asyncRag            the {@link AsyncRag} instance used for asynchronous request-response processing.
+     * @param observationRegistry the {@link ObservationRegistry} reporting each assisted Request.
+     */
+    public AsyncRagAssistant(
+            final AsyncRag<Query, RagResponse> asyncRag, final ObservationRegistry observationRegistry) {
+        this.asyncRag = asyncRag;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Processes the given {@link Query} asynchronously by delegating to the {@link AsyncRag#doRagAsync(Query)} method.
+     *
+     * @param query the {@link Query} to be processed.
+     * @return a {@link CompletableFuture} completed with the {@link RagResponse} generated from processing the
+     * request.
+     */
+    @Override
+    public CompletableFuture<RagResponse> assistAsync(final Query query) {
+        if (log.isDebugEnabled()) {
+            log.debug("Processing request asynchronously: {}", query);
+        }
+        var observation = RagObservations.create(RagObservations.ASSISTANT, observationRegistry)
+                .start();
+        try (var scope = observation.openScope()) {
+            return asyncRag.doRagAsync(query).whenComplete((response, e) -> {
+                if (e != null) {
+                    observation.error(e);
+                }
+                observation.stop();
+            });
+        }
+    }
+}
@@ -19,12 +19,16 @@
 */
 package ai.yda.framework.core.assistant;
 
+import java.util.List;
+
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.ai.rag.Query;
 
 import ai.yda.framework.rag.core.Rag;
 import ai.yda.framework.rag.core.model.RagResponse;
+import ai.yda.framework.rag.core.observation.RagObservations;
 
 /**
  * Represents a RAG Assistant that synchronously processes a {@link Query} and returns a corresponding
@@ -41,13 +45,29 @@ public class RagAssistant implements Assistant<Query, RagResponse> {
      */
     private final Rag<Query, RagResponse> rag;
 
+    /**
+     * The {@link ObservationRegistry} reporting each assisted Request as the root span of its trace.
+     */
+    private final ObservationRegistry observationRegistry;
+
     /**
      * Constructs a new {@link RagAssistant} instance.
      *
      * @param rag the {@link Rag} instance used for synchronous request-response processing.
      */
     public RagAssistant(final Rag<Query, RagResponse> rag) {
+        this(rag, ObservationRegistry.NOOP);
+    }
+
+    /**
+     * Constructs a new {@link RagAssistant} instance that observes each assisted Request.
+     *
+     * @param rag                 the {@link Rag} instance used for synchronous request-response processing.
+     * @param observationRegistry the {@link ObservationRegistry} reporting each assisted Request.
+     */
+    public RagAssistant(final Rag<Query, RagResponse> rag, final ObservationRegistry observationRegistry) {
         this.rag = rag;
+        this.observationRegistry = observationRegistry;
     }
 
     /**
@@ -61,6 +81,21 @@ public class RagAssistant implements Assistant<Query, RagResponse> {
         if (log.isDebugEnabled()) {
             log.debug("Processing request: {}", query);
         }
-        return rag.doRag(query);
+        return RagObservations.create(RagObservations.ASSISTANT, observationRegistry)
+                .observe(() -> rag.doRag(query));
+    }
+
+    /**
+     * Processes the given batch of {@link Query} by delegating to the {@link Rag#doRagBatch(List)} method, which
+     * amortizes the retrieval calls across the Requests.
+     *
+     * @param queries the {@link Query} batch to be processed.
+     * @return the {@link RagResponse} generated for each request, in the order of the requests.
+     */
+    public List<RagResponse> assistBatch(final List<Query> queries) {
+        if (log.isDebugEnabled()) {
+            log.debug("Processing batch of {} requests", queries.size());
+        }
+        return rag.doRagBatch(queries);
     }
 }
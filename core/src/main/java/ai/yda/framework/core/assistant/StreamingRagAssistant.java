@@ -19,12 +19,15 @@
 */
 package ai.yda.framework.core.assistant;
 
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
 import reactor.core.publisher.Flux;
 
 import org.springframework.ai.rag.Query;
 
 import ai.yda.framework.rag.core.StreamingRag;
 import ai.yda.framework.rag.core.model.RagResponse;
+import ai.yda.framework.rag.core.observation.RagObservations;
 
 /**
  * Represents a RAG Assistant that processes a {@link Query} and returns a {@link Flux} of {@link RagResponse}
@@ -40,24 +43,50 @@ public class StreamingRagAssistant implements StreamingAssistant<Query, RagRespo
      */
     private final StreamingRag<Query, RagResponse> streamingRag;
 
+    /**
+     * The {@link ObservationRegistry} reporting each assisted Request as the root span of its trace.
+     */
+    private final ObservationRegistry observationRegistry;
+
     /**
      * Constructs a new {@link StreamingRagAssistant} instance.
      *
      * @param streamingRag the {@link StreamingRag} instance used for streaming request-response processing.
      */
     public StreamingRagAssistant(final StreamingRag<Query, RagResponse> streamingRag) {
+        this(streamingRag, ObservationRegistry.NOOP);
+    }
+
+    /**
+     * Constructs a new {@link StreamingRagAssistant} instance that observes each assisted Request.
+     *
+     * @param streamingRag        the {@link StreamingRag} instance used for streaming request-response processing.
+     * @param observationRegistry the {@link ObservationRegistry} reporting each assisted Request.
+     */
+    public StreamingRagAssistant(
+            final StreamingRag<Query, RagResponse> streamingRag, final ObservationRegistry observationRegistry) {
         this.streamingRag = streamingRag;
+        this.observationRegistry = observationRegistry;
     }
 
     /**
      * Processes the given {@link Query} by delegating to the {@link StreamingRag#streamRag(Query)} method
-     * and returns a {@link Flux} of {@link RagResponse}.
+     * and returns a {@link Flux} of {@link RagResponse}. The observation of the Request lasts until the stream
+     * terminates or is cancelled.
      *
      * @param query the {@link Query} to be processed.
      * @return a {@link Flux} stream of {@link RagResponse} objects.
      */
     @Override
     public Flux<RagResponse> streamAssistance(final Query query) {
-        return streamingRag.streamRag(query);
+        return Flux.defer(() -> {
+            var observation = RagObservations.create(RagObservations.ASSISTANT, observationRegistry)
+                    .start();
+            return streamingRag
+                    .streamRag(query)
+                    .doOnError(observation::error)
+                    .doFinally(signalType -> observation.stop())
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
     }
 }
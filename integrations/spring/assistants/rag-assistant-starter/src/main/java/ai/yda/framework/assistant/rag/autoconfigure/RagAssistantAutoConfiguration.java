@@ -19,17 +19,23 @@
 */
 package ai.yda.framework.assistant.rag.autoconfigure;
 
+import io.micrometer.observation.ObservationRegistry;
+
 import org.springframework.ai.rag.Query;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 
+import ai.yda.framework.core.assistant.AsyncRagAssistant;
 import ai.yda.framework.core.assistant.RagAssistant;
+import ai.yda.framework.rag.core.AsyncRag;
 import ai.yda.framework.rag.core.Rag;
 import ai.yda.framework.rag.core.model.RagResponse;
 
 /**
- * Autoconfiguration class for setting up the {@link RagAssistant} bean in a Spring application.
+ * Autoconfiguration class for setting up the {@link RagAssistant} and {@link AsyncRagAssistant} beans in a Spring
+ * application.
  *
  * @author Nikita Litvinov
  * @since 0.1.0
@@ -46,11 +52,28 @@ public class RagAssistantAutoConfiguration {
     /**
      * Creates and configures a {@link RagAssistant} bean in the Spring application context.
      *
-     * @param rag the {@link Rag} instance used by the {@link RagAssistant} to perform its operations.
+     * @param rag                 the {@link Rag} instance used by the {@link RagAssistant} to perform its operations.
+     * @param observationRegistry the {@link ObservationRegistry} reporting each assisted Request, if available.
      * @return a configured {@link RagAssistant} bean.
      */
     @Bean
-    public RagAssistant ragAssistant(final Rag<Query, RagResponse> rag) {
-        return new RagAssistant(rag);
+    public RagAssistant ragAssistant(
+            final Rag<Query, RagResponse> rag, final ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new RagAssistant(rag, observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    /**
+     * Creates and configures an {@link AsyncRagAssistant} bean in the Spring application context.
+     *
+     * @param asyncRag            the {@link AsyncRag} instance used by the {@link AsyncRagAssistant} to perform its
+     *                            operations.
+     * @param observationRegistry the {@link ObservationRegistry} reporting each assisted Request, if available.
+     * @return a configured {@link AsyncRagAssistant} bean.
+     */
+    @Bean
+    public AsyncRagAssistant asyncRagAssistant(
+            final AsyncRag<Query, RagResponse> asyncRag,
+            final ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new AsyncRagAssistant(asyncRag, observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
     }
 }
@@ -19,7 +19,10 @@
 */
 package ai.yda.framework.assistant.rag.autoconfigure;
 
+import io.micrometer.observation.ObservationRegistry;
+
 import org.springframework.ai.rag.Query;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
@@ -48,10 +51,14 @@ public class StreamingRagAssistantAutoConfiguration {
      *
      * @param streamingRag the {@link StreamingRag} instance used by the {@link StreamingRagAssistant} to perform its
      *                     operations.
+     * @param observationRegistry the {@link ObservationRegistry} reporting each assisted Request, if available.
      * @return a configured {@link StreamingRagAssistant} bean.
      */
     @Bean
-    public StreamingRagAssistant streamingAssistant(final StreamingRag<Query, RagResponse> streamingRag) {
-        return new StreamingRagAssistant(streamingRag);
+    public StreamingRagAssistant streamingAssistant(
+            final StreamingRag<Query, RagResponse> streamingRag,
+            final ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new StreamingRagAssistant(
+                streamingRag, observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP));
     }
 }
@@ -92,8 +92,10 @@ public class ReasoningCompressionQueryTransformer extends CompressionQueryTransf
         }
 
         return history.stream()
+                // The history may start with the rolling summary of the earlier conversation as a system message
                 .filter(message -> message.getMessageType().equals(MessageType.USER)
-                        || message.getMessageType().equals(MessageType.ASSISTANT))
+                        || message.getMessageType().equals(MessageType.ASSISTANT)
+                        || message.getMessageType().equals(MessageType.SYSTEM))
                 .map(message -> "%s: %s".formatted(message.getMessageType(), message.getText()))
                 .collect(Collectors.joining("\n"));
     }
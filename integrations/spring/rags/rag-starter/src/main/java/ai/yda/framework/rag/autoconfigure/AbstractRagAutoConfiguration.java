@@ -19,12 +19,208 @@
 */
 package ai.yda.framework.rag.autoconfigure;
 
+import java.util.List;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 
+import ai.yda.framework.rag.core.executor.RetrievalExecutor;
+import ai.yda.framework.rag.core.fusion.DocumentFuser;
+import ai.yda.framework.rag.core.fusion.MinHashDeduplicator;
+import ai.yda.framework.rag.core.fusion.ReciprocalRankFusion;
+import ai.yda.framework.rag.core.generator.CircuitBreakerPolicy;
+import ai.yda.framework.rag.core.metrics.RagMetrics;
+import ai.yda.framework.rag.core.retriever.BaseRetriever;
+import ai.yda.framework.rag.core.retriever.RetrievalPolicy;
+import ai.yda.framework.rag.core.routing.CentroidRetrieverRouter;
+import ai.yda.framework.rag.core.routing.KeywordRetrieverRouter;
+import ai.yda.framework.rag.core.routing.RetrieverRouter;
+import ai.yda.framework.rag.core.util.TokenEstimator;
+
 public abstract class AbstractRagAutoConfiguration {
 
+    /**
+     * Creates a {@link RetrievalPolicy} bean from the retrieval deadline and Retriever timeouts defined in
+     * {@link RagProperties}.
+     *
+     * @param ragProperties the {@link RagProperties} of the RAG process.
+     * @return a configured {@link RetrievalPolicy} instance.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RetrievalPolicy retrievalPolicy(final RagProperties ragProperties) {
+        return RetrievalPolicy.builder()
+                .deadline(ragProperties.getRetrievalDeadline())
+                .retrieverTimeouts(ragProperties.getRetrieverTimeouts())
+                .build();
+    }
+
+    /**
+     * Creates a {@link RetrievalExecutor} bean running the blocking Retriever calls in the mode and with the bounds
+     * defined in {@link RetrievalExecutorProperties}.
+     *
+     * @param executorProperties the {@link RetrievalExecutorProperties} of the executor.
+     * @return a configured {@link RetrievalExecutor} instance.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RetrievalExecutor retrievalExecutor(final RetrievalExecutorProperties executorProperties) {
+        return RetrievalExecutor.create(
+                executorProperties.getMode(),
+                executorProperties.getMaxThreads(),
+                executorProperties.getQueueCapacity());
+    }
+
+    /**
+     * Creates a {@link RagMetrics} bean publishing the meters of the RAG process to the {@link MeterRegistry} bean, or
+     * discarding them if there is none. The bean is also set on every {@link BaseRetriever} bean and publishes the
+     * gauges of the {@link RetrievalExecutor} bean.
+     *
+     * @param meterRegistry     the {@link MeterRegistry} bean, if any.
+     * @param retrievalExecutor the {@link RetrievalExecutor} bean running the blocking Retriever calls.
+     * @param retrievers        the list of {@link BaseRetriever} beans.
+     * @return a configured {@link RagMetrics} instance.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RagMetrics ragMetrics(
+            final ObjectProvider<MeterRegistry> meterRegistry,
+            final RetrievalExecutor retrievalExecutor,
+            final List<BaseRetriever> retrievers) {
+        var registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return RagMetrics.NOOP;
+        }
+        var ragMetrics = new RagMetrics(registry);
+        ragMetrics.bindRetrievalExecutor(retrievalExecutor);
+        retrievers.forEach(retriever -> retriever.setRagMetrics(ragMetrics));
+        return ragMetrics;
+    }
+
+    /**
+     * Creates a {@link CircuitBreakerPolicy} bean protecting the generator as defined in
+     * {@link CircuitBreakerProperties}. The bean is created only if the circuit breaker is enabled.
+     *
+     * @param circuitBreakerProperties the {@link CircuitBreakerProperties} of the circuit breaker.
+     * @return a configured {@link CircuitBreakerPolicy} instance.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = CircuitBreakerProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true")
+    public CircuitBreakerPolicy circuitBreakerPolicy(final CircuitBreakerProperties circuitBreakerProperties) {
+        return CircuitBreakerPolicy.builder()
+                .timeout(circuitBreakerProperties.getTimeout())
+                .failureRateThreshold(circuitBreakerProperties.getFailureRateThreshold())
+                .slowCallRateThreshold(circuitBreakerProperties.getSlowCallRateThreshold())
+                .slowCallDuration(circuitBreakerProperties.getSlowCallDuration())
+                .windowSize(circuitBreakerProperties.getWindowSize())
+                .minimumCalls(circuitBreakerProperties.getMinimumCalls())
+                .openDuration(circuitBreakerProperties.getOpenDuration())
+                .halfOpenCalls(circuitBreakerProperties.getHalfOpenCalls())
+                .build();
+    }
+
+    /**
+     * Resolves the {@link ObservationRegistry} bean reporting the stages of the RAG process, falling back to
+     * {@link ObservationRegistry#NOOP} if there is none, and sets it on every {@link BaseRetriever} bean so that the
+     * Retriever calls join the trace of the Request.
+     *
+     * @param observationRegistry the {@link ObservationRegistry} bean, if any.
+     * @param retrievers          the list of {@link BaseRetriever} beans.
+     * @return the resolved {@link ObservationRegistry}.
+     */
+    protected ObservationRegistry observationRegistry(
+            final ObjectProvider<ObservationRegistry> observationRegistry, final List<BaseRetriever> retrievers) {
+        var registry = observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP);
+        retrievers.forEach(retriever -> retriever.setObservationRegistry(registry));
+        return registry;
+    }
+
+    /**
+     * Creates a {@link DocumentFuser} bean merging the Documents of all Retrievers as defined in
+     * {@link FusionProperties}: with {@link ReciprocalRankFusion} when fusion is enabled, otherwise by concatenation.
+     *
+     * @param fusionProperties the {@link FusionProperties} of the fusion stage.
+     * @return a configured {@link DocumentFuser} instance.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DocumentFuser documentFuser(final FusionProperties fusionProperties) {
+        if (!fusionProperties.getEnabled()) {
+            return DocumentFuser.CONCATENATION;
+        }
+        var deduplicator = fusionProperties.getDeduplicationEnabled()
+                ? new MinHashDeduplicator(
+                        MinHashDeduplicator.DEFAULT_NUM_HASHES,
+                        MinHashDeduplicator.DEFAULT_SHINGLE_SIZE,
+                        fusionProperties.getSimilarityThreshold())
+                : null;
+        return new ReciprocalRankFusion(fusionProperties.getRankConstant(), fusionProperties.getTopN(), deduplicator);
+    }
+
+    /**
+     * Creates a {@link RetrieverRouter} bean from the keywords and sample texts defined in {@link RoutingProperties}.
+     * Keyword routing is tried first, followed by routing on the similarity to the sample texts if an
+     * {@link EmbeddingModel} bean is present.
+     *
+     * @param routingProperties the {@link RoutingProperties} of the routing stage.
+     * @param embeddingModel    the {@link EmbeddingModel} bean used to embed the Request and the samples, if any.
+     * @return a configured {@link RetrieverRouter} instance, {@link RetrieverRouter#ALL} if routing is not configured.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public RetrieverRouter retrieverRouter(
+            final RoutingProperties routingProperties, final ObjectProvider<EmbeddingModel> embeddingModel) {
+        var router = RetrieverRouter.ALL;
+        if (!routingProperties.getKeywords().isEmpty()) {
+            router = new KeywordRetrieverRouter(routingProperties.getKeywords());
+        }
+        var model = embeddingModel.getIfAvailable();
+        if (model != null && !routingProperties.getSamples().isEmpty()) {
+            router = router.orElse(new CentroidRetrieverRouter(
+                    model,
+                    routingProperties.getSamples(),
+                    routingProperties.getMinSimilarity(),
+                    routingProperties.getMargin()));
+        }
+        return router;
+    }
+
+    /**
+     * Creates a {@link TokenEstimator} bean approximating the token count of the augmented Request. Define a bean
+     * wrapping the tokenizer of the model in use for exact counts.
+     *
+     * @return the default {@link TokenEstimator}.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public TokenEstimator tokenEstimator() {
+        return TokenEstimator.DEFAULT;
+    }
+
+    /**
+     * Creates a {@link MetadataContextualQueryAugmenter} bean packing the Context into the token budget defined in
+     * {@link AugmenterProperties}.
+     *
+     * @param augmenterProperties the {@link AugmenterProperties} of the augmenter.
+     * @param tokenEstimator      the {@link TokenEstimator} used to measure the Context.
+     * @return a configured {@link MetadataContextualQueryAugmenter} instance.
+     */
     @Bean
-    public MetadataContextualQueryAugmenter contextualQueryAugmenter() {
-        return MetadataContextualQueryAugmenter.builder().build();
+    public MetadataContextualQueryAugmenter contextualQueryAugmenter(
+            final AugmenterProperties augmenterProperties, final TokenEstimator tokenEstimator) {
+        return MetadataContextualQueryAugmenter.builder()
+                .maxTokens(augmenterProperties.getMaxTokens())
+                .maxDocumentTokens(augmenterProperties.getMaxDocumentTokens())
+                .maxMetadataValueLength(augmenterProperties.getMaxMetadataValueLength())
+                .excludedMetadataKeys(augmenterProperties.getExcludedMetadataKeys())
+                .tokenEstimator(tokenEstimator)
+                .build();
     }
 }
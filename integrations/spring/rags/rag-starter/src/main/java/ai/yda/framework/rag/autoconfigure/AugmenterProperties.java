@@ -0,0 +1,77 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.autoconfigure;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Provides configuration properties for the {@link MetadataContextualQueryAugmenter}. When {@code maxTokens} is set,
+ * the retrieved Documents are packed so that the augmented Request fits this token budget; otherwise all Documents are
+ * added to the Context in full.
+ * <p>
+ * The properties are prefixed with {@link #CONFIG_PREFIX} and can be customized by defining values under this prefix
+ * in the external configuration.
+ * <pre>
+ * Example configuration in a YAML file:
+ * ai:
+ *    yda:
+ *      framework:
+ *         rag:
+ *            augmenter:
+ *                maxTokens: 4000
+ *                maxDocumentTokens: 800
+ *                maxMetadataValueLength: 256
+ *                excludedMetadataKeys: distance
+ * </pre>
+ *
+ * @author Nikita Litvinov
+ * @see MetadataContextualQueryAugmenter
+ * @since 0.2.0
+ */
+@Getter
+@Setter
+@ConfigurationProperties(AugmenterProperties.CONFIG_PREFIX)
+public class AugmenterProperties {
+
+    /**
+     * The configuration prefix used to reference properties related to the {@link MetadataContextualQueryAugmenter}
+     * in application configurations. This prefix is used for binding properties within the particular namespace.
+     */
+    public static final String CONFIG_PREFIX = RagProperties.CONFIG_PREFIX + ".augmenter";
+
+    private Integer maxTokens;
+
+    private Integer maxDocumentTokens;
+
+    private Integer maxMetadataValueLength = 256;
+
+    private Set<String> excludedMetadataKeys = new HashSet<>(Set.of("distance"));
+
+    /**
+     * Default constructor for {@link AugmenterProperties}.
+     */
+    public AugmenterProperties() {}
+}
@@ -0,0 +1,99 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.autoconfigure;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import ai.yda.framework.rag.core.generator.CircuitBreakerPolicy;
+
+/**
+ * Provides configuration properties for the {@link CircuitBreakerPolicy} protecting the generator. These properties
+ * can be customized through the application’s external configuration, such as a properties file, YAML file, or
+ * environment variables. The circuit breaker is disabled by default. When enabled, every generator call is bounded by
+ * the timeout and the circuit opens once the rate of failed or slow calls in the rolling window reaches its
+ * threshold. Rejected and failed calls are answered by the generator bean named by {@code fallbackGenerator}, if
+ * set; the primary generator bean should then be marked as {@code @Primary}.
+ * <p>
+ * The properties are prefixed with {@link #CONFIG_PREFIX} and can be customized by defining values under this prefix
+ * in the external configuration.
+ * <pre>
+ * Example configuration in a YAML file:
+ * ai:
+ *    yda:
+ *      framework:
+ *         rag:
+ *            circuitBreaker:
+ *                enabled: true/false
+ *                timeout: 60s
+ *                failureRateThreshold: 0.5
+ *                slowCallRateThreshold: 0.5
+ *                slowCallDuration: 20s
+ *                windowSize: 50
+ *                minimumCalls: 10
+ *                openDuration: 30s
+ *                halfOpenCalls: 3
+ *                fallbackGenerator: fallbackChatGenerator
+ * </pre>
+ *
+ * @author Nikita Litvinov
+ * @see CircuitBreakerPolicy
+ * @since 0.2.0
+ */
+@Getter
+@Setter
+@ConfigurationProperties(CircuitBreakerProperties.CONFIG_PREFIX)
+public class CircuitBreakerProperties {
+
+    /**
+     * The configuration prefix used to reference properties related to the {@link CircuitBreakerPolicy} in
+     * application configurations. This prefix is used for binding properties within the particular namespace.
+     */
+    public static final String CONFIG_PREFIX = RagProperties.CONFIG_PREFIX + ".circuit-breaker";
+
+    private Boolean enabled = Boolean.FALSE;
+
+    private Duration timeout = CircuitBreakerPolicy.DEFAULT_TIMEOUT;
+
+    private Double failureRateThreshold = CircuitBreakerPolicy.DEFAULT_FAILURE_RATE_THRESHOLD;
+
+    private Double slowCallRateThreshold = CircuitBreakerPolicy.DEFAULT_SLOW_CALL_RATE_THRESHOLD;
+
+    private Duration slowCallDuration = CircuitBreakerPolicy.DEFAULT_SLOW_CALL_DURATION;
+
+    private Integer windowSize = CircuitBreakerPolicy.DEFAULT_WINDOW_SIZE;
+
+    private Integer minimumCalls = CircuitBreakerPolicy.DEFAULT_MINIMUM_CALLS;
+
+    private Duration openDuration = CircuitBreakerPolicy.DEFAULT_OPEN_DURATION;
+
+    private Integer halfOpenCalls = CircuitBreakerPolicy.DEFAULT_HALF_OPEN_CALLS;
+
+    private String fallbackGenerator;
+
+    /**
+     * Default constructor for {@link CircuitBreakerProperties}.
+     */
+    public CircuitBreakerProperties() {}
+}
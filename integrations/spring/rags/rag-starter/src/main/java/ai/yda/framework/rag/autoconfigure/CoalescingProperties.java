@@ -0,0 +1,77 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.autoconfigure;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import ai.yda.framework.rag.core.generator.ResponseCoalescer;
+
+/**
+ * Provides configuration properties for the {@link ResponseCoalescer} merging the streamed Response deltas. These
+ * properties can be customized through the application’s external configuration, such as a properties file, YAML
+ * file, or environment variables. Coalescing is disabled by default. When enabled, the deltas are buffered until
+ * they reach {@code maxCharacters} or {@code maxDelay} passes, whichever comes first; the first token is always
+ * emitted immediately.
+ * <p>
+ * The properties are prefixed with {@link #CONFIG_PREFIX} and can be customized by defining values under this prefix
+ * in the external configuration.
+ * <pre>
+ * Example configuration in a YAML file:
+ * ai:
+ *    yda:
+ *      framework:
+ *         rag:
+ *            coalescing:
+ *                enabled: true/false
+ *                maxCharacters: 64
+ *                maxDelay: 50ms
+ * </pre>
+ *
+ * @author Nikita Litvinov
+ * @see ResponseCoalescer
+ * @since 0.2.0
+ */
+@Getter
+@Setter
+@ConfigurationProperties(CoalescingProperties.CONFIG_PREFIX)
+public class CoalescingProperties {
+
+    /**
+     * The configuration prefix used to reference properties related to the {@link ResponseCoalescer} in application
+     * configurations. This prefix is used for binding properties within the particular namespace.
+     */
+    public static final String CONFIG_PREFIX = RagProperties.CONFIG_PREFIX + ".coalescing";
+
+    private Boolean enabled = Boolean.FALSE;
+
+    private Integer maxCharacters = 64;
+
+    private Duration maxDelay = Duration.ofMillis(50);
+
+    /**
+     * Default constructor for {@link CoalescingProperties}.
+     */
+    public CoalescingProperties() {}
+}
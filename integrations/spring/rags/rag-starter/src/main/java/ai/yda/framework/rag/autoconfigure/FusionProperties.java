@@ -0,0 +1,81 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.autoconfigure;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import ai.yda.framework.rag.core.fusion.MinHashDeduplicator;
+import ai.yda.framework.rag.core.fusion.ReciprocalRankFusion;
+
+/**
+ * Provides configuration properties for the fusion of the Documents returned by several Retrievers. When fusion is
+ * disabled the Documents are concatenated in the order of the Retrievers. When enabled they are merged with
+ * {@link ReciprocalRankFusion}, near-duplicates are removed if deduplication is enabled, and only the top
+ * {@code topN} Documents are passed to the Query Augmenters.
+ * <p>
+ * The properties are prefixed with {@link #CONFIG_PREFIX} and can be customized by defining values under this prefix
+ * in the external configuration.
+ * <pre>
+ * Example configuration in a YAML file:
+ * ai:
+ *    yda:
+ *      framework:
+ *         rag:
+ *            fusion:
+ *                enabled: true/false
+ *                rankConstant: 60
+ *                topN: 10
+ *                deduplicationEnabled: true/false
+ *                similarityThreshold: 0.85
+ * </pre>
+ *
+ * @author Nikita Litvinov
+ * @see ReciprocalRankFusion
+ * @since 0.2.0
+ */
+@Getter
+@Setter
+@ConfigurationProperties(FusionProperties.CONFIG_PREFIX)
+public class FusionProperties {
+
+    /**
+     * The configuration prefix used to reference properties related to the fusion of retrieved Documents in
+     * application configurations. This prefix is used for binding properties within the particular namespace.
+     */
+    public static final String CONFIG_PREFIX = RagProperties.CONFIG_PREFIX + ".fusion";
+
+    private Boolean enabled = Boolean.FALSE;
+
+    private Integer rankConstant = ReciprocalRankFusion.DEFAULT_RANK_CONSTANT;
+
+    private Integer topN = 10;
+
+    private Boolean deduplicationEnabled = Boolean.TRUE;
+
+    private Double similarityThreshold = MinHashDeduplicator.DEFAULT_SIMILARITY_THRESHOLD;
+
+    /**
+     * Default constructor for {@link FusionProperties}.
+     */
+    public FusionProperties() {}
+}
@@ -16,9 +16,10 @@
 
 package ai.yda.framework.rag.autoconfigure;
 
+import java.nio.CharBuffer;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,14 +32,24 @@ import org.springframework.ai.util.PromptAssert;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
+import ai.yda.framework.rag.core.util.TokenEstimator;
+
 /**
  * Augments the user query with contextual data from the content of the provided
  * documents.
  *
  * <p>
+ * When a token budget is set, the context is packed so that the augmented query fits it: documents are taken greedily
+ * in the order they are given, i.e. the fused ranking of the retrievers, the text of a document is truncated to the
+ * per-document limit or to the remaining budget, and metadata is trimmed of excluded keys and overly long values.
+ * Token counts are estimated with the configured {@link TokenEstimator}. Without a budget all documents are included
+ * in full.
+ *
+ * <p>
  * Example usage: <pre>{@code
  * QueryAugmenter augmenter = ContextualQueryAugmenter.builder()
  *    .allowEmptyContext(false)
+ *    .maxTokens(4000)
  *    .build();
  * Query augmentedQuery = augmenter.augment(query, documents);
  * }</pre>
@@ -78,26 +89,79 @@ public final class MetadataContextualQueryAugmenter implements QueryAugmenter {
 
     private static final boolean DEFAULT_ALLOW_EMPTY_CONTEXT = false;
 
+    private static final int DEFAULT_MAX_METADATA_VALUE_LENGTH = 256;
+
+    /**
+     * Documents are not truncated below this number of tokens; a shorter remainder is not worth its metadata.
+     */
+    private static final int MIN_DOCUMENT_TOKENS = 16;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final String TRUNCATION_MARKER = "...";
+
     private final PromptTemplate promptTemplate;
 
     private final PromptTemplate emptyContextPromptTemplate;
 
     private final boolean allowEmptyContext;
 
+    private final int maxTokens;
+
+    private final int maxDocumentTokens;
+
+    private final int maxMetadataValueLength;
+
+    private final Set<String> excludedMetadataKeys;
+
+    private final TokenEstimator tokenEstimator;
+
     public MetadataContextualQueryAugmenter(
             @Nullable PromptTemplate promptTemplate,
             @Nullable PromptTemplate emptyContextPromptTemplate,
             @Nullable Boolean allowEmptyContext) {
+        this(promptTemplate, emptyContextPromptTemplate, allowEmptyContext, null, null, null, null, null);
+    }
+
+    /**
+     * @param maxTokens              the token budget of the augmented query, {@code null} or non-positive for no limit.
+     * @param maxDocumentTokens      the maximum number of text tokens per document when packing, at least 16,
+     *                               {@code null} or non-positive for no limit.
+     * @param maxMetadataValueLength the maximum number of characters of a metadata value when packing, {@code null} for
+     *                               the default, non-positive for no limit.
+     * @param excludedMetadataKeys   the metadata keys left out of the context when packing.
+     * @param tokenEstimator         the {@link TokenEstimator}, {@link TokenEstimator#DEFAULT} if {@code null}.
+     */
+    public MetadataContextualQueryAugmenter(
+            @Nullable PromptTemplate promptTemplate,
+            @Nullable PromptTemplate emptyContextPromptTemplate,
+            @Nullable Boolean allowEmptyContext,
+            @Nullable Integer maxTokens,
+            @Nullable Integer maxDocumentTokens,
+            @Nullable Integer maxMetadataValueLength,
+            @Nullable Set<String> excludedMetadataKeys,
+            @Nullable TokenEstimator tokenEstimator) {
         this.promptTemplate = promptTemplate != null ? promptTemplate : DEFAULT_PROMPT_TEMPLATE;
         this.emptyContextPromptTemplate =
                 emptyContextPromptTemplate != null ? emptyContextPromptTemplate : DEFAULT_EMPTY_CONTEXT_PROMPT_TEMPLATE;
         this.allowEmptyContext = allowEmptyContext != null ? allowEmptyContext : DEFAULT_ALLOW_EMPTY_CONTEXT;
+        this.maxTokens = maxTokens != null ? Math.max(maxTokens, 0) : 0;
+        this.maxDocumentTokens = maxDocumentTokens != null && maxDocumentTokens > 0
+                ? Math.max(maxDocumentTokens, MIN_DOCUMENT_TOKENS)
+                : Integer.MAX_VALUE;
+        this.maxMetadataValueLength = maxMetadataValueLength == null
+                ? DEFAULT_MAX_METADATA_VALUE_LENGTH
+                : maxMetadataValueLength > 0 ? maxMetadataValueLength : Integer.MAX_VALUE;
+        this.excludedMetadataKeys = excludedMetadataKeys != null ? Set.copyOf(excludedMetadataKeys) : Set.of();
+        this.tokenEstimator = tokenEstimator != null ? tokenEstimator : TokenEstimator.DEFAULT;
         PromptAssert.templateHasRequiredPlaceholders(this.promptTemplate, "query", "context");
     }
 
     /**
      * <p>
-     *     <strong>Note:</strong> This method has been modified from the original class to include metadata in the context.
+     *     <strong>Note:</strong> This method has been modified from the original class to include metadata in the
+     *     context and to pack the context into the token budget. It is a temporary replacement until Spring AI
+     *     introduces the necessary changes.
      * </p>
      */
 
@@ -112,14 +176,13 @@ public final class MetadataContextualQueryAugmenter implements QueryAugmenter {
             return augmentQueryWhenEmptyContext(query);
         }
 
-        // 1. Collect content from documents.
-        String documentContext = documents.stream()
-                .map(Document::getFormattedContent)
-                .collect(Collectors.joining(System.lineSeparator()));
+        // 1. Collect content from documents, packed into the token budget if there is one.
+        String documentContext = this.maxTokens > 0 ? packContext(query, documents) : joinContext(documents);
 
-        logger.warn("This is a temporary replacement for the original class MetadataContextualQueryAugmenter,"
-                + " which adds metadata to the context. It should be removed as soon as Spring AI introduces the "
-                + "necessary changes.");
+        if (documentContext.isEmpty()) {
+            logger.debug("No document fits the token budget of {} tokens.", this.maxTokens);
+            return augmentQueryWhenEmptyContext(query);
+        }
 
         // 2. Define prompt parameters.
         Map<String, Object> promptParameters = Map.of("query", query.text(), "context", documentContext);
@@ -128,6 +191,99 @@ public final class MetadataContextualQueryAugmenter implements QueryAugmenter {
         return new Query(this.promptTemplate.render(promptParameters));
     }
 
+    private String joinContext(List<Document> documents) {
+        StringBuilder context = new StringBuilder();
+        for (Document document : documents) {
+            if (!context.isEmpty()) {
+                context.append(LINE_SEPARATOR);
+            }
+            context.append(document.getFormattedContent());
+        }
+        return context.toString();
+    }
+
+    private String packContext(Query query, List<Document> documents) {
+        int remaining = this.maxTokens
+                - this.tokenEstimator.estimate(this.promptTemplate.getTemplate())
+                - this.tokenEstimator.estimate(query.text());
+        int separatorTokens = this.tokenEstimator.estimate(LINE_SEPARATOR);
+
+        StringBuilder context = new StringBuilder();
+        StringBuilder header = new StringBuilder();
+        for (Document document : documents) {
+            int separator = context.isEmpty() ? 0 : separatorTokens;
+            if (remaining - separator < MIN_DOCUMENT_TOKENS) {
+                break;
+            }
+
+            header.setLength(0);
+            appendMetadata(header, document);
+            int headerTokens = this.tokenEstimator.estimate(header);
+            String text = document.getText() != null ? document.getText() : "";
+            int available = Math.min(remaining - separator - headerTokens, this.maxDocumentTokens);
+            if (available < MIN_DOCUMENT_TOKENS && available < this.tokenEstimator.estimate(text)) {
+                // A smaller document further down the ranking may still fit.
+                continue;
+            }
+
+            int end = fit(text, available);
+            if (separator > 0) {
+                context.append(LINE_SEPARATOR);
+            }
+            context.append(header).append(text, 0, end);
+            remaining -= separator + headerTokens + this.tokenEstimator.estimate(CharBuffer.wrap(text, 0, end));
+        }
+        return context.toString();
+    }
+
+    /**
+     * Renders the metadata like the default content formatter does, leaving out excluded keys and truncating values.
+     */
+    private void appendMetadata(StringBuilder header, Document document) {
+        for (Map.Entry<String, Object> entry : document.getMetadata().entrySet()) {
+            if (entry.getValue() == null || this.excludedMetadataKeys.contains(entry.getKey())) {
+                continue;
+            }
+            String value = String.valueOf(entry.getValue());
+            header.append(entry.getKey()).append(": ");
+            if (value.length() > this.maxMetadataValueLength) {
+                header.append(value, 0, this.maxMetadataValueLength).append(TRUNCATION_MARKER);
+            } else {
+                header.append(value);
+            }
+            header.append(LINE_SEPARATOR);
+        }
+        if (!header.isEmpty()) {
+            header.append(LINE_SEPARATOR);
+        }
+    }
+
+    /**
+     * Returns the length of the longest prefix of the text that fits the given number of tokens, cut at a word
+     * boundary where possible.
+     */
+    private int fit(String text, int tokens) {
+        if (this.tokenEstimator.estimate(text) <= tokens) {
+            return text.length();
+        }
+        int low = 0;
+        int high = text.length();
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (this.tokenEstimator.estimate(CharBuffer.wrap(text, 0, mid)) <= tokens) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        for (int end = low; end > low / 2; end--) {
+            if (Character.isWhitespace(text.charAt(end - 1))) {
+                return end - 1;
+            }
+        }
+        return low;
+    }
+
     private Query augmentQueryWhenEmptyContext(Query query) {
         if (this.allowEmptyContext) {
             logger.debug("Empty context is allowed. Returning the original query.");
@@ -149,6 +305,16 @@ public final class MetadataContextualQueryAugmenter implements QueryAugmenter {
 
         private Boolean allowEmptyContext;
 
+        private Integer maxTokens;
+
+        private Integer maxDocumentTokens;
+
+        private Integer maxMetadataValueLength;
+
+        private Set<String> excludedMetadataKeys;
+
+        private TokenEstimator tokenEstimator;
+
         public Builder promptTemplate(PromptTemplate promptTemplate) {
             this.promptTemplate = promptTemplate;
             return this;
@@ -164,9 +330,41 @@ public final class MetadataContextualQueryAugmenter implements QueryAugmenter {
             return this;
         }
 
+        public Builder maxTokens(Integer maxTokens) {
+            this.maxTokens = maxTokens;
+            return this;
+        }
+
+        public Builder maxDocumentTokens(Integer maxDocumentTokens) {
+            this.maxDocumentTokens = maxDocumentTokens;
+            return this;
+        }
+
+        public Builder maxMetadataValueLength(Integer maxMetadataValueLength) {
+            this.maxMetadataValueLength = maxMetadataValueLength;
+            return this;
+        }
+
+        public Builder excludedMetadataKeys(Set<String> excludedMetadataKeys) {
+            this.excludedMetadataKeys = excludedMetadataKeys;
+            return this;
+        }
+
+        public Builder tokenEstimator(TokenEstimator tokenEstimator) {
+            this.tokenEstimator = tokenEstimator;
+            return this;
+        }
+
         public MetadataContextualQueryAugmenter build() {
             return new MetadataContextualQueryAugmenter(
-                    this.promptTemplate, this.emptyContextPromptTemplate, this.allowEmptyContext);
+                    this.promptTemplate,
+                    this.emptyContextPromptTemplate,
+                    this.allowEmptyContext,
+                    this.maxTokens,
+                    this.maxDocumentTokens,
+                    this.maxMetadataValueLength,
+                    this.excludedMetadataKeys,
+                    this.tokenEstimator);
         }
     }
 }
@@ -20,29 +20,73 @@
 package ai.yda.framework.rag.autoconfigure;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 
+import ai.yda.framework.rag.core.BaseAsyncRag;
 import ai.yda.framework.rag.core.BaseRag;
+import ai.yda.framework.rag.core.cache.SemanticCache;
+import ai.yda.framework.rag.core.cache.SemanticCachingRag;
+import ai.yda.framework.rag.core.executor.ContextPropagatingExecutor;
+import ai.yda.framework.rag.core.executor.RetrievalExecutor;
+import ai.yda.framework.rag.core.fusion.DocumentFuser;
+import ai.yda.framework.rag.core.generator.AsyncGenerator;
+import ai.yda.framework.rag.core.generator.CircuitBreakerPolicy;
 import ai.yda.framework.rag.core.generator.Generator;
+import ai.yda.framework.rag.core.generator.ResilientGenerator;
+import ai.yda.framework.rag.core.metrics.RagMetrics;
 import ai.yda.framework.rag.core.model.RagResponse;
 import ai.yda.framework.rag.core.retriever.BaseRetriever;
+import ai.yda.framework.rag.core.retriever.RetrievalPolicy;
+import ai.yda.framework.rag.core.routing.RetrieverRouter;
 
 /**
- * Autoconfiguration class for setting up a {@link BaseRag} bean in the RAG framework.
+ * Autoconfiguration class for setting up {@link BaseRag} and {@link BaseAsyncRag} beans in the RAG framework.
  *
  * @author Nikita Litvinov
  * @since 0.1.0
  */
 @AutoConfiguration
+@EnableConfigurationProperties({
+    RagProperties.class,
+    RetrievalExecutorProperties.class,
+    FusionProperties.class,
+    AugmenterProperties.class,
+    RoutingProperties.class,
+    SemanticCacheProperties.class,
+    CircuitBreakerProperties.class
+})
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RagAutoConfiguration extends AbstractRagAutoConfiguration {
 
+    /**
+     * The name of the bean of the generator shared by the {@link BaseRag} and {@link BaseAsyncRag} beans.
+     */
+    public static final String RESILIENT_GENERATOR_BEAN_NAME = "resilientGenerator";
+
+    /**
+     * Runs the blocking generations of the {@link BaseAsyncRag} bean on the bounded elastic Reactor scheduler, as
+     * {@link BaseRag} does for batches, so that they neither starve the {@link RetrievalExecutor} nor run on the
+     * calling thread. The context of the Request, such as the current Observation, is propagated to them.
+     */
+    private static final Executor GENERATION_EXECUTOR =
+            ContextPropagatingExecutor.wrap(task -> Schedulers.boundedElastic().schedule(task));
+
     /**
      * Default constructor for {@link RagAutoConfiguration}.
      */
@@ -51,16 +95,157 @@ public class RagAutoConfiguration extends AbstractRagAutoConfiguration {
     /**
      * Creates and configures a {@link BaseRag} bean.
      *
-     * @param retrievers          the list of {@link DocumentRetriever} beans for retrieving Context based on the Request.
+     * @param retrievers          the list of {@link DocumentRetriever} beans for retrieving Context based on the
+     *                            Request.
      * @param augmenters          the list of {@link QueryAugmenter} beans for enhancing the retrieved Context.
-     * @param generator           the {@link Generator} bean for generating Responses based on the augmented Context.
+     * @param retrievalPolicy     the {@link RetrievalPolicy} bean bounding the time spent on retrieving Context.
+     * @param retrievalExecutor   the {@link RetrievalExecutor} bean running the blocking Retriever calls.
+     * @param documentFuser       the {@link DocumentFuser} bean merging the Documents of all Retrievers.
+     * @param retrieverRouter     the {@link RetrieverRouter} bean selecting the Retrievers queried for a Request.
+     * @param ragMetrics          the {@link RagMetrics} bean recording the time spent in the stages of the RAG process.
+     * @param ragProperties       the {@link RagProperties} defining the concurrency of batch generations.
+     * @param observationRegistry the {@link ObservationRegistry} bean reporting the stages of the RAG process, if any.
+     * @param beanFactory         the {@link BeanFactory} the {@link #RESILIENT_GENERATOR_BEAN_NAME} bean is looked up
+     *                            in.
      * @return a configured {@link BaseRag} instance.
      */
     @Bean
     public BaseRag rag(
             final List<BaseRetriever> retrievers,
             final List<QueryAugmenter> augmenters,
-            final Generator<Query, RagResponse> generator) {
-        return new BaseRag(retrievers, augmenters, generator);
+            final RetrievalPolicy retrievalPolicy,
+            final RetrievalExecutor retrievalExecutor,
+            final DocumentFuser documentFuser,
+            final RetrieverRouter retrieverRouter,
+            final RagMetrics ragMetrics,
+            final RagProperties ragProperties,
+            final ObjectProvider<ObservationRegistry> observationRegistry,
+            final BeanFactory beanFactory) {
+        return BaseRag.builder()
+                .retrievers(retrievers)
+                .augmenters(augmenters)
+                .generator(getResilientGenerator(beanFactory))
+                .retrievalPolicy(retrievalPolicy)
+                .retrievalExecutor(retrievalExecutor)
+                .documentFuser(documentFuser)
+                .retrieverRouter(retrieverRouter)
+                .ragMetrics(ragMetrics)
+                .batchConcurrency(ragProperties.getBatchConcurrency())
+                .observationRegistry(observationRegistry(observationRegistry, retrievers))
+                .build();
+    }
+
+    /**
+     * Creates and configures a {@link BaseAsyncRag} bean sharing the collaborators of the {@link BaseRag} bean. If the
+     * {@link Generator} bean is also an {@link AsyncGenerator}, it is used as is; otherwise the blocking generation is
+     * run on a bounded elastic scheduler, apart from the {@link RetrievalExecutor}.
+     *
+     * @param retrievers          the list of {@link DocumentRetriever} beans for retrieving Context based on the
+     *                            Request.
+     * @param augmenters          the list of {@link QueryAugmenter} beans for enhancing the retrieved Context.
+     * @param retrievalPolicy     the {@link RetrievalPolicy} bean bounding the time spent on retrieving Context.
+     * @param retrievalExecutor   the {@link RetrievalExecutor} bean running the blocking Retriever calls.
+     * @param documentFuser       the {@link DocumentFuser} bean merging the Documents of all Retrievers.
+     * @param retrieverRouter     the {@link RetrieverRouter} bean selecting the Retrievers queried for a Request.
+     * @param ragMetrics          the {@link RagMetrics} bean recording the time spent in the stages of the RAG process.
+     * @param observationRegistry the {@link ObservationRegistry} bean reporting the stages of the RAG process, if any.
+     * @param beanFactory         the {@link BeanFactory} the {@link #RESILIENT_GENERATOR_BEAN_NAME} bean is looked up
+     *                            in.
+     * @return a configured {@link BaseAsyncRag} instance.
+     */
+    @Bean
+    public BaseAsyncRag asyncRag(
+            final List<BaseRetriever> retrievers,
+            final List<QueryAugmenter> augmenters,
+            final RetrievalPolicy retrievalPolicy,
+            final RetrievalExecutor retrievalExecutor,
+            final DocumentFuser documentFuser,
+            final RetrieverRouter retrieverRouter,
+            final RagMetrics ragMetrics,
+            final ObjectProvider<ObservationRegistry> observationRegistry,
+            final BeanFactory beanFactory) {
+        return BaseAsyncRag.builder()
+                .retrievers(retrievers)
+                .augmenters(augmenters)
+                .generator(AsyncGenerator.of(getResilientGenerator(beanFactory), GENERATION_EXECUTOR))
+                .retrievalPolicy(retrievalPolicy)
+                .retrievalExecutor(retrievalExecutor)
+                .documentFuser(documentFuser)
+                .retrieverRouter(retrieverRouter)
+                .ragMetrics(ragMetrics)
+                .observationRegistry(observationRegistry(observationRegistry, retrievers))
+                .build();
+    }
+
+    /**
+     * Creates the generator shared by the {@link BaseRag} and {@link BaseAsyncRag} beans, so that the generator is
+     * wrapped and its {@link CircuitBreakerPolicy} metrics are bound only once. The {@link Generator} bean is wrapped
+     * in a {@link ResilientGenerator} if the {@link CircuitBreakerPolicy} bean is present, falling back to the
+     * generator bean named in {@link CircuitBreakerProperties}, if any; otherwise it is returned as is.
+     * <p>
+     * The bean is not a candidate for autowiring, so that injecting the {@link Generator} bean stays unambiguous; it is
+     * looked up by its name, {@link #RESILIENT_GENERATOR_BEAN_NAME}.
+     * </p>
+     *
+     * @param generator                the {@link Generator} bean to protect.
+     * @param circuitBreakerPolicy     the {@link CircuitBreakerPolicy} bean protecting the generator, if enabled.
+     * @param circuitBreakerProperties the {@link CircuitBreakerProperties} naming the fallback generator bean.
+     * @param ragMetrics               the {@link RagMetrics} bean publishing the state of the circuit breaker.
+     * @param beanFactory              the {@link BeanFactory} the fallback generator bean is looked up in.
+     * @return the {@link ResilientGenerator}, or the {@link Generator} bean if the circuit breaker is disabled.
+     */
+    @SuppressWarnings("unchecked")
+    @Bean(name = RESILIENT_GENERATOR_BEAN_NAME, autowireCandidate = false, destroyMethod = "")
+    public Generator<Query, RagResponse> resilientGenerator(
+            final Generator<Query, RagResponse> generator,
+            final ObjectProvider<CircuitBreakerPolicy> circuitBreakerPolicy,
+            final CircuitBreakerProperties circuitBreakerProperties,
+            final RagMetrics ragMetrics,
+            final BeanFactory beanFactory) {
+        var policy = circuitBreakerPolicy.getIfAvailable();
+        if (policy == null) {
+            return generator;
+        }
+        ragMetrics.bindCircuitBreakerPolicy(generator.getClass().getSimpleName(), policy);
+        var fallbackGeneratorName = circuitBreakerProperties.getFallbackGenerator();
+        var fallbackGenerator = fallbackGeneratorName != null
+                ? (Generator<Query, RagResponse>) beanFactory.getBean(fallbackGeneratorName, Generator.class)
+                : null;
+        return new ResilientGenerator<>(generator, fallbackGenerator, policy);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Generator<Query, RagResponse> getResilientGenerator(final BeanFactory beanFactory) {
+        return (Generator<Query, RagResponse>) beanFactory.getBean(RESILIENT_GENERATOR_BEAN_NAME, Generator.class);
+    }
+
+    /**
+     * Creates a {@link SemanticCachingRag} bean wrapping the {@link BaseRag} bean with a {@link SemanticCache}. The
+     * bean is created only if the cache is enabled and takes precedence over the {@link BaseRag} bean when a
+     * {@link ai.yda.framework.rag.core.Rag} is injected. The cache is bypassed if the {@link Generator} bean keeps the
+     * conversation in the Session.
+     *
+     * @param rag                     the {@link BaseRag} bean to wrap.
+     * @param generator               the {@link Generator} bean of the {@link BaseRag} bean.
+     * @param embeddingModel          the {@link EmbeddingModel} bean used to embed the Request text.
+     * @param semanticCacheProperties the {@link SemanticCacheProperties} of the cache.
+     * @param ragMetrics              the {@link RagMetrics} bean publishing the counters of the cache.
+     * @return a configured {@link SemanticCachingRag} instance.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = SemanticCacheProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true")
+    public SemanticCachingRag semanticCachingRag(
+            final BaseRag rag,
+            final Generator<Query, RagResponse> generator,
+            final EmbeddingModel embeddingModel,
+            final SemanticCacheProperties semanticCacheProperties,
+            final RagMetrics ragMetrics) {
+        var cache = new SemanticCache<RagResponse>(
+                semanticCacheProperties.getSimilarityThreshold(),
+                semanticCacheProperties.getTimeToLive(),
+                semanticCacheProperties.getMaxSize());
+        ragMetrics.bindSemanticCache("rag", cache);
+        return new SemanticCachingRag(rag, embeddingModel, cache, generator.isStateful());
     }
 }
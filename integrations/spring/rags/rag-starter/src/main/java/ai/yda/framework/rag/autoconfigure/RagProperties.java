@@ -0,0 +1,80 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.autoconfigure;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import ai.yda.framework.rag.core.BaseRag;
+import ai.yda.framework.rag.core.retriever.RetrievalPolicy;
+
+/**
+ * Provides configuration properties for the RAG process. These properties can be customized through the application’s
+ * external configuration, such as a properties file, YAML file, or environment variables. The properties include the
+ * retrieval deadline of a single Request, the timeouts of particular Retrievers, keyed by the Retriever name, and the
+ * maximum number of Responses of a batch generated concurrently.
+ * <p>
+ * The properties are prefixed with {@link #CONFIG_PREFIX} and can be customized by defining values under this prefix
+ * in the external configuration.
+ * <pre>
+ * Example configuration in a YAML file:
+ * ai:
+ *    yda:
+ *      framework:
+ *         rag:
+ *            retrievalDeadline: 5s
+ *            retrieverTimeouts:
+ *                GoogleDriveRetriever: 3s
+ *                FilesystemRetriever: 1s
+ *            batchConcurrency: 4
+ * </pre>
+ *
+ * @author Nikita Litvinov
+ * @see RetrievalPolicy
+ * @since 0.2.0
+ */
+@Getter
+@Setter
+@ConfigurationProperties(RagProperties.CONFIG_PREFIX)
+public class RagProperties {
+
+    /**
+     * The configuration prefix used to reference properties related to the RAG process in application configurations.
+     * This prefix is used for binding properties within the particular namespace.
+     */
+    public static final String CONFIG_PREFIX = "ai.yda.framework.rag";
+
+    private Duration retrievalDeadline;
+
+    private Map<String, Duration> retrieverTimeouts = new HashMap<>();
+
+    private int batchConcurrency = BaseRag.DEFAULT_BATCH_CONCURRENCY;
+
+    /**
+     * Default constructor for {@link RagProperties}.
+     */
+    public RagProperties() {}
+}
@@ -0,0 +1,73 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.autoconfigure;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import ai.yda.framework.rag.core.executor.RetrievalExecutor;
+
+/**
+ * Provides configuration properties for the {@link RetrievalExecutor} running the blocking Retriever calls and
+ * Document ingestion. These properties can be customized through the application’s external configuration, such as a
+ * properties file, YAML file, or environment variables.
+ * <p>
+ * The properties are prefixed with {@link #CONFIG_PREFIX} and can be customized by defining values under this prefix
+ * in the external configuration.
+ * <pre>
+ * Example configuration in a YAML file:
+ * ai:
+ *    yda:
+ *      framework:
+ *         rag:
+ *            executor:
+ *                mode: platform/virtual
+ *                maxThreads: 64
+ *                queueCapacity: 1000
+ * </pre>
+ *
+ * @author Nikita Litvinov
+ * @see RetrievalExecutor
+ * @since 0.2.0
+ */
+@Getter
+@Setter
+@ConfigurationProperties(RetrievalExecutorProperties.CONFIG_PREFIX)
+public class RetrievalExecutorProperties {
+
+    /**
+     * The configuration prefix used to reference properties related to the {@link RetrievalExecutor} in application
+     * configurations. This prefix is used for binding properties within the particular namespace.
+     */
+    public static final String CONFIG_PREFIX = RagProperties.CONFIG_PREFIX + ".executor";
+
+    private RetrievalExecutor.Mode mode = RetrievalExecutor.Mode.PLATFORM;
+
+    private Integer maxThreads = RetrievalExecutor.DEFAULT_MAX_THREADS;
+
+    private Integer queueCapacity = RetrievalExecutor.DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     * Default constructor for {@link RetrievalExecutorProperties}.
+     */
+    public RetrievalExecutorProperties() {}
+}
@@ -0,0 +1,87 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.autoconfigure;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import ai.yda.framework.rag.core.routing.CentroidRetrieverRouter;
+import ai.yda.framework.rag.core.routing.KeywordRetrieverRouter;
+
+/**
+ * Provides configuration properties for routing Requests to a subset of the Retrievers. Both maps are keyed by the
+ * Retriever name, which is the simple class name of the Retriever by default. Keywords are checked first; if the
+ * Request mentions none of them, it is routed by the similarity to the sample texts of each Retriever, which requires
+ * an {@code EmbeddingModel} bean. When neither signal is confident, all Retrievers are queried. Routing is disabled
+ * while both maps are empty.
+ * <p>
+ * The properties are prefixed with {@link #CONFIG_PREFIX} and can be customized by defining values under this prefix
+ * in the external configuration.
+ * <pre>
+ * Example configuration in a YAML file:
+ * ai:
+ *    yda:
+ *      framework:
+ *         rag:
+ *            routing:
+ *                keywords:
+ *                    GoogleDriveRetriever: spreadsheet, invoice, drive
+ *                samples:
+ *                    WebsiteRetriever: pricing plans, product features
+ *                    FilesystemRetriever: employee handbook, vacation policy
+ *                minSimilarity: 0.3
+ *                margin: 0.05
+ * </pre>
+ *
+ * @author Nikita Litvinov
+ * @see KeywordRetrieverRouter
+ * @see CentroidRetrieverRouter
+ * @since 0.2.0
+ */
+@Getter
+@Setter
+@ConfigurationProperties(RoutingProperties.CONFIG_PREFIX)
+public class RoutingProperties {
+
+    /**
+     * The configuration prefix used to reference properties related to the routing of Requests in application
+     * configurations. This prefix is used for binding properties within the particular namespace.
+     */
+    public static final String CONFIG_PREFIX = RagProperties.CONFIG_PREFIX + ".routing";
+
+    private Map<String, List<String>> keywords = new HashMap<>();
+
+    private Map<String, List<String>> samples = new HashMap<>();
+
+    private Double minSimilarity = CentroidRetrieverRouter.DEFAULT_MIN_SIMILARITY;
+
+    private Double margin = CentroidRetrieverRouter.DEFAULT_MARGIN;
+
+    /**
+     * Default constructor for {@link RoutingProperties}.
+     */
+    public RoutingProperties() {}
+}
@@ -0,0 +1,78 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.autoconfigure;
+
+import java.time.Duration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import ai.yda.framework.rag.core.cache.SemanticCache;
+
+/**
+ * Provides configuration properties for the {@link SemanticCache} of generated Responses. These properties can be
+ * customized through the application’s external configuration, such as a properties file, YAML file, or environment
+ * variables. The cache is disabled by default and requires an {@code EmbeddingModel} bean when enabled.
+ * <p>
+ * The properties are prefixed with {@link #CONFIG_PREFIX} and can be customized by defining values under this prefix
+ * in the external configuration.
+ * <pre>
+ * Example configuration in a YAML file:
+ * ai:
+ *    yda:
+ *      framework:
+ *         rag:
+ *            cache:
+ *                enabled: true/false
+ *                similarityThreshold: 0.95
+ *                timeToLive: 1h
+ *                maxSize: 1000
+ * </pre>
+ *
+ * @author Nikita Litvinov
+ * @see SemanticCache
+ * @since 0.2.0
+ */
+@Getter
+@Setter
+@ConfigurationProperties(SemanticCacheProperties.CONFIG_PREFIX)
+public class SemanticCacheProperties {
+
+    /**
+     * The configuration prefix used to reference properties related to the {@link SemanticCache} in application
+     * configurations. This prefix is used for binding properties within the particular namespace.
+     */
+    public static final String CONFIG_PREFIX = RagProperties.CONFIG_PREFIX + ".cache";
+
+    private Boolean enabled = Boolean.FALSE;
+
+    private Double similarityThreshold = 0.95;
+
+    private Duration timeToLive = Duration.ofHours(1);
+
+    private Integer maxSize = 1000;
+
+    /**
+     * Default constructor for {@link SemanticCacheProperties}.
+     */
+    public SemanticCacheProperties() {}
+}
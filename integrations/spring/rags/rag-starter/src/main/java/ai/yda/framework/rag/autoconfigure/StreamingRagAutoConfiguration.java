@@ -21,17 +21,36 @@ package ai.yda.framework.rag.autoconfigure;
 
 import java.util.List;
 
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 
 import ai.yda.framework.rag.core.BaseStreamingRag;
+import ai.yda.framework.rag.core.cache.SemanticCache;
+import ai.yda.framework.rag.core.cache.SemanticCachingStreamingRag;
+import ai.yda.framework.rag.core.executor.RetrievalExecutor;
+import ai.yda.framework.rag.core.fusion.DocumentFuser;
+import ai.yda.framework.rag.core.generator.CircuitBreakerPolicy;
+import ai.yda.framework.rag.core.generator.ResilientStreamingGenerator;
+import ai.yda.framework.rag.core.generator.ResponseCoalescer;
 import ai.yda.framework.rag.core.generator.StreamingGenerator;
+import ai.yda.framework.rag.core.metrics.RagMetrics;
 import ai.yda.framework.rag.core.model.RagResponse;
 import ai.yda.framework.rag.core.retriever.BaseRetriever;
+import ai.yda.framework.rag.core.retriever.RetrievalPolicy;
+import ai.yda.framework.rag.core.routing.RetrieverRouter;
 
 /**
  * Autoconfiguration class for setting up a {@link BaseStreamingRag} bean in the RAG framework.
@@ -40,6 +59,16 @@ import ai.yda.framework.rag.core.retriever.BaseRetriever;
  * @since 0.1.0
  */
 @AutoConfiguration
+@EnableConfigurationProperties({
+    RagProperties.class,
+    RetrievalExecutorProperties.class,
+    FusionProperties.class,
+    AugmenterProperties.class,
+    RoutingProperties.class,
+    SemanticCacheProperties.class,
+    CoalescingProperties.class,
+    CircuitBreakerProperties.class
+})
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
 public class StreamingRagAutoConfiguration extends AbstractRagAutoConfiguration {
 
@@ -55,13 +84,115 @@ public class StreamingRagAutoConfiguration extends AbstractRagAutoConfiguration
      *                           Request.
      * @param augmenters         the list of {@link QueryAugmenter} beans for enhancing the retrieved Context.
      * @param streamingGenerator the {@link StreamingGenerator} bean for generating Responses in a streaming
+     * @param retrievalPolicy    the {@link RetrievalPolicy} bean bounding the time spent on retrieving Context.
+     * @param retrievalExecutor  the {@link RetrievalExecutor} bean running the blocking Retriever calls.
+     * @param documentFuser      the {@link DocumentFuser} bean merging the Documents of all Retrievers.
+     * @param retrieverRouter    the {@link RetrieverRouter} bean selecting the Retrievers queried for a Request.
+     * @param ragMetrics         the {@link RagMetrics} bean recording the time spent in the stages of the RAG process.
+     * @param observationRegistry the {@link ObservationRegistry} bean reporting the stages of the RAG process, if any.
+     * @param responseCoalescer  the {@link ResponseCoalescer} bean merging the streamed Response deltas.
+     * @param circuitBreakerPolicy     the {@link CircuitBreakerPolicy} bean protecting the generator, if enabled.
+     * @param circuitBreakerProperties the {@link CircuitBreakerProperties} naming the fallback generator bean.
+     * @param beanFactory              the {@link BeanFactory} the fallback generator bean is looked up in.
      * @return a configured {@link BaseStreamingRag} instance.
      */
     @Bean
     public BaseStreamingRag defaultStreamingRag(
             final List<BaseRetriever> retrievers,
             final List<QueryAugmenter> augmenters,
-            final StreamingGenerator<Query, RagResponse> streamingGenerator) {
-        return new BaseStreamingRag(retrievers, augmenters, streamingGenerator);
+            final StreamingGenerator<Query, RagResponse> streamingGenerator,
+            final RetrievalPolicy retrievalPolicy,
+            final RetrievalExecutor retrievalExecutor,
+            final DocumentFuser documentFuser,
+            final RetrieverRouter retrieverRouter,
+            final RagMetrics ragMetrics,
+            final ObjectProvider<ObservationRegistry> observationRegistry,
+            final ResponseCoalescer responseCoalescer,
+            final ObjectProvider<CircuitBreakerPolicy> circuitBreakerPolicy,
+            final CircuitBreakerProperties circuitBreakerProperties,
+            final BeanFactory beanFactory) {
+        return BaseStreamingRag.builder()
+                .retrievers(retrievers)
+                .augmenters(augmenters)
+                .streamingGenerator(resilientStreamingGenerator(
+                        streamingGenerator, circuitBreakerPolicy, circuitBreakerProperties, ragMetrics, beanFactory))
+                .retrievalPolicy(retrievalPolicy)
+                .retrievalExecutor(retrievalExecutor)
+                .documentFuser(documentFuser)
+                .retrieverRouter(retrieverRouter)
+                .ragMetrics(ragMetrics)
+                .observationRegistry(observationRegistry(observationRegistry, retrievers))
+                .responseCoalescer(responseCoalescer)
+                .build();
+    }
+
+    /**
+     * Wraps the generator in a {@link ResilientStreamingGenerator} if the {@link CircuitBreakerPolicy} bean is present,
+     * falling back to the streaming generator bean named in {@link CircuitBreakerProperties}, if any.
+     */
+    @SuppressWarnings("unchecked")
+    private StreamingGenerator<Query, RagResponse> resilientStreamingGenerator(
+            final StreamingGenerator<Query, RagResponse> streamingGenerator,
+            final ObjectProvider<CircuitBreakerPolicy> circuitBreakerPolicy,
+            final CircuitBreakerProperties circuitBreakerProperties,
+            final RagMetrics ragMetrics,
+            final BeanFactory beanFactory) {
+        var policy = circuitBreakerPolicy.getIfAvailable();
+        if (policy == null) {
+            return streamingGenerator;
+        }
+        ragMetrics.bindCircuitBreakerPolicy(streamingGenerator.getClass().getSimpleName(), policy);
+        var fallbackGeneratorName = circuitBreakerProperties.getFallbackGenerator();
+        var fallbackGenerator = fallbackGeneratorName != null
+                ? (StreamingGenerator<Query, RagResponse>)
+                        beanFactory.getBean(fallbackGeneratorName, StreamingGenerator.class)
+                : null;
+        return new ResilientStreamingGenerator<>(streamingGenerator, fallbackGenerator, policy);
+    }
+
+    /**
+     * Creates a {@link ResponseCoalescer} bean merging the streamed Response deltas as defined in
+     * {@link CoalescingProperties}: in size and time windows when coalescing is enabled, otherwise not at all.
+     *
+     * @param coalescingProperties the {@link CoalescingProperties} of the coalescing stage.
+     * @return a configured {@link ResponseCoalescer} instance.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ResponseCoalescer responseCoalescer(final CoalescingProperties coalescingProperties) {
+        if (!coalescingProperties.getEnabled()) {
+            return ResponseCoalescer.NONE;
+        }
+        return ResponseCoalescer.windowed(coalescingProperties.getMaxCharacters(), coalescingProperties.getMaxDelay());
+    }
+
+    /**
+     * Creates a {@link SemanticCachingStreamingRag} bean wrapping the {@link BaseStreamingRag} bean with a
+     * {@link SemanticCache}. The bean is created only if the cache is enabled and takes precedence over the
+     * {@link BaseStreamingRag} bean when a {@link ai.yda.framework.rag.core.StreamingRag} is injected. The cache is
+     * bypassed if the {@link StreamingGenerator} bean keeps the conversation in the Session.
+     *
+     * @param streamingRag            the {@link BaseStreamingRag} bean to wrap.
+     * @param streamingGenerator      the {@link StreamingGenerator} bean of the {@link BaseStreamingRag} bean.
+     * @param embeddingModel          the {@link EmbeddingModel} bean used to embed the Request text.
+     * @param semanticCacheProperties the {@link SemanticCacheProperties} of the cache.
+     * @param ragMetrics              the {@link RagMetrics} bean publishing the counters of the cache.
+     * @return a configured {@link SemanticCachingStreamingRag} instance.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = SemanticCacheProperties.CONFIG_PREFIX, name = "enabled", havingValue = "true")
+    public SemanticCachingStreamingRag semanticCachingStreamingRag(
+            final BaseStreamingRag streamingRag,
+            final StreamingGenerator<Query, RagResponse> streamingGenerator,
+            final EmbeddingModel embeddingModel,
+            final SemanticCacheProperties semanticCacheProperties,
+            final RagMetrics ragMetrics) {
+        var cache = new SemanticCache<List<RagResponse>>(
+                semanticCacheProperties.getSimilarityThreshold(),
+                semanticCacheProperties.getTimeToLive(),
+                semanticCacheProperties.getMaxSize());
+        ragMetrics.bindSemanticCache("streaming-rag", cache);
+        return new SemanticCachingStreamingRag(streamingRag, embeddingModel, cache, streamingGenerator.isStateful());
     }
 }
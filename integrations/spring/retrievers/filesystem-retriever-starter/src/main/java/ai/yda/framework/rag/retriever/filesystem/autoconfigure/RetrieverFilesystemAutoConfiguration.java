@@ -19,14 +19,24 @@
 */
 package ai.yda.framework.rag.retriever.filesystem.autoconfigure;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import io.micrometer.observation.ObservationRegistry;
+
 import org.springframework.ai.autoconfigure.openai.OpenAiConnectionProperties;
 import org.springframework.ai.autoconfigure.openai.OpenAiEmbeddingProperties;
 import org.springframework.ai.autoconfigure.vectorstore.milvus.MilvusServiceClientProperties;
 import org.springframework.ai.autoconfigure.vectorstore.milvus.MilvusVectorStoreProperties;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 
+import ai.yda.framework.rag.core.cache.RetrievalCache;
+import ai.yda.framework.rag.core.executor.RetrievalExecutor;
+import ai.yda.framework.rag.core.retriever.HedgingPolicy;
 import ai.yda.framework.rag.retriever.filesystem.FilesystemRetriever;
 import ai.yda.framework.rag.retriever.shared.factory.MilvusVectorStoreFactory;
 
@@ -73,6 +83,11 @@ public class RetrieverFilesystemAutoConfiguration {
      * <p>Combining these properties, the configuration ensures that a fully initialized {@link FilesystemRetriever}
      * is available in the Spring context.</p>
      *
+     * <p>Files are processed on the {@link RetrievalExecutor} bean if one is present, otherwise on the
+     * {@link ForkJoinPool#commonPool()}. The embedding and vector store calls are reported to the
+     * {@link ObservationRegistry} bean, if present. Content is embedded with the {@link EmbeddingModel} bean if a
+     * single one is present, so that the Requests embedded for routing are not embedded again.</p>
+     *
      */
     @Bean
     public FilesystemRetriever filesystemRetriever(
@@ -80,17 +95,33 @@ public class RetrieverFilesystemAutoConfiguration {
             final MilvusVectorStoreProperties milvusProperties,
             final MilvusServiceClientProperties milvusClientProperties,
             final OpenAiConnectionProperties openAiConnectionProperties,
-            final OpenAiEmbeddingProperties openAiEmbeddingProperties) {
+            final OpenAiEmbeddingProperties openAiEmbeddingProperties,
+            final ObjectProvider<EmbeddingModel> embeddingModel,
+            final ObjectProvider<RetrievalExecutor> retrievalExecutor,
+            final ObjectProvider<ObservationRegistry> observationRegistry) {
 
-        return new FilesystemRetriever(
+        Executor processingExecutor = retrievalExecutor.getIfAvailable();
+        var filesystemRetriever = new FilesystemRetriever(
                 MilvusVectorStoreFactory.createInstance(
                         filesystemProperties,
                         milvusProperties,
                         milvusClientProperties,
                         openAiConnectionProperties,
-                        openAiEmbeddingProperties),
+                        openAiEmbeddingProperties,
+                        embeddingModel.getIfUnique(),
+                        observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)),
                 filesystemProperties.getFileStoragePath(),
                 filesystemProperties.getTopK(),
-                filesystemProperties.getIsProcessingEnabled());
+                filesystemProperties.getIsProcessingEnabled(),
+                processingExecutor != null ? processingExecutor : ForkJoinPool.commonPool());
+        if (filesystemProperties.getCacheEnabled()) {
+            filesystemRetriever.setRetrievalCache(new RetrievalCache(
+                    filesystemProperties.getCacheTimeToLive(), filesystemProperties.getCacheMaxSize()));
+        }
+        if (filesystemProperties.getHedgingEnabled()) {
+            filesystemRetriever.setHedgingPolicy(new HedgingPolicy(
+                    filesystemProperties.getHedgingBudget(), filesystemProperties.getHedgingMinDelay(), null));
+        }
+        return filesystemRetriever;
     }
 }
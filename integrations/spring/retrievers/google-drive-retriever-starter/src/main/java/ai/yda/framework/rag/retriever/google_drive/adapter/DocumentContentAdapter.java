@@ -59,7 +59,7 @@ public class DocumentContentAdapter implements DocumentContentPort {
 
     @Override
     public List<Document> getDocumentsByIds(final List<DocumentContentIdDTO> documentContentIdDTOs) {
-        var documentContentIds = documentContentIdDTOs.parallelStream()
+        var documentContentIds = documentContentIdDTOs.stream()
                 .map(DocumentContentIdDTO::contentId)
                 .toList();
         return documentContentMapper.toDocuments(documentContentRepository.findAllById(documentContentIds));
@@ -40,6 +40,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import ai.yda.framework.rag.core.cache.RetrievalCache;
 import ai.yda.framework.rag.retriever.google_drive.GoogleDriveRetriever;
 import ai.yda.framework.rag.retriever.google_drive.adapter.DocumentContentAdapter;
 import ai.yda.framework.rag.retriever.google_drive.adapter.DocumentMetadataAdapter;
@@ -180,7 +181,7 @@ public class RetrieverGoogleDriveAutoConfiguration {
 
         var openAiChatModel =
                 openAiChatModel(openAiConnectionProperties, googleDriveProperties, restClientBuilder, webClientBuilder);
-        return new GoogleDriveRetriever(
+        var googleDriveRetriever = new GoogleDriveRetriever(
                 googleDriveProperties.getIsProcessingEnabled(),
                 ChatClient.create(openAiChatModel),
                 documentMetadataPort,
@@ -194,6 +195,11 @@ public class RetrieverGoogleDriveAutoConfiguration {
                         documentMetadataMapper,
                         new DocumentAiDescriptionService(openAiChatModel)),
                 List.of(compressionQueryTransformer, rewriteQueryTransformer));
+        if (googleDriveProperties.getCacheEnabled()) {
+            googleDriveRetriever.setRetrievalCache(new RetrievalCache(
+                    googleDriveProperties.getCacheTimeToLive(), googleDriveProperties.getCacheMaxSize()));
+        }
+        return googleDriveRetriever;
     }
 
     private OpenAiChatModel openAiChatModel(
@@ -19,6 +19,8 @@
 */
 package ai.yda.framework.rag.retriever.google_drive.autoconfigure;
 
+import java.time.Duration;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -43,6 +45,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  *                    topK: your-top-k
  *                    isProcessingEnabled: true/false
  *                    dropCollectionOnStartup: true/false
+ *                    cacheEnabled: true/false
+ *                    cacheTimeToLive: 10m
+ *                    cacheMaxSize: 1000
  *                    serviceAccountKeyFilePath: your-service-account-key-file-path
  * </pre>
  *
@@ -70,6 +75,12 @@ public class RetrieverGoogleDriveProperties {
 
     private String model = OpenAiChatProperties.DEFAULT_CHAT_MODEL;
 
+    private Boolean cacheEnabled = Boolean.FALSE;
+
+    private Duration cacheTimeToLive = Duration.ofMinutes(10);
+
+    private Integer cacheMaxSize = 1000;
+
     /**
      * Default constructor for {@link RetrieverGoogleDriveProperties}.
      */
@@ -19,13 +19,27 @@
 */
 package ai.yda.framework.rag.retriever.shared;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import io.micrometer.observation.ObservationRegistry;
 import io.milvus.client.MilvusServiceClient;
 import io.milvus.param.collection.DropCollectionParam;
 import io.milvus.param.collection.HasCollectionParam;
+import reactor.core.scheduler.Schedulers;
 
+import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.milvus.MilvusVectorStore;
 
+import ai.yda.framework.rag.core.executor.ContextPropagatingExecutor;
+import ai.yda.framework.rag.core.retriever.BatchSimilaritySearch;
+import ai.yda.framework.rag.core.retriever.PrefetchingEmbeddingModel;
+
 /**
  * An extended implementation of {@link MilvusVectorStore} that provides additional functionality
  * for managing Milvus collections dynamically, including clearing or dropping collections
@@ -35,14 +49,21 @@ import org.springframework.ai.vectorstore.milvus.MilvusVectorStore;
  * control over Milvus collections, such as removing stale data or resetting the collection
  * state upon initialization.</p>
  *
+ * <p>Batches of similarity searches embed all their queries with a single Embedding Model call and then run the
+ * searches concurrently.</p>
+ *
  * @author Iryna Kopchak
  * @see MilvusVectorStore
  * @see MilvusServiceClient
  * @since 0.1.0
  */
-public class RetrieverMilvusVectorStore extends MilvusVectorStore {
+public class RetrieverMilvusVectorStore extends MilvusVectorStore implements BatchSimilaritySearch {
+
+    private static final Executor SEARCH_EXECUTOR =
+            ContextPropagatingExecutor.wrap(task -> Schedulers.boundedElastic().schedule(task));
 
     private final MilvusServiceClient milvusClient;
+    private final PrefetchingEmbeddingModel embeddingModel;
     private final String databaseName;
     private final String collectionName;
     private final boolean dropCollectionOnStartup;
@@ -64,12 +85,62 @@ public class RetrieverMilvusVectorStore extends MilvusVectorStore {
             final String collectionName,
             final String databaseName,
             final boolean dropCollectionOnStartup) {
+        this(
+                milvusClient,
+                embeddingModel,
+                initializeSchema,
+                collectionName,
+                databaseName,
+                dropCollectionOnStartup,
+                ObservationRegistry.NOOP);
+    }
+
+    /**
+     * Constructs a new {@link  RetrieverMilvusVectorStore} instance reporting its queries to the given
+     * {@link ObservationRegistry}.
+     *
+     * @param milvusClient             the client for interacting with the Milvus service.
+     * @param embeddingModel           the model used for embedding document content.
+     * @param initializeSchema         whether to initialize the schema in the database.
+     * @param collectionName           the name of the collection in the Milvus database.
+     * @param databaseName             the name of the database in Milvus.
+     * @param dropCollectionOnStartup  whether to drop the collection entirely on startup.
+     * @param observationRegistry      the registry reporting the vector store queries as spans.
+     */
+    public RetrieverMilvusVectorStore(
+            final MilvusServiceClient milvusClient,
+            final EmbeddingModel embeddingModel,
+            final boolean initializeSchema,
+            final String collectionName,
+            final String databaseName,
+            final boolean dropCollectionOnStartup,
+            final ObservationRegistry observationRegistry) {
+        this(
+                milvusClient,
+                PrefetchingEmbeddingModel.shared(embeddingModel),
+                initializeSchema,
+                collectionName,
+                databaseName,
+                dropCollectionOnStartup,
+                observationRegistry);
+    }
+
+    private RetrieverMilvusVectorStore(
+            final MilvusServiceClient milvusClient,
+            final PrefetchingEmbeddingModel embeddingModel,
+            final boolean initializeSchema,
+            final String collectionName,
+            final String databaseName,
+            final boolean dropCollectionOnStartup,
+            final ObservationRegistry observationRegistry) {
 
         super(MilvusVectorStore.builder(milvusClient, embeddingModel)
                 .initializeSchema(initializeSchema)
                 .collectionName(collectionName)
-                .databaseName(databaseName));
+                .databaseName(databaseName)
+                .observationRegistry(observationRegistry));
         this.milvusClient = milvusClient;
+        this.embeddingModel = embeddingModel;
         this.collectionName = collectionName;
         this.databaseName = databaseName;
         this.dropCollectionOnStartup = dropCollectionOnStartup;
@@ -91,6 +162,38 @@ public class RetrieverMilvusVectorStore extends MilvusVectorStore {
         super.afterPropertiesSet();
     }
 
+    /**
+     * Performs the given similarity searches, embedding the queries of all of them with a single Embedding Model call
+     * beforehand. The searches are sent to Milvus concurrently, so the batch takes about as long as its slowest search
+     * instead of the sum of all of them. Milvus only accepts several vectors in one search when they share the top K,
+     * the filter expression and the similarity threshold, which the requests of a batch are not guaranteed to do.
+     *
+     * @param requests the {@link SearchRequest} instances to perform.
+     * @return the Documents found for each request, in the order of the requests.
+     */
+    @Override
+    public List<List<Document>> similaritySearchBatch(final List<SearchRequest> requests) {
+        try (var ignored = embeddingModel.prefetch(
+                requests.stream().map(SearchRequest::getQuery).toList())) {
+            if (requests.size() == 1) {
+                return List.of(Objects.requireNonNull(similaritySearch(requests.get(0))));
+            }
+
+            var searches = requests.stream()
+                    .map(request -> CompletableFuture.supplyAsync(
+                            () -> Objects.requireNonNull(similaritySearch(request)), SEARCH_EXECUTOR))
+                    .toList();
+            try {
+                CompletableFuture.allOf(searches.toArray(CompletableFuture[]::new))
+                        .join();
+            } catch (CompletionException e) {
+                searches.forEach(search -> search.cancel(false));
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+            return searches.stream().map(CompletableFuture::join).toList();
+        }
+    }
+
     /**
      * Drops the specified Milvus collection if it exists in the database.
      *
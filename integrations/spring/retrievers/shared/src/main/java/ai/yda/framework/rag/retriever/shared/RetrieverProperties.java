@@ -19,6 +19,8 @@
 */
 package ai.yda.framework.rag.retriever.shared;
 
+import java.time.Duration;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -27,7 +29,8 @@ import org.springframework.ai.vectorstore.milvus.MilvusVectorStore;
 
 /**
  * Serves as the parent class for properties related to the Retriever configuration. It provides common settings such as
- * collection name, top K search results, processing enablement, and whether to clear the collection on startup.
+ * collection name, top K search results, processing enablement, whether to clear the collection on startup, the
+ * optional cache of retrieved Documents and the optional hedging of slow searches.
  */
 @Setter
 @Getter
@@ -41,6 +44,18 @@ public class RetrieverProperties {
 
     private Boolean dropCollectionOnStartup = Boolean.FALSE;
 
+    private Boolean cacheEnabled = Boolean.FALSE;
+
+    private Duration cacheTimeToLive = Duration.ofMinutes(10);
+
+    private Integer cacheMaxSize = 1000;
+
+    private Boolean hedgingEnabled = Boolean.FALSE;
+
+    private Double hedgingBudget = 0.05;
+
+    private Duration hedgingMinDelay = Duration.ofMillis(20);
+
     /**
      * Default constructor for {@link RetrieverProperties}.
      */
@@ -19,6 +19,7 @@
 */
 package ai.yda.framework.rag.retriever.shared.factory;
 
+import io.micrometer.observation.ObservationRegistry;
 import io.milvus.client.MilvusServiceClient;
 import io.milvus.param.ConnectParam;
 
@@ -61,6 +62,7 @@ public class MilvusVectorStoreFactory {
      * @param milvusClientProperties      the Milvus client connection properties.
      * @param openAiConnectionProperties  the OpenAI connection properties.
      * @param openAiEmbeddingProperties   the OpenAI embedding model properties.
+     * @param observationRegistry         the registry reporting the embedding and vector store calls as spans.
      * @return a configured instance of {@link RetrieverMilvusVectorStore}.
      * @throws MilvusVectorStoreException if there are errors during creation.
      */
@@ -69,16 +71,55 @@ public class MilvusVectorStoreFactory {
             final MilvusVectorStoreProperties milvusVectorStoreProperties,
             final MilvusServiceClientProperties milvusClientProperties,
             final OpenAiConnectionProperties openAiConnectionProperties,
-            final OpenAiEmbeddingProperties openAiEmbeddingProperties) {
+            final OpenAiEmbeddingProperties openAiEmbeddingProperties,
+            final ObservationRegistry observationRegistry) {
+        return createInstance(
+                retrieverProperties,
+                milvusVectorStoreProperties,
+                milvusClientProperties,
+                openAiConnectionProperties,
+                openAiEmbeddingProperties,
+                null,
+                observationRegistry);
+    }
+
+    /**
+     * Creates a configured instance of {@link RetrieverMilvusVectorStore} embedding with the given
+     * {@link EmbeddingModel}. Vector Stores and routers embedding with the same model share the embeddings of the
+     * Requests, so each Request is embedded once.
+     *
+     * @param retrieverProperties         the retriever-specific properties.
+     * @param milvusVectorStoreProperties the Milvus vector store properties.
+     * @param milvusClientProperties      the Milvus client connection properties.
+     * @param openAiConnectionProperties  the OpenAI connection properties.
+     * @param openAiEmbeddingProperties   the OpenAI embedding model properties.
+     * @param embeddingModel              the model used for embedding, {@code null} to create an OpenAI model from the
+     *                                    properties.
+     * @param observationRegistry         the registry reporting the embedding and vector store calls as spans.
+     * @return a configured instance of {@link RetrieverMilvusVectorStore}.
+     * @throws MilvusVectorStoreException if there are errors during creation.
+     */
+    public static RetrieverMilvusVectorStore createInstance(
+            final RetrieverProperties retrieverProperties,
+            final MilvusVectorStoreProperties milvusVectorStoreProperties,
+            final MilvusServiceClientProperties milvusClientProperties,
+            final OpenAiConnectionProperties openAiConnectionProperties,
+            final OpenAiEmbeddingProperties openAiEmbeddingProperties,
+            final EmbeddingModel embeddingModel,
+            final ObservationRegistry observationRegistry) {
         try {
 
             var vectorStore = new RetrieverMilvusVectorStore(
                     createMilvusClient(milvusClientProperties),
-                    createEmbeddingModel(openAiConnectionProperties, openAiEmbeddingProperties),
+                    embeddingModel != null
+                            ? embeddingModel
+                            : createEmbeddingModel(
+                                    openAiConnectionProperties, openAiEmbeddingProperties, observationRegistry),
                     milvusVectorStoreProperties.isInitializeSchema(),
                     retrieverProperties.getCollectionName(),
                     milvusVectorStoreProperties.getDatabaseName(),
-                    retrieverProperties.getDropCollectionOnStartup());
+                    retrieverProperties.getDropCollectionOnStartup(),
+                    observationRegistry);
 
             // Call lifecycle method explicitly since Spring is not managing this bean
             vectorStore.afterPropertiesSet();
@@ -99,7 +140,8 @@ public class MilvusVectorStoreFactory {
 
     private static EmbeddingModel createEmbeddingModel(
             OpenAiConnectionProperties openAiConnectionProperties,
-            OpenAiEmbeddingProperties openAiEmbeddingProperties) {
+            OpenAiEmbeddingProperties openAiEmbeddingProperties,
+            ObservationRegistry observationRegistry) {
         var openAiApi = new OpenAiApi(openAiConnectionProperties.getApiKey());
         return new OpenAiEmbeddingModel(
                 openAiApi,
@@ -108,6 +150,7 @@ public class MilvusVectorStoreFactory {
                         .model(openAiEmbeddingProperties.getOptions().getModel())
                         .user("user")
                         .build(),
-                RetryUtils.DEFAULT_RETRY_TEMPLATE);
+                RetryUtils.DEFAULT_RETRY_TEMPLATE,
+                observationRegistry);
     }
 }
@@ -19,15 +19,25 @@
 */
 package ai.yda.framework.rag.retriever.website.autoconfigure;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import io.micrometer.observation.ObservationRegistry;
+
 import org.springframework.ai.autoconfigure.openai.OpenAiConnectionProperties;
 import org.springframework.ai.autoconfigure.openai.OpenAiEmbeddingProperties;
 import org.springframework.ai.autoconfigure.vectorstore.milvus.MilvusServiceClientProperties;
 import org.springframework.ai.autoconfigure.vectorstore.milvus.MilvusVectorStoreProperties;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 
+import ai.yda.framework.rag.core.cache.RetrievalCache;
+import ai.yda.framework.rag.core.executor.RetrievalExecutor;
+import ai.yda.framework.rag.core.retriever.HedgingPolicy;
 import ai.yda.framework.rag.retriever.shared.factory.MilvusVectorStoreFactory;
 import ai.yda.framework.rag.retriever.website.WebsiteRetriever;
 import ai.yda.framework.rag.retriever.website.extractor.WebExtractor;
@@ -67,6 +77,11 @@ public class RetrieverWebsiteAutoConfiguration {
      *   <li>{@link MilvusServiceClientProperties}: Specifies connection settings for the Milvus service client.</li>
      *   <li>{@link OpenAiConnectionProperties}: Manages API key and connection details for OpenAI.</li>
      *   <li>{@link OpenAiEmbeddingProperties}: Configures the OpenAI embedding model used for content embedding.</li>
+     *   <li>{@link EmbeddingModel}: Embeds the content instead, if a single such bean is present, so that the
+     *       Requests embedded for routing are not embedded again.</li>
+     *   <li>{@link RetrievalExecutor}: Splits the extracted pages concurrently, if present. Otherwise the
+     *       {@link ForkJoinPool#commonPool()} is used.</li>
+     *   <li>{@link ObservationRegistry}: Reports the embedding and vector store calls as spans, if present.</li>
      * </ul>
      **/
     @Bean
@@ -76,19 +91,35 @@ public class RetrieverWebsiteAutoConfiguration {
             final MilvusVectorStoreProperties milvusProperties,
             final MilvusServiceClientProperties milvusClientProperties,
             final OpenAiConnectionProperties openAiConnectionProperties,
-            final OpenAiEmbeddingProperties openAiEmbeddingProperties) {
+            final OpenAiEmbeddingProperties openAiEmbeddingProperties,
+            final ObjectProvider<EmbeddingModel> embeddingModel,
+            final ObjectProvider<RetrievalExecutor> retrievalExecutor,
+            final ObjectProvider<ObservationRegistry> observationRegistry) {
 
-        return new WebsiteRetriever(
+        Executor processingExecutor = retrievalExecutor.getIfAvailable();
+        var websiteRetriever = new WebsiteRetriever(
                 webExtractor,
                 MilvusVectorStoreFactory.createInstance(
                         websiteProperties,
                         milvusProperties,
                         milvusClientProperties,
                         openAiConnectionProperties,
-                        openAiEmbeddingProperties),
+                        openAiEmbeddingProperties,
+                        embeddingModel.getIfUnique(),
+                        observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)),
                 websiteProperties.getUrl(),
                 websiteProperties.getTopK(),
-                websiteProperties.getIsProcessingEnabled());
+                websiteProperties.getIsProcessingEnabled(),
+                processingExecutor != null ? processingExecutor : ForkJoinPool.commonPool());
+        if (websiteProperties.getCacheEnabled()) {
+            websiteRetriever.setRetrievalCache(
+                    new RetrievalCache(websiteProperties.getCacheTimeToLive(), websiteProperties.getCacheMaxSize()));
+        }
+        if (websiteProperties.getHedgingEnabled()) {
+            websiteRetriever.setHedgingPolicy(new HedgingPolicy(
+                    websiteProperties.getHedgingBudget(), websiteProperties.getHedgingMinDelay(), null));
+        }
+        return websiteRetriever;
     }
 
     /**
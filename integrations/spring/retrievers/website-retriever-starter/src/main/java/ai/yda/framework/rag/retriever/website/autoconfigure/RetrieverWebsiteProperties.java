@@ -45,6 +45,12 @@ import ai.yda.framework.rag.retriever.shared.RetrieverProperties;
  *                    topK: your-top-k
  *                    isProcessingEnabled: true/false
  *                    dropCollectionOnStartup: true/false
+ *                    cacheEnabled: true/false
+ *                    cacheTimeToLive: 10m
+ *                    cacheMaxSize: 1000
+ *                    hedgingEnabled: true/false
+ *                    hedgingBudget: 0.05
+ *                    hedgingMinDelay: 20ms
  *                    url: website-or-sitemap-url
  * </pre>
  *
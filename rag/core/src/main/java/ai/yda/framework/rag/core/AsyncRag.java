@@ -0,0 +1,65 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.model.RagResponse;
+
+/**
+ * Provides a generic mechanism that coordinates the retrieval, augmentation, and generation processes to produce a
+ * final Response based on the Request without blocking the calling thread.
+ *
+ * @param <QUERY>    the generic type of the Request, which must extend {@link Query}.
+ * @param <RESPONSE> the generic type of the Response generated based on the given Request, which must extend
+ *                   {@link RagResponse}.
+ * @author Nikita Litvinov
+ * @see Rag
+ * @since 0.2.0
+ */
+public interface AsyncRag<QUERY extends Query, RESPONSE extends RagResponse> {
+
+    /**
+     * Performs a Retrieval-Augmented Generation (RAG) operation based on the provided Request asynchronously.
+     *
+     * @param query the Request to process.
+     * @return a {@link CompletableFuture} completed with the Response of the RAG operation, or exceptionally if it
+     * fails.
+     */
+    CompletableFuture<RESPONSE> doRagAsync(QUERY query);
+
+    /**
+     * Adapts a synchronous {@link Rag} by running it on the given {@link Executor}. The adapted Rag still occupies a
+     * thread of the Executor for the whole operation.
+     *
+     * @param rag        the {@link Rag} to adapt.
+     * @param executor   the {@link Executor} running the blocking operation.
+     * @param <QUERY>    the generic type of the Request.
+     * @param <RESPONSE> the generic type of the Response.
+     * @return the asynchronous view of the {@link Rag}.
+     */
+    static <QUERY extends Query, RESPONSE extends RagResponse> AsyncRag<QUERY, RESPONSE> of(
+            final Rag<QUERY, RESPONSE> rag, final Executor executor) {
+        return query -> CompletableFuture.supplyAsync(() -> rag.doRag(query), executor);
+    }
+}
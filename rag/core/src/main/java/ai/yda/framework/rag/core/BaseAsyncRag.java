@@ -0,0 +1,336 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
+import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
+
+import ai.yda.framework.rag.core.exception.RetrievalException;
+import ai.yda.framework.rag.core.executor.ContextPropagatingExecutor;
+import ai.yda.framework.rag.core.fusion.DocumentFuser;
+import ai.yda.framework.rag.core.generator.AsyncGenerator;
+import ai.yda.framework.rag.core.metrics.RagMetrics;
+import ai.yda.framework.rag.core.model.RagResponse;
+import ai.yda.framework.rag.core.model.RetrievalResult;
+import ai.yda.framework.rag.core.observation.RagObservations;
+import ai.yda.framework.rag.core.retriever.BaseRetriever;
+import ai.yda.framework.rag.core.retriever.RetrievalPolicy;
+import ai.yda.framework.rag.core.retriever.SharedQueryTransformations;
+import ai.yda.framework.rag.core.routing.RetrieverRouter;
+
+/**
+ * Default implementation of the asynchronous Retrieval-Augmented Generation (RAG) process. The retrieval, augmentation
+ * and generation stages are composed with {@link CompletableFuture} callbacks, so no thread waits for a Retriever or
+ * for the {@link AsyncGenerator} while a Request is in flight.
+ *
+ * @author Nikita Litvinov
+ * @see BaseRag
+ * @since 0.2.0
+ */
+@Getter(AccessLevel.PROTECTED)
+@Slf4j
+public class BaseAsyncRag implements AsyncRag<Query, RagResponse> {
+    /**
+     * The list of {@link DocumentRetriever} instances used to retrieve {@link Document}.
+     */
+    private final List<BaseRetriever> retrievers;
+
+    /**
+     * The list of {@link QueryAugmenter} instances used to modify or enhance the retrieved {@link Query}.
+     */
+    private final List<QueryAugmenter> augmenters;
+
+    /**
+     * The {@link AsyncGenerator} instance responsible for generating the final {@link RagResponse}.
+     */
+    private final AsyncGenerator<Query, RagResponse> generator;
+
+    /**
+     * The {@link RetrievalPolicy} bounding the time spent waiting for the {@link BaseRetriever} instances.
+     */
+    private final RetrievalPolicy retrievalPolicy;
+
+    /**
+     * The {@link Executor} running the blocking {@link BaseRetriever} calls and the augmentation stage.
+     */
+    private final Executor retrievalExecutor;
+
+    /**
+     * The {@link DocumentFuser} merging the Documents returned by the {@link BaseRetriever} instances.
+     */
+    private final DocumentFuser documentFuser;
+
+    /**
+     * The {@link RetrieverRouter} selecting the {@link BaseRetriever} instances queried for a Request.
+     */
+    private final RetrieverRouter retrieverRouter;
+
+    /**
+     * The {@link RagMetrics} recording the time spent in the stages of the RAG process.
+     */
+    private final RagMetrics ragMetrics;
+
+    /**
+     * The {@link ObservationRegistry} reporting the stages of the RAG process as spans of the Request trace.
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Constructs a new {@link BaseAsyncRag} instance. Optional collaborators left {@code null} fall back to their
+     * defaults. Use {@link #builder()} to set only some of them.
+     *
+     * @param retrievers        the list of {@link DocumentRetriever} objects to retrieve {@link Document} data.
+     * @param augmenters        the list of {@link QueryAugmenter} objects to augment the retrieved Contexts.
+     * @param generator         the {@link AsyncGenerator} used to generate the {@link RagResponse}.
+     * @param retrievalPolicy   the {@link RetrievalPolicy} defining the retrieval deadline and per-Retriever timeouts,
+     *                          {@link RetrievalPolicy#UNBOUNDED} by default.
+     * @param retrievalExecutor the {@link Executor} running the blocking Retriever calls, e.g. a
+     *                          {@link ai.yda.framework.rag.core.executor.RetrievalExecutor}. The
+     *                          {@link ForkJoinPool#commonPool()} by default. It is wrapped in a
+     *                          {@link ContextPropagatingExecutor} to keep the Retriever calls in the Request trace.
+     * @param documentFuser     the {@link DocumentFuser} merging the Documents of all Retrievers,
+     *                          {@link DocumentFuser#CONCATENATION} by default.
+     * @param retrieverRouter   the {@link RetrieverRouter} selecting the Retrievers queried for a Request,
+     *                          {@link RetrieverRouter#ALL} by default.
+     * @param ragMetrics        the {@link RagMetrics} recording the time spent in the stages of the RAG process,
+     *                          {@link RagMetrics#NOOP} by default.
+     * @param observationRegistry the {@link ObservationRegistry} reporting the stages of the RAG process,
+     *                            {@link ObservationRegistry#NOOP} by default.
+     */
+    @Builder
+    protected BaseAsyncRag(
+            final List<BaseRetriever> retrievers,
+            final List<QueryAugmenter> augmenters,
+            final AsyncGenerator<Query, RagResponse> generator,
+            final RetrievalPolicy retrievalPolicy,
+            final Executor retrievalExecutor,
+            final DocumentFuser documentFuser,
+            final RetrieverRouter retrieverRouter,
+            final RagMetrics ragMetrics,
+            final ObservationRegistry observationRegistry) {
+        this.retrievers = retrievers;
+        this.augmenters = augmenters;
+        this.generator = generator;
+        this.retrievalPolicy = retrievalPolicy != null ? retrievalPolicy : RetrievalPolicy.UNBOUNDED;
+        this.retrievalExecutor = ContextPropagatingExecutor.wrap(
+                retrievalExecutor != null ? retrievalExecutor : ForkJoinPool.commonPool());
+        this.documentFuser = documentFuser != null ? documentFuser : DocumentFuser.CONCATENATION;
+        this.retrieverRouter = retrieverRouter != null ? retrieverRouter : RetrieverRouter.ALL;
+        this.ragMetrics = ragMetrics != null ? ragMetrics : RagMetrics.NOOP;
+        this.observationRegistry = observationRegistry != null ? observationRegistry : ObservationRegistry.NOOP;
+    }
+
+    /**
+     * Executes the Retrieval-Augmented Generation (RAG) process asynchronously by:
+     * <ul>
+     *     <li>
+     *         Retrieving relevant {@link Document} from the {@link DocumentRetriever} instances selected by the
+     *         {@link RetrieverRouter} within the bounds of the {@link RetrievalPolicy}.
+     *     </li>
+     *     <li>Fusing the retrieved {@link Document} with the {@link DocumentFuser}.</li>
+     *     <li>Augmenting the retrieved Contexts using the provided {@link QueryAugmenter} instances.</li>
+     *     <li>
+     *         Generating the final {@link RagResponse} using the {@link AsyncGenerator}, based on the augmented
+     *         Contexts.
+     *     </li>
+     * </ul>
+     *
+     * @param query the {@link Query} to process.
+     * @return a {@link CompletableFuture} completed with the generated {@link RagResponse}.
+     */
+    @Override
+    public CompletableFuture<RagResponse> doRagAsync(final Query query) {
+        var observation = RagObservations.create(RagObservations.REQUEST, observationRegistry)
+                .start();
+        try (var scope = observation.openScope()) {
+            return retrieveAsync(query)
+                    .thenApplyAsync(
+                            retrievalResult -> augment(query, retrievalResult.getDocuments(), observation),
+                            retrievalExecutor)
+                    .thenCompose(augmentedQuery -> generate(augmentedQuery, observation))
+                    .whenComplete((response, e) -> {
+                        if (e != null) {
+                            observation.error(e);
+                        }
+                        observation.stop();
+                    });
+        }
+    }
+
+    private CompletableFuture<RagResponse> generate(final Query augmentedQuery, final Observation parent) {
+        var observation = RagObservations.create(
+                        RagObservations.GENERATION, "generator", generator, observationRegistry)
+                .parentObservation(parent)
+                .start();
+        var sample = ragMetrics.start();
+        try (var scope = observation.openScope()) {
+            return generator.generateAsync(augmentedQuery).whenComplete((response, e) -> {
+                ragMetrics.recordGeneration(generator, e == null, sample);
+                if (e != null) {
+                    observation.error(e);
+                }
+                observation.stop();
+            });
+        }
+    }
+
+    /**
+     * Runs the routed {@link BaseRetriever} instances concurrently on the retrieval {@link Executor} and completes
+     * with the {@link Document} they return before the deadline of the {@link RetrievalPolicy} passes. Retrievers
+     * exceeding their own timeout or the deadline, or rejected by the saturated Executor, are cut off and recorded in
+     * the resulting {@link RetrievalResult}. No thread is blocked while waiting for the Retrievers.
+     *
+     * @param query the {@link Query} to retrieve Documents for.
+     * @return a {@link CompletableFuture} completed with the {@link RetrievalResult}, or exceptionally with a
+     * {@link RetrievalException} if any of the Retrievers fails or the routing is rejected by the Executor.
+     */
+    protected CompletableFuture<RetrievalResult> retrieveAsync(final Query query) {
+        var deadline = retrievalPolicy
+                .getDeadline()
+                .map(value -> System.nanoTime() + value.toNanos())
+                .orElse(null);
+        CompletableFuture<List<BaseRetriever>> routing;
+        try {
+            routing = CompletableFuture.supplyAsync(() -> route(query), retrievalExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new RetrievalException(e));
+        }
+        return routing.thenCompose(routed -> {
+            var transformations = new SharedQueryTransformations();
+            var futures = new LinkedHashMap<BaseRetriever, CompletableFuture<List<Document>>>();
+            for (var retriever : routed) {
+                var future = submit(retriever, () -> retriever.transformAndRetrieve(query, transformations));
+                retrievalPolicy
+                        .getTimeout(retriever)
+                        .ifPresent(timeout -> future.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS));
+                futures.put(retriever, future);
+            }
+
+            var all = CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                    .handle((ignored, e) -> (Void) null);
+            if (deadline != null) {
+                all = all.completeOnTimeout(null, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            return all.thenApply(ignored -> collect(futures));
+        });
+    }
+
+    private RetrievalResult collect(final LinkedHashMap<BaseRetriever, CompletableFuture<List<Document>>> futures) {
+        var rankedLists = new ArrayList<List<Document>>();
+        var cutOffRetrievers = new ArrayList<String>();
+        for (var entry : futures.entrySet()) {
+            var future = entry.getValue();
+            if (!future.isDone()) {
+                future.cancel(true);
+                cutOffRetrievers.add(entry.getKey().getName());
+                continue;
+            }
+            try {
+                rankedLists.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof TimeoutException || e.getCause() instanceof RejectedExecutionException) {
+                    cutOffRetrievers.add(entry.getKey().getName());
+                } else {
+                    throw new RetrievalException(e.getCause());
+                }
+            } catch (CancellationException e) {
+                cutOffRetrievers.add(entry.getKey().getName());
+            }
+        }
+
+        if (!cutOffRetrievers.isEmpty()) {
+            log.warn("Retrievers cut off by the retrieval deadline, timeout or executor: {}", cutOffRetrievers);
+        }
+        return new RetrievalResult(documentFuser.fuse(rankedLists), cutOffRetrievers);
+    }
+
+    /**
+     * Submits a call of the {@link BaseRetriever} to the retrieval {@link Executor}. A call rejected by the saturated
+     * Executor is recorded and returned as a future failed with the {@link RejectedExecutionException}, so that the
+     * Retriever is cut off instead of running on the calling thread.
+     */
+    private <T> CompletableFuture<T> submit(final BaseRetriever retriever, final Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, retrievalExecutor);
+        } catch (RejectedExecutionException e) {
+            ragMetrics.recordRetrievalRejection(retriever.getName());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Query augment(final Query query, final List<Document> documents, final Observation parent) {
+        return RagObservations.create(RagObservations.AUGMENTATION, observationRegistry)
+                .parentObservation(parent)
+                .observe(() -> {
+                    var sample = ragMetrics.start();
+                    var augmentedQuery = query;
+                    for (var augmenter : augmenters) {
+                        augmentedQuery = augmenter.augment(augmentedQuery, documents);
+                        if (log.isDebugEnabled()) {
+                            log.debug("Augmented query: {}", augmentedQuery);
+                        }
+                    }
+                    ragMetrics.recordAugmentation(augmentedQuery, sample);
+                    return augmentedQuery;
+                });
+    }
+
+    /**
+     * Selects the {@link BaseRetriever} instances to query for the given Request with the {@link RetrieverRouter},
+     * falling back to all Retrievers if the router is not confident.
+     *
+     * @param query the {@link Query} to route.
+     * @return the Retrievers to query.
+     */
+    protected List<BaseRetriever> route(final Query query) {
+        var selected = retrieverRouter.route(query, retrievers);
+        if (selected.isEmpty()) {
+            return retrievers;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "Routed query to Retrievers: {}",
+                    selected.stream().map(BaseRetriever::getName).toList());
+        }
+        return selected;
+    }
+}
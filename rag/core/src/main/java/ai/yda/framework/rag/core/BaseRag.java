@@ -19,20 +19,48 @@
 */
 package ai.yda.framework.rag.core;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
+import io.micrometer.observation.ObservationRegistry;
 import lombok.AccessLevel;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
 
+import ai.yda.framework.rag.core.exception.RetrievalException;
+import ai.yda.framework.rag.core.executor.ContextPropagatingExecutor;
+import ai.yda.framework.rag.core.fusion.DocumentFuser;
 import ai.yda.framework.rag.core.generator.Generator;
+import ai.yda.framework.rag.core.model.BatchRagResponse;
+import ai.yda.framework.rag.core.metrics.RagMetrics;
 import ai.yda.framework.rag.core.model.RagResponse;
+import ai.yda.framework.rag.core.model.RetrievalResult;
+import ai.yda.framework.rag.core.observation.RagObservations;
 import ai.yda.framework.rag.core.retriever.BaseRetriever;
+import ai.yda.framework.rag.core.retriever.RetrievalPolicy;
+import ai.yda.framework.rag.core.retriever.SharedQueryTransformations;
+import ai.yda.framework.rag.core.routing.RetrieverRouter;
 
 /**
  * Default implementation of the Retrieval-Augmented Generation (RAG) process.
@@ -43,6 +71,11 @@ import ai.yda.framework.rag.core.retriever.BaseRetriever;
 @Getter(AccessLevel.PROTECTED)
 @Slf4j
 public class BaseRag implements Rag<Query, RagResponse> {
+    /**
+     * The default maximum number of Responses of a batch generated concurrently.
+     */
+    public static final int DEFAULT_BATCH_CONCURRENCY = 4;
+
     /**
      * The list of {@link DocumentRetriever} instances used to retrieve {@link Document}.
      */
@@ -59,7 +92,48 @@ public class BaseRag implements Rag<Query, RagResponse> {
     private final Generator<Query, RagResponse> generator;
 
     /**
-     * Constructs a new {@link BaseRag} instance.
+     * The {@link RetrievalPolicy} bounding the time spent waiting for the {@link BaseRetriever} instances.
+     */
+    private final RetrievalPolicy retrievalPolicy;
+
+    /**
+     * The {@link Executor} running the blocking {@link BaseRetriever} calls.
+     */
+    private final Executor retrievalExecutor;
+
+    /**
+     * The {@link Scheduler} running the blocking {@link Generator} calls of batches.
+     */
+    private final Scheduler generationScheduler;
+
+    /**
+     * The {@link DocumentFuser} merging the Documents returned by the {@link BaseRetriever} instances.
+     */
+    private final DocumentFuser documentFuser;
+
+    /**
+     * The {@link RetrieverRouter} selecting the {@link BaseRetriever} instances queried for a Request.
+     */
+    private final RetrieverRouter retrieverRouter;
+
+    /**
+     * The {@link RagMetrics} recording the time spent in the stages of the RAG process.
+     */
+    private final RagMetrics ragMetrics;
+
+    /**
+     * The {@link ObservationRegistry} reporting the stages of the RAG process as spans of the Request trace.
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * The maximum number of Responses of a batch generated concurrently.
+     */
+    private final int batchConcurrency;
+
+    /**
+     * Constructs a new {@link BaseRag} instance that waits for every Retriever without any time limit and concatenates
+     * the retrieved Documents.
      *
      * @param retrievers the list of {@link DocumentRetriever} objects to retrieve {@link Document} data.
      * @param augmenters the list of {@link QueryAugmenter} objects to augment the retrieved Contexts.
@@ -69,16 +143,78 @@ public class BaseRag implements Rag<Query, RagResponse> {
             final List<BaseRetriever> retrievers,
             final List<QueryAugmenter> augmenters,
             final Generator<Query, RagResponse> generator) {
+        this(retrievers, augmenters, generator, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Constructs a new {@link BaseRag} instance. Optional collaborators left {@code null} fall back to their defaults.
+     * Use {@link #builder()} to set only some of them.
+     *
+     * @param retrievers        the list of {@link DocumentRetriever} objects to retrieve {@link Document} data.
+     * @param augmenters        the list of {@link QueryAugmenter} objects to augment the retrieved Contexts.
+     * @param generator         the {@link Generator} used to generate the {@link RagResponse}.
+     * @param retrievalPolicy   the {@link RetrievalPolicy} defining the retrieval deadline and per-Retriever timeouts,
+     *                          {@link RetrievalPolicy#UNBOUNDED} by default.
+     * @param retrievalExecutor the {@link Executor} running the blocking Retriever calls, e.g. a
+     *                          {@link ai.yda.framework.rag.core.executor.RetrievalExecutor}. The
+     *                          {@link ForkJoinPool#commonPool()} by default. It is wrapped in a
+     *                          {@link ContextPropagatingExecutor} to keep the Retriever calls in the Request trace.
+     * @param generationExecutor the {@link Executor} running the blocking Generator calls of batches, kept apart from
+     *                           the retrieval Executor so that long generations do not starve the retrievals,
+     *                           {@link Schedulers#boundedElastic()} by default.
+     * @param documentFuser     the {@link DocumentFuser} merging the Documents of all Retrievers,
+     *                          {@link DocumentFuser#CONCATENATION} by default.
+     * @param retrieverRouter   the {@link RetrieverRouter} selecting the Retrievers queried for a Request,
+     *                          {@link RetrieverRouter#ALL} by default.
+     * @param batchConcurrency  the maximum number of Responses of a batch generated concurrently,
+     *                          {@link #DEFAULT_BATCH_CONCURRENCY} by default.
+     * @param ragMetrics        the {@link RagMetrics} recording the time spent in the stages of the RAG process,
+     *                          {@link RagMetrics#NOOP} by default.
+     * @param observationRegistry the {@link ObservationRegistry} reporting the stages of the RAG process,
+     *                            {@link ObservationRegistry#NOOP} by default.
+     * @throws IllegalArgumentException if {@code batchConcurrency} is not a positive number.
+     */
+    @Builder
+    protected BaseRag(
+            final List<BaseRetriever> retrievers,
+            final List<QueryAugmenter> augmenters,
+            final Generator<Query, RagResponse> generator,
+            final RetrievalPolicy retrievalPolicy,
+            final Executor retrievalExecutor,
+            final Executor generationExecutor,
+            final DocumentFuser documentFuser,
+            final RetrieverRouter retrieverRouter,
+            final Integer batchConcurrency,
+            final RagMetrics ragMetrics,
+            final ObservationRegistry observationRegistry) {
+        if (batchConcurrency != null && batchConcurrency <= 0) {
+            throw new IllegalArgumentException("Batch concurrency must be a positive number.");
+        }
         this.retrievers = retrievers;
         this.augmenters = augmenters;
         this.generator = generator;
+        this.retrievalPolicy = retrievalPolicy != null ? retrievalPolicy : RetrievalPolicy.UNBOUNDED;
+        this.retrievalExecutor = ContextPropagatingExecutor.wrap(
+                retrievalExecutor != null ? retrievalExecutor : ForkJoinPool.commonPool());
+        this.generationScheduler = generationExecutor != null
+                ? Schedulers.fromExecutor(ContextPropagatingExecutor.wrap(generationExecutor))
+                : Schedulers.boundedElastic();
+        this.documentFuser = documentFuser != null ? documentFuser : DocumentFuser.CONCATENATION;
+        this.retrieverRouter = retrieverRouter != null ? retrieverRouter : RetrieverRouter.ALL;
+        this.batchConcurrency = batchConcurrency != null ? batchConcurrency : DEFAULT_BATCH_CONCURRENCY;
+        this.ragMetrics = ragMetrics != null ? ragMetrics : RagMetrics.NOOP;
+        this.observationRegistry = observationRegistry != null ? observationRegistry : ObservationRegistry.NOOP;
     }
 
     /**
      * Executes the Retrieval-Augmented Generation (RAG) process by:
      * <ul>
      *     <li>Transforming the initial {@link Query}
-     *     <li>Retrieving relevant {@link Document} from the {@link DocumentRetriever} instances.</li>
+     *     <li>
+     *         Retrieving relevant {@link Document} from the {@link DocumentRetriever} instances selected by the
+     *         {@link RetrieverRouter} within the bounds of the {@link RetrievalPolicy}.
+     *     </li>
+     *     <li>Fusing the retrieved {@link Document} with the {@link DocumentFuser}.</li>
      *     <li>Augmenting the retrieved Contexts using the provided {@link QueryAugmenter} instances.</li>
      *     <li>
      *         Generating the final {@link RagResponse} using the {@link Generator}, based on the augmented Contexts.
@@ -90,18 +226,291 @@ public class BaseRag implements Rag<Query, RagResponse> {
      */
     @Override
     public RagResponse doRag(final Query query) {
-        var documents = retrievers.parallelStream()
-                .flatMap(retriever -> retriever.transformAndRetrieve(query).stream())
-                .toList();
-        var augmentedQuery = query;
-
-        for (var augmenter : augmenters) {
-            augmentedQuery = augmenter.augment(augmentedQuery, documents);
-            if (log.isDebugEnabled()) {
-                log.debug("Augmented query: {}", query);
+        return RagObservations.create(RagObservations.REQUEST, observationRegistry)
+                .observe(() -> generate(augment(query, retrieve(query).getDocuments())));
+    }
+
+    /**
+     * Executes the Retrieval-Augmented Generation (RAG) process for a batch of Requests and returns the Responses
+     * once all of them are generated.
+     *
+     * @param queries the Requests to process.
+     * @return the generated Responses, in the order of the Requests.
+     * @see #streamRagBatch(List)
+     */
+    @Override
+    public List<RagResponse> doRagBatch(final List<Query> queries) {
+        return streamRagBatch(queries)
+                .collectSortedList(Comparator.comparingInt(BatchRagResponse::getIndex))
+                .map(responses ->
+                        responses.stream().map(BatchRagResponse::getResponse).toList())
+                .block();
+    }
+
+    /**
+     * Executes the Retrieval-Augmented Generation (RAG) process for a batch of Requests, e.g. in a nightly evaluation
+     * job. Each Retriever receives all Requests routed to it at once, so that it can amortize its calls, e.g. embed
+     * all Requests with a single Embedding Model call. Only the Retriever calls run on the retrieval {@link Executor};
+     * the Responses are then generated on the generation {@link Scheduler} with at most {@code batchConcurrency}
+     * generations in flight and emitted as they complete. The {@link RetrievalPolicy} does not apply to batches.
+     *
+     * @param queries the Requests to process.
+     * @return a {@link Flux} emitting a {@link BatchRagResponse} per Request in the order of completion.
+     */
+    public Flux<BatchRagResponse> streamRagBatch(final List<Query> queries) {
+        return Mono.fromFuture(() -> retrieveBatchAsync(queries))
+                .flatMapMany(retrievalResults -> Flux.range(0, queries.size())
+                        .flatMap(
+                                index -> Mono.fromCallable(
+                                                () -> generate(index, queries.get(index), retrievalResults.get(index)))
+                                        .subscribeOn(generationScheduler),
+                                batchConcurrency));
+    }
+
+    private BatchRagResponse generate(final int index, final Query query, final RetrievalResult retrievalResult) {
+        var response = generate(augment(query, retrievalResult.getDocuments()));
+        return new BatchRagResponse(index, query, response);
+    }
+
+    private Query augment(final Query query, final List<Document> documents) {
+        return RagObservations.create(RagObservations.AUGMENTATION, observationRegistry)
+                .observe(() -> {
+                    var sample = ragMetrics.start();
+                    var augmentedQuery = query;
+                    for (var augmenter : augmenters) {
+                        augmentedQuery = augmenter.augment(augmentedQuery, documents);
+                        if (log.isDebugEnabled()) {
+                            log.debug("Augmented query: {}", augmentedQuery);
+                        }
+                    }
+                    ragMetrics.recordAugmentation(augmentedQuery, sample);
+                    return augmentedQuery;
+                });
+    }
+
+    private RagResponse generate(final Query augmentedQuery) {
+        return RagObservations.create(RagObservations.GENERATION, "generator", generator, observationRegistry)
+                .observe(() -> {
+                    var sample = ragMetrics.start();
+                    try {
+                        var response = generator.generate(augmentedQuery);
+                        ragMetrics.recordGeneration(generator, true, sample);
+                        return response;
+                    } catch (RuntimeException e) {
+                        ragMetrics.recordGeneration(generator, false, sample);
+                        throw e;
+                    }
+                });
+    }
+
+    /**
+     * Runs the routed {@link BaseRetriever} instances concurrently on the retrieval {@link Executor} and collects the
+     * {@link Document} they return before the deadline of the {@link RetrievalPolicy} passes. Retrievers exceeding
+     * their own timeout or the deadline are cut off: their pending calls are abandoned and their names are recorded
+     * in the resulting {@link RetrievalResult}. Retrievers rejected by the saturated Executor are cut off as well.
+     * Query transformations shared by several Retrievers are performed once per Request. The Documents of all
+     * Retrievers are merged by the {@link DocumentFuser}.
+     *
+     * @param query the {@link Query} to retrieve Documents for.
+     * @return the {@link RetrievalResult} containing the fused Documents and the cut off Retrievers.
+     * @throws RetrievalException if any of the Retrievers fails.
+     */
+    protected RetrievalResult retrieve(final Query query) {
+        var deadline = retrievalPolicy
+                .getDeadline()
+                .map(value -> System.nanoTime() + value.toNanos())
+                .orElse(null);
+        var transformations = new SharedQueryTransformations();
+        var futures = new LinkedHashMap<BaseRetriever, CompletableFuture<List<Document>>>();
+        for (var retriever : route(query)) {
+            var future = submit(retriever, () -> retriever.transformAndRetrieve(query, transformations));
+            retrievalPolicy
+                    .getTimeout(retriever)
+                    .ifPresent(timeout -> future.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS));
+            futures.put(retriever, future);
+        }
+
+        var rankedLists = new ArrayList<List<Document>>();
+        var cutOffRetrievers = new ArrayList<String>();
+        for (var entry : futures.entrySet()) {
+            try {
+                rankedLists.add(awaitRetrieval(entry.getValue(), deadline));
+            } catch (TimeoutException | RejectedExecutionException e) {
+                entry.getValue().cancel(true);
+                cutOffRetrievers.add(entry.getKey().getName());
+            }
+        }
+
+        if (!cutOffRetrievers.isEmpty()) {
+            log.warn("Retrievers cut off by the retrieval deadline, timeout or executor: {}", cutOffRetrievers);
+        }
+        return new RetrievalResult(documentFuser.fuse(rankedLists), cutOffRetrievers);
+    }
+
+    /**
+     * Submits a call of the {@link BaseRetriever} to the retrieval {@link Executor}. A call rejected by the saturated
+     * Executor is recorded and returned as a future failed with the {@link RejectedExecutionException}, so that the
+     * Retriever is cut off instead of failing the Request.
+     */
+    private <T> CompletableFuture<T> submit(final BaseRetriever retriever, final Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, retrievalExecutor);
+        } catch (RejectedExecutionException e) {
+            ragMetrics.recordRetrievalRejection(retriever.getName());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Retrieves the {@link Document} for a batch of Requests. The Requests are routed together and each
+     * {@link BaseRetriever} then receives all Requests routed to it in a single
+     * {@link BaseRetriever#transformAndRetrieveBatch(List, SharedQueryTransformations)} call. The Retrievers run
+     * concurrently on the retrieval {@link Executor}.
+     *
+     * @param queries the Requests to retrieve Documents for.
+     * @return the {@link RetrievalResult} of each Request, in the order of the Requests.
+     * @throws RetrievalException if any of the Retrievers fails.
+     * @see #retrieveBatchAsync(List)
+     */
+    protected List<RetrievalResult> retrieveBatch(final List<Query> queries) {
+        try {
+            return retrieveBatchAsync(queries).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RetrievalException retrievalException) {
+                throw retrievalException;
+            }
+            throw new RetrievalException(e.getCause());
+        }
+    }
+
+    /**
+     * Retrieves the {@link Document} for a batch of Requests without blocking. The Requests are routed together on the
+     * calling thread and each {@link BaseRetriever} runs on the retrieval {@link Executor}; the returned future
+     * completes once all of them have returned, so no thread of the retrieval Executor waits for another one. If any
+     * Retriever fails, the others are cancelled. Retrievers rejected by the saturated Executor are cut off from the
+     * Requests routed to them.
+     *
+     * @param queries the Requests to retrieve Documents for.
+     * @return the future {@link RetrievalResult} of each Request, in the order of the Requests, completed
+     * exceptionally with a {@link RetrievalException} if any of the Retrievers fails.
+     */
+    protected CompletableFuture<List<RetrievalResult>> retrieveBatchAsync(final List<Query> queries) {
+        var routes = retrieverRouter.routeBatch(queries, retrievers);
+        var routedIndexes = new LinkedHashMap<BaseRetriever, List<Integer>>();
+        for (var i = 0; i < queries.size(); i++) {
+            for (var retriever : selectedOrAll(routes.get(i))) {
+                routedIndexes
+                        .computeIfAbsent(retriever, key -> new ArrayList<>())
+                        .add(i);
+            }
+        }
+
+        var transformations = new SharedQueryTransformations();
+        var futures = new LinkedHashMap<BaseRetriever, CompletableFuture<List<List<Document>>>>();
+        routedIndexes.forEach((retriever, indexes) -> {
+            var routedQueries = indexes.stream().map(queries::get).toList();
+            futures.put(
+                    retriever,
+                    submit(retriever, () -> retriever.transformAndRetrieveBatch(routedQueries, transformations)));
+        });
+
+        var result = new CompletableFuture<List<RetrievalResult>>();
+        futures.values()
+                .forEach(future -> future.whenComplete((documents, failure) -> {
+                    if (failure != null
+                            && !(unwrap(failure) instanceof RejectedExecutionException)
+                            && result.completeExceptionally(new RetrievalException(unwrap(failure)))) {
+                        futures.values().forEach(other -> other.cancel(true));
+                    }
+                }));
+        CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .handle((ignored, failure) -> (Void) null)
+                .thenRun(() -> {
+                    if (result.isDone()) {
+                        return;
+                    }
+                    try {
+                        result.complete(fuseBatch(queries.size(), routedIndexes, futures));
+                    } catch (RuntimeException e) {
+                        result.completeExceptionally(e);
+                    }
+                });
+        return result;
+    }
+
+    private List<RetrievalResult> fuseBatch(
+            final int size,
+            final LinkedHashMap<BaseRetriever, List<Integer>> routedIndexes,
+            final LinkedHashMap<BaseRetriever, CompletableFuture<List<List<Document>>>> futures) {
+        var rankedLists = new ArrayList<List<List<Document>>>(size);
+        var cutOffRetrievers = new ArrayList<List<String>>(size);
+        for (var i = 0; i < size; i++) {
+            rankedLists.add(new ArrayList<>());
+            cutOffRetrievers.add(new ArrayList<>());
+        }
+        futures.forEach((retriever, future) -> {
+            var indexes = routedIndexes.get(retriever);
+            if (future.isCompletedExceptionally()) {
+                // Rejected by the Executor, any other failure has failed the batch already
+                indexes.forEach(index -> cutOffRetrievers.get(index).add(retriever.getName()));
+                return;
+            }
+            var documents = future.join();
+            for (var i = 0; i < documents.size(); i++) {
+                rankedLists.get(indexes.get(i)).add(documents.get(i));
+            }
+        });
+        var results = new ArrayList<RetrievalResult>(size);
+        for (var i = 0; i < size; i++) {
+            results.add(new RetrievalResult(documentFuser.fuse(rankedLists.get(i)), cutOffRetrievers.get(i)));
+        }
+        return results;
+    }
+
+    private static Throwable unwrap(final Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private List<Document> awaitRetrieval(final CompletableFuture<List<Document>> future, final Long deadline)
+            throws TimeoutException {
+        try {
+            return deadline == null
+                    ? future.get()
+                    : future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timeoutException) {
+                throw timeoutException;
             }
+            if (e.getCause() instanceof RejectedExecutionException rejectedExecutionException) {
+                throw rejectedExecutionException;
+            }
+            throw new RetrievalException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RetrievalException(e);
         }
+    }
 
-        return generator.generate(augmentedQuery);
+    /**
+     * Selects the {@link BaseRetriever} instances to query for the given Request with the {@link RetrieverRouter},
+     * falling back to all Retrievers if the router is not confident.
+     *
+     * @param query the {@link Query} to route.
+     * @return the Retrievers to query.
+     */
+    protected List<BaseRetriever> route(final Query query) {
+        return selectedOrAll(retrieverRouter.route(query, retrievers));
+    }
+
+    private List<BaseRetriever> selectedOrAll(final List<BaseRetriever> selected) {
+        if (selected.isEmpty()) {
+            return retrievers;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "Routed query to Retrievers: {}",
+                    selected.stream().map(BaseRetriever::getName).toList());
+        }
+        return selected;
     }
 }
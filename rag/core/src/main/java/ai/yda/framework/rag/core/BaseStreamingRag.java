@@ -19,11 +19,23 @@
 */
 package ai.yda.framework.rag.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 import org.springframework.ai.document.Document;
@@ -31,9 +43,18 @@ import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.generation.augmentation.QueryAugmenter;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
 
+import ai.yda.framework.rag.core.fusion.DocumentFuser;
+import ai.yda.framework.rag.core.generator.ResponseCoalescer;
 import ai.yda.framework.rag.core.generator.StreamingGenerator;
+import ai.yda.framework.rag.core.metrics.RagMetrics;
 import ai.yda.framework.rag.core.model.RagResponse;
+import ai.yda.framework.rag.core.model.RetrievalResult;
+import ai.yda.framework.rag.core.observation.RagObservations;
 import ai.yda.framework.rag.core.retriever.BaseRetriever;
+import ai.yda.framework.rag.core.retriever.ReactiveRetriever;
+import ai.yda.framework.rag.core.retriever.RetrievalPolicy;
+import ai.yda.framework.rag.core.retriever.SharedQueryTransformations;
+import ai.yda.framework.rag.core.routing.RetrieverRouter;
 
 /**
  * Default implementation of the Retrieval-Augmented Generation (RAG) process in a streaming manner.
@@ -41,6 +62,7 @@ import ai.yda.framework.rag.core.retriever.BaseRetriever;
  * @author Nikita Litvinov
  * @since 0.1.0
  */
+@Slf4j
 public class BaseStreamingRag implements StreamingRag<Query, RagResponse> {
 
     /**
@@ -59,7 +81,44 @@ public class BaseStreamingRag implements StreamingRag<Query, RagResponse> {
     private final StreamingGenerator<Query, RagResponse> streamingGenerator;
 
     /**
-     * Constructs a new {@link BaseStreamingRag} instance.
+     * The {@link RetrievalPolicy} bounding the time spent waiting for the {@link BaseRetriever} instances.
+     */
+    private final RetrievalPolicy retrievalPolicy;
+
+    /**
+     * The {@link Scheduler} running the blocking {@link BaseRetriever} calls. {@link ReactiveRetriever} instances do
+     * not use it.
+     */
+    private final Scheduler retrievalScheduler;
+
+    /**
+     * The {@link DocumentFuser} merging the Documents returned by the {@link BaseRetriever} instances.
+     */
+    private final DocumentFuser documentFuser;
+
+    /**
+     * The {@link RetrieverRouter} selecting the {@link BaseRetriever} instances queried for a Request.
+     */
+    private final RetrieverRouter retrieverRouter;
+
+    /**
+     * The {@link RagMetrics} recording the time spent in the stages of the RAG process.
+     */
+    private final RagMetrics ragMetrics;
+
+    /**
+     * The {@link ObservationRegistry} reporting the stages of the RAG process as spans of the Request trace.
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * The {@link ResponseCoalescer} merging the streamed Response deltas before they are emitted.
+     */
+    private final ResponseCoalescer responseCoalescer;
+
+    /**
+     * Constructs a new {@link BaseStreamingRag} instance that waits for every Retriever without any time limit and
+     * concatenates the retrieved Documents.
      *
      * @param retrievers         the list of {@link DocumentRetriever} objects used to retrieve {@link Document} data.
      * @param augmenters         the list of {@link QueryAugmenter} objects used to augment the retrieved Contexts.
@@ -70,17 +129,71 @@ public class BaseStreamingRag implements StreamingRag<Query, RagResponse> {
             final List<BaseRetriever> retrievers,
             final List<QueryAugmenter> augmenters,
             final StreamingGenerator<Query, RagResponse> streamingGenerator) {
+        this(retrievers, augmenters, streamingGenerator, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Constructs a new {@link BaseStreamingRag} instance. Optional collaborators left {@code null} fall back to their
+     * defaults. Use {@link #builder()} to set only some of them.
+     *
+     * @param retrievers         the list of {@link DocumentRetriever} objects used to retrieve {@link Document} data.
+     * @param augmenters         the list of {@link QueryAugmenter} objects used to augment the retrieved Contexts.
+     * @param streamingGenerator the {@link StreamingGenerator} used to generate {@link RagResponse} objects in a
+     *                           streaming manner.
+     * @param retrievalPolicy    the {@link RetrievalPolicy} defining the retrieval deadline and per-Retriever
+     *                           timeouts, {@link RetrievalPolicy#UNBOUNDED} by default.
+     * @param retrievalExecutor  the {@link Executor} running the blocking Retriever calls, e.g. a
+     *                           {@link ai.yda.framework.rag.core.executor.RetrievalExecutor}. The
+     *                           {@link Schedulers#boundedElastic()} Scheduler is used by default.
+     * @param documentFuser      the {@link DocumentFuser} merging the Documents of all Retrievers,
+     *                           {@link DocumentFuser#CONCATENATION} by default.
+     * @param retrieverRouter    the {@link RetrieverRouter} selecting the Retrievers queried for a Request,
+     *                           {@link RetrieverRouter#ALL} by default.
+     * @param ragMetrics         the {@link RagMetrics} recording the time spent in the stages of the RAG process,
+     *                           {@link RagMetrics#NOOP} by default.
+     * @param observationRegistry the {@link ObservationRegistry} reporting the stages of the RAG process,
+     *                            {@link ObservationRegistry#NOOP} by default. The current Observation is passed
+     *                            to the Retrievers and the generator through the Reactor Context, so the trace is
+     *                            kept across the retrieval {@link Scheduler} without thread-local propagation.
+     * @param responseCoalescer  the {@link ResponseCoalescer} merging the streamed Response deltas,
+     *                           {@link ResponseCoalescer#NONE} by default.
+     */
+    @Builder
+    protected BaseStreamingRag(
+            final List<BaseRetriever> retrievers,
+            final List<QueryAugmenter> augmenters,
+            final StreamingGenerator<Query, RagResponse> streamingGenerator,
+            final RetrievalPolicy retrievalPolicy,
+            final Executor retrievalExecutor,
+            final DocumentFuser documentFuser,
+            final RetrieverRouter retrieverRouter,
+            final RagMetrics ragMetrics,
+            final ObservationRegistry observationRegistry,
+            final ResponseCoalescer responseCoalescer) {
         this.retrievers = retrievers;
         this.augmenters = augmenters;
         this.streamingGenerator = streamingGenerator;
+        this.retrievalPolicy = retrievalPolicy != null ? retrievalPolicy : RetrievalPolicy.UNBOUNDED;
+        this.retrievalScheduler =
+                retrievalExecutor != null ? Schedulers.fromExecutor(retrievalExecutor) : Schedulers.boundedElastic();
+        this.documentFuser = documentFuser != null ? documentFuser : DocumentFuser.CONCATENATION;
+        this.retrieverRouter = retrieverRouter != null ? retrieverRouter : RetrieverRouter.ALL;
+        this.ragMetrics = ragMetrics != null ? ragMetrics : RagMetrics.NOOP;
+        this.observationRegistry = observationRegistry != null ? observationRegistry : ObservationRegistry.NOOP;
+        this.responseCoalescer = responseCoalescer != null ? responseCoalescer : ResponseCoalescer.NONE;
     }
 
     /**
      * Executes the Retrieval-Augmented Generation (RAG) process in a streaming manner by:
      * <ul>
-     *     <li>Retrieving relevant {@link Document} from the {@link DocumentRetriever} instances.</li>
+     *     <li>
+     *         Retrieving relevant {@link Document} from the {@link DocumentRetriever} instances selected by the
+     *         {@link RetrieverRouter} within the bounds of the {@link RetrievalPolicy}.
+     *     </li>
+     *     <li>Fusing the retrieved {@link Document} with the {@link DocumentFuser}.</li>
      *     <li>Augmenting the retrieved Contexts using the provided {@link QueryAugmenter} instances.</li>
      *     <li>Generating a stream of {@link RagResponse} objects using the {@link StreamingGenerator}.</li>
+     *     <li>Merging the generated Response deltas with the {@link ResponseCoalescer}.</li>
      * </ul>
      *
      * @param query the {@link Query} to process.
@@ -88,19 +201,151 @@ public class BaseStreamingRag implements StreamingRag<Query, RagResponse> {
      */
     @Override
     public Flux<RagResponse> streamRag(final Query query) {
-        return Flux.fromIterable(retrievers)
-                .flatMap(retriever -> Mono.fromCallable(() -> retriever.transformAndRetrieve(query))
-                        .subscribeOn(Schedulers.boundedElastic()))
-                .collectList()
-                .map(lists -> lists.stream().flatMap(List::stream).collect(Collectors.toList()))
-                .flatMapMany(documents -> {
+        return Flux.defer(() -> {
+            var observation = RagObservations.create(RagObservations.REQUEST, observationRegistry)
+                    .start();
+            return retrieve(query)
+                    .map(RetrievalResult::getDocuments)
+                    .flatMapMany(documents -> responseCoalescer.coalesce(
+                            streamGeneration(augment(query, documents, observation), observation)))
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    private Query augment(final Query query, final List<Document> documents, final Observation parent) {
+        return RagObservations.create(RagObservations.AUGMENTATION, observationRegistry)
+                .parentObservation(parent)
+                .observe(() -> {
+                    var sample = ragMetrics.start();
                     var augmentedQuery = query;
 
                     for (QueryAugmenter augmenter : augmenters) {
                         augmentedQuery = augmenter.augment(augmentedQuery, documents);
                     }
-
-                    return streamingGenerator.streamGeneration(augmentedQuery);
+                    ragMetrics.recordAugmentation(augmentedQuery, sample);
+                    return augmentedQuery;
                 });
     }
+
+    private Flux<RagResponse> streamGeneration(final Query augmentedQuery, final Observation parent) {
+        return Flux.defer(() -> {
+            var observation = RagObservations.create(
+                            RagObservations.GENERATION, "generator", streamingGenerator, observationRegistry)
+                    .parentObservation(parent)
+                    .start();
+            var generationSample = ragMetrics.start();
+            var firstTokenSample = ragMetrics.start();
+            var firstToken = new AtomicBoolean();
+            return streamingGenerator
+                    .streamGeneration(augmentedQuery)
+                    .doOnNext(response -> {
+                        if (firstToken.compareAndSet(false, true)) {
+                            ragMetrics.recordFirstToken(streamingGenerator, firstTokenSample);
+                            observation.event(Observation.Event.of("first.token"));
+                        }
+                    })
+                    .doOnComplete(() -> ragMetrics.recordGeneration(streamingGenerator, true, generationSample))
+                    .doOnError(e -> {
+                        ragMetrics.recordGeneration(streamingGenerator, false, generationSample);
+                        observation.error(e);
+                    })
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    /**
+     * Runs the routed {@link BaseRetriever} instances concurrently and collects the {@link Document} they emit before
+     * the deadline of the {@link RetrievalPolicy} passes. {@link ReactiveRetriever} instances are subscribed to
+     * directly, the blocking ones are adapted to run on the retrieval {@link Scheduler}. Retrievers exceeding their own
+     * timeout or the deadline are cancelled and their names are recorded in the resulting {@link RetrievalResult}, as
+     * are the blocking ones rejected by the saturated Scheduler.
+     * Query transformations shared by several Retrievers are performed once per Request. The Documents of all
+     * Retrievers are merged by the {@link DocumentFuser} in the order of the Retrievers.
+     *
+     * @param query the {@link Query} to retrieve Documents for.
+     * @return a {@link Mono} emitting the {@link RetrievalResult} with the fused Documents and the cut off
+     * Retrievers.
+     */
+    protected Mono<RetrievalResult> retrieve(final Query query) {
+        return RagObservations.fromCallableInScope(() -> route(query))
+                .subscribeOn(retrievalScheduler)
+                .flatMap(routedRetrievers -> retrieve(query, routedRetrievers));
+    }
+
+    private Mono<RetrievalResult> retrieve(final Query query, final List<BaseRetriever> routedRetrievers) {
+        var transformations = new SharedQueryTransformations();
+
+        var retrievals = Flux.range(0, routedRetrievers.size()).flatMap(index -> {
+            var retriever = routedRetrievers.get(index);
+            var retrieval = ReactiveRetriever.of(retriever, retrievalScheduler)
+                    .transformAndRetrieveReactive(query, transformations)
+                    .collectList()
+                    .onErrorResume(RejectedExecutionException.class, e -> {
+                        ragMetrics.recordRetrievalRejection(retriever.getName());
+                        return Mono.empty();
+                    });
+            return retrievalPolicy
+                    .getTimeout(retriever)
+                    .map(timeout -> retrieval.timeout(timeout).onErrorResume(TimeoutException.class, e -> Mono.empty()))
+                    .orElse(retrieval)
+                    .map(documents -> Map.entry(index, documents));
+        });
+
+        return retrievalPolicy
+                .getDeadline()
+                .map(deadline -> retrievals.take(deadline))
+                .orElse(retrievals)
+                .collect(
+                        () -> new ArrayList<List<Document>>(Collections.nCopies(routedRetrievers.size(), null)),
+                        (lists, retrieval) -> lists.set(retrieval.getKey(), retrieval.getValue()))
+                .map(lists -> toRetrievalResult(lists, routedRetrievers));
+    }
+
+    /**
+     * Fuses the Documents of the completed Retrievers in the order of the Retrievers rather than the order in which
+     * they completed, as {@link BaseRag} does, so the fused Documents do not depend on the Retriever latencies.
+     *
+     * @param lists            the Documents of each routed Retriever, {@code null} for the cut off ones.
+     * @param routedRetrievers the routed Retrievers.
+     * @return the {@link RetrievalResult} containing the fused Documents and the cut off Retrievers.
+     */
+    private RetrievalResult toRetrievalResult(
+            final List<List<Document>> lists, final List<BaseRetriever> routedRetrievers) {
+        var rankedLists = new ArrayList<List<Document>>();
+        var cutOffRetrievers = new ArrayList<String>();
+        for (var i = 0; i < lists.size(); i++) {
+            if (lists.get(i) != null) {
+                rankedLists.add(lists.get(i));
+            } else {
+                cutOffRetrievers.add(routedRetrievers.get(i).getName());
+            }
+        }
+        if (!cutOffRetrievers.isEmpty()) {
+            log.warn("Retrievers cut off by the retrieval deadline, timeout or executor: {}", cutOffRetrievers);
+        }
+        return new RetrievalResult(documentFuser.fuse(rankedLists), cutOffRetrievers);
+    }
+
+    /**
+     * Selects the {@link BaseRetriever} instances to query for the given Request with the {@link RetrieverRouter},
+     * falling back to all Retrievers if the router is not confident.
+     *
+     * @param query the {@link Query} to route.
+     * @return the Retrievers to query.
+     */
+    protected List<BaseRetriever> route(final Query query) {
+        var selected = retrieverRouter.route(query, retrievers);
+        if (selected.isEmpty()) {
+            return retrievers;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "Routed query to Retrievers: {}",
+                    selected.stream().map(BaseRetriever::getName).toList());
+        }
+        return selected;
+    }
 }
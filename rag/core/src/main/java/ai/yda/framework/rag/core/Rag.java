@@ -19,6 +19,8 @@
 */
 package ai.yda.framework.rag.core;
 
+import java.util.List;
+
 import org.springframework.ai.rag.Query;
 
 import ai.yda.framework.rag.core.model.RagResponse;
@@ -42,4 +44,15 @@ public interface Rag<QUERY extends Query, RESPONSE extends RagResponse> {
      * @return the Response object containing the results of the RAG operation.
      */
     RESPONSE doRag(QUERY query);
+
+    /**
+     * Performs Retrieval-Augmented Generation (RAG) operations for several Requests, e.g. in a bulk job. The default
+     * implementation processes the Requests one by one; implementations may amortize retrieval calls across them.
+     *
+     * @param queries the Requests to process.
+     * @return the Responses, in the order of the Requests.
+     */
+    default List<RESPONSE> doRagBatch(final List<QUERY> queries) {
+        return queries.stream().map(this::doRag).toList();
+    }
 }
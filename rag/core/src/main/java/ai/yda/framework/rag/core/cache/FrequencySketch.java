@@ -0,0 +1,95 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.cache;
+
+/**
+ * Estimates how often a key has been accessed recently using a Count-Min sketch. Each counter saturates at
+ * {@link #MAX_FREQUENCY}, and all counters are halved once the number of recorded accesses reaches the sample size,
+ * so the estimate favours recent popularity over the historical one. This is the frequency filter used for TinyLFU
+ * admission in {@link RetrievalCache}.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+final class FrequencySketch {
+
+    private static final int MAX_FREQUENCY = 15;
+
+    private static final int DEPTH = 4;
+
+    private static final int[] SEEDS = {0x97cb3127, 0xb7e15163, 0x4cf5ad43, 0x2545f491};
+
+    private final int[] table;
+
+    private final int mask;
+
+    private final int sampleSize;
+
+    private int additions;
+
+    FrequencySketch(final int maximumSize) {
+        var width = Integer.highestOneBit(Math.max(maximumSize, 16) - 1) << 1;
+        this.table = new int[width * DEPTH];
+        this.mask = width - 1;
+        this.sampleSize = 10 * Math.max(maximumSize, 16);
+    }
+
+    int frequency(final Object key) {
+        var hash = spread(key.hashCode());
+        var frequency = MAX_FREQUENCY;
+        for (var row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, table[indexOf(hash, row)]);
+        }
+        return frequency;
+    }
+
+    void increment(final Object key) {
+        var hash = spread(key.hashCode());
+        var added = false;
+        for (var row = 0; row < DEPTH; row++) {
+            var index = indexOf(hash, row);
+            if (table[index] < MAX_FREQUENCY) {
+                table[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (var i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+        additions >>>= 1;
+    }
+
+    private int indexOf(final int hash, final int row) {
+        var h = (hash ^ SEEDS[row]) * 0x9e3779b9;
+        h ^= h >>> 16;
+        return row * (mask + 1) + (h & mask);
+    }
+
+    private static int spread(final int hash) {
+        var h = hash * 0x85ebca6b;
+        return h ^ (h >>> 13);
+    }
+}
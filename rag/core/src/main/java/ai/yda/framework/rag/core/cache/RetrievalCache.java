@@ -0,0 +1,341 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * Caches the {@link Document} returned by Retrievers, keyed by the Retriever name and the text of the transformed
+ * Request. Entries expire after the configured time to live. Once the cache is full, a new entry is admitted only if it
+ * has been requested more often recently than the least recently used entry it would replace (TinyLFU admission),
+ * which keeps one-off Requests from flushing the popular ones.
+ * <p>
+ * Lookups are lock-free: they record the requested key in a lossy read buffer, which is replayed into the access order
+ * and the frequency sketch under the lock by the next {@link #put(String, String, List, long)}, or by a lookup which
+ * finds the buffer half full, provided no other thread holds the lock already. Lookups dropped while the buffer is full
+ * only make the recency and frequency estimates slightly less accurate.
+ * </p>
+ * <p>
+ * Retrievers call {@link #invalidate(String)} whenever they change their corpus, so that stale Documents are never
+ * returned after ingestion. Every invalidation starts a new generation of the cache: a retrieval takes the current
+ * {@link #getGeneration() generation} before it starts and passes it to
+ * {@link #put(String, String, List, long)}, which drops the Documents if the Retriever has been invalidated since.
+ * </p>
+ *
+ * @author Nikita Litvinov
+ * @see FrequencySketch
+ * @since 0.2.0
+ */
+public class RetrievalCache {
+
+    /**
+     * The time to live of a cache entry in nanoseconds.
+     */
+    private final long timeToLiveNanos;
+
+    /**
+     * The maximum number of entries kept in the cache.
+     */
+    private final int maxSize;
+
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The entries in access order, the least recently used first, guarded by the lock.
+     */
+    private final Map<Key, Entry> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The lookups not replayed into the access order and the sketch yet; lookups are dropped while it is full.
+     */
+    private final Queue<Key> readBuffer = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger readBufferSize = new AtomicInteger();
+
+    /**
+     * The frequency of the requested keys, guarded by the lock.
+     */
+    private final FrequencySketch sketch;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder rejectionCount = new LongAdder();
+
+    /**
+     * The generation at which each Retriever was last invalidated.
+     */
+    private final Map<String, Long> invalidationGenerations = new HashMap<>();
+
+    /**
+     * The generation at which the whole cache was last invalidated.
+     */
+    private long invalidationGeneration;
+
+    /**
+     * The current generation, incremented on every invalidation. It is only changed while holding the lock.
+     */
+    private volatile long generation;
+
+    /**
+     * Constructs a new {@link RetrievalCache} instance.
+     *
+     * @param timeToLive the time after which an entry expires.
+     * @param maxSize    the maximum number of entries kept in the cache.
+     * @throws IllegalArgumentException if any of the parameters is not positive.
+     */
+    public RetrievalCache(final Duration timeToLive, final int maxSize) {
+        if (timeToLive.isNegative() || timeToLive.isZero() || maxSize <= 0) {
+            throw new IllegalArgumentException("Time to live and max size must be positive.");
+        }
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.maxSize = maxSize;
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    /**
+     * Returns the Documents cached for the given Retriever and Request text.
+     *
+     * @param retrieverName the name of the Retriever.
+     * @param queryText     the text of the transformed Request.
+     * @return an {@link Optional} containing the cached Documents, or an empty {@link Optional} on a cache miss.
+     */
+    public Optional<List<Document>> get(final String retrieverName, final String queryText) {
+        var key = new Key(retrieverName, queryText);
+        var entry = entries.get(key);
+        // An expired entry is removed when the lookup is replayed
+        var hit = entry != null && !entry.isExpired(System.nanoTime());
+        afterRead(key);
+        if (!hit) {
+            missCount.increment();
+            return Optional.empty();
+        }
+        hitCount.increment();
+        return Optional.of(entry.documents());
+    }
+
+    /**
+     * Stores the Documents for the given Retriever and Request text, provided the entry passes the admission policy,
+     * regardless of the invalidations performed while they were retrieved.
+     *
+     * @param retrieverName the name of the Retriever.
+     * @param queryText     the text of the transformed Request.
+     * @param documents     the Documents returned by the Retriever.
+     * @see #put(String, String, List, long)
+     */
+    public void put(final String retrieverName, final String queryText, final List<Document> documents) {
+        put(retrieverName, queryText, documents, Long.MAX_VALUE);
+    }
+
+    /**
+     * Stores the Documents for the given Retriever and Request text, provided the Retriever has not been invalidated
+     * since the given generation and the entry passes the admission policy. Documents retrieved before an
+     * invalidation are thus never cached after it.
+     *
+     * @param retrieverName the name of the Retriever.
+     * @param queryText     the text of the transformed Request.
+     * @param documents     the Documents returned by the Retriever.
+     * @param generation    the {@link #getGeneration() generation} taken before the retrieval started.
+     */
+    public void put(
+            final String retrieverName, final String queryText, final List<Document> documents, final long generation) {
+        var key = new Key(retrieverName, queryText);
+        var now = System.nanoTime();
+        var entry = new Entry(List.copyOf(documents), now + timeToLiveNanos);
+        lock.lock();
+        try {
+            var invalidatedAt =
+                    Math.max(invalidationGeneration, invalidationGenerations.getOrDefault(retrieverName, 0L));
+            if (generation < invalidatedAt) {
+                return;
+            }
+            drainReadBuffer(now);
+            if (accessOrder.containsKey(key) || accessOrder.size() < maxSize) {
+                accessOrder.put(key, entry);
+                entries.put(key, entry);
+                return;
+            }
+            var iterator = accessOrder.entrySet().iterator();
+            var victim = iterator.next();
+            if (victim.getValue().isExpired(now) || sketch.frequency(key) > sketch.frequency(victim.getKey())) {
+                iterator.remove();
+                entries.remove(victim.getKey());
+                evictionCount.increment();
+                accessOrder.put(key, entry);
+                entries.put(key, entry);
+            } else {
+                rejectionCount.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries of the given Retriever, e.g. after it has ingested new Documents.
+     *
+     * @param retrieverName the name of the Retriever.
+     */
+    public void invalidate(final String retrieverName) {
+        lock.lock();
+        try {
+            invalidationGenerations.put(retrieverName, ++generation);
+            accessOrder.keySet().removeIf(key -> key.retrieverName().equals(retrieverName));
+            entries.keySet().removeIf(key -> key.retrieverName().equals(retrieverName));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            invalidationGeneration = ++generation;
+            invalidationGenerations.clear();
+            accessOrder.clear();
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current generation of the cache, to be taken before a retrieval and passed to
+     * {@link #put(String, String, List, long)} with its Documents.
+     *
+     * @return the current generation.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the number of entries in the cache, including the expired ones that have not been purged yet.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of lookups that found cached Documents.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find cached Documents.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted to make room for more frequently requested ones.
+     *
+     * @return the number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Returns the number of entries rejected by the admission policy.
+     *
+     * @return the number of rejections.
+     */
+    public long getRejectionCount() {
+        return rejectionCount.sum();
+    }
+
+    /**
+     * Records a lookup in the lossy read buffer and replays the buffer once it is half full, unless another thread
+     * holds the lock.
+     */
+    private void afterRead(final Key key) {
+        if (readBufferSize.incrementAndGet() <= READ_BUFFER_SIZE) {
+            readBuffer.offer(key);
+        } else {
+            readBufferSize.decrementAndGet();
+        }
+        if (readBufferSize.get() >= READ_BUFFER_SIZE / 2 && lock.tryLock()) {
+            try {
+                drainReadBuffer(System.nanoTime());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replays the buffered lookups into the frequency sketch and the access order, removing the expired entries they
+     * found. Called with the lock held.
+     */
+    private void drainReadBuffer(final long now) {
+        Key key;
+        while ((key = readBuffer.poll()) != null) {
+            readBufferSize.decrementAndGet();
+            sketch.increment(key);
+            var entry = accessOrder.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                accessOrder.remove(key);
+                entries.remove(key, entry);
+            }
+        }
+    }
+
+    private record Key(String retrieverName, String queryText) {}
+
+    private record Entry(List<Document> documents, long expiresAt) {
+
+        boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
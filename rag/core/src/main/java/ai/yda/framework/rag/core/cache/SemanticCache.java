@@ -0,0 +1,242 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps values, such as generated Responses, indexed by the embedding of the Request text. A lookup returns the value
+ * stored for the most similar Request if its cosine similarity reaches the configured threshold. Entries expire after
+ * the configured time to live, and the oldest entries are evicted once the cache reaches its maximum size.
+ * <p>
+ * The index is kept in process and is scanned linearly, which is cheap for the few thousand entries a single
+ * application instance typically holds. Embeddings are normalized on insert, so the similarity is a plain dot product.
+ * </p>
+ *
+ * @param <V> the type of the cached values.
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class SemanticCache<V> {
+
+    /**
+     * The minimum cosine similarity between two Request embeddings for a cached value to be reused.
+     */
+    private final double similarityThreshold;
+
+    /**
+     * The time to live of a cache entry in nanoseconds.
+     */
+    private final long timeToLiveNanos;
+
+    /**
+     * The maximum number of entries kept in the cache.
+     */
+    private final int maxSize;
+
+    private final Map<String, Entry<V>> entries = new LinkedHashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Constructs a new {@link SemanticCache} instance.
+     *
+     * @param similarityThreshold the minimum cosine similarity, between {@code 0} and {@code 1}, for a cached value
+     *                            to be reused.
+     * @param timeToLive          the time after which an entry expires.
+     * @param maxSize             the maximum number of entries kept in the cache.
+     * @throws IllegalArgumentException if any of the parameters is out of range.
+     */
+    public SemanticCache(final double similarityThreshold, final Duration timeToLive, final int maxSize) {
+        if (similarityThreshold <= 0 || similarityThreshold > 1) {
+            throw new IllegalArgumentException("Similarity threshold must be in the (0, 1] range.");
+        }
+        if (timeToLive.isNegative() || timeToLive.isZero() || maxSize <= 0) {
+            throw new IllegalArgumentException("Time to live and max size must be positive.");
+        }
+        this.similarityThreshold = similarityThreshold;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the value stored for exactly the same Request text. This lookup does not need an embedding and is
+     * tried before the similarity search.
+     *
+     * @param text the Request text.
+     * @return an {@link Optional} containing the cached value, or an empty {@link Optional} if there is none.
+     */
+    public Optional<V> getExact(final String text) {
+        var now = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            var entry = entries.get(text);
+            if (entry != null && !entry.isExpired(now)) {
+                hitCount.increment();
+                return Optional.of(entry.value());
+            }
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the value stored for the Request most similar to the given embedding, provided their similarity reaches
+     * the threshold.
+     *
+     * @param embedding the embedding of the Request text.
+     * @return an {@link Optional} containing the cached value, or an empty {@link Optional} if there is no similar
+     * enough Request.
+     */
+    public Optional<V> get(final float[] embedding) {
+        var vector = normalize(embedding);
+        var now = System.nanoTime();
+        Entry<V> bestEntry = null;
+        var bestSimilarity = similarityThreshold;
+        lock.readLock().lock();
+        try {
+            for (var entry : entries.values()) {
+                if (entry.isExpired(now) || entry.vector().length != vector.length) {
+                    continue;
+                }
+                var similarity = dotProduct(entry.vector(), vector);
+                if (similarity >= bestSimilarity) {
+                    bestSimilarity = similarity;
+                    bestEntry = entry;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (bestEntry == null) {
+            missCount.increment();
+            return Optional.empty();
+        }
+        hitCount.increment();
+        return Optional.of(bestEntry.value());
+    }
+
+    /**
+     * Stores the value for the given Request text and its embedding. Expired entries are purged and the oldest
+     * entries are evicted if the cache is full.
+     *
+     * @param text      the Request text.
+     * @param embedding the embedding of the Request text.
+     * @param value     the value to store.
+     */
+    public void put(final String text, final float[] embedding, final V value) {
+        var now = System.nanoTime();
+        var entry = new Entry<>(normalize(embedding), value, now + timeToLiveNanos);
+        lock.writeLock().lock();
+        try {
+            entries.values().removeIf(existing -> existing.isExpired(now));
+            entries.remove(text);
+            var iterator = entries.values().iterator();
+            while (entries.size() >= maxSize && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+            entries.put(text, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries in the cache, including the expired ones that have not been purged yet.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found a cached value.
+     *
+     * @return the number of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of similarity lookups that did not find a cached value.
+     *
+     * @return the number of cache misses.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    private static float[] normalize(final float[] embedding) {
+        var norm = Math.sqrt(dotProduct(embedding, embedding));
+        var vector = new float[embedding.length];
+        if (norm == 0) {
+            return vector;
+        }
+        for (var i = 0; i < embedding.length; i++) {
+            vector[i] = (float) (embedding[i] / norm);
+        }
+        return vector;
+    }
+
+    private static double dotProduct(final float[] left, final float[] right) {
+        var result = 0.0;
+        for (var i = 0; i < left.length; i++) {
+            result += left[i] * right[i];
+        }
+        return result;
+    }
+
+    private record Entry<V>(float[] vector, V value, long expiresAt) {
+
+        boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
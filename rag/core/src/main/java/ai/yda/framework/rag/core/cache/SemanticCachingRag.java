@@ -0,0 +1,200 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.Rag;
+import ai.yda.framework.rag.core.generator.Generator;
+import ai.yda.framework.rag.core.model.RagResponse;
+
+/**
+ * Wraps a {@link Rag} and reuses the {@link RagResponse} generated for a semantically similar earlier Request. Only
+ * Requests without conversation history are cached, because the answer to a follow-up question depends on the
+ * preceding messages and not only on its own text. For the same reason nothing is cached if the Generator keeps the
+ * conversation in the Session, see {@link Generator#isStateful()}.
+ *
+ * @author Nikita Litvinov
+ * @see SemanticCache
+ * @since 0.2.0
+ */
+@Slf4j
+public class SemanticCachingRag implements Rag<Query, RagResponse> {
+
+    /**
+     * The {@link Rag} producing the Responses on a cache miss.
+     */
+    private final Rag<Query, RagResponse> delegate;
+
+    /**
+     * The {@link EmbeddingModel} used to embed the Request text.
+     */
+    private final EmbeddingModel embeddingModel;
+
+    /**
+     * The {@link SemanticCache} holding the generated Responses.
+     */
+    private final SemanticCache<RagResponse> cache;
+
+    /**
+     * Whether the Generator of the wrapped {@link Rag} keeps conversation state, in which case the cache is bypassed.
+     */
+    private final boolean statefulGenerator;
+
+    /**
+     * Constructs a new {@link SemanticCachingRag} instance wrapping a {@link Rag} with a stateless Generator.
+     *
+     * @param delegate       the {@link Rag} producing the Responses on a cache miss.
+     * @param embeddingModel the {@link EmbeddingModel} used to embed the Request text.
+     * @param cache          the {@link SemanticCache} holding the generated Responses.
+     */
+    public SemanticCachingRag(
+            final Rag<Query, RagResponse> delegate,
+            final EmbeddingModel embeddingModel,
+            final SemanticCache<RagResponse> cache) {
+        this(delegate, embeddingModel, cache, false);
+    }
+
+    /**
+     * Constructs a new {@link SemanticCachingRag} instance.
+     *
+     * @param delegate          the {@link Rag} producing the Responses on a cache miss.
+     * @param embeddingModel    the {@link EmbeddingModel} used to embed the Request text.
+     * @param cache             the {@link SemanticCache} holding the generated Responses.
+     * @param statefulGenerator whether the Generator of the wrapped {@link Rag} keeps conversation state, in which
+     *                          case every Request is delegated.
+     */
+    public SemanticCachingRag(
+            final Rag<Query, RagResponse> delegate,
+            final EmbeddingModel embeddingModel,
+            final SemanticCache<RagResponse> cache,
+            final boolean statefulGenerator) {
+        this.delegate = delegate;
+        this.embeddingModel = embeddingModel;
+        this.cache = cache;
+        this.statefulGenerator = statefulGenerator;
+    }
+
+    /**
+     * Returns the cached {@link RagResponse} of a similar Request, or delegates to the wrapped {@link Rag} and caches
+     * its Response.
+     *
+     * @param query the {@link Query} to process.
+     * @return the cached or the newly generated {@link RagResponse}.
+     */
+    @Override
+    public RagResponse doRag(final Query query) {
+        if (!isCacheable(query)) {
+            return delegate.doRag(query);
+        }
+
+        var cachedResponse = cache.getExact(query.text());
+        if (cachedResponse.isPresent()) {
+            return cachedResponse.get();
+        }
+
+        var embedding = embeddingModel.embed(query.text());
+        cachedResponse = cache.get(embedding);
+        if (cachedResponse.isPresent()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Semantic cache hit for query: {}", query.text());
+            }
+            return cachedResponse.get();
+        }
+
+        var response = delegate.doRag(query);
+        cache.put(query.text(), embedding, response);
+        return response;
+    }
+
+    /**
+     * Returns the cached {@link RagResponse} for each Request of the batch that has one and delegates the remaining
+     * Requests to the wrapped {@link Rag} as a single batch. The texts of all cacheable Requests are embedded with one
+     * {@link EmbeddingModel} call.
+     *
+     * @param queries the Requests to process.
+     * @return the cached or the newly generated Responses, in the order of the Requests.
+     */
+    @Override
+    public List<RagResponse> doRagBatch(final List<Query> queries) {
+        if (statefulGenerator) {
+            return delegate.doRagBatch(queries);
+        }
+
+        var responses = new ArrayList<RagResponse>(queries.size());
+        var embeddedIndexes = new ArrayList<Integer>();
+        for (var query : queries) {
+            var cachedResponse =
+                    isCacheable(query) ? cache.getExact(query.text()).orElse(null) : null;
+            if (cachedResponse == null && isCacheable(query)) {
+                embeddedIndexes.add(responses.size());
+            }
+            responses.add(cachedResponse);
+        }
+
+        var embeddings = embeddedIndexes.isEmpty()
+                ? List.<float[]>of()
+                : embeddingModel.embed(embeddedIndexes.stream()
+                        .map(index -> queries.get(index).text())
+                        .toList());
+        var embeddingsByIndex = new ArrayList<float[]>(queries.size());
+        queries.forEach(query -> embeddingsByIndex.add(null));
+        for (var i = 0; i < embeddedIndexes.size(); i++) {
+            var index = embeddedIndexes.get(i);
+            embeddingsByIndex.set(index, embeddings.get(i));
+            responses.set(index, cache.get(embeddings.get(i)).orElse(null));
+        }
+
+        var missingIndexes = new ArrayList<Integer>();
+        for (var i = 0; i < responses.size(); i++) {
+            if (responses.get(i) == null) {
+                missingIndexes.add(i);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "Semantic cache hits for batch: {} of {}", queries.size() - missingIndexes.size(), queries.size());
+        }
+        if (missingIndexes.isEmpty()) {
+            return responses;
+        }
+
+        var generated =
+                delegate.doRagBatch(missingIndexes.stream().map(queries::get).toList());
+        for (var i = 0; i < missingIndexes.size(); i++) {
+            var index = missingIndexes.get(i);
+            responses.set(index, generated.get(i));
+            if (embeddingsByIndex.get(index) != null) {
+                cache.put(queries.get(index).text(), embeddingsByIndex.get(index), generated.get(i));
+            }
+        }
+        return responses;
+    }
+
+    private boolean isCacheable(final Query query) {
+        return !statefulGenerator && query.history().isEmpty();
+    }
+}
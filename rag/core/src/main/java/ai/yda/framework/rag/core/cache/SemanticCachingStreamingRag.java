@@ -0,0 +1,144 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.StreamingRag;
+import ai.yda.framework.rag.core.generator.StreamingGenerator;
+import ai.yda.framework.rag.core.model.RagResponse;
+
+/**
+ * Wraps a {@link StreamingRag} and replays the stream of {@link RagResponse} generated for a semantically similar
+ * earlier Request. A stream is cached only after it completes successfully, so cancelled or failed generations are
+ * never replayed. Only Requests without conversation history are cached, and nothing is cached if the Generator keeps
+ * the conversation in the Session, see {@link StreamingGenerator#isStateful()}.
+ *
+ * @author Nikita Litvinov
+ * @see SemanticCache
+ * @since 0.2.0
+ */
+@Slf4j
+public class SemanticCachingStreamingRag implements StreamingRag<Query, RagResponse> {
+
+    /**
+     * The {@link StreamingRag} producing the Responses on a cache miss.
+     */
+    private final StreamingRag<Query, RagResponse> delegate;
+
+    /**
+     * The {@link EmbeddingModel} used to embed the Request text.
+     */
+    private final EmbeddingModel embeddingModel;
+
+    /**
+     * The {@link SemanticCache} holding the streamed Responses.
+     */
+    private final SemanticCache<List<RagResponse>> cache;
+
+    /**
+     * Whether the Generator of the wrapped {@link StreamingRag} keeps conversation state, in which case the cache is
+     * bypassed.
+     */
+    private final boolean statefulGenerator;
+
+    /**
+     * Constructs a new {@link SemanticCachingStreamingRag} instance wrapping a {@link StreamingRag} with a stateless
+     * Generator.
+     *
+     * @param delegate       the {@link StreamingRag} producing the Responses on a cache miss.
+     * @param embeddingModel the {@link EmbeddingModel} used to embed the Request text.
+     * @param cache          the {@link SemanticCache} holding the streamed Responses.
+     */
+    public SemanticCachingStreamingRag(
+            final StreamingRag<Query, RagResponse> delegate,
+            final EmbeddingModel embeddingModel,
+            final SemanticCache<List<RagResponse>> cache) {
+        this(delegate, embeddingModel, cache, false);
+    }
+
+    /**
+     * Constructs a new {@link SemanticCachingStreamingRag} instance.
+     *
+     * @param delegate          the {@link StreamingRag} producing the Responses on a cache miss.
+     * @param embeddingModel    the {@link EmbeddingModel} used to embed the Request text.
+     * @param cache             the {@link SemanticCache} holding the streamed Responses.
+     * @param statefulGenerator whether the Generator of the wrapped {@link StreamingRag} keeps conversation state, in
+     *                          which case every Request is delegated.
+     */
+    public SemanticCachingStreamingRag(
+            final StreamingRag<Query, RagResponse> delegate,
+            final EmbeddingModel embeddingModel,
+            final SemanticCache<List<RagResponse>> cache,
+            final boolean statefulGenerator) {
+        this.delegate = delegate;
+        this.embeddingModel = embeddingModel;
+        this.cache = cache;
+        this.statefulGenerator = statefulGenerator;
+    }
+
+    /**
+     * Replays the cached stream of {@link RagResponse} of a similar Request, or delegates to the wrapped
+     * {@link StreamingRag} and caches its stream once it completes.
+     *
+     * @param query the {@link Query} to process.
+     * @return a {@link Flux} stream of the cached or the newly generated {@link RagResponse} objects.
+     */
+    @Override
+    public Flux<RagResponse> streamRag(final Query query) {
+        if (statefulGenerator || !query.history().isEmpty()) {
+            return delegate.streamRag(query);
+        }
+
+        var cachedResponses = cache.getExact(query.text());
+        if (cachedResponses.isPresent()) {
+            return Flux.fromIterable(cachedResponses.get());
+        }
+
+        return Mono.fromCallable(() -> embeddingModel.embed(query.text()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(embedding -> cache.get(embedding)
+                        .map(responses -> {
+                            if (log.isDebugEnabled()) {
+                                log.debug("Semantic cache hit for query: {}", query.text());
+                            }
+                            return Flux.fromIterable(responses);
+                        })
+                        .orElseGet(() -> streamAndCache(query, embedding)));
+    }
+
+    private Flux<RagResponse> streamAndCache(final Query query, final float[] embedding) {
+        return Flux.defer(() -> {
+            var responses = new ArrayList<RagResponse>();
+            return delegate.streamRag(query)
+                    .doOnNext(responses::add)
+                    .doOnComplete(() -> cache.put(query.text(), embedding, List.copyOf(responses)));
+        });
+    }
+}
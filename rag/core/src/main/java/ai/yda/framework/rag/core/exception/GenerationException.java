@@ -0,0 +1,48 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.exception;
+
+/**
+ * Thrown to indicate that the generation stage of the RAG process has failed.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class GenerationException extends RuntimeException {
+
+    /**
+     * Constructs a new {@link GenerationException} instance with the specified message.
+     *
+     * @param message the detail message of the exception.
+     */
+    public GenerationException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new {@link GenerationException} instance with the specified cause.
+     * This constructor initializes the exception with a predefined message "Failed to generate Response".
+     *
+     * @param cause the cause of the exception, which can be retrieved later using {@link Throwable#getCause()}.
+     */
+    public GenerationException(final Throwable cause) {
+        super("Failed to generate Response", cause);
+    }
+}
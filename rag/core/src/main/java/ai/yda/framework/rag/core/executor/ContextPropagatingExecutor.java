@@ -0,0 +1,69 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.executor;
+
+import java.util.concurrent.Executor;
+
+import io.micrometer.context.ContextSnapshotFactory;
+
+/**
+ * Decorates an {@link Executor} so that the thread-local context of the submitting thread, such as the current
+ * Observation and its tracing span, is restored on the thread running the task. Without it, the spans of work handed
+ * off to another thread are detached from the trace of the Request.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class ContextPropagatingExecutor implements Executor {
+
+    private static final ContextSnapshotFactory SNAPSHOT_FACTORY =
+            ContextSnapshotFactory.builder().build();
+
+    private final Executor delegate;
+
+    private ContextPropagatingExecutor(final Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Wraps the given {@link Executor}, unless it already propagates the context.
+     *
+     * @param executor the {@link Executor} to wrap.
+     * @return the {@link Executor} propagating the context of the submitting thread.
+     */
+    public static Executor wrap(final Executor executor) {
+        return executor instanceof ContextPropagatingExecutor ? executor : new ContextPropagatingExecutor(executor);
+    }
+
+    /**
+     * Wraps the given task so that it runs with the context of the current thread.
+     *
+     * @param task the task to wrap.
+     * @return the task restoring the captured context while it runs.
+     */
+    public static Runnable wrap(final Runnable task) {
+        return SNAPSHOT_FACTORY.captureAll().wrap(task);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        delegate.execute(wrap(command));
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.executor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes blocking retrieval work, such as Retriever calls and Document ingestion, outside of the
+ * {@link java.util.concurrent.ForkJoinPool#commonPool()}. Two modes are supported:
+ * <ul>
+ *     <li>
+ *         {@link Mode#PLATFORM} - a bounded pool of platform threads with a bounded queue. When both are saturated the
+ *         task is rejected with a {@link RejectedExecutionException}. Running it on the submitting thread instead
+ *         would escape the retrieval deadline and block callers expecting asynchronous execution, so the RAG
+ *         implementations report a rejected Retriever as cut off.
+ *     </li>
+ *     <li>
+ *         {@link Mode#VIRTUAL} - a virtual thread per task. Virtual threads are only available on Java 21 and newer,
+ *         on older runtimes this mode falls back to the {@link Mode#PLATFORM} one.
+ *     </li>
+ * </ul>
+ * The executor keeps track of the number of queued, active, completed and rejected tasks, which can be published as
+ * metrics.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@Slf4j
+public class RetrievalExecutor implements Executor, AutoCloseable {
+
+    /**
+     * The default maximum number of platform threads.
+     */
+    public static final int DEFAULT_MAX_THREADS = 64;
+
+    /**
+     * The default capacity of the queue holding tasks waiting for a platform thread.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private static final String THREAD_NAME_PREFIX = "yda-retrieval-";
+
+    /**
+     * The mode the executor actually runs in.
+     */
+    @Getter
+    private final Mode mode;
+
+    private final ExecutorService delegate;
+
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+
+    private final AtomicInteger activeTasks = new AtomicInteger();
+
+    private final LongAdder completedTasks = new LongAdder();
+
+    private final LongAdder rejectedTasks = new LongAdder();
+
+    private RetrievalExecutor(final Mode mode, final ExecutorService delegate) {
+        this.mode = mode;
+        this.delegate = delegate;
+    }
+
+    /**
+     * Creates a {@link RetrievalExecutor} backed by a bounded pool of platform threads.
+     *
+     * @param maxThreads    the maximum number of threads in the pool.
+     * @param queueCapacity the maximum number of tasks waiting for a free thread.
+     * @return a new {@link RetrievalExecutor} instance.
+     * @throws IllegalArgumentException if {@code maxThreads} or {@code queueCapacity} is not a positive number.
+     */
+    public static RetrievalExecutor platform(final int maxThreads, final int queueCapacity) {
+        if (maxThreads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Max threads and queue capacity must be positive numbers.");
+        }
+        var threadPoolExecutor = new ThreadPoolExecutor(
+                maxThreads,
+                maxThreads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new RetrievalThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return new RetrievalExecutor(Mode.PLATFORM, threadPoolExecutor);
+    }
+
+    /**
+     * Creates a {@link RetrievalExecutor} that starts a new virtual thread for each task. If the runtime does not
+     * support virtual threads, a platform thread pool with the default bounds is created instead.
+     *
+     * @return a new {@link RetrievalExecutor} instance.
+     */
+    public static RetrievalExecutor virtual() {
+        try {
+            var executorService = (ExecutorService)
+                    Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            return new RetrievalExecutor(Mode.VIRTUAL, executorService);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not supported by the current runtime, falling back to platform threads");
+            return platform(DEFAULT_MAX_THREADS, DEFAULT_QUEUE_CAPACITY);
+        }
+    }
+
+    /**
+     * Creates a {@link RetrievalExecutor} in the given mode.
+     *
+     * @param mode          the requested {@link Mode}.
+     * @param maxThreads    the maximum number of threads, used by the {@link Mode#PLATFORM} mode only.
+     * @param queueCapacity the maximum number of waiting tasks, used by the {@link Mode#PLATFORM} mode only.
+     * @return a new {@link RetrievalExecutor} instance.
+     */
+    public static RetrievalExecutor create(final Mode mode, final int maxThreads, final int queueCapacity) {
+        return mode == Mode.VIRTUAL ? virtual() : platform(maxThreads, queueCapacity);
+    }
+
+    /**
+     * Submits the task.
+     *
+     * @param task the task to run.
+     * @throws RejectedExecutionException if the executor is closed or its threads and queue are saturated.
+     */
+    @Override
+    public void execute(final Runnable task) {
+        if (delegate.isShutdown()) {
+            rejectedTasks.increment();
+            throw new RejectedExecutionException("Retrieval executor has been closed");
+        }
+        queuedTasks.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queuedTasks.decrementAndGet();
+                activeTasks.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    activeTasks.decrementAndGet();
+                    completedTasks.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queuedTasks.decrementAndGet();
+            rejectedTasks.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of tasks submitted but not started yet.
+     *
+     * @return the current queue depth.
+     */
+    public int getQueueDepth() {
+        return queuedTasks.get();
+    }
+
+    /**
+     * Returns the number of tasks being executed right now.
+     *
+     * @return the current number of active tasks.
+     */
+    public int getActiveTasks() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Returns the number of tasks completed since the executor was created.
+     *
+     * @return the total number of completed tasks.
+     */
+    public long getCompletedTasks() {
+        return completedTasks.sum();
+    }
+
+    /**
+     * Returns the number of tasks rejected since the executor was created.
+     *
+     * @return the total number of rejected tasks.
+     */
+    public long getRejectedTasks() {
+        return rejectedTasks.sum();
+    }
+
+    /**
+     * Stops accepting new tasks and lets the already submitted ones finish.
+     */
+    @Override
+    public void close() {
+        delegate.shutdown();
+    }
+
+    /**
+     * The kind of threads used by the {@link RetrievalExecutor}.
+     */
+    public enum Mode {
+        /**
+         * A bounded pool of platform threads.
+         */
+        PLATFORM,
+
+        /**
+         * A virtual thread per task.
+         */
+        VIRTUAL
+    }
+
+    private static final class RetrievalThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            var thread = new Thread(runnable, THREAD_NAME_PREFIX + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.fusion;
+
+import java.util.List;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * Merges the ranked lists of {@link Document} returned by several Retrievers into the single list of Documents passed
+ * to the Query Augmenters. This is the stage between retrieval and augmentation of the RAG process.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface DocumentFuser {
+
+    /**
+     * The fuser that concatenates the lists in the order of the Retrievers without reranking or deduplication.
+     */
+    DocumentFuser CONCATENATION =
+            rankedLists -> rankedLists.stream().flatMap(List::stream).toList();
+
+    /**
+     * Merges the ranked lists of Documents into a single list.
+     *
+     * @param rankedLists the lists of Documents, one per Retriever, each ordered by relevance.
+     * @return the merged list of Documents ordered by relevance.
+     */
+    List<Document> fuse(List<List<Document>> rankedLists);
+}
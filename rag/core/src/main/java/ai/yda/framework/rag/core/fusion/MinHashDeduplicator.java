@@ -0,0 +1,185 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.fusion;
+
+import java.util.Arrays;
+
+/**
+ * Detects near-duplicate texts by estimating the Jaccard similarity of their word shingles with MinHash signatures.
+ * Texts are tokenized in a single pass into lowercase alphanumeric words, so punctuation, casing and whitespace
+ * differences do not prevent two chunks from being recognized as duplicates. Texts without any word, e.g. empty
+ * ones, have no shingles to compare and are never considered duplicates.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class MinHashDeduplicator {
+
+    /**
+     * The default number of hash functions in a signature.
+     */
+    public static final int DEFAULT_NUM_HASHES = 64;
+
+    /**
+     * The default number of words in a shingle.
+     */
+    public static final int DEFAULT_SHINGLE_SIZE = 3;
+
+    /**
+     * The default estimated Jaccard similarity above which two texts are considered near-duplicates.
+     */
+    public static final double DEFAULT_SIMILARITY_THRESHOLD = 0.85;
+
+    /**
+     * The signature of the texts without any shingle; being empty, it can be shared.
+     */
+    private static final long[] EMPTY_SIGNATURE = new long[0];
+
+    private final int numHashes;
+
+    private final int shingleSize;
+
+    private final double similarityThreshold;
+
+    private final long[] seeds;
+
+    /**
+     * Constructs a new {@link MinHashDeduplicator} instance with the default settings.
+     */
+    public MinHashDeduplicator() {
+        this(DEFAULT_NUM_HASHES, DEFAULT_SHINGLE_SIZE, DEFAULT_SIMILARITY_THRESHOLD);
+    }
+
+    /**
+     * Constructs a new {@link MinHashDeduplicator} instance.
+     *
+     * @param numHashes           the number of hash functions in a signature.
+     * @param shingleSize         the number of words in a shingle.
+     * @param similarityThreshold the estimated Jaccard similarity above which two texts are considered duplicates.
+     * @throws IllegalArgumentException if any of the parameters is out of range.
+     */
+    public MinHashDeduplicator(final int numHashes, final int shingleSize, final double similarityThreshold) {
+        if (numHashes <= 0 || shingleSize <= 0 || similarityThreshold <= 0 || similarityThreshold > 1) {
+            throw new IllegalArgumentException("Invalid MinHash parameters.");
+        }
+        this.numHashes = numHashes;
+        this.shingleSize = shingleSize;
+        this.similarityThreshold = similarityThreshold;
+        this.seeds = new long[numHashes];
+        var seed = 0x9E3779B97F4A7C15L;
+        for (var i = 0; i < numHashes; i++) {
+            seed = mix(seed + i);
+            seeds[i] = seed;
+        }
+    }
+
+    /**
+     * Computes the MinHash signature of the text.
+     *
+     * @param text the text to compute the signature for.
+     * @return the signature of the text, empty if the text has no words.
+     */
+    public long[] signature(final CharSequence text) {
+        var signature = new long[numHashes];
+        Arrays.fill(signature, Long.MAX_VALUE);
+
+        var window = new long[shingleSize];
+        var words = 0;
+        var wordHash = 0L;
+        var inWord = false;
+        for (var i = 0; i <= text.length(); i++) {
+            var c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                wordHash = 31 * wordHash + Character.toLowerCase(c);
+                inWord = true;
+            } else if (inWord) {
+                window[words % shingleSize] = wordHash;
+                words++;
+                if (words >= shingleSize) {
+                    addShingle(signature, shingleHash(window, words));
+                }
+                wordHash = 0L;
+                inWord = false;
+            }
+        }
+        if (words == 0) {
+            return EMPTY_SIGNATURE;
+        }
+        if (words < shingleSize) {
+            addShingle(signature, shingleHash(window, words));
+        }
+        return signature;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of the texts the signatures were computed for.
+     *
+     * @param left  the signature of the first text.
+     * @param right the signature of the second text.
+     * @return the estimated similarity between {@code 0} and {@code 1}, {@code 0} if either text has no words.
+     */
+    public double similarity(final long[] left, final long[] right) {
+        if (left.length == 0 || right.length == 0) {
+            return 0;
+        }
+        var matches = 0;
+        for (var i = 0; i < numHashes; i++) {
+            if (left[i] == right[i]) {
+                matches++;
+            }
+        }
+        return (double) matches / numHashes;
+    }
+
+    /**
+     * Checks whether the texts the signatures were computed for are near-duplicates.
+     *
+     * @param left  the signature of the first text.
+     * @param right the signature of the second text.
+     * @return {@code true} if the estimated similarity reaches the threshold, {@code false} otherwise.
+     */
+    public boolean isDuplicate(final long[] left, final long[] right) {
+        return similarity(left, right) >= similarityThreshold;
+    }
+
+    private void addShingle(final long[] signature, final long shingleHash) {
+        for (var i = 0; i < numHashes; i++) {
+            var hash = mix(shingleHash ^ seeds[i]);
+            if (hash < signature[i]) {
+                signature[i] = hash;
+            }
+        }
+    }
+
+    private long shingleHash(final long[] window, final int words) {
+        var hash = 0L;
+        var size = Math.min(words, shingleSize);
+        for (var i = words - size; i < words; i++) {
+            hash = 31 * hash + window[i % shingleSize];
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
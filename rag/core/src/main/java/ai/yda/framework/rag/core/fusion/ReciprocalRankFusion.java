@@ -0,0 +1,147 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.fusion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * Merges the ranked lists of {@link Document} with Reciprocal Rank Fusion: every Document scores {@code 1 / (k + rank)}
+ * for each list it appears in, so Documents ranked high by several Retrievers come first regardless of how the
+ * Retrievers score relevance internally. Exact duplicates (the same text) are merged before scoring, near-duplicates
+ * detected by the {@link MinHashDeduplicator} are folded into their best ranked counterpart, and the result is capped
+ * at the configured number of Documents.
+ *
+ * @author Nikita Litvinov
+ * @see MinHashDeduplicator
+ * @since 0.2.0
+ */
+public class ReciprocalRankFusion implements DocumentFuser {
+
+    /**
+     * The default rank constant {@code k}, which dampens the influence of the top ranks.
+     */
+    public static final int DEFAULT_RANK_CONSTANT = 60;
+
+    /**
+     * The rank constant {@code k}.
+     */
+    private final int rankConstant;
+
+    /**
+     * The maximum number of Documents returned.
+     */
+    private final int topN;
+
+    /**
+     * The {@link MinHashDeduplicator} used to detect near-duplicates, or {@code null} if only exact duplicates are
+     * removed.
+     */
+    private final MinHashDeduplicator deduplicator;
+
+    /**
+     * Constructs a new {@link ReciprocalRankFusion} instance.
+     *
+     * @param rankConstant the rank constant {@code k}.
+     * @param topN         the maximum number of Documents returned.
+     * @param deduplicator the {@link MinHashDeduplicator} used to detect near-duplicates, or {@code null} to remove
+     *                     only exact duplicates.
+     * @throws IllegalArgumentException if {@code rankConstant} is negative or {@code topN} is not positive.
+     */
+    public ReciprocalRankFusion(final int rankConstant, final int topN, final MinHashDeduplicator deduplicator) {
+        if (rankConstant < 0 || topN <= 0) {
+            throw new IllegalArgumentException("Rank constant must not be negative and topN must be positive.");
+        }
+        this.rankConstant = rankConstant;
+        this.topN = topN;
+        this.deduplicator = deduplicator;
+    }
+
+    @Override
+    public List<Document> fuse(final List<List<Document>> rankedLists) {
+        var candidates = new LinkedHashMap<String, Candidate>();
+        for (var rankedList : rankedLists) {
+            for (var rank = 0; rank < rankedList.size(); rank++) {
+                var document = rankedList.get(rank);
+                var score = 1.0 / (rankConstant + rank + 1);
+                var text = document.getText() != null ? document.getText() : document.getId();
+                candidates.computeIfAbsent(text, key -> new Candidate(document)).score += score;
+            }
+        }
+
+        var ranked = new ArrayList<>(candidates.values());
+        ranked.sort(Comparator.comparingDouble(Candidate::getScore).reversed());
+        if (deduplicator != null) {
+            ranked = foldNearDuplicates(ranked);
+            ranked.sort(Comparator.comparingDouble(Candidate::getScore).reversed());
+        }
+
+        return ranked.stream().limit(topN).map(Candidate::getDocument).toList();
+    }
+
+    /**
+     * Folds every Candidate into the first better ranked Candidate it is a near-duplicate of, adding up their scores.
+     */
+    private ArrayList<Candidate> foldNearDuplicates(final List<Candidate> ranked) {
+        var representatives = new ArrayList<Candidate>();
+        for (var candidate : ranked) {
+            var text = candidate.document.getText();
+            candidate.signature = deduplicator.signature(text != null ? text : "");
+            Candidate duplicateOf = null;
+            for (var representative : representatives) {
+                if (deduplicator.isDuplicate(representative.signature, candidate.signature)) {
+                    duplicateOf = representative;
+                    break;
+                }
+            }
+            if (duplicateOf != null) {
+                duplicateOf.score += candidate.score;
+            } else {
+                representatives.add(candidate);
+            }
+        }
+        return representatives;
+    }
+
+    private static final class Candidate {
+
+        private final Document document;
+
+        private double score;
+
+        private long[] signature;
+
+        private Candidate(final Document document) {
+            this.document = document;
+        }
+
+        private Document getDocument() {
+            return document;
+        }
+
+        private double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.generator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.model.RagResponse;
+
+/**
+ * Provides a generic mechanism that takes the User's Request and the retrieved Context to produce a final Response
+ * without blocking the calling thread, e.g. by consuming a non-blocking language model API.
+ *
+ * @param <QUERY>    the generic type of the query from the User, which must extend {@link Query}.
+ * @param <RESPONSE> the generic type of the Response generated based on the given Request, which must extend
+ *                   {@link RagResponse}.
+ * @author Nikita Litvinov
+ * @see Generator
+ * @since 0.2.0
+ */
+public interface AsyncGenerator<QUERY extends Query, RESPONSE extends RagResponse> {
+
+    /**
+     * Generates Response based on the provided Request and Context asynchronously.
+     *
+     * @param query the Request object that contains query data from the User.
+     * @return a {@link CompletableFuture} completed with the generated Response, or exceptionally if the generation
+     * fails.
+     */
+    CompletableFuture<RESPONSE> generateAsync(QUERY query);
+
+    /**
+     * Returns the asynchronous view of the given {@link Generator}. Generators already implementing
+     * {@link AsyncGenerator} are returned as is, others are run on the given {@link Executor} and still occupy one of
+     * its threads for the whole generation. Cancelling the returned future interrupts that thread.
+     *
+     * @param generator  the {@link Generator} to adapt.
+     * @param executor   the {@link Executor} running blocking generations.
+     * @param <QUERY>    the generic type of the Request.
+     * @param <RESPONSE> the generic type of the Response.
+     * @return the asynchronous view of the {@link Generator}.
+     */
+    @SuppressWarnings("unchecked")
+    static <QUERY extends Query, RESPONSE extends RagResponse> AsyncGenerator<QUERY, RESPONSE> of(
+            final Generator<QUERY, RESPONSE> generator, final Executor executor) {
+        if (generator instanceof AsyncGenerator<?, ?> asyncGenerator) {
+            return (AsyncGenerator<QUERY, RESPONSE>) asyncGenerator;
+        }
+        return query -> {
+            var future = new CompletableFuture<RESPONSE>();
+            var task = new FutureTask<Void>(
+                    () -> {
+                        try {
+                            future.complete(generator.generate(query));
+                        } catch (Throwable e) {
+                            future.completeExceptionally(e);
+                        }
+                    },
+                    null);
+            future.whenComplete((response, e) -> {
+                if (future.isCancelled()) {
+                    task.cancel(true);
+                }
+            });
+            executor.execute(task);
+            return future;
+        };
+    }
+}
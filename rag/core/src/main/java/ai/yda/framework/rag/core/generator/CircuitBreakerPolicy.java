@@ -0,0 +1,574 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.generator;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import ai.yda.framework.rag.core.exception.GenerationException;
+import ai.yda.framework.rag.core.executor.ContextPropagatingExecutor;
+
+/**
+ * Protects the RAG process from a degraded generator. Every call is bounded by a timeout, and a circuit breaker stops
+ * calling the generator once too many of the recent calls failed or were slow:
+ * <ul>
+ *     <li>{@link State#CLOSED} - calls pass through; their outcomes are kept in a rolling window of the last
+ *     {@code windowSize} calls. Once at least {@code minimumCalls} are recorded and the rate of failed or of slow
+ *     calls reaches its threshold, the circuit opens.</li>
+ *     <li>{@link State#OPEN} - calls are rejected without reaching the generator for {@code openDuration}.</li>
+ *     <li>{@link State#HALF_OPEN} - {@code halfOpenCalls} trial calls are let through. The circuit closes if all of
+ *     them succeed in time and opens again on the first failed or slow one.</li>
+ * </ul>
+ * Rejected, failed and timed out calls are answered by the fallback generator, if any, otherwise their exception is
+ * propagated. A policy keeps the statistics of a single generator and must not be shared between generators.
+ *
+ * @author Nikita Litvinov
+ * @see ResilientGenerator
+ * @see ResilientStreamingGenerator
+ * @since 0.2.0
+ */
+@Slf4j
+public class CircuitBreakerPolicy {
+
+    /**
+     * The default timeout of a generator call.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(60);
+
+    /**
+     * The default rate of failed calls opening the circuit.
+     */
+    public static final double DEFAULT_FAILURE_RATE_THRESHOLD = 0.5;
+
+    /**
+     * The default rate of slow calls opening the circuit.
+     */
+    public static final double DEFAULT_SLOW_CALL_RATE_THRESHOLD = 0.5;
+
+    /**
+     * The default duration after which a call is considered slow.
+     */
+    public static final Duration DEFAULT_SLOW_CALL_DURATION = Duration.ofSeconds(20);
+
+    /**
+     * The default number of most recent calls the rates are computed from.
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 50;
+
+    /**
+     * The default number of calls that must be recorded before the circuit may open.
+     */
+    public static final int DEFAULT_MINIMUM_CALLS = 10;
+
+    /**
+     * The default time the circuit stays open.
+     */
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    /**
+     * The default number of trial calls in the half-open state.
+     */
+    public static final int DEFAULT_HALF_OPEN_CALLS = 3;
+
+    private static final byte FAILED = 1;
+
+    private static final byte SLOW = 2;
+
+    private final long timeoutNanos;
+
+    private final double failureRateThreshold;
+
+    private final double slowCallRateThreshold;
+
+    private final long slowCallNanos;
+
+    private final int minimumCalls;
+
+    private final long openNanos;
+
+    private final int halfOpenCalls;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Executor executor;
+
+    private final byte[] outcomes;
+
+    private final Map<State, AtomicLong> transitionCounts = new EnumMap<>(State.class);
+
+    private final AtomicLong rejectionCount = new AtomicLong();
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    private final AtomicLong fallbackCount = new AtomicLong();
+
+    private volatile State state = State.CLOSED;
+
+    private int recordedCalls;
+
+    private int failedCalls;
+
+    private int slowCalls;
+
+    private long openUntilNanos;
+
+    private int halfOpenPermits;
+
+    private int halfOpenSuccesses;
+
+    /**
+     * Constructs a new {@link CircuitBreakerPolicy} instance. Parameters left {@code null} fall back to their defaults.
+     * Use {@link #builder()} to set only some of them.
+     *
+     * @param timeout               the timeout of a generator call, {@link #DEFAULT_TIMEOUT} by default. A streaming
+     *                              call must emit its first Response within it.
+     * @param failureRateThreshold  the rate of failed calls opening the circuit, between 0 and 1.
+     * @param slowCallRateThreshold the rate of slow calls opening the circuit, between 0 and 1.
+     * @param slowCallDuration      the duration after which a call, or the first Response of a streaming call, is
+     *                              considered slow.
+     * @param windowSize            the number of most recent calls the rates are computed from.
+     * @param minimumCalls          the number of calls that must be recorded before the circuit may open.
+     * @param openDuration          the time the circuit stays open before trial calls are let through.
+     * @param halfOpenCalls         the number of trial calls in the half-open state.
+     * @param executor              the {@link Executor} running the blocking generator calls so that they can be timed
+     *                              out, or {@code null} to use a shared pool of at most 64 daemon threads queueing up
+     *                              to 1000 calls. Calls rejected by a saturated executor count as failed.
+     * @throws IllegalArgumentException if a threshold is not between 0 and 1 or a size or duration is not positive.
+     */
+    @Builder
+    public CircuitBreakerPolicy(
+            final Duration timeout,
+            final Double failureRateThreshold,
+            final Double slowCallRateThreshold,
+            final Duration slowCallDuration,
+            final Integer windowSize,
+            final Integer minimumCalls,
+            final Duration openDuration,
+            final Integer halfOpenCalls,
+            final Executor executor) {
+        this.timeoutNanos = positive(timeout != null ? timeout : DEFAULT_TIMEOUT, "timeout");
+        this.failureRateThreshold =
+                rate(failureRateThreshold != null ? failureRateThreshold : DEFAULT_FAILURE_RATE_THRESHOLD);
+        this.slowCallRateThreshold =
+                rate(slowCallRateThreshold != null ? slowCallRateThreshold : DEFAULT_SLOW_CALL_RATE_THRESHOLD);
+        this.slowCallNanos =
+                positive(slowCallDuration != null ? slowCallDuration : DEFAULT_SLOW_CALL_DURATION, "slowCallDuration");
+        this.outcomes = new byte[positive(windowSize != null ? windowSize : DEFAULT_WINDOW_SIZE, "windowSize")];
+        this.minimumCalls = positive(minimumCalls != null ? minimumCalls : DEFAULT_MINIMUM_CALLS, "minimumCalls");
+        this.openNanos = positive(openDuration != null ? openDuration : DEFAULT_OPEN_DURATION, "openDuration");
+        this.halfOpenCalls = positive(halfOpenCalls != null ? halfOpenCalls : DEFAULT_HALF_OPEN_CALLS, "halfOpenCalls");
+        this.executor = ContextPropagatingExecutor.wrap(executor != null ? executor : DefaultExecutorHolder.EXECUTOR);
+        for (var value : State.values()) {
+            transitionCounts.put(value, new AtomicLong());
+        }
+    }
+
+    private static long positive(final Duration duration, final String name) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return duration.toNanos();
+    }
+
+    private static int positive(final int value, final String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    private static double rate(final double value) {
+        if (value <= 0 || value > 1) {
+            throw new IllegalArgumentException("Rate thresholds must be greater than 0 and at most 1");
+        }
+        return value;
+    }
+
+    /**
+     * Executes the given blocking generator call on the executor of this policy, waiting for it at most the timeout.
+     *
+     * @param call     the generator call.
+     * @param fallback the fallback call, or {@code null} to propagate the failure.
+     * @param <T>      the result type of the call.
+     * @return the result of the call, or of the fallback call if the call was rejected or failed.
+     * @throws RuntimeException    the exception thrown by the call if it failed and there is no fallback.
+     * @throws GenerationException if the call was rejected, timed out or failed with a checked exception and there is
+     *                             no fallback.
+     */
+    public <T> T execute(final Supplier<T> call, final Supplier<T> fallback) {
+        if (!tryAcquirePermission()) {
+            return fallback(fallback, null);
+        }
+        var start = System.nanoTime();
+        var task = new FutureTask<>(call::get);
+        try {
+            executor.execute(task);
+            var result = task.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            onResult(false, System.nanoTime() - start);
+            return result;
+        } catch (final TimeoutException exception) {
+            timeoutCount.incrementAndGet();
+            onResult(true, System.nanoTime() - start);
+            return fallback(fallback, new GenerationException(exception));
+        } catch (final ExecutionException exception) {
+            onResult(true, System.nanoTime() - start);
+            return fallback(
+                    fallback,
+                    exception.getCause() instanceof RuntimeException cause
+                            ? cause
+                            : new GenerationException(exception.getCause()));
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            releasePermission();
+            throw new GenerationException(exception);
+        } catch (final RuntimeException exception) {
+            // The executor rejected the call
+            onResult(true, System.nanoTime() - start);
+            return fallback(fallback, exception);
+        } finally {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Executes the given asynchronous generator call, completing it exceptionally if it exceeds the timeout. A timed
+     * out call is cancelled, so that a generation which supports cancellation stops instead of running on unobserved.
+     *
+     * @param call     the generator call.
+     * @param fallback the fallback call, or {@code null} to propagate the failure.
+     * @param <T>      the result type of the call.
+     * @return a {@link CompletableFuture} completed with the result of the call, or of the fallback call if the call
+     * was rejected or failed.
+     */
+    public <T> CompletableFuture<T> executeAsync(
+            final Supplier<CompletableFuture<T>> call, final Supplier<CompletableFuture<T>> fallback) {
+        if (!tryAcquirePermission()) {
+            return fallbackAsync(fallback, null);
+        }
+        var start = System.nanoTime();
+        CompletableFuture<T> source;
+        try {
+            source = call.get();
+        } catch (RuntimeException e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+        var generation = source;
+        // The timeout completes a copy, the source is only cancelled, so that its producer learns about it
+        return source.copy()
+                .orTimeout(timeoutNanos, TimeUnit.NANOSECONDS)
+                .whenComplete((result, e) -> {
+                    onResult(e != null, System.nanoTime() - start);
+                    if (e instanceof TimeoutException) {
+                        generation.cancel(true);
+                    }
+                })
+                .exceptionallyCompose(e -> {
+                    var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof TimeoutException) {
+                        timeoutCount.incrementAndGet();
+                        cause = new GenerationException(cause);
+                    }
+                    return fallbackAsync(fallback, cause);
+                });
+    }
+
+    /**
+     * Executes the given streaming generator call, failing it if the first Response is not emitted within the timeout.
+     * Once the first Response is emitted the call is recorded as successful and later errors are propagated without
+     * falling back, as the already emitted Responses cannot be taken back.
+     *
+     * @param call     the generator call.
+     * @param fallback the fallback call, or {@code null} to propagate the failure.
+     * @param <T>      the type of the emitted Responses.
+     * @return a {@link Flux} of the Responses of the call, or of the fallback call if the call was rejected or failed
+     * before its first Response.
+     */
+    public <T> Flux<T> executeStreaming(final Supplier<Flux<T>> call, final Supplier<Flux<T>> fallback) {
+        return Flux.defer(() -> {
+            if (!tryAcquirePermission()) {
+                return fallbackStreaming(fallback, null);
+            }
+            var start = System.nanoTime();
+            var recorded = new AtomicBoolean();
+            return Flux.defer(call::get)
+                    .timeout(Mono.delay(Duration.ofNanos(timeoutNanos)), response -> Mono.never())
+                    .doOnNext(response -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            onResult(false, System.nanoTime() - start);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            onResult(false, System.nanoTime() - start);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            releasePermission();
+                        }
+                    })
+                    .onErrorResume(e -> {
+                        if (!recorded.compareAndSet(false, true)) {
+                            return Flux.error(e);
+                        }
+                        onResult(true, System.nanoTime() - start);
+                        if (e instanceof TimeoutException) {
+                            timeoutCount.incrementAndGet();
+                            return fallbackStreaming(fallback, new GenerationException(e));
+                        }
+                        return fallbackStreaming(fallback, e);
+                    });
+        });
+    }
+
+    private <T> T fallback(final Supplier<T> fallback, final RuntimeException cause) {
+        if (fallback == null) {
+            throw cause != null ? cause : openCircuitException();
+        }
+        fallbackCount.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug("Falling back to the secondary generator", cause);
+        }
+        return fallback.get();
+    }
+
+    private <T> CompletableFuture<T> fallbackAsync(
+            final Supplier<CompletableFuture<T>> fallback, final Throwable cause) {
+        if (fallback == null) {
+            return CompletableFuture.failedFuture(cause != null ? cause : openCircuitException());
+        }
+        fallbackCount.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug("Falling back to the secondary generator", cause);
+        }
+        return fallback.get();
+    }
+
+    private <T> Flux<T> fallbackStreaming(final Supplier<Flux<T>> fallback, final Throwable cause) {
+        if (fallback == null) {
+            return Flux.error(cause != null ? cause : openCircuitException());
+        }
+        fallbackCount.incrementAndGet();
+        if (log.isDebugEnabled()) {
+            log.debug("Falling back to the secondary generator", cause);
+        }
+        return Flux.defer(fallback::get);
+    }
+
+    private GenerationException openCircuitException() {
+        return new GenerationException("The circuit breaker of the generator is open");
+    }
+
+    private synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && System.nanoTime() - openUntilNanos >= 0) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+            return true;
+        }
+        rejectionCount.incrementAndGet();
+        return false;
+    }
+
+    private synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    private synchronized void onResult(final boolean failed, final long nanos) {
+        var outcome = (byte) ((failed ? FAILED : 0) | (nanos > slowCallNanos ? SLOW : 0));
+        switch (state) {
+            case CLOSED -> record(outcome);
+            case HALF_OPEN -> {
+                if (outcome != 0) {
+                    transitionTo(State.OPEN);
+                } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case OPEN -> {
+                // The call was permitted before the circuit opened
+            }
+        }
+    }
+
+    private void record(final byte outcome) {
+        var index = recordedCalls % outcomes.length;
+        if (recordedCalls >= outcomes.length) {
+            var evicted = outcomes[index];
+            failedCalls -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        }
+        outcomes[index] = outcome;
+        failedCalls += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+        recordedCalls++;
+
+        var size = Math.min(recordedCalls, outcomes.length);
+        if (size >= minimumCalls
+                && ((double) failedCalls / size >= failureRateThreshold
+                        || (double) slowCalls / size >= slowCallRateThreshold)) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(final State target) {
+        log.warn("Generator circuit breaker transitioned from {} to {}", state, target);
+        state = target;
+        transitionCounts.get(target).incrementAndGet();
+        switch (target) {
+            case OPEN -> openUntilNanos = System.nanoTime() + openNanos;
+            case HALF_OPEN -> {
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            case CLOSED -> {
+                recordedCalls = 0;
+                failedCalls = 0;
+                slowCalls = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the current state of the circuit. An open circuit whose open duration has passed is reported as open
+     * until the next call moves it to half-open.
+     *
+     * @return the current {@link State}.
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Returns the number of transitions into the given state so far.
+     *
+     * @param target the target {@link State} of the transitions.
+     * @return the number of transitions.
+     */
+    public long getTransitionCount(final State target) {
+        return transitionCounts.get(target).get();
+    }
+
+    /**
+     * Returns the number of calls rejected because the circuit was open or out of trial calls.
+     *
+     * @return the number of rejected calls.
+     */
+    public long getRejectionCount() {
+        return rejectionCount.get();
+    }
+
+    /**
+     * Returns the number of calls that exceeded the timeout.
+     *
+     * @return the number of timed out calls.
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * Returns the number of calls answered by the fallback generator.
+     *
+     * @return the number of fallback calls.
+     */
+    public long getFallbackCount() {
+        return fallbackCount.get();
+    }
+
+    /**
+     * The states of the circuit.
+     */
+    public enum State {
+
+        /**
+         * Calls pass through to the generator.
+         */
+        CLOSED,
+
+        /**
+         * Calls are rejected without reaching the generator.
+         */
+        OPEN,
+
+        /**
+         * A limited number of trial calls pass through to the generator.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * The shared executor of the blocking generator calls. It is bounded, so that generations hanging until their
+     * timeout cannot pile up threads without limit.
+     */
+    private static final class DefaultExecutorHolder {
+
+        private static final int MAX_THREADS = 64;
+
+        private static final int QUEUE_CAPACITY = 1000;
+
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        private static final Executor EXECUTOR = createExecutor();
+
+        private static Executor createExecutor() {
+            var executor = new ThreadPoolExecutor(
+                    MAX_THREADS,
+                    MAX_THREADS,
+                    60L,
+                    TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                    runnable -> {
+                        var thread = new Thread(runnable, "yda-generation-" + THREAD_COUNT.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
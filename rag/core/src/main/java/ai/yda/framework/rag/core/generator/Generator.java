@@ -47,4 +47,15 @@ public interface Generator<QUERY extends Query, RESPONSE extends RagResponse> {
      * action based on the User's Request and the given Context.
      */
     RESPONSE generate(QUERY query);
+
+    /**
+     * Returns whether the Generator keeps conversation state outside the Request, e.g. a Thread referenced from the
+     * Session. The Response of such a Generator depends on the preceding messages of the Session even if the Request
+     * carries no history, so it must not be shared between Requests.
+     *
+     * @return {@code true} if the Generator keeps conversation state, {@code false} by default.
+     */
+    default boolean isStateful() {
+        return false;
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.generator;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.model.RagResponse;
+
+/**
+ * Decorates a {@link Generator} with a {@link CircuitBreakerPolicy}: every call is bounded by a timeout, calls are
+ * rejected while the circuit is open, and rejected or failed calls are answered by an optional fallback generator,
+ * e.g. a cheaper Chat Model. The asynchronous view keeps the generator non-blocking if it is an
+ * {@link AsyncGenerator}.
+ *
+ * @param <QUERY>    the generic type of the Request.
+ * @param <RESPONSE> the generic type of the Response.
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class ResilientGenerator<QUERY extends Query, RESPONSE extends RagResponse>
+        implements Generator<QUERY, RESPONSE>, AsyncGenerator<QUERY, RESPONSE> {
+
+    private final Generator<QUERY, RESPONSE> generator;
+
+    private final AsyncGenerator<QUERY, RESPONSE> asyncGenerator;
+
+    private final Generator<QUERY, RESPONSE> fallbackGenerator;
+
+    private final AsyncGenerator<QUERY, RESPONSE> asyncFallbackGenerator;
+
+    private final CircuitBreakerPolicy circuitBreakerPolicy;
+
+    /**
+     * Constructs a new {@link ResilientGenerator} instance.
+     *
+     * @param generator            the {@link Generator} to protect.
+     * @param fallbackGenerator    the {@link Generator} answering rejected or failed calls, or {@code null} to
+     *                             propagate the failures.
+     * @param circuitBreakerPolicy the {@link CircuitBreakerPolicy} of the generator.
+     */
+    public ResilientGenerator(
+            final Generator<QUERY, RESPONSE> generator,
+            final Generator<QUERY, RESPONSE> fallbackGenerator,
+            final CircuitBreakerPolicy circuitBreakerPolicy) {
+        this.generator = generator;
+        this.asyncGenerator = AsyncGenerator.of(generator, circuitBreakerPolicy.getExecutor());
+        this.fallbackGenerator = fallbackGenerator;
+        this.asyncFallbackGenerator = fallbackGenerator != null
+                ? AsyncGenerator.of(fallbackGenerator, circuitBreakerPolicy.getExecutor())
+                : null;
+        this.circuitBreakerPolicy = circuitBreakerPolicy;
+    }
+
+    @Override
+    public RESPONSE generate(final QUERY query) {
+        return circuitBreakerPolicy.execute(
+                () -> generator.generate(query),
+                fallbackGenerator != null ? () -> fallbackGenerator.generate(query) : null);
+    }
+
+    @Override
+    public CompletableFuture<RESPONSE> generateAsync(final QUERY query) {
+        return circuitBreakerPolicy.executeAsync(
+                () -> asyncGenerator.generateAsync(query),
+                asyncFallbackGenerator != null ? () -> asyncFallbackGenerator.generateAsync(query) : null);
+    }
+
+    @Override
+    public boolean isStateful() {
+        return generator.isStateful();
+    }
+}
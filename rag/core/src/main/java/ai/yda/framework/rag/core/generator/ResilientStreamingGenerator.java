@@ -0,0 +1,75 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.generator;
+
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.model.RagResponse;
+
+/**
+ * Decorates a {@link StreamingGenerator} with a {@link CircuitBreakerPolicy}: the first Response of every call must be
+ * emitted within the timeout, calls are rejected while the circuit is open, and calls rejected or failed before their
+ * first Response are answered by an optional fallback generator.
+ *
+ * @param <QUERY>    the generic type of the Request.
+ * @param <RESPONSE> the generic type of the Response.
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class ResilientStreamingGenerator<QUERY extends Query, RESPONSE extends RagResponse>
+        implements StreamingGenerator<QUERY, RESPONSE> {
+
+    private final StreamingGenerator<QUERY, RESPONSE> streamingGenerator;
+
+    private final StreamingGenerator<QUERY, RESPONSE> fallbackGenerator;
+
+    private final CircuitBreakerPolicy circuitBreakerPolicy;
+
+    /**
+     * Constructs a new {@link ResilientStreamingGenerator} instance.
+     *
+     * @param streamingGenerator   the {@link StreamingGenerator} to protect.
+     * @param fallbackGenerator    the {@link StreamingGenerator} answering rejected or failed calls, or {@code null} to
+     *                             propagate the failures.
+     * @param circuitBreakerPolicy the {@link CircuitBreakerPolicy} of the generator.
+     */
+    public ResilientStreamingGenerator(
+            final StreamingGenerator<QUERY, RESPONSE> streamingGenerator,
+            final StreamingGenerator<QUERY, RESPONSE> fallbackGenerator,
+            final CircuitBreakerPolicy circuitBreakerPolicy) {
+        this.streamingGenerator = streamingGenerator;
+        this.fallbackGenerator = fallbackGenerator;
+        this.circuitBreakerPolicy = circuitBreakerPolicy;
+    }
+
+    @Override
+    public Flux<RESPONSE> streamGeneration(final QUERY query) {
+        return circuitBreakerPolicy.executeStreaming(
+                () -> streamingGenerator.streamGeneration(query),
+                fallbackGenerator != null ? () -> fallbackGenerator.streamGeneration(query) : null);
+    }
+
+    @Override
+    public boolean isStateful() {
+        return streamingGenerator.isStateful();
+    }
+}
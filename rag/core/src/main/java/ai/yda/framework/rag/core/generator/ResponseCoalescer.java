@@ -0,0 +1,64 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.generator;
+
+import java.time.Duration;
+
+import reactor.core.publisher.Flux;
+
+import ai.yda.framework.rag.core.model.RagResponse;
+
+/**
+ * Merges the small {@link RagResponse} deltas emitted by a {@link StreamingGenerator} into fewer, larger Responses
+ * before they reach the Channel. Every emitted Response becomes a separate frame written to the client, so merging
+ * the deltas cuts the number of writes and serializations per answer.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface ResponseCoalescer {
+
+    /**
+     * The coalescer passing every delta through unchanged.
+     */
+    ResponseCoalescer NONE = responses -> responses;
+
+    /**
+     * Merges the stream of Response deltas.
+     *
+     * @param responses the {@link Flux} of Response deltas.
+     * @return the {@link Flux} of merged Responses, whose concatenated results equal those of the deltas.
+     */
+    Flux<RagResponse> coalesce(Flux<RagResponse> responses);
+
+    /**
+     * Creates a coalescer buffering the deltas until their results reach the given number of characters or the
+     * given time has passed since the first buffered delta, whichever comes first. The first non-empty delta is
+     * always emitted immediately to keep the time to first token.
+     *
+     * @param maxCharacters the number of buffered characters triggering an emission.
+     * @param maxDelay      the longest time a delta is held back.
+     * @return the created {@link ResponseCoalescer}.
+     */
+    static ResponseCoalescer windowed(final int maxCharacters, final Duration maxDelay) {
+        return new WindowedResponseCoalescer(maxCharacters, maxDelay);
+    }
+}
@@ -54,4 +54,15 @@ public interface StreamingGenerator<QUERY extends Query, RESPONSE extends RagRes
      * response in the Flux represents a part of the overall Response, allowing for the incremental delivery of results.
      */
     Flux<RESPONSE> streamGeneration(QUERY query);
+
+    /**
+     * Returns whether the Generator keeps conversation state outside the Request, e.g. a Thread referenced from the
+     * Session. The Responses of such a Generator depend on the preceding messages of the Session even if the Request
+     * carries no history, so they must not be shared between Requests.
+     *
+     * @return {@code true} if the Generator keeps conversation state, {@code false} by default.
+     */
+    default boolean isStateful() {
+        return false;
+    }
 }
@@ -0,0 +1,166 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.generator;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import ai.yda.framework.rag.core.model.RagResponse;
+
+/**
+ * The {@link ResponseCoalescer} buffering the Response deltas until a size or a time window closes. The first
+ * non-empty delta is emitted immediately, the following ones are concatenated until their results reach
+ * {@code maxCharacters} or {@code maxDelay} passes since the first of them was buffered. Empty deltas are dropped.
+ * Buffered content is flushed before the stream completes or fails.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class WindowedResponseCoalescer implements ResponseCoalescer {
+
+    private final int maxCharacters;
+
+    private final Duration maxDelay;
+
+    private final Scheduler scheduler;
+
+    /**
+     * Constructs a new {@link WindowedResponseCoalescer} instance closing its time windows on the
+     * {@link Schedulers#parallel()} Scheduler.
+     *
+     * @param maxCharacters the number of buffered characters triggering an emission.
+     * @param maxDelay      the longest time a delta is held back.
+     */
+    public WindowedResponseCoalescer(final int maxCharacters, final Duration maxDelay) {
+        this(maxCharacters, maxDelay, Schedulers.parallel());
+    }
+
+    /**
+     * Constructs a new {@link WindowedResponseCoalescer} instance.
+     *
+     * @param maxCharacters the number of buffered characters triggering an emission.
+     * @param maxDelay      the longest time a delta is held back.
+     * @param scheduler     the {@link Scheduler} closing the time windows.
+     */
+    public WindowedResponseCoalescer(final int maxCharacters, final Duration maxDelay, final Scheduler scheduler) {
+        if (maxCharacters <= 0) {
+            throw new IllegalArgumentException("maxCharacters must be positive");
+        }
+        if (maxDelay.isNegative() || maxDelay.isZero()) {
+            throw new IllegalArgumentException("maxDelay must be positive");
+        }
+        this.maxCharacters = maxCharacters;
+        this.maxDelay = maxDelay;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Flux<RagResponse> coalesce(final Flux<RagResponse> responses) {
+        return Flux.create(sink -> {
+            var window = new Window(sink);
+            var subscription =
+                    responses.contextWrite(sink.contextView()).subscribe(window::add, window::error, window::complete);
+            sink.onDispose(() -> {
+                subscription.dispose();
+                window.cancelTimer();
+            });
+        });
+    }
+
+    /**
+     * The buffered deltas of a single stream.
+     */
+    private final class Window {
+
+        private final FluxSink<RagResponse> sink;
+
+        private final StringBuilder content = new StringBuilder();
+
+        private boolean firstTokenEmitted;
+
+        private Disposable timer;
+
+        private long windowId;
+
+        private Window(final FluxSink<RagResponse> sink) {
+            this.sink = sink;
+        }
+
+        private synchronized void add(final RagResponse response) {
+            var result = response.getResult();
+            if (result == null || result.isEmpty()) {
+                return;
+            }
+            if (!firstTokenEmitted) {
+                firstTokenEmitted = true;
+                sink.next(response);
+                return;
+            }
+
+            content.append(result);
+            if (content.length() >= maxCharacters) {
+                flush();
+            } else if (timer == null) {
+                var id = windowId;
+                timer = scheduler.schedule(() -> flushOnTimer(id), maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private synchronized void flushOnTimer(final long id) {
+            // A timer firing after its window was flushed by size must not flush the next window early
+            if (id == windowId) {
+                timer = null;
+                flush();
+            }
+        }
+
+        private synchronized void complete() {
+            flush();
+            sink.complete();
+        }
+
+        private synchronized void error(final Throwable e) {
+            flush();
+            sink.error(e);
+        }
+
+        private synchronized void cancelTimer() {
+            if (timer != null) {
+                timer.dispose();
+                timer = null;
+            }
+        }
+
+        private void flush() {
+            cancelTimer();
+            windowId++;
+            if (!content.isEmpty()) {
+                sink.next(RagResponse.builder().result(content.toString()).build());
+                content.setLength(0);
+            }
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.metrics;
+
+import java.util.List;
+import java.util.Locale;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.cache.RetrievalCache;
+import ai.yda.framework.rag.core.cache.SemanticCache;
+import ai.yda.framework.rag.core.executor.RetrievalExecutor;
+import ai.yda.framework.rag.core.generator.CircuitBreakerPolicy;
+import ai.yda.framework.rag.core.retriever.HedgingPolicy;
+
+/**
+ * Records the Micrometer meters of the stages of the RAG process. All meters are prefixed with {@code yda.rag}:
+ * <ul>
+ *     <li>{@code yda.rag.query.transformation} - time of each Query Transformer call, tagged by Retriever and
+ *     transformer.</li>
+ *     <li>{@code yda.rag.retrieval} - time of each Retriever call, tagged by Retriever and outcome.</li>
+ *     <li>{@code yda.rag.retrieval.rejections} - Retriever calls rejected by the saturated retrieval executor, tagged
+ *     by Retriever.</li>
+ *     <li>{@code yda.rag.retrieval.cache.*} - hits, misses, evictions, admission rejections and size of the
+ *     {@link RetrievalCache} of a Retriever, tagged by Retriever.</li>
+ *     <li>{@code yda.rag.retrieval.documents} - number of Documents returned by a Retriever call.</li>
+ *     <li>{@code yda.rag.retrieval.document.size} - size of each returned Document, in characters.</li>
+ *     <li>{@code yda.rag.augmentation} - time of the augmentation stage.</li>
+ *     <li>{@code yda.rag.augmentation.prompt.length} - length of the augmented Request, in characters.</li>
+ *     <li>{@code yda.rag.generation} - time of the generation, tagged by generator and outcome.</li>
+ *     <li>{@code yda.rag.generation.first.token} - time to the first streamed Response, tagged by generator.</li>
+ *     <li>{@code yda.rag.generation.circuit.*} - state and transitions of the generator circuit breaker.</li>
+ * </ul>
+ * The {@link #NOOP} instance records into an empty registry and is used when no {@link MeterRegistry} is available.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class RagMetrics {
+
+    /**
+     * The {@link RagMetrics} instance discarding all measurements.
+     */
+    public static final RagMetrics NOOP = new RagMetrics(new CompositeMeterRegistry());
+
+    private static final String SUCCESS = "success";
+
+    private static final String ERROR = "error";
+
+    private final MeterRegistry registry;
+
+    /**
+     * Constructs a new {@link RagMetrics} instance.
+     *
+     * @param registry the {@link MeterRegistry} to publish the meters to.
+     */
+    public RagMetrics(final MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Starts timing a stage. The returned sample is passed to one of the {@code record} methods when the stage ends.
+     *
+     * @return the started {@link Timer.Sample}.
+     */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Records a Query Transformer call.
+     *
+     * @param retriever   the name of the Retriever the transformation was performed for.
+     * @param transformer the Query Transformer.
+     * @param sample      the sample started before the call.
+     */
+    public void recordQueryTransformation(final String retriever, final Object transformer, final Timer.Sample sample) {
+        sample.stop(Timer.builder("yda.rag.query.transformation")
+                .description("Time of Query Transformer calls")
+                .tag("retriever", retriever)
+                .tag("transformer", transformer.getClass().getSimpleName())
+                .register(registry));
+    }
+
+    /**
+     * Records a successful Retriever call together with the number and sizes of the returned Documents.
+     *
+     * @param retriever the name of the Retriever.
+     * @param documents the returned Documents.
+     * @param sample    the sample started before the call.
+     */
+    public void recordRetrieval(final String retriever, final List<Document> documents, final Timer.Sample sample) {
+        sample.stop(retrievalTimer(retriever, SUCCESS));
+        recordDocuments(retriever, documents);
+    }
+
+    /**
+     * Records a successful batched Retriever call as a single call, together with the number and sizes of the
+     * Documents returned for each Request of the batch.
+     *
+     * @param retriever the name of the Retriever.
+     * @param documents the Documents returned for each Request.
+     * @param sample    the sample started before the call.
+     */
+    public void recordBatchRetrieval(
+            final String retriever, final List<List<Document>> documents, final Timer.Sample sample) {
+        sample.stop(retrievalTimer(retriever, SUCCESS));
+        documents.forEach(requestDocuments -> recordDocuments(retriever, requestDocuments));
+    }
+
+    private void recordDocuments(final String retriever, final List<Document> documents) {
+        DistributionSummary.builder("yda.rag.retrieval.documents")
+                .description("Number of Documents returned by Retriever calls")
+                .tag("retriever", retriever)
+                .register(registry)
+                .record(documents.size());
+
+        var documentSize = DistributionSummary.builder("yda.rag.retrieval.document.size")
+                .description("Size of the Documents returned by Retrievers")
+                .baseUnit("characters")
+                .tag("retriever", retriever)
+                .register(registry);
+        for (var document : documents) {
+            var text = document.getText();
+            documentSize.record(text != null ? text.length() : 0);
+        }
+    }
+
+    /**
+     * Records a failed Retriever call.
+     *
+     * @param retriever the name of the Retriever.
+     * @param sample    the sample started before the call.
+     */
+    public void recordRetrievalError(final String retriever, final Timer.Sample sample) {
+        sample.stop(retrievalTimer(retriever, ERROR));
+    }
+
+    /**
+     * Records a Retriever call rejected by the retrieval executor, which reports the Retriever as cut off.
+     *
+     * @param retriever the name of the Retriever.
+     */
+    public void recordRetrievalRejection(final String retriever) {
+        Counter.builder("yda.rag.retrieval.rejections")
+                .description("Retriever calls rejected by the saturated retrieval executor")
+                .tag("retriever", retriever)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records the augmentation stage together with the length of the augmented Request.
+     *
+     * @param augmentedQuery the augmented {@link Query}.
+     * @param sample         the sample started before the stage.
+     */
+    public void recordAugmentation(final Query augmentedQuery, final Timer.Sample sample) {
+        sample.stop(Timer.builder("yda.rag.augmentation")
+                .description("Time of the augmentation stage")
+                .register(registry));
+        DistributionSummary.builder("yda.rag.augmentation.prompt.length")
+                .description("Length of the augmented Requests")
+                .baseUnit("characters")
+                .register(registry)
+                .record(augmentedQuery.text().length());
+    }
+
+    /**
+     * Records a generation.
+     *
+     * @param generator the generator.
+     * @param success   whether the generation succeeded.
+     * @param sample    the sample started before the generation.
+     */
+    public void recordGeneration(final Object generator, final boolean success, final Timer.Sample sample) {
+        sample.stop(Timer.builder("yda.rag.generation")
+                .description("Time of the generation stage")
+                .tag("generator", generator.getClass().getSimpleName())
+                .tag("outcome", success ? SUCCESS : ERROR)
+                .register(registry));
+    }
+
+    /**
+     * Records the time to the first streamed Response of a generation.
+     *
+     * @param generator the streaming generator.
+     * @param sample    the sample started before the generation.
+     */
+    public void recordFirstToken(final Object generator, final Timer.Sample sample) {
+        sample.stop(Timer.builder("yda.rag.generation.first.token")
+                .description("Time to the first streamed Response")
+                .tag("generator", generator.getClass().getSimpleName())
+                .register(registry));
+    }
+
+    /**
+     * Publishes the queue depth, active tasks, completed tasks and rejected tasks of a {@link RetrievalExecutor}.
+     *
+     * @param executor the {@link RetrievalExecutor} to observe.
+     */
+    public void bindRetrievalExecutor(final RetrievalExecutor executor) {
+        Gauge.builder("yda.rag.retrieval.executor.queued", executor, RetrievalExecutor::getQueueDepth)
+                .description("Retriever calls waiting for a thread")
+                .register(registry);
+        Gauge.builder("yda.rag.retrieval.executor.active", executor, RetrievalExecutor::getActiveTasks)
+                .description("Retriever calls being executed")
+                .register(registry);
+        FunctionCounter.builder("yda.rag.retrieval.executor.completed", executor, RetrievalExecutor::getCompletedTasks)
+                .description("Retriever calls completed")
+                .register(registry);
+        FunctionCounter.builder("yda.rag.retrieval.executor.rejected", executor, RetrievalExecutor::getRejectedTasks)
+                .description("Retriever calls rejected by the saturated executor")
+                .register(registry);
+    }
+
+    /**
+     * Publishes the hit, miss, eviction and rejection counts and the size of the {@link RetrievalCache} of a
+     * Retriever.
+     *
+     * @param retriever the name of the Retriever.
+     * @param cache     the {@link RetrievalCache} to observe.
+     */
+    public void bindRetrievalCache(final String retriever, final RetrievalCache cache) {
+        FunctionCounter.builder("yda.rag.retrieval.cache.hits", cache, RetrievalCache::getHitCount)
+                .description("Retriever lookups answered from the retrieval cache")
+                .tag("retriever", retriever)
+                .register(registry);
+        FunctionCounter.builder("yda.rag.retrieval.cache.misses", cache, RetrievalCache::getMissCount)
+                .description("Retriever lookups not found in the retrieval cache")
+                .tag("retriever", retriever)
+                .register(registry);
+        FunctionCounter.builder("yda.rag.retrieval.cache.evictions", cache, RetrievalCache::getEvictionCount)
+                .description("Entries evicted for more frequently requested ones")
+                .tag("retriever", retriever)
+                .register(registry);
+        FunctionCounter.builder("yda.rag.retrieval.cache.rejections", cache, RetrievalCache::getRejectionCount)
+                .description("Entries rejected by the admission policy")
+                .tag("retriever", retriever)
+                .register(registry);
+        Gauge.builder("yda.rag.retrieval.cache.size", cache, RetrievalCache::size)
+                .description("Entries in the retrieval cache")
+                .tag("retriever", retriever)
+                .register(registry);
+    }
+
+    /**
+     * Publishes the hit and miss counts and the size of a {@link SemanticCache}.
+     *
+     * @param name  the name identifying the cache.
+     * @param cache the {@link SemanticCache} to observe.
+     */
+    public void bindSemanticCache(final String name, final SemanticCache<?> cache) {
+        FunctionCounter.builder("yda.rag.semantic.cache.hits", cache, SemanticCache::getHitCount)
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("yda.rag.semantic.cache.misses", cache, SemanticCache::getMissCount)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("yda.rag.semantic.cache.size", cache, SemanticCache::size)
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    /**
+     * Publishes the hedge counts of the {@link HedgingPolicy} of a Retriever.
+     *
+     * @param retriever     the name of the Retriever.
+     * @param hedgingPolicy the {@link HedgingPolicy} to observe.
+     */
+    public void bindHedgingPolicy(final String retriever, final HedgingPolicy hedgingPolicy) {
+        FunctionCounter.builder("yda.rag.retrieval.hedges", hedgingPolicy, HedgingPolicy::getHedgeCount)
+                .description("Hedged Retriever calls")
+                .tag("retriever", retriever)
+                .register(registry);
+        FunctionCounter.builder("yda.rag.retrieval.hedge.wins", hedgingPolicy, HedgingPolicy::getHedgeWinCount)
+                .description("Hedged Retriever calls answered first by the hedge")
+                .tag("retriever", retriever)
+                .register(registry);
+        FunctionCounter.builder(
+                        "yda.rag.retrieval.hedge.rejections", hedgingPolicy, HedgingPolicy::getHedgeRejectionCount)
+                .description("Hedges not sent because the hedging budget was exhausted")
+                .tag("retriever", retriever)
+                .register(registry);
+    }
+
+    /**
+     * Publishes the state, the state transitions and the rejected, timed out and fallback call counts of the
+     * {@link CircuitBreakerPolicy} of a generator.
+     *
+     * @param generator            the name of the generator.
+     * @param circuitBreakerPolicy the {@link CircuitBreakerPolicy} to observe.
+     */
+    public void bindCircuitBreakerPolicy(final String generator, final CircuitBreakerPolicy circuitBreakerPolicy) {
+        for (var state : CircuitBreakerPolicy.State.values()) {
+            var stateName = state.name().toLowerCase(Locale.ROOT);
+            Gauge.builder(
+                            "yda.rag.generation.circuit.state",
+                            circuitBreakerPolicy,
+                            policy -> policy.getState() == state ? 1 : 0)
+                    .description("Whether the generator circuit is in the state")
+                    .tag("generator", generator)
+                    .tag("state", stateName)
+                    .register(registry);
+            FunctionCounter.builder(
+                            "yda.rag.generation.circuit.transitions",
+                            circuitBreakerPolicy,
+                            policy -> policy.getTransitionCount(state))
+                    .description("Transitions of the generator circuit into the state")
+                    .tag("generator", generator)
+                    .tag("state", stateName)
+                    .register(registry);
+        }
+        FunctionCounter.builder(
+                        "yda.rag.generation.circuit.rejections",
+                        circuitBreakerPolicy,
+                        CircuitBreakerPolicy::getRejectionCount)
+                .description("Generator calls rejected by the open circuit")
+                .tag("generator", generator)
+                .register(registry);
+        FunctionCounter.builder(
+                        "yda.rag.generation.timeouts", circuitBreakerPolicy, CircuitBreakerPolicy::getTimeoutCount)
+                .description("Generator calls exceeding their timeout")
+                .tag("generator", generator)
+                .register(registry);
+        FunctionCounter.builder(
+                        "yda.rag.generation.fallbacks", circuitBreakerPolicy, CircuitBreakerPolicy::getFallbackCount)
+                .description("Generator calls answered by the fallback generator")
+                .tag("generator", generator)
+                .register(registry);
+    }
+
+    private Timer retrievalTimer(final String retriever, final String outcome) {
+        return Timer.builder("yda.rag.retrieval")
+                .description("Time of Retriever calls")
+                .tag("retriever", retriever)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.model;
+
+import lombok.Getter;
+
+import org.springframework.ai.rag.Query;
+
+/**
+ * Represents the Response to one Request of a batch, delivered as soon as it is generated. The position of the Request
+ * in the batch allows restoring the input order.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@Getter
+public class BatchRagResponse {
+
+    /**
+     * The position of the Request in the batch.
+     */
+    private final int index;
+
+    /**
+     * The Request the Response was generated for.
+     */
+    private final Query query;
+
+    /**
+     * The generated Response.
+     */
+    private final RagResponse response;
+
+    /**
+     * Constructs a new {@link BatchRagResponse} instance.
+     *
+     * @param index    the position of the Request in the batch.
+     * @param query    the Request the Response was generated for.
+     * @param response the generated Response.
+     */
+    public BatchRagResponse(final int index, final Query query, final RagResponse response) {
+        this.index = index;
+        this.query = query;
+        this.response = response;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.model;
+
+import java.util.List;
+
+import lombok.Getter;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * Represents the outcome of the retrieval stage of the RAG process. Besides the retrieved Documents it records the
+ * Retrievers that were cut off because they did not answer before their timeout or the Request deadline, so that the
+ * Context can be recognized as partial.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@Getter
+public class RetrievalResult {
+
+    /**
+     * The Documents returned by the Retrievers that completed in time.
+     */
+    private final List<Document> documents;
+
+    /**
+     * The names of the Retrievers that were cut off.
+     */
+    private final List<String> cutOffRetrievers;
+
+    /**
+     * Constructs a new {@link RetrievalResult} instance.
+     *
+     * @param documents        the Documents returned by the Retrievers that completed in time.
+     * @param cutOffRetrievers the names of the Retrievers that were cut off.
+     */
+    public RetrievalResult(final List<Document> documents, final List<String> cutOffRetrievers) {
+        this.documents = documents;
+        this.cutOffRetrievers = cutOffRetrievers;
+    }
+
+    /**
+     * Checks whether at least one Retriever was cut off, i.e. the retrieved Context is incomplete.
+     *
+     * @return {@code true} if the result is partial, {@code false} otherwise.
+     */
+    public boolean isPartial() {
+        return !cutOffRetrievers.isEmpty();
+    }
+}
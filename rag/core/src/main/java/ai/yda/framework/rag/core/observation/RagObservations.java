@@ -0,0 +1,144 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.observation;
+
+import java.util.concurrent.Callable;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Mono;
+
+/**
+ * Defines the Observations of the RAG process. Together with the Observations of the Spring AI models and Vector
+ * Stores they form a single trace per Request:
+ * <pre>
+ * yda.assistant
+ *   yda.rag.request
+ *     yda.rag.retriever.call (retriever)
+ *       yda.rag.query.transform (retriever, transformer)
+ *       vector store / embedding model calls
+ *     yda.rag.augment
+ *     yda.rag.generate (generator)
+ *       chat model calls
+ * </pre>
+ * The names differ from the meters of {@link ai.yda.framework.rag.core.metrics.RagMetrics}, so that the timers
+ * derived from the Observations do not clash with them.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public final class RagObservations {
+
+    /**
+     * The Observation of an Assistant processing a Request.
+     */
+    public static final String ASSISTANT = "yda.assistant";
+
+    /**
+     * The Observation of the whole RAG process of a Request.
+     */
+    public static final String REQUEST = "yda.rag.request";
+
+    /**
+     * The Observation of a Retriever call, including its Query Transformers.
+     */
+    public static final String RETRIEVER = "yda.rag.retriever.call";
+
+    /**
+     * The Observation of a Query Transformer call.
+     */
+    public static final String QUERY_TRANSFORMER = "yda.rag.query.transform";
+
+    /**
+     * The Observation of the augmentation stage.
+     */
+    public static final String AUGMENTATION = "yda.rag.augment";
+
+    /**
+     * The Observation of the generation stage.
+     */
+    public static final String GENERATION = "yda.rag.generate";
+
+    private RagObservations() {}
+
+    /**
+     * Creates a not started Observation of the given component. The simple class name of the component is recorded
+     * as a low cardinality key value, e.g. to tell the generators apart.
+     *
+     * @param name      the name of the Observation.
+     * @param key       the key of the component, e.g. {@code generator}.
+     * @param component the observed component.
+     * @param registry  the {@link ObservationRegistry} to report to.
+     * @return the created {@link Observation}.
+     */
+    public static Observation create(
+            final String name, final String key, final Object component, final ObservationRegistry registry) {
+        return create(name, key, component.getClass().getSimpleName(), registry);
+    }
+
+    /**
+     * Creates a not started Observation of the named component. The name of the component is recorded as a low
+     * cardinality key value, e.g. to tell the Retrievers apart.
+     *
+     * @param name          the name of the Observation.
+     * @param key           the key of the component, e.g. {@code retriever}.
+     * @param componentName the name of the observed component.
+     * @param registry      the {@link ObservationRegistry} to report to.
+     * @return the created {@link Observation}.
+     */
+    public static Observation create(
+            final String name, final String key, final String componentName, final ObservationRegistry registry) {
+        return Observation.createNotStarted(name, registry)
+                .contextualName(name + " " + componentName)
+                .lowCardinalityKeyValue(key, componentName);
+    }
+
+    /**
+     * Creates a not started Observation without a component.
+     *
+     * @param name     the name of the Observation.
+     * @param registry the {@link ObservationRegistry} to report to.
+     * @return the created {@link Observation}.
+     */
+    public static Observation create(final String name, final ObservationRegistry registry) {
+        return Observation.createNotStarted(name, registry);
+    }
+
+    /**
+     * Creates a {@link Mono} running the given blocking call within the scope of the Observation found in the Reactor
+     * Context, so that the Observations created by the call become its children regardless of the thread it runs on.
+     *
+     * @param callable the blocking call to run.
+     * @param <T>      the type of the call result.
+     * @return a {@link Mono} emitting the result of the call.
+     */
+    public static <T> Mono<T> fromCallableInScope(final Callable<T> callable) {
+        return Mono.deferContextual(context -> Mono.fromCallable(() -> {
+            Observation observation = context.getOrDefault(ObservationThreadLocalAccessor.KEY, null);
+            if (observation == null) {
+                return callable.call();
+            }
+            try (var scope = observation.openScope()) {
+                return callable.call();
+            }
+        }));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.retriever;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.observation.RagObservations;
+
+/**
+ * Base class of the Retrievers searching their data source without blocking, e.g. through a reactive HTTP client or
+ * an R2DBC repository. The streaming RAG process subscribes to
+ * {@link #transformAndRetrieveReactive(Query, SharedQueryTransformations)} directly, so neither the Query
+ * Transformers nor the search occupy a thread of the retrieval Scheduler. The blocking RAG processes keep using
+ * {@link #retrieve(Query)}, which waits for {@link #retrieveReactive(Query)}.
+ * <p>
+ * The reactive path honours the {@link ai.yda.framework.rag.core.cache.RetrievalCache}, the metrics and the
+ * Observations of the Retriever but does not hedge its calls.
+ * </p>
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@Slf4j
+public abstract class BaseReactiveRetriever extends BaseRetriever implements ReactiveRetriever {
+
+    private final List<ReactiveQueryTransformer> queryTransformers;
+
+    protected BaseReactiveRetriever() {
+        this(Collections.emptyList());
+    }
+
+    protected BaseReactiveRetriever(final List<ReactiveQueryTransformer> queryTransformers) {
+        super(List.copyOf(queryTransformers));
+        this.queryTransformers = List.copyOf(queryTransformers);
+    }
+
+    /**
+     * Searches the data source for the given transformed {@link Query} without blocking.
+     *
+     * @param query the transformed {@link Query} to retrieve Documents for.
+     * @return a {@link Flux} of the retrieved {@link Document}.
+     */
+    protected abstract Flux<Document> retrieveReactive(Query query);
+
+    @Override
+    public List<Document> retrieve(final Query query) {
+        return retrieveReactive(query).collectList().block();
+    }
+
+    @Override
+    public Flux<Document> transformAndRetrieveReactive(
+            final Query query, final SharedQueryTransformations transformations) {
+        return Flux.deferContextual(context -> {
+            var observation = RagObservations.create(
+                            RagObservations.RETRIEVER, "retriever", getName(), getObservationRegistry())
+                    .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                    .start();
+            return transform(query, transformations, observation)
+                    .flatMap(this::retrieveCached)
+                    .flatMapIterable(Function.identity())
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(innerContext -> innerContext.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    private Mono<Query> transform(
+            final Query query, final SharedQueryTransformations transformations, final Observation parent) {
+        var transformedQuery = Mono.just(query);
+        for (var queryTransformer : queryTransformers) {
+            transformedQuery =
+                    transformedQuery.flatMap(input -> transform(queryTransformer, input, transformations, parent));
+        }
+        return transformedQuery;
+    }
+
+    private Mono<Query> transform(
+            final ReactiveQueryTransformer queryTransformer,
+            final Query query,
+            final SharedQueryTransformations transformations,
+            final Observation parent) {
+        return Mono.defer(() -> {
+            var metrics = getRagMetrics();
+            var sample = metrics.start();
+            var observation = RagObservations.create(
+                            RagObservations.QUERY_TRANSFORMER,
+                            "transformer",
+                            queryTransformer,
+                            getObservationRegistry())
+                    .lowCardinalityKeyValue("retriever", getName())
+                    .parentObservation(parent)
+                    .start();
+            return transformations
+                    .transformReactive(queryTransformer, query)
+                    .doOnNext(transformedQuery -> {
+                        metrics.recordQueryTransformation(getName(), queryTransformer, sample);
+                        if (log.isDebugEnabled()) {
+                            log.debug("Transformed query: {}", transformedQuery);
+                        }
+                    })
+                    .doOnError(observation::error)
+                    .doFinally(signal -> observation.stop())
+                    .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+        });
+    }
+
+    private Mono<List<Document>> retrieveCached(final Query query) {
+        var cache = getRetrievalCache();
+        var generation = cache == null ? 0 : cache.getGeneration();
+        if (cache != null) {
+            var cachedDocuments = cache.get(getName(), query.text());
+            if (cachedDocuments.isPresent()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Retrieval cache hit for query: {}", query);
+                }
+                return Mono.just(cachedDocuments.get());
+            }
+        }
+
+        return Mono.defer(() -> {
+            var metrics = getRagMetrics();
+            var sample = metrics.start();
+            return retrieveReactive(query)
+                    .collectList()
+                    .doOnNext(documents -> {
+                        metrics.recordRetrieval(getName(), documents, sample);
+                        if (cache != null) {
+                            cache.put(getName(), query.text(), documents, generation);
+                        }
+                    })
+                    .doOnError(e -> metrics.recordRetrievalError(getName(), sample));
+        });
+    }
+}
@@ -19,9 +19,11 @@
 */
 package ai.yda.framework.rag.core.retriever;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.ai.document.Document;
@@ -29,11 +31,23 @@ import org.springframework.ai.rag.Query;
 import org.springframework.ai.rag.preretrieval.query.transformation.QueryTransformer;
 import org.springframework.ai.rag.retrieval.search.DocumentRetriever;
 
+import ai.yda.framework.rag.core.cache.RetrievalCache;
+import ai.yda.framework.rag.core.metrics.RagMetrics;
+import ai.yda.framework.rag.core.observation.RagObservations;
+
 @Slf4j
 public abstract class BaseRetriever implements DocumentRetriever {
 
     private final List<QueryTransformer> queryTransformers;
 
+    private volatile RetrievalCache retrievalCache;
+
+    private volatile HedgingPolicy hedgingPolicy;
+
+    private volatile RagMetrics ragMetrics = RagMetrics.NOOP;
+
+    private volatile ObservationRegistry observationRegistry = ObservationRegistry.NOOP;
+
     protected BaseRetriever() {
         this(Collections.emptyList());
     }
@@ -42,13 +56,256 @@ public abstract class BaseRetriever implements DocumentRetriever {
         this.queryTransformers = queryTransformers;
     }
 
-    public List<Document> transformAndRetrieve(Query query) {
+    public List<Document> transformAndRetrieve(final Query query) {
+        return transformAndRetrieve(query, new SharedQueryTransformations());
+    }
+
+    /**
+     * Transforms the {@link Query} with the Query Transformers of this Retriever and retrieves the Documents for the
+     * transformed Query. Transformations already performed for the same Request by other Retrievers are taken from
+     * the given {@link SharedQueryTransformations} instead of being repeated.
+     *
+     * @param query           the {@link Query} to retrieve Documents for.
+     * @param transformations the {@link SharedQueryTransformations} of the current Request.
+     * @return the list of retrieved {@link Document}.
+     */
+    public List<Document> transformAndRetrieve(final Query query, final SharedQueryTransformations transformations) {
+        return RagObservations.create(RagObservations.RETRIEVER, "retriever", getName(), observationRegistry)
+                .observe(() -> doTransformAndRetrieve(query, transformations));
+    }
+
+    private List<Document> doTransformAndRetrieve(Query query, final SharedQueryTransformations transformations) {
+        query = transform(query, transformations);
+
+        var cache = retrievalCache;
+        if (cache == null) {
+            return hedgeAndRetrieve(query);
+        }
+
+        var generation = cache.getGeneration();
+        var cachedDocuments = cache.get(getName(), query.text());
+        if (cachedDocuments.isPresent()) {
+            if (log.isDebugEnabled()) {
+                log.debug("Retrieval cache hit for query: {}", query);
+            }
+            return cachedDocuments.get();
+        }
+        var documents = hedgeAndRetrieve(query);
+        cache.put(getName(), query.text(), documents, generation);
+        return documents;
+    }
+
+    /**
+     * Transforms and retrieves the Documents for several Requests at once, e.g. for a bulk evaluation job. Cached
+     * Requests are served from the {@link RetrievalCache} and the remaining ones are passed together to
+     * {@link #retrieveBatch(List)}, so that implementations can amortize their remote calls. The batched call is
+     * recorded and observed like a single {@link #retrieve(Query)} call, but it is not hedged: its latency grows with
+     * the size of the batch, so the delay of the {@link HedgingPolicy} tuned for single calls would duplicate nearly
+     * every batch.
+     *
+     * @param queries         the Requests to retrieve Documents for.
+     * @param transformations the {@link SharedQueryTransformations} of the batch.
+     * @return the lists of retrieved {@link Document}, in the order of the Requests.
+     */
+    public List<List<Document>> transformAndRetrieveBatch(
+            final List<Query> queries, final SharedQueryTransformations transformations) {
+        return RagObservations.create(RagObservations.RETRIEVER, "retriever", getName(), observationRegistry)
+                .observe(() -> doTransformAndRetrieveBatch(queries, transformations));
+    }
+
+    private List<List<Document>> doTransformAndRetrieveBatch(
+            final List<Query> queries, final SharedQueryTransformations transformations) {
+        var cache = retrievalCache;
+        var generation = cache == null ? 0 : cache.getGeneration();
+        var results = new ArrayList<List<Document>>(queries.size());
+        var missingIndexes = new ArrayList<Integer>();
+        var missingQueries = new ArrayList<Query>();
+        for (var query : queries) {
+            query = transform(query, transformations);
+
+            var cachedDocuments =
+                    cache == null ? null : cache.get(getName(), query.text()).orElse(null);
+            if (cachedDocuments == null) {
+                missingIndexes.add(results.size());
+                missingQueries.add(query);
+            }
+            results.add(cachedDocuments);
+        }
+
+        if (!missingQueries.isEmpty()) {
+            var retrieved = recordAndRetrieveBatch(missingQueries);
+            for (var i = 0; i < missingQueries.size(); i++) {
+                results.set(missingIndexes.get(i), retrieved.get(i));
+                if (cache != null) {
+                    cache.put(getName(), missingQueries.get(i).text(), retrieved.get(i), generation);
+                }
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(
+                    "Retrieved batch of {} queries, {} from cache",
+                    queries.size(),
+                    queries.size() - missingQueries.size());
+        }
+        return results;
+    }
+
+    /**
+     * Retrieves the Documents for several transformed Requests. The default implementation calls
+     * {@link #retrieve(Query)} for each of them; Retrievers backed by remote services override it to batch their
+     * calls, e.g. through a {@link BatchSimilaritySearch}.
+     *
+     * @param queries the transformed Requests to retrieve Documents for.
+     * @return the lists of retrieved {@link Document}, in the order of the Requests.
+     */
+    protected List<List<Document>> retrieveBatch(final List<Query> queries) {
+        return queries.stream().map(this::retrieve).toList();
+    }
+
+    private Query transform(Query query, final SharedQueryTransformations transformations) {
+        var metrics = ragMetrics;
+        var registry = observationRegistry;
         for (var queryTransformer : queryTransformers) {
-            query = queryTransformer.transform(query);
+            var sample = metrics.start();
+            var input = query;
+            query = RagObservations.create(RagObservations.QUERY_TRANSFORMER, "transformer", queryTransformer, registry)
+                    .lowCardinalityKeyValue("retriever", getName())
+                    .observe(() -> transformations.transform(queryTransformer, input));
+            metrics.recordQueryTransformation(getName(), queryTransformer, sample);
             if (log.isDebugEnabled()) {
                 log.debug("Transformed query: {}", query);
             }
         }
-        return retrieve(query);
+        return query;
+    }
+
+    private List<Document> hedgeAndRetrieve(final Query query) {
+        var policy = hedgingPolicy;
+        var metrics = ragMetrics;
+        var sample = metrics.start();
+        try {
+            var documents = policy == null ? retrieve(query) : policy.execute(() -> retrieve(query));
+            metrics.recordRetrieval(getName(), documents, sample);
+            return documents;
+        } catch (RuntimeException e) {
+            metrics.recordRetrievalError(getName(), sample);
+            throw e;
+        }
+    }
+
+    private List<List<Document>> recordAndRetrieveBatch(final List<Query> queries) {
+        var metrics = ragMetrics;
+        var sample = metrics.start();
+        try {
+            var documents = retrieveBatch(queries);
+            metrics.recordBatchRetrieval(getName(), documents, sample);
+            return documents;
+        } catch (RuntimeException e) {
+            metrics.recordRetrievalError(getName(), sample);
+            throw e;
+        }
+    }
+
+    /**
+     * Enables caching of the Documents returned by this Retriever. The cache is keyed by the text of the transformed
+     * Request, so the Query Transformers still run on every call.
+     *
+     * @param retrievalCache the {@link RetrievalCache} to store the Documents in, or {@code null} to disable caching.
+     */
+    public void setRetrievalCache(final RetrievalCache retrievalCache) {
+        this.retrievalCache = retrievalCache;
+        if (retrievalCache != null) {
+            ragMetrics.bindRetrievalCache(getName(), retrievalCache);
+        }
+    }
+
+    /**
+     * Enables hedging of slow calls to {@link #retrieve(Query)}. Batched calls to {@link #retrieveBatch(List)} are
+     * never hedged. Only Retrievers whose calls are idempotent and safe
+     * to duplicate, such as Vector Store searches, should be hedged.
+     *
+     * @param hedgingPolicy the {@link HedgingPolicy} of this Retriever, or {@code null} to disable hedging.
+     */
+    public void setHedgingPolicy(final HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+        if (hedgingPolicy != null) {
+            ragMetrics.bindHedgingPolicy(getName(), hedgingPolicy);
+        }
+    }
+
+    /**
+     * Sets the {@link RagMetrics} recording the Query Transformer and Retriever call times and the retrieved
+     * Documents of this Retriever. The counters of its {@link RetrievalCache} and {@link HedgingPolicy}, if any, are
+     * published as well.
+     *
+     * @param ragMetrics the {@link RagMetrics} to record to, or {@code null} to disable recording.
+     */
+    public void setRagMetrics(final RagMetrics ragMetrics) {
+        this.ragMetrics = ragMetrics != null ? ragMetrics : RagMetrics.NOOP;
+        var cache = retrievalCache;
+        if (cache != null) {
+            this.ragMetrics.bindRetrievalCache(getName(), cache);
+        }
+        var policy = hedgingPolicy;
+        if (policy != null) {
+            this.ragMetrics.bindHedgingPolicy(getName(), policy);
+        }
+    }
+
+    /**
+     * Sets the {@link ObservationRegistry} reporting the calls of this Retriever and of its Query Transformers, so that
+     * they appear as spans in the trace of the Request.
+     *
+     * @param observationRegistry the {@link ObservationRegistry} to report to, or {@code null} to disable reporting.
+     */
+    public void setObservationRegistry(final ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry != null ? observationRegistry : ObservationRegistry.NOOP;
+    }
+
+    /**
+     * Returns the {@link RetrievalCache} of this Retriever.
+     *
+     * @return the {@link RetrievalCache}, or {@code null} if caching is disabled.
+     */
+    protected RetrievalCache getRetrievalCache() {
+        return retrievalCache;
+    }
+
+    /**
+     * Returns the {@link RagMetrics} recording the calls of this Retriever.
+     *
+     * @return the {@link RagMetrics}, {@link RagMetrics#NOOP} if recording is disabled.
+     */
+    protected RagMetrics getRagMetrics() {
+        return ragMetrics;
+    }
+
+    /**
+     * Returns the {@link ObservationRegistry} reporting the calls of this Retriever.
+     *
+     * @return the {@link ObservationRegistry}, {@link ObservationRegistry#NOOP} if reporting is disabled.
+     */
+    protected ObservationRegistry getObservationRegistry() {
+        return observationRegistry;
+    }
+
+    /**
+     * Removes the cached Documents of this Retriever. Implementations call this method whenever they change their
+     * corpus, e.g. after ingesting new Documents.
+     */
+    protected void invalidateRetrievalCache() {
+        var cache = retrievalCache;
+        if (cache != null) {
+            cache.invalidate(getName());
+        }
+    }
+
+    /**
+     * Returns the name identifying this Retriever, e.g. in a {@link RetrievalPolicy} or in log messages.
+     *
+     * @return the name of the Retriever, by default the simple name of its class.
+     */
+    public String getName() {
+        return getClass().getSimpleName();
     }
 }
@@ -0,0 +1,46 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.retriever;
+
+import java.util.List;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+
+/**
+ * Marks a {@link VectorStore} able to serve several similarity searches at once more cheaply than one by one, e.g. by
+ * embedding all queries with a single Embedding Model call. Retrievers backed by such a store use it for
+ * {@link BaseRetriever#transformAndRetrieveBatch(List, SharedQueryTransformations)}.
+ *
+ * @author Nikita Litvinov
+ * @see PrefetchingEmbeddingModel
+ * @since 0.2.0
+ */
+public interface BatchSimilaritySearch {
+
+    /**
+     * Performs the given similarity searches.
+     *
+     * @param requests the {@link SearchRequest} instances to perform.
+     * @return the Documents found for each request, in the order of the requests.
+     */
+    List<List<Document>> similaritySearchBatch(List<SearchRequest> requests);
+}
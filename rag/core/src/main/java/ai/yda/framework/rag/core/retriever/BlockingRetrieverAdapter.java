@@ -0,0 +1,68 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.retriever;
+
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.observation.RagObservations;
+
+/**
+ * Adapts a blocking {@link BaseRetriever} to the {@link ReactiveRetriever} contract by running each call on a
+ * {@link Scheduler}, within the scope of the Observation found in the Reactor Context.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public final class BlockingRetrieverAdapter implements ReactiveRetriever {
+
+    private final BaseRetriever retriever;
+
+    private final Scheduler scheduler;
+
+    /**
+     * Constructs a new {@link BlockingRetrieverAdapter} instance.
+     *
+     * @param retriever the blocking {@link BaseRetriever} to adapt.
+     * @param scheduler the {@link Scheduler} running its calls.
+     */
+    public BlockingRetrieverAdapter(final BaseRetriever retriever, final Scheduler scheduler) {
+        this.retriever = retriever;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Flux<Document> transformAndRetrieveReactive(
+            final Query query, final SharedQueryTransformations transformations) {
+        return RagObservations.fromCallableInScope(() -> retriever.transformAndRetrieve(query, transformations))
+                .subscribeOn(scheduler)
+                .flatMapIterable(Function.identity());
+    }
+
+    @Override
+    public String getName() {
+        return retriever.getName();
+    }
+}
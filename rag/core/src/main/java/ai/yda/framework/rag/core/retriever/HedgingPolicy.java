@@ -0,0 +1,307 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.retriever;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import lombok.Getter;
+
+import ai.yda.framework.rag.core.exception.RetrievalException;
+import ai.yda.framework.rag.core.executor.ContextPropagatingExecutor;
+
+/**
+ * Reduces the tail latency of a {@link BaseRetriever} by hedging slow calls. A call that has not returned within the
+ * observed 95th percentile latency of the Retriever is duplicated; the first of both calls to complete provides the
+ * result and the other one is cancelled. Hedging only starts once enough latencies have been observed, never fires
+ * before the minimum delay and is limited by a budget: every call earns a fraction of a hedge, so hedges stay below
+ * that fraction of the traffic over time.
+ * <p>
+ * A policy keeps the latency statistics of a single Retriever and must not be shared between Retrievers. A call
+ * that cannot be hedged, because too few latencies have been observed or the budget is spent, runs on the calling
+ * thread. Otherwise both calls run on the hedging {@link Executor}, which should not be the Executor running the
+ * Retrievers themselves, as the calling thread blocks while waiting for them. The latency of a call beaten by its
+ * hedge is recorded up to the moment it is cancelled, so that slow calls still raise the percentile.
+ *
+ * @author Nikita Litvinov
+ * @see BaseRetriever#setHedgingPolicy(HedgingPolicy)
+ * @since 0.2.0
+ */
+public class HedgingPolicy {
+
+    /**
+     * The default fraction of calls that may be hedged.
+     */
+    public static final double DEFAULT_BUDGET = 0.05;
+
+    /**
+     * The default minimum delay before a call is hedged.
+     */
+    public static final Duration DEFAULT_MIN_DELAY = Duration.ofMillis(20);
+
+    /**
+     * The percentile of the observed latencies after which a call is hedged.
+     */
+    private static final double HEDGING_PERCENTILE = 0.95;
+
+    /**
+     * The number of most recent latencies the percentile is computed from.
+     */
+    private static final int LATENCY_WINDOW = 256;
+
+    /**
+     * The number of latencies that must be observed before calls are hedged.
+     */
+    private static final int MIN_SAMPLES = 20;
+
+    /**
+     * The maximum number of hedges that can be saved up during a quiet period and spent in a burst.
+     */
+    private static final long MAX_SAVED_HEDGES = 10;
+
+    /**
+     * Hedge tokens are kept in thousandths to account for fractional budgets without floating-point updates.
+     */
+    private static final long TOKEN_SCALE = 1000;
+
+    private final double budget;
+
+    private final long minDelayNanos;
+
+    private final Executor executor;
+
+    private final LatencyWindow latencies = new LatencyWindow();
+
+    private final AtomicLong hedgeTokens = new AtomicLong(TOKEN_SCALE);
+
+    private final AtomicLong hedgeCount = new AtomicLong();
+
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    private final AtomicLong hedgeRejectionCount = new AtomicLong();
+
+    /**
+     * Constructs a new {@link HedgingPolicy} instance with the {@link #DEFAULT_BUDGET} and {@link #DEFAULT_MIN_DELAY}
+     * running the calls on a shared pool of daemon threads.
+     */
+    public HedgingPolicy() {
+        this(DEFAULT_BUDGET, DEFAULT_MIN_DELAY, null);
+    }
+
+    /**
+     * Constructs a new {@link HedgingPolicy} instance.
+     *
+     * @param budget   the fraction of calls that may be hedged, between 0 and 1.
+     * @param minDelay the minimum delay before a call is hedged.
+     * @param executor the {@link Executor} running both the original and the hedged calls, or {@code null} to use a
+     *                 shared pool of daemon threads.
+     * @throws IllegalArgumentException if the budget is not between 0 and 1 or the minimum delay is negative.
+     */
+    public HedgingPolicy(final double budget, final Duration minDelay, final Executor executor) {
+        if (budget < 0 || budget > 1 || minDelay.isNegative()) {
+            throw new IllegalArgumentException("Budget must be between 0 and 1 and min delay must not be negative.");
+        }
+        this.budget = budget;
+        this.minDelayNanos = minDelay.toNanos();
+        this.executor = ContextPropagatingExecutor.wrap(executor != null ? executor : DefaultExecutorHolder.EXECUTOR);
+    }
+
+    /**
+     * Executes the given Retriever call, hedging it if it is slower than usual and the budget allows.
+     *
+     * @param call the Retriever call to execute; it may be executed twice concurrently.
+     * @param <T>  the result type of the call.
+     * @return the result of the first call to complete successfully.
+     * @throws RuntimeException   the exception thrown by the call if all calls fail.
+     * @throws RetrievalException if the call fails with a checked exception or the waiting thread is interrupted.
+     */
+    public <T> T execute(final Supplier<T> call) {
+        earnHedgeToken();
+        var delay = latencies.getPercentileNanos();
+        if (delay < 0 || hedgeTokens.get() < TOKEN_SCALE) {
+            return executeInline(call, delay);
+        }
+        return executeHedged(call, delay);
+    }
+
+    private <T> T executeInline(final Supplier<T> call, final long delay) {
+        var result = timed(call);
+        if (delay >= 0 && result.nanos() > delay) {
+            hedgeRejectionCount.incrementAndGet();
+        }
+        latencies.record(result.nanos());
+        return result.value();
+    }
+
+    private <T> T executeHedged(final Supplier<T> call, final long delay) {
+        var completionService = new ExecutorCompletionService<TimedResult<T>>(executor);
+        var start = System.nanoTime();
+        var primary = completionService.submit(() -> timed(call));
+        Future<TimedResult<T>> hedge = null;
+        try {
+            var completed = completionService.poll(delay, TimeUnit.NANOSECONDS);
+            if (completed == null) {
+                if (spendHedgeToken()) {
+                    hedgeCount.incrementAndGet();
+                    hedge = completionService.submit(() -> timed(call));
+                } else {
+                    hedgeRejectionCount.incrementAndGet();
+                }
+                completed = completionService.take();
+            }
+
+            var pending = hedge != null ? 1 : 0;
+            var primaryFailed = false;
+            while (true) {
+                try {
+                    var result = completed.get();
+                    if (completed == hedge) {
+                        hedgeWinCount.incrementAndGet();
+                        if (!primaryFailed) {
+                            // The cancelled primary call took at least this long
+                            latencies.record(System.nanoTime() - start);
+                        }
+                    }
+                    latencies.record(result.nanos());
+                    return result.value();
+                } catch (final ExecutionException exception) {
+                    primaryFailed |= completed == primary;
+                    if (pending-- == 0) {
+                        throw exception.getCause() instanceof RuntimeException cause
+                                ? cause
+                                : new RetrievalException(exception.getCause());
+                    }
+                    completed = completionService.take();
+                }
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new RetrievalException(exception);
+        } finally {
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    private <T> TimedResult<T> timed(final Supplier<T> call) {
+        var start = System.nanoTime();
+        var value = call.get();
+        return new TimedResult<>(value, System.nanoTime() - start);
+    }
+
+    private void earnHedgeToken() {
+        var earned = (long) (budget * TOKEN_SCALE);
+        hedgeTokens.getAndUpdate(tokens -> Math.min(tokens + earned, MAX_SAVED_HEDGES * TOKEN_SCALE));
+    }
+
+    private boolean spendHedgeToken() {
+        var previous = hedgeTokens.getAndUpdate(tokens -> tokens >= TOKEN_SCALE ? tokens - TOKEN_SCALE : tokens);
+        return previous >= TOKEN_SCALE;
+    }
+
+    /**
+     * Returns the number of hedged calls sent so far.
+     *
+     * @return the number of hedges.
+     */
+    public long getHedgeCount() {
+        return hedgeCount.get();
+    }
+
+    /**
+     * Returns the number of hedged calls that completed before the call they duplicated.
+     *
+     * @return the number of won hedges.
+     */
+    public long getHedgeWinCount() {
+        return hedgeWinCount.get();
+    }
+
+    /**
+     * Returns the number of slow calls that were not hedged because the budget was exhausted.
+     *
+     * @return the number of rejected hedges.
+     */
+    public long getHedgeRejectionCount() {
+        return hedgeRejectionCount.get();
+    }
+
+    /**
+     * Returns the delay after which calls are currently hedged.
+     *
+     * @return the hedging delay, or {@link Duration#ZERO} until enough latencies have been observed.
+     */
+    public Duration getHedgingDelay() {
+        var delay = latencies.getPercentileNanos();
+        return delay < 0 ? Duration.ZERO : Duration.ofNanos(delay);
+    }
+
+    private record TimedResult<T>(T value, long nanos) {}
+
+    /**
+     * Keeps the most recent latencies in a ring buffer and recomputes the percentile every few samples.
+     */
+    private final class LatencyWindow {
+
+        private static final int RECOMPUTE_INTERVAL = 16;
+
+        private final long[] samples = new long[LATENCY_WINDOW];
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Getter
+        private volatile long percentileNanos = -1;
+
+        private void record(final long nanos) {
+            var index = count.getAndIncrement();
+            samples[Math.floorMod(index, LATENCY_WINDOW)] = nanos;
+            var recorded = index + 1;
+            if (recorded >= MIN_SAMPLES && recorded % RECOMPUTE_INTERVAL == 0) {
+                var size = Math.min(recorded, LATENCY_WINDOW);
+                var sorted = Arrays.copyOf(samples, size);
+                Arrays.sort(sorted);
+                percentileNanos = Math.max(sorted[(int) (HEDGING_PERCENTILE * (size - 1))], minDelayNanos);
+            }
+        }
+    }
+
+    private static final class DefaultExecutorHolder {
+
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "yda-hedging-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
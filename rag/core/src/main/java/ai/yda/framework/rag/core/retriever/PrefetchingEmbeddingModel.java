@@ -0,0 +1,243 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.retriever;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+/**
+ * Decorates an {@link EmbeddingModel} so that the embeddings of many texts can be computed with a single batch call
+ * ahead of the calls that consume them one by one, e.g. the similarity searches of a Vector Store. While a
+ * {@link Prefetch} is open, requests for the prefetched texts are answered from memory.
+ * <p>
+ * The embeddings of the most recently embedded texts are kept as well, so a Request embedded by one component, e.g. a
+ * {@code RetrieverRouter}, is not embedded again by the next one, e.g. the Vector Store of a Retriever. Components
+ * embedding with the same model should therefore use the instance returned by {@link #shared(EmbeddingModel)}.
+ * Concurrent requests for the same text that is not yet known may still both reach the delegate.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class PrefetchingEmbeddingModel implements EmbeddingModel {
+
+    /**
+     * The default number of recently embedded texts whose embeddings are kept.
+     */
+    public static final int DEFAULT_RECENT_CAPACITY = 256;
+
+    private static final ConcurrentMap<EmbeddingModel, PrefetchingEmbeddingModel> SHARED = new ConcurrentHashMap<>();
+
+    private final EmbeddingModel delegate;
+
+    private final ConcurrentMap<String, PrefetchedEmbedding> prefetched = new ConcurrentHashMap<>();
+
+    /**
+     * The embeddings of the recently embedded texts in access order, guarded by itself.
+     */
+    private final Map<String, float[]> recent;
+
+    /**
+     * Constructs a new {@link PrefetchingEmbeddingModel} instance keeping the embeddings of the
+     * {@link #DEFAULT_RECENT_CAPACITY} most recently embedded texts.
+     *
+     * @param delegate the {@link EmbeddingModel} computing the embeddings.
+     */
+    public PrefetchingEmbeddingModel(final EmbeddingModel delegate) {
+        this(delegate, DEFAULT_RECENT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new {@link PrefetchingEmbeddingModel} instance.
+     *
+     * @param delegate       the {@link EmbeddingModel} computing the embeddings.
+     * @param recentCapacity the number of recently embedded texts whose embeddings are kept, {@code 0} to keep none.
+     */
+    public PrefetchingEmbeddingModel(final EmbeddingModel delegate, final int recentCapacity) {
+        if (recentCapacity < 0) {
+            throw new IllegalArgumentException("Recent capacity must not be negative");
+        }
+        this.delegate = delegate;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, float[]> eldest) {
+                return size() > recentCapacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the {@link PrefetchingEmbeddingModel} shared by all components embedding with the given model, so that
+     * a text embedded by one of them is not embedded again by the others. The instance is kept for the lifetime of the
+     * application.
+     *
+     * @param delegate the {@link EmbeddingModel} computing the embeddings.
+     * @return the shared {@link PrefetchingEmbeddingModel}, the given model itself if it already is one.
+     */
+    public static PrefetchingEmbeddingModel shared(final EmbeddingModel delegate) {
+        return delegate instanceof PrefetchingEmbeddingModel prefetchingEmbeddingModel
+                ? prefetchingEmbeddingModel
+                : SHARED.computeIfAbsent(delegate, PrefetchingEmbeddingModel::new);
+    }
+
+    /**
+     * Embeds the given texts that are not prefetched yet with a single call to the delegate and keeps their embeddings
+     * until the returned {@link Prefetch} is closed. Concurrent prefetches of the same text share its embedding.
+     *
+     * @param texts the texts to embed.
+     * @return the {@link Prefetch} releasing the embeddings when closed.
+     */
+    public Prefetch prefetch(final Collection<String> texts) {
+        var distinctTexts = new LinkedHashSet<>(texts);
+        var missingTexts = new ArrayList<String>();
+        for (var text : distinctTexts) {
+            if (prefetched.computeIfPresent(text, (key, value) -> value.retain()) != null) {
+                continue;
+            }
+            var embedding = recentEmbedding(text);
+            if (embedding != null) {
+                prefetched.merge(text, new PrefetchedEmbedding(embedding), (existing, added) -> existing.retain());
+            } else {
+                missingTexts.add(text);
+            }
+        }
+
+        if (!missingTexts.isEmpty()) {
+            var embeddings = delegate.embed(missingTexts);
+            for (var i = 0; i < missingTexts.size(); i++) {
+                remember(missingTexts.get(i), embeddings.get(i));
+                prefetched.merge(
+                        missingTexts.get(i),
+                        new PrefetchedEmbedding(embeddings.get(i)),
+                        (existing, added) -> existing.retain());
+            }
+        }
+        return () -> distinctTexts.forEach(text -> prefetched.computeIfPresent(text, (key, value) -> value.release()));
+    }
+
+    @Override
+    public EmbeddingResponse call(final EmbeddingRequest request) {
+        var texts = request.getInstructions();
+        var embeddings = new ArrayList<Embedding>(texts.size());
+        for (var text : texts) {
+            var embedding = prefetched.get(text);
+            if (embedding == null) {
+                return delegate.call(request);
+            }
+            embeddings.add(new Embedding(embedding.embedding, embeddings.size()));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(final String text) {
+        var prefetchedEmbedding = prefetched.get(text);
+        if (prefetchedEmbedding != null) {
+            return prefetchedEmbedding.embedding;
+        }
+        var embedding = recentEmbedding(text);
+        if (embedding == null) {
+            embedding = delegate.embed(text);
+            remember(text, embedding);
+        }
+        return embedding;
+    }
+
+    @Override
+    public float[] embed(final Document document) {
+        return delegate.embed(document);
+    }
+
+    @Override
+    public List<float[]> embed(final List<String> texts) {
+        var embeddings = new ArrayList<float[]>(texts.size());
+        for (var text : texts) {
+            var embedding = prefetched.get(text);
+            if (embedding == null) {
+                return delegate.embed(texts);
+            }
+            embeddings.add(embedding.embedding);
+        }
+        return embeddings;
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+
+    private float[] recentEmbedding(final String text) {
+        synchronized (recent) {
+            return recent.get(text);
+        }
+    }
+
+    private void remember(final String text, final float[] embedding) {
+        synchronized (recent) {
+            recent.put(text, embedding);
+        }
+    }
+
+    /**
+     * The scope of a {@link #prefetch(Collection)} call. Closing it releases the prefetched embeddings once no other
+     * prefetch holds them.
+     */
+    @FunctionalInterface
+    public interface Prefetch extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * A prefetched embedding together with the number of open prefetches holding it. It is only mutated inside the
+     * atomic map operations of the owning {@link PrefetchingEmbeddingModel}.
+     */
+    private static final class PrefetchedEmbedding {
+
+        private final float[] embedding;
+
+        private int references = 1;
+
+        private PrefetchedEmbedding(final float[] embedding) {
+            this.embedding = embedding;
+        }
+
+        private PrefetchedEmbedding retain() {
+            references++;
+            return this;
+        }
+
+        private PrefetchedEmbedding release() {
+            return --references == 0 ? null : this;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.retriever;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.preretrieval.query.transformation.QueryTransformer;
+
+import ai.yda.framework.rag.core.observation.RagObservations;
+
+/**
+ * A {@link QueryTransformer} that transforms the {@link Query} without blocking, e.g. by streaming the rewrite from a
+ * reactive Chat Model. It is used by {@link BaseReactiveRetriever} on the reactive path and still works as a regular
+ * {@link QueryTransformer} on the blocking one.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface ReactiveQueryTransformer extends QueryTransformer {
+
+    /**
+     * Transforms the given {@link Query} without blocking.
+     *
+     * @param query the {@link Query} to transform.
+     * @return a {@link Mono} emitting the transformed {@link Query}.
+     */
+    Mono<Query> transformReactive(Query query);
+
+    /**
+     * Transforms the given {@link Query}, blocking until {@link #transformReactive(Query)} completes.
+     *
+     * @param query the {@link Query} to transform.
+     * @return the transformed {@link Query}.
+     */
+    @Override
+    default Query transform(final Query query) {
+        return transformReactive(query).defaultIfEmpty(query).block();
+    }
+
+    /**
+     * Adapts a blocking {@link QueryTransformer} by running it on the given {@link Scheduler}. Transformations are
+     * shared between Retrievers by transformer instance, so a blocking transformer used by several Retrievers should
+     * be adapted once and the adapter passed to all of them.
+     *
+     * @param transformer the {@link QueryTransformer} to adapt.
+     * @param scheduler   the {@link Scheduler} running the blocking calls.
+     * @return the given transformer if it is already a {@link ReactiveQueryTransformer}, otherwise an adapter.
+     */
+    static ReactiveQueryTransformer of(final QueryTransformer transformer, final Scheduler scheduler) {
+        if (transformer instanceof ReactiveQueryTransformer reactiveTransformer) {
+            return reactiveTransformer;
+        }
+        return query -> RagObservations.fromCallableInScope(() -> transformer.transform(query))
+                .subscribeOn(scheduler);
+    }
+}
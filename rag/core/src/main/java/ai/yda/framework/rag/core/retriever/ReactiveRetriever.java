@@ -0,0 +1,74 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.retriever;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.rag.Query;
+
+/**
+ * A Retriever emitting the {@link Document} for a Request without blocking the subscribing thread. The streaming RAG
+ * process subscribes to it directly instead of reserving a thread of the retrieval Scheduler per Retriever call, so
+ * a Retriever built on a non-blocking client runs end-to-end on the client's event loop.
+ * <p>
+ * Implementations usually extend {@link BaseReactiveRetriever}; blocking {@link BaseRetriever} instances are adapted
+ * with {@link #of(BaseRetriever, Scheduler)}.
+ * </p>
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public interface ReactiveRetriever {
+
+    /**
+     * Transforms the {@link Query} with the Query Transformers of this Retriever and emits the Documents retrieved for
+     * the transformed Query. Transformations already performed for the same Request by other Retrievers are taken
+     * from the given {@link SharedQueryTransformations}.
+     *
+     * @param query           the {@link Query} to retrieve Documents for.
+     * @param transformations the {@link SharedQueryTransformations} of the current Request.
+     * @return a {@link Flux} of the retrieved {@link Document}.
+     */
+    Flux<Document> transformAndRetrieveReactive(Query query, SharedQueryTransformations transformations);
+
+    /**
+     * Returns the name identifying this Retriever, e.g. in a {@link RetrievalPolicy} or in log messages.
+     *
+     * @return the name of the Retriever.
+     */
+    String getName();
+
+    /**
+     * Returns the reactive view of the given Retriever.
+     *
+     * @param retriever the {@link BaseRetriever} to view reactively.
+     * @param scheduler the {@link Scheduler} running the calls of a blocking Retriever.
+     * @return the given Retriever if it is already a {@link ReactiveRetriever}, otherwise a
+     * {@link BlockingRetrieverAdapter} running it on the {@link Scheduler}.
+     */
+    static ReactiveRetriever of(final BaseRetriever retriever, final Scheduler scheduler) {
+        if (retriever instanceof ReactiveRetriever reactiveRetriever) {
+            return reactiveRetriever;
+        }
+        return new BlockingRetrieverAdapter(retriever, scheduler);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.retriever;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+/**
+ * Describes how long the RAG process is allowed to wait for its {@link BaseRetriever} instances. The deadline bounds
+ * the whole retrieval stage of a single Request, while the per-Retriever timeouts bound individual Retrievers (matched
+ * by {@link BaseRetriever#getName()}). Retrievers that do not answer in time are cut off and the RAG process continues
+ * with the Documents that have already arrived.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@Getter
+@Builder(toBuilder = true)
+public class RetrievalPolicy {
+
+    /**
+     * The policy that waits for every Retriever without any time limit.
+     */
+    public static final RetrievalPolicy UNBOUNDED = RetrievalPolicy.builder().build();
+
+    /**
+     * The maximum time the whole retrieval stage of a single Request may take, or {@code null} if it is unbounded.
+     */
+    private final Duration deadline;
+
+    /**
+     * The maximum time a particular Retriever may take, keyed by the Retriever name.
+     */
+    @Singular
+    private final Map<String, Duration> retrieverTimeouts;
+
+    /**
+     * Returns the deadline of the retrieval stage.
+     *
+     * @return an {@link Optional} containing the deadline, or an empty {@link Optional} if the stage is unbounded.
+     */
+    public Optional<Duration> getDeadline() {
+        return Optional.ofNullable(deadline).filter(value -> !value.isNegative() && !value.isZero());
+    }
+
+    /**
+     * Returns the timeout configured for the given Retriever.
+     *
+     * @param retriever the {@link BaseRetriever} to look up the timeout for.
+     * @return an {@link Optional} containing the timeout, or an empty {@link Optional} if the Retriever is bounded
+     * only by the deadline.
+     */
+    public Optional<Duration> getTimeout(final BaseRetriever retriever) {
+        return Optional.ofNullable(retrieverTimeouts.get(retriever.getName()))
+                .filter(value -> !value.isNegative() && !value.isZero());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.retriever;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.ai.rag.Query;
+import org.springframework.ai.rag.preretrieval.query.transformation.QueryTransformer;
+
+/**
+ * Shares the results of {@link QueryTransformer} calls between the Retrievers processing the same Request. Retrievers
+ * often use the same transformer beans, e.g. a rewrite and a compression transformer, each of which is an LLM call.
+ * Within one Request each distinct pair of transformer instance and input {@link Query} is transformed only once:
+ * the first Retriever performs the call and the others wait for its in-flight result.
+ * <p>
+ * Blocking and {@link ReactiveQueryTransformer reactive} transformations share the same results, so a Request served
+ * by both kinds of Retrievers still transforms each Query once.
+ * </p>
+ * <p>
+ * An instance is meant to live for a single Request, or a single batch of Requests, and must not be reused later.
+ * </p>
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class SharedQueryTransformations {
+
+    private final Map<Key, CompletableFuture<Query>> transformations = new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor for {@link SharedQueryTransformations}.
+     */
+    public SharedQueryTransformations() {}
+
+    /**
+     * Transforms the {@link Query} with the given {@link QueryTransformer}, or returns the result of the same
+     * transformation already performed, or being performed, for this Request.
+     *
+     * @param transformer the {@link QueryTransformer} to apply.
+     * @param query       the {@link Query} to transform.
+     * @return the transformed {@link Query}.
+     */
+    public Query transform(final QueryTransformer transformer, final Query query) {
+        var key = new Key(transformer, query);
+        var future = new CompletableFuture<Query>();
+        var existing = transformations.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            var transformedQuery = transformer.transform(query);
+            future.complete(transformedQuery);
+            return transformedQuery;
+        } catch (Throwable e) {
+            // Any failure, an Error included, must release the Retrievers waiting for this transformation
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Transforms the {@link Query} with the given {@link ReactiveQueryTransformer} without blocking, or returns the
+     * result of the same transformation already performed, or being performed, for this Request. A transformer
+     * completing empty leaves the Query unchanged.
+     * <p>
+     * The transformation is subscribed to on its own, with the Context of the first subscriber, so that cancelling a
+     * subscriber, e.g. a Retriever cut off by its timeout, neither cancels the transformation nor fails the other
+     * Retrievers waiting for it.
+     * </p>
+     *
+     * @param transformer the {@link ReactiveQueryTransformer} to apply.
+     * @param query       the {@link Query} to transform.
+     * @return a {@link Mono} emitting the transformed {@link Query}.
+     */
+    public Mono<Query> transformReactive(final ReactiveQueryTransformer transformer, final Query query) {
+        return Mono.deferContextual(context -> {
+            var key = new Key(transformer, query);
+            var future = new CompletableFuture<Query>();
+            var existing = transformations.putIfAbsent(key, future);
+            if (existing != null) {
+                return Mono.fromFuture(existing, true);
+            }
+
+            transformer
+                    .transformReactive(query)
+                    .defaultIfEmpty(query)
+                    .contextWrite(context)
+                    .subscribe(future::complete, future::completeExceptionally);
+            return Mono.fromFuture(future, true);
+        });
+    }
+
+    private Query await(final CompletableFuture<Query> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Identifies a transformation by the transformer instance and the input {@link Query}.
+     */
+    private record Key(QueryTransformer transformer, Query query) {
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Key key && transformer == key.transformer && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(transformer) + query.hashCode();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.routing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.retriever.BaseRetriever;
+import ai.yda.framework.rag.core.retriever.PrefetchingEmbeddingModel;
+
+/**
+ * Routes a Request to the Retrievers whose corpus is semantically closest to it. Each Retriever is represented by the
+ * centroid of the embeddings of sample texts from its corpus. The Request is embedded once and compared with every
+ * centroid; the best Retriever is selected together with all Retrievers within the margin of its similarity. When
+ * even the best similarity is below the minimum, the router is not confident and all Retrievers are queried.
+ * <p>
+ * Centroids are computed lazily on the first Request, with a single Embedding Model call for the samples of all
+ * Retrievers, and cached. Retrievers without samples are always selected when the router is confident, as nothing is
+ * known about their corpus. A batch of Requests is embedded with a single call as well, through a
+ * {@link PrefetchingEmbeddingModel}. It is the instance {@link PrefetchingEmbeddingModel#shared(EmbeddingModel) shared}
+ * with the Vector Stores embedding with the same model, so they find the embedding of the Request instead of computing
+ * it again.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class CentroidRetrieverRouter implements RetrieverRouter {
+
+    /**
+     * The default minimum similarity of the best Retriever for the router to be confident.
+     */
+    public static final double DEFAULT_MIN_SIMILARITY = 0.3;
+
+    /**
+     * The default margin below the best similarity within which further Retrievers are selected.
+     */
+    public static final double DEFAULT_MARGIN = 0.05;
+
+    private final PrefetchingEmbeddingModel embeddingModel;
+
+    private final Map<String, List<String>> samples;
+
+    private final double minSimilarity;
+
+    private final double margin;
+
+    /**
+     * The normalized centroid per Retriever name, {@code null} until the first Request.
+     */
+    private volatile Map<String, float[]> centroids;
+
+    /**
+     * Constructs a new {@link CentroidRetrieverRouter} instance.
+     *
+     * @param embeddingModel the {@link EmbeddingModel} embedding the samples and the Requests.
+     * @param samples        the sample texts per Retriever name, as returned by {@link BaseRetriever#getName()}.
+     * @param minSimilarity  the minimum cosine similarity of the best Retriever for the router to be confident.
+     * @param margin         the margin below the best similarity within which further Retrievers are selected.
+     */
+    public CentroidRetrieverRouter(
+            final EmbeddingModel embeddingModel,
+            final Map<String, List<String>> samples,
+            final double minSimilarity,
+            final double margin) {
+        this.embeddingModel = PrefetchingEmbeddingModel.shared(embeddingModel);
+        this.samples = Map.copyOf(samples);
+        this.minSimilarity = minSimilarity;
+        this.margin = margin;
+    }
+
+    @Override
+    public List<BaseRetriever> route(final Query query, final List<BaseRetriever> retrievers) {
+        var centroids = centroids();
+        var embedding = normalize(embeddingModel.embed(query.text()));
+        var similarities = new double[retrievers.size()];
+        var best = Double.NEGATIVE_INFINITY;
+        for (var i = 0; i < retrievers.size(); i++) {
+            var centroid = centroids.get(retrievers.get(i).getName());
+            similarities[i] = centroid != null ? dot(embedding, centroid) : Double.NaN;
+            if (similarities[i] > best) {
+                best = similarities[i];
+            }
+        }
+        if (best < minSimilarity) {
+            return List.of();
+        }
+
+        var selected = new ArrayList<BaseRetriever>();
+        for (var i = 0; i < retrievers.size(); i++) {
+            if (Double.isNaN(similarities[i]) || similarities[i] >= best - margin) {
+                selected.add(retrievers.get(i));
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Embeds the Requests of the batch with a single Embedding Model call and routes them one by one.
+     */
+    @Override
+    public List<List<BaseRetriever>> routeBatch(final List<Query> queries, final List<BaseRetriever> retrievers) {
+        try (var ignored =
+                embeddingModel.prefetch(queries.stream().map(Query::text).toList())) {
+            return RetrieverRouter.super.routeBatch(queries, retrievers);
+        }
+    }
+
+    private Map<String, float[]> centroids() {
+        var computed = centroids;
+        if (computed == null) {
+            // Computed without holding any lock, so Requests racing on the first call may compute it twice
+            computed = computeCentroids();
+            centroids = computed;
+        }
+        return computed;
+    }
+
+    private Map<String, float[]> computeCentroids() {
+        var names = new ArrayList<String>();
+        var texts = new ArrayList<String>();
+        samples.forEach((name, retrieverSamples) -> {
+            for (var sample : retrieverSamples) {
+                names.add(name);
+                texts.add(sample);
+            }
+        });
+        if (texts.isEmpty()) {
+            return Map.of();
+        }
+
+        var embeddings = embeddingModel.embed(texts);
+        var sums = new HashMap<String, float[]>();
+        for (var i = 0; i < embeddings.size(); i++) {
+            var normalized = normalize(embeddings.get(i));
+            var sum = sums.computeIfAbsent(names.get(i), name -> new float[normalized.length]);
+            for (var j = 0; j < sum.length; j++) {
+                sum[j] += normalized[j];
+            }
+        }
+        var computed = new HashMap<String, float[]>();
+        sums.forEach((name, sum) -> computed.put(name, normalize(sum)));
+        return Map.copyOf(computed);
+    }
+
+    private static float[] normalize(final float[] vector) {
+        var norm = Math.sqrt(dot(vector, vector));
+        if (norm == 0) {
+            return vector;
+        }
+        var normalized = new float[vector.length];
+        for (var i = 0; i < vector.length; i++) {
+            normalized[i] = (float) (vector[i] / norm);
+        }
+        return normalized;
+    }
+
+    private static double dot(final float[] left, final float[] right) {
+        var sum = 0.0;
+        for (var i = 0; i < Math.min(left.length, right.length); i++) {
+            sum += left[i] * right[i];
+        }
+        return sum;
+    }
+}
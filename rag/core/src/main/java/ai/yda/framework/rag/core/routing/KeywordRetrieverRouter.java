@@ -0,0 +1,75 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.routing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.retriever.BaseRetriever;
+
+/**
+ * Routes a Request to the Retrievers whose keywords it mentions. Keywords are matched case-insensitively as whole
+ * words. Requests mentioning keywords of no Retriever are not routed, so all Retrievers are queried for them.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class KeywordRetrieverRouter implements RetrieverRouter {
+
+    /**
+     * The keyword pattern per Retriever name.
+     */
+    private final Map<String, Pattern> patterns = new HashMap<>();
+
+    /**
+     * Constructs a new {@link KeywordRetrieverRouter} instance.
+     *
+     * @param keywords the keywords per Retriever name, as returned by {@link BaseRetriever#getName()}.
+     */
+    public KeywordRetrieverRouter(final Map<String, List<String>> keywords) {
+        keywords.forEach((retrieverName, retrieverKeywords) -> {
+            if (!retrieverKeywords.isEmpty()) {
+                var alternatives = retrieverKeywords.stream()
+                        .map(keyword -> Pattern.quote(keyword.toLowerCase(Locale.ROOT)))
+                        .toList();
+                patterns.put(retrieverName, Pattern.compile("\\b(?:" + String.join("|", alternatives) + ")\\b"));
+            }
+        });
+    }
+
+    @Override
+    public List<BaseRetriever> route(final Query query, final List<BaseRetriever> retrievers) {
+        var text = query.text().toLowerCase(Locale.ROOT);
+        var selected = new ArrayList<BaseRetriever>();
+        for (var retriever : retrievers) {
+            var pattern = patterns.get(retriever.getName());
+            if (pattern != null && pattern.matcher(text).find()) {
+                selected.add(retriever);
+            }
+        }
+        return selected;
+    }
+}
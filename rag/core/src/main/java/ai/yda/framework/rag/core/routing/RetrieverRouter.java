@@ -0,0 +1,104 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.ai.rag.Query;
+
+import ai.yda.framework.rag.core.retriever.BaseRetriever;
+
+/**
+ * Selects the {@link BaseRetriever} instances worth querying for a Request, so that Retrievers whose corpus is
+ * unrelated to the Request are skipped. Routers rely on cheap local signals and must not call the Retrievers
+ * themselves. A router that is not confident about its choice returns an empty list, in which case all Retrievers are
+ * queried.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface RetrieverRouter {
+
+    /**
+     * The router that never narrows the fan-out, so that every Retriever is queried.
+     */
+    RetrieverRouter ALL = (query, retrievers) -> List.of();
+
+    /**
+     * Selects the Retrievers to query for the given Request.
+     *
+     * @param query      the {@link Query} to route.
+     * @param retrievers all available Retrievers.
+     * @return the selected subset of the Retrievers, or an empty list to query all of them.
+     */
+    List<BaseRetriever> route(Query query, List<BaseRetriever> retrievers);
+
+    /**
+     * Selects the Retrievers to query for each Request of a batch. The default implementation routes the Requests one
+     * by one; routers relying on remote calls, e.g. to an Embedding Model, override it to batch them.
+     *
+     * @param queries    the Requests to route.
+     * @param retrievers all available Retrievers.
+     * @return the selected Retrievers of each Request, in the order of the Requests, an empty list to query all of
+     * them.
+     */
+    default List<List<BaseRetriever>> routeBatch(final List<Query> queries, final List<BaseRetriever> retrievers) {
+        return queries.stream().map(query -> route(query, retrievers)).toList();
+    }
+
+    /**
+     * Returns a router that asks this router first and the given router only if this one is not confident.
+     *
+     * @param fallback the {@link RetrieverRouter} asked when this router returns an empty list.
+     * @return the composed {@link RetrieverRouter}.
+     */
+    default RetrieverRouter orElse(final RetrieverRouter fallback) {
+        var primary = this;
+        return new RetrieverRouter() {
+            @Override
+            public List<BaseRetriever> route(final Query query, final List<BaseRetriever> retrievers) {
+                var selected = primary.route(query, retrievers);
+                return selected.isEmpty() ? fallback.route(query, retrievers) : selected;
+            }
+
+            @Override
+            public List<List<BaseRetriever>> routeBatch(
+                    final List<Query> queries, final List<BaseRetriever> retrievers) {
+                var selected = new ArrayList<>(primary.routeBatch(queries, retrievers));
+                var unconfidentIndexes = new ArrayList<Integer>();
+                for (var i = 0; i < selected.size(); i++) {
+                    if (selected.get(i).isEmpty()) {
+                        unconfidentIndexes.add(i);
+                    }
+                }
+                if (!unconfidentIndexes.isEmpty()) {
+                    var fallbackSelected = fallback.routeBatch(
+                            unconfidentIndexes.stream().map(queries::get).toList(), retrievers);
+                    for (var i = 0; i < unconfidentIndexes.size(); i++) {
+                        selected.set(unconfidentIndexes.get(i), fallbackSelected.get(i));
+                    }
+                }
+                return selected;
+            }
+        };
+    }
+}
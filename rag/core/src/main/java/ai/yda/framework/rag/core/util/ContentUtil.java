@@ -46,7 +46,10 @@ public final class ContentUtil {
      * @param content       the textual content to be preprocessed.
      * @param maxCharacters the maximum number of characters per chunk.
      * @return a list of strings where each string is a chunk of the processed content. The list is unmodifiable.
+     * @deprecated since 0.2.0, use {@link TextChunker} which processes the content in a single pass and splits it on
+     * sentence and word boundaries.
      */
+    @Deprecated(since = "0.2.0")
     public static List<String> preprocessAndSplitContent(final String content, final Integer maxCharacters) {
         var preprocessedContent = new String(content.getBytes(), StandardCharsets.UTF_8).toLowerCase();
         preprocessedContent = normalizeWhitespaces(preprocessedContent);
@@ -0,0 +1,475 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import lombok.Builder;
+
+/**
+ * Splits textual content into chunks in a single pass over its characters. While reading, the chunker optionally
+ * strips markup (tags, comments, scripts, styles and character entities), collapses runs of whitespace into a single
+ * space and optionally lowercases the text. Chunks are at most {@code maxCharacters} long and end at the last sentence
+ * boundary in their second half, or at the last word boundary if there is none. Words longer than half a chunk are
+ * cut. Consecutive chunks share up to {@code overlapCharacters} of whole words.
+ * <p>
+ * Tags end at the first {@code >} outside of quoted attribute values. Block-level tags separate words, while inline
+ * tags such as {@code <b>} or {@code <span>} and comments are removed without a separator, so that a word split by
+ * them stays whole.
+ * <p>
+ * Chunks are produced lazily as the returned {@link Stream} is consumed, so the whole normalized content is never
+ * held in memory. The chunker is immutable and may be shared between threads.
+ *
+ * @author Nikita Litvinov
+ * @see ContentUtil
+ * @since 0.2.0
+ */
+public final class TextChunker {
+
+    /**
+     * The default maximum length of a chunk in characters.
+     */
+    public static final int DEFAULT_MAX_CHARACTERS = 1000;
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private static final int MAX_ENTITY_LENGTH = 10;
+
+    /**
+     * The HTML elements rendered inline, which do not separate words. All other tags do.
+     */
+    private static final Set<String> INLINE_TAGS = Set.of(
+            "a", "abbr", "b", "bdi", "bdo", "cite", "code", "data", "dfn", "em", "font", "i", "kbd", "mark", "q", "s",
+            "samp", "small", "span", "strong", "sub", "sup", "time", "tt", "u", "var", "wbr");
+
+    private final int maxCharacters;
+
+    private final int overlapCharacters;
+
+    private final boolean stripMarkup;
+
+    private final boolean lowerCase;
+
+    /**
+     * Constructs a new {@link TextChunker} instance.
+     *
+     * @param maxCharacters     the maximum length of a chunk, {@link #DEFAULT_MAX_CHARACTERS} if {@code null}.
+     * @param overlapCharacters the maximum number of characters repeated from the end of the previous chunk, none if
+     *                          {@code null}. Must be less than half of {@code maxCharacters}.
+     * @param stripMarkup       whether HTML/XML markup is removed from the content, {@code false} if {@code null}.
+     * @param lowerCase         whether the content is lowercased, {@code false} if {@code null}.
+     * @throws IllegalArgumentException if {@code maxCharacters} is not positive or {@code overlapCharacters} is
+     *                                  negative or not less than half of {@code maxCharacters}.
+     */
+    @Builder
+    private TextChunker(
+            final Integer maxCharacters,
+            final Integer overlapCharacters,
+            final Boolean stripMarkup,
+            final Boolean lowerCase) {
+        this.maxCharacters = maxCharacters != null ? maxCharacters : DEFAULT_MAX_CHARACTERS;
+        this.overlapCharacters = overlapCharacters != null ? overlapCharacters : 0;
+        this.stripMarkup = Boolean.TRUE.equals(stripMarkup);
+        this.lowerCase = Boolean.TRUE.equals(lowerCase);
+        if (this.maxCharacters <= 0 || this.overlapCharacters < 0 || this.overlapCharacters >= this.maxCharacters / 2) {
+            throw new IllegalArgumentException(
+                    "Max characters must be positive and overlap must be less than half of the max characters.");
+        }
+    }
+
+    /**
+     * Lazily splits the given content into chunks.
+     *
+     * @param content the textual content to split.
+     * @return a sequential, ordered {@link Stream} of the chunks.
+     */
+    public Stream<String> chunks(final CharSequence content) {
+        var position = new int[1];
+        return stream(() -> position[0] < content.length() ? content.charAt(position[0]++) : -1);
+    }
+
+    /**
+     * Lazily splits the content read from the given {@link Reader} into chunks. The Reader is read as the returned
+     * {@link Stream} is consumed and is not closed by this method.
+     *
+     * @param reader the {@link Reader} providing the textual content to split.
+     * @return a sequential, ordered {@link Stream} of the chunks.
+     * @throws UncheckedIOException if reading fails while the Stream is consumed.
+     */
+    public Stream<String> chunks(final Reader reader) {
+        var buffer = new char[READ_BUFFER_SIZE];
+        var state = new int[2];
+        return stream(() -> {
+            if (state[0] == state[1]) {
+                state[0] = 0;
+                state[1] = reader.read(buffer);
+                if (state[1] <= 0) {
+                    state[1] = 0;
+                    return -1;
+                }
+            }
+            return buffer[state[0]++];
+        });
+    }
+
+    private Stream<String> stream(final CharSource source) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(
+                        new ChunkIterator(source), Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    /**
+     * Supplies the raw characters of the content one by one.
+     */
+    @FunctionalInterface
+    private interface CharSource {
+
+        /**
+         * @return the next character, or {@code -1} at the end of the content.
+         */
+        int next() throws IOException;
+    }
+
+    private enum MarkupState {
+        TEXT,
+        TAG,
+        ATTRIBUTE_VALUE,
+        COMMENT,
+        ENTITY,
+        RAW_TEXT
+    }
+
+    /**
+     * Reads the content on demand and assembles the chunks in a reused window buffer.
+     */
+    private final class ChunkIterator implements Iterator<String> {
+
+        private final CharSource source;
+
+        private final ArrayDeque<String> chunks = new ArrayDeque<>();
+
+        private final StringBuilder window = new StringBuilder(maxCharacters);
+
+        private final StringBuilder markup = new StringBuilder();
+
+        private MarkupState markupState = MarkupState.TEXT;
+
+        /**
+         * The closing tag ending the raw text of a script or style element, e.g. {@code </script}.
+         */
+        private String rawTextEnd;
+
+        private int rawTextMatched;
+
+        /**
+         * The last non-whitespace character of the current tag, a quote following {@code =} opens a quoted value.
+         */
+        private char lastTagCharacter;
+
+        /**
+         * The quote closing the current attribute value.
+         */
+        private char quote;
+
+        /**
+         * The number of consecutive dashes read in the current comment.
+         */
+        private int commentDashes;
+
+        private boolean pendingSpace;
+
+        /**
+         * The number of characters at the start of the window repeated from the previous chunk.
+         */
+        private int carried;
+
+        /**
+         * The index of the last space in the window, or {@code -1}.
+         */
+        private int lastSpace = -1;
+
+        /**
+         * The index of the last space that follows a sentence terminator in the window, or {@code -1}.
+         */
+        private int lastSentenceEnd = -1;
+
+        private boolean exhausted;
+
+        private ChunkIterator(final CharSource source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (chunks.isEmpty() && !exhausted) {
+                int c;
+                try {
+                    c = source.next();
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+                if (c < 0) {
+                    finish();
+                } else if (stripMarkup) {
+                    acceptMarkup((char) c);
+                } else {
+                    acceptText((char) c);
+                }
+            }
+            return !chunks.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunks.poll();
+        }
+
+        private void acceptMarkup(final char c) {
+            switch (markupState) {
+                case TEXT -> {
+                    if (c == '<') {
+                        startTag();
+                    } else if (c == '&') {
+                        markupState = MarkupState.ENTITY;
+                        markup.setLength(0);
+                    } else {
+                        acceptText(c);
+                    }
+                }
+                case TAG -> {
+                    if (c == '>') {
+                        endTag();
+                    } else if ((c == '"' || c == '\'') && lastTagCharacter == '=') {
+                        markupState = MarkupState.ATTRIBUTE_VALUE;
+                        quote = c;
+                    } else {
+                        if (markup.length() < MAX_ENTITY_LENGTH) {
+                            markup.append(c);
+                            if (markup.length() == 3 && markup.toString().equals("!--")) {
+                                markupState = MarkupState.COMMENT;
+                                commentDashes = 0;
+                            }
+                        }
+                        if (!Character.isWhitespace(c)) {
+                            lastTagCharacter = c;
+                        }
+                    }
+                }
+                case ATTRIBUTE_VALUE -> {
+                    if (c == quote) {
+                        markupState = MarkupState.TAG;
+                        lastTagCharacter = c;
+                    }
+                }
+                case COMMENT -> {
+                    if (c == '>' && commentDashes >= 2) {
+                        markupState = MarkupState.TEXT;
+                    } else {
+                        commentDashes = c == '-' ? commentDashes + 1 : 0;
+                    }
+                }
+                case ENTITY -> {
+                    if (c == ';') {
+                        markupState = MarkupState.TEXT;
+                        acceptEntity();
+                    } else if (markup.length() < MAX_ENTITY_LENGTH && (Character.isLetterOrDigit(c) || c == '#')) {
+                        markup.append(c);
+                    } else {
+                        markupState = MarkupState.TEXT;
+                        acceptText('&');
+                        for (var i = 0; i < markup.length(); i++) {
+                            acceptText(markup.charAt(i));
+                        }
+                        acceptMarkup(c);
+                    }
+                }
+                case RAW_TEXT -> {
+                    if (Character.toLowerCase(c) == rawTextEnd.charAt(rawTextMatched)) {
+                        if (++rawTextMatched == rawTextEnd.length()) {
+                            startTag();
+                            markup.append('/');
+                        }
+                    } else {
+                        rawTextMatched = c == '<' ? 1 : 0;
+                    }
+                }
+            }
+        }
+
+        private void startTag() {
+            markupState = MarkupState.TAG;
+            markup.setLength(0);
+            lastTagCharacter = 0;
+        }
+
+        /**
+         * Ends a tag, treating it as a word boundary unless it is inline. Script and style elements are skipped up to
+         * their closing tag.
+         */
+        private void endTag() {
+            markupState = MarkupState.TEXT;
+            var closing = !markup.isEmpty() && markup.charAt(0) == '/';
+            var name = tagName(closing ? 1 : 0);
+            if (!closing && (name.equals("script") || name.equals("style"))) {
+                markupState = MarkupState.RAW_TEXT;
+                rawTextEnd = "</" + name;
+                rawTextMatched = 0;
+            }
+            if (!INLINE_TAGS.contains(name)) {
+                acceptText(' ');
+            }
+        }
+
+        private String tagName(final int start) {
+            var end = start;
+            while (end < markup.length() && Character.isLetterOrDigit(markup.charAt(end))) {
+                end++;
+            }
+            return markup.substring(start, end).toLowerCase(Locale.ROOT);
+        }
+
+        private void acceptEntity() {
+            var entity = markup.toString();
+            var codePoint =
+                    switch (entity) {
+                        case "amp" -> '&';
+                        case "lt" -> '<';
+                        case "gt" -> '>';
+                        case "quot" -> '"';
+                        case "apos" -> '\'';
+                        case "nbsp" -> ' ';
+                        default -> numericEntity(entity);
+                    };
+            if (codePoint < 0) {
+                acceptText('&');
+                for (var i = 0; i < entity.length(); i++) {
+                    acceptText(entity.charAt(i));
+                }
+                acceptText(';');
+            } else {
+                for (var c : Character.toChars(codePoint)) {
+                    acceptText(c);
+                }
+            }
+        }
+
+        private int numericEntity(final String entity) {
+            if (entity.length() < 2 || entity.charAt(0) != '#') {
+                return -1;
+            }
+            try {
+                var codePoint = entity.charAt(1) == 'x' || entity.charAt(1) == 'X'
+                        ? Integer.parseInt(entity.substring(2), 16)
+                        : Integer.parseInt(entity.substring(1));
+                return Character.isValidCodePoint(codePoint) ? codePoint : -1;
+            } catch (final NumberFormatException exception) {
+                return -1;
+            }
+        }
+
+        private void acceptText(final char c) {
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                pendingSpace = true;
+                return;
+            }
+            if (pendingSpace && !window.isEmpty()) {
+                var position = window.length();
+                lastSpace = position;
+                if (isSentenceTerminator(window.charAt(position - 1))) {
+                    lastSentenceEnd = position;
+                }
+                window.append(' ');
+            }
+            pendingSpace = false;
+            window.append(lowerCase ? Character.toLowerCase(c) : c);
+            if (window.length() >= maxCharacters) {
+                cut();
+            }
+        }
+
+        /**
+         * Emits a chunk from the full window and keeps the overlap and the text after the cut.
+         */
+        private void cut() {
+            var length = window.length();
+            var half = maxCharacters / 2;
+            var end = lastSentenceEnd > half ? lastSentenceEnd : lastSpace > half ? lastSpace : length;
+            chunks.add(window.substring(0, end));
+
+            var start = end < length && window.charAt(end) == ' ' ? end + 1 : end;
+            carried = 0;
+            if (overlapCharacters > 0) {
+                var overlapStart = end - overlapCharacters;
+                if (window.charAt(overlapStart - 1) != ' ') {
+                    var space = window.indexOf(" ", overlapStart);
+                    overlapStart = space >= 0 && space < end ? space + 1 : end;
+                }
+                if (overlapStart < end) {
+                    carried = end - overlapStart;
+                    start = overlapStart;
+                }
+            }
+            window.delete(0, start);
+            findBoundaries();
+        }
+
+        private void findBoundaries() {
+            lastSpace = -1;
+            lastSentenceEnd = -1;
+            for (var i = window.length() - 1; i > 0 && lastSentenceEnd < 0; i--) {
+                if (window.charAt(i) == ' ') {
+                    if (lastSpace < 0) {
+                        lastSpace = i;
+                    }
+                    if (isSentenceTerminator(window.charAt(i - 1))) {
+                        lastSentenceEnd = i;
+                    }
+                }
+            }
+        }
+
+        private void finish() {
+            exhausted = true;
+            if (window.length() > carried) {
+                chunks.add(window.toString());
+            }
+            window.setLength(0);
+        }
+
+        private boolean isSentenceTerminator(final char c) {
+            return c == '.' || c == '!' || c == '?';
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.util;
+
+/**
+ * Estimates the number of model tokens a text occupies. Implementations are used to keep prompts and Contexts within
+ * a token budget and may wrap the exact tokenizer of the model in use, while the {@link #DEFAULT} estimator only
+ * approximates it without allocating.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface TokenEstimator {
+
+    /**
+     * The average number of characters per token of common BPE tokenizers for English text.
+     */
+    int CHARACTERS_PER_TOKEN = 4;
+
+    /**
+     * The estimator that assumes {@link #CHARACTERS_PER_TOKEN} characters per token, rounding up.
+     */
+    TokenEstimator DEFAULT = text -> (text.length() + CHARACTERS_PER_TOKEN - 1) / CHARACTERS_PER_TOKEN;
+
+    /**
+     * Estimates the number of tokens of the given text.
+     *
+     * @param text the text to estimate.
+     * @return the estimated number of tokens, never negative.
+     */
+    int estimate(CharSequence text);
+}
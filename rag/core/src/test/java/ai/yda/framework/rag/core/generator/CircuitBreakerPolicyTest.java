@@ -0,0 +1,218 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.generator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import ai.yda.framework.rag.core.exception.GenerationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerPolicyTest {
+
+    private static final Supplier<String> SUCCESS = () -> "primary";
+
+    private static final Supplier<String> FAILURE = () -> {
+        throw new IllegalStateException("Failed");
+    };
+
+    private static final Supplier<String> FALLBACK = () -> "fallback";
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        var policy = CircuitBreakerPolicy.builder()
+                .windowSize(4)
+                .minimumCalls(4)
+                .failureRateThreshold(0.5)
+                .build();
+        policy.execute(SUCCESS, FALLBACK);
+        policy.execute(SUCCESS, FALLBACK);
+        assertEquals("fallback", policy.execute(FAILURE, FALLBACK));
+        assertEquals(CircuitBreakerPolicy.State.CLOSED, policy.getState());
+
+        policy.execute(FAILURE, FALLBACK);
+
+        assertEquals(CircuitBreakerPolicy.State.OPEN, policy.getState());
+        var calls = new AtomicInteger();
+        assertEquals("fallback", policy.execute(() -> "primary-" + calls.incrementAndGet(), FALLBACK));
+        assertEquals(0, calls.get());
+        assertEquals(1, policy.getRejectionCount());
+        assertEquals(3, policy.getFallbackCount());
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        var policy = CircuitBreakerPolicy.builder().minimumCalls(5).build();
+        for (var i = 0; i < 4; i++) {
+            policy.execute(FAILURE, FALLBACK);
+        }
+
+        assertEquals(CircuitBreakerPolicy.State.CLOSED, policy.getState());
+        assertEquals(0, policy.getTransitionCount(CircuitBreakerPolicy.State.OPEN));
+    }
+
+    @Test
+    void opensWhenSlowCallRateReachesThreshold() {
+        var policy = CircuitBreakerPolicy.builder()
+                .minimumCalls(2)
+                .slowCallDuration(Duration.ofMillis(10))
+                .build();
+        for (var i = 0; i < 2; i++) {
+            assertEquals(
+                    "primary",
+                    policy.execute(
+                            () -> {
+                                sleepQuietly(30);
+                                return "primary";
+                            },
+                            FALLBACK));
+        }
+
+        assertEquals(CircuitBreakerPolicy.State.OPEN, policy.getState());
+    }
+
+    @Test
+    void closesAfterSuccessfulHalfOpenCalls() throws InterruptedException {
+        var policy = openPolicy(2);
+        Thread.sleep(100);
+
+        assertEquals("primary", policy.execute(SUCCESS, FALLBACK));
+        assertEquals(CircuitBreakerPolicy.State.HALF_OPEN, policy.getState());
+        policy.execute(SUCCESS, FALLBACK);
+
+        assertEquals(CircuitBreakerPolicy.State.CLOSED, policy.getState());
+        assertEquals(1, policy.getTransitionCount(CircuitBreakerPolicy.State.HALF_OPEN));
+        assertEquals(1, policy.getTransitionCount(CircuitBreakerPolicy.State.CLOSED));
+    }
+
+    @Test
+    void reopensAfterFailedHalfOpenCall() throws InterruptedException {
+        var policy = openPolicy(2);
+        Thread.sleep(100);
+
+        policy.execute(FAILURE, FALLBACK);
+
+        assertEquals(CircuitBreakerPolicy.State.OPEN, policy.getState());
+        assertEquals(2, policy.getTransitionCount(CircuitBreakerPolicy.State.OPEN));
+    }
+
+    @Test
+    void limitsConcurrentHalfOpenCalls() throws InterruptedException {
+        var policy = openPolicy(1);
+        Thread.sleep(100);
+        var pending = new CompletableFuture<String>();
+
+        var trial = policy.executeAsync(() -> pending, null);
+        var rejected = policy.executeAsync(() -> CompletableFuture.completedFuture("primary"), null);
+
+        var exception = assertThrows(CompletionException.class, rejected::join);
+        assertTrue(exception.getCause() instanceof GenerationException);
+        pending.complete("primary");
+        assertEquals("primary", trial.join());
+        assertEquals(CircuitBreakerPolicy.State.CLOSED, policy.getState());
+    }
+
+    @Test
+    void interruptsTimedOutCallAndFallsBack() throws InterruptedException {
+        var policy =
+                CircuitBreakerPolicy.builder().timeout(Duration.ofMillis(50)).build();
+        var interrupted = new CountDownLatch(1);
+
+        var result = policy.execute(
+                () -> {
+                    try {
+                        Thread.sleep(10_000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return "primary";
+                },
+                FALLBACK);
+
+        assertEquals("fallback", result);
+        assertEquals(1, policy.getTimeoutCount());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void cancelsTimedOutAsyncCall() {
+        var policy =
+                CircuitBreakerPolicy.builder().timeout(Duration.ofMillis(50)).build();
+        var source = new CompletableFuture<String>();
+
+        var result = policy.executeAsync(() -> source, () -> CompletableFuture.completedFuture("fallback"));
+
+        assertEquals("fallback", result.join());
+        assertTrue(source.isCancelled());
+        assertEquals(1, policy.getTimeoutCount());
+    }
+
+    @Test
+    void fallsBackWhenStreamFails() {
+        var policy = CircuitBreakerPolicy.builder().build();
+
+        var responses = policy.executeStreaming(
+                        () -> Flux.error(new IllegalStateException("Failed")), () -> Flux.just("fallback"))
+                .collectList()
+                .block();
+
+        assertEquals(List.of("fallback"), responses);
+        assertEquals(1, policy.getFallbackCount());
+    }
+
+    @Test
+    void failsWithoutFallbackWhenOpen() {
+        var policy = CircuitBreakerPolicy.builder().minimumCalls(1).build();
+        policy.execute(FAILURE, FALLBACK);
+
+        assertThrows(GenerationException.class, () -> policy.execute(SUCCESS, null));
+    }
+
+    private static CircuitBreakerPolicy openPolicy(final int halfOpenCalls) {
+        var policy = CircuitBreakerPolicy.builder()
+                .minimumCalls(1)
+                .openDuration(Duration.ofMillis(50))
+                .halfOpenCalls(halfOpenCalls)
+                .build();
+        policy.execute(FAILURE, FALLBACK);
+        assertEquals(CircuitBreakerPolicy.State.OPEN, policy.getState());
+        return policy;
+    }
+
+    private static void sleepQuietly(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.rag.core.retriever;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingPolicyTest {
+
+    private static final Duration MIN_DELAY = Duration.ofMillis(20);
+
+    /**
+     * The number of calls after which the hedging delay is first computed.
+     */
+    private static final int WARM_UP_CALLS = 32;
+
+    @Test
+    void doesNotHedgeBeforeEnoughLatenciesAreObserved() {
+        var policy = new HedgingPolicy(1, MIN_DELAY, null);
+        for (var i = 0; i < WARM_UP_CALLS - 1; i++) {
+            policy.execute(() -> "fast");
+        }
+        assertEquals(Duration.ZERO, policy.getHedgingDelay());
+
+        policy.execute(() -> "fast");
+
+        assertEquals(MIN_DELAY, policy.getHedgingDelay());
+        assertEquals(0, policy.getHedgeCount());
+    }
+
+    @Test
+    void returnsHedgeOfSlowCallAndCancelsOriginal() throws InterruptedException {
+        var policy = warmedUp(new HedgingPolicy(1, MIN_DELAY, null), WARM_UP_CALLS);
+        var interrupted = new CountDownLatch(1);
+        var attempts = new AtomicInteger();
+
+        var result = policy.execute(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "original";
+            }
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        assertEquals(1, policy.getHedgeCount());
+        assertEquals(1, policy.getHedgeWinCount());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void spendsInitialHedgeWithoutBudget() {
+        var policy = warmedUp(new HedgingPolicy(0, MIN_DELAY, null), WARM_UP_CALLS);
+
+        assertEquals("hedge", policy.execute(slowFirstAttempt()));
+        assertEquals("original", policy.execute(slowFirstAttempt()));
+
+        assertEquals(1, policy.getHedgeCount());
+        assertEquals(1, policy.getHedgeRejectionCount());
+    }
+
+    @Test
+    void limitsSavedUpHedges() {
+        // 200 calls earn 20 hedges at a budget of 10%, of which 10 are kept, and every slow call earns 0.1 more
+        var policy = warmedUp(new HedgingPolicy(0.1, MIN_DELAY, null), 200);
+
+        for (var i = 0; i < 15; i++) {
+            policy.execute(slowFirstAttempt());
+        }
+
+        assertEquals(11, policy.getHedgeCount());
+        assertEquals(4, policy.getHedgeRejectionCount());
+    }
+
+    @Test
+    void rethrowsFailureOfAllCalls() {
+        var policy = warmedUp(new HedgingPolicy(1, MIN_DELAY, null), WARM_UP_CALLS);
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> policy.execute(() -> {
+                    throw new IllegalStateException("Failed");
+                }));
+    }
+
+    @Test
+    void rejectsInvalidBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new HedgingPolicy(1.5, MIN_DELAY, null));
+        assertThrows(IllegalArgumentException.class, () -> new HedgingPolicy(0.5, Duration.ofMillis(-1), null));
+    }
+
+    private static HedgingPolicy warmedUp(final HedgingPolicy policy, final int calls) {
+        for (var i = 0; i < calls; i++) {
+            policy.execute(() -> "fast");
+        }
+        assertEquals(MIN_DELAY, policy.getHedgingDelay());
+        return policy;
+    }
+
+    /**
+     * Returns a call whose first attempt is much slower than the hedging delay and whose later attempts return
+     * immediately.
+     */
+    private static Supplier<String> slowFirstAttempt() {
+        var attempts = new AtomicInteger();
+        return () -> {
+            if (attempts.incrementAndGet() > 1) {
+                return "hedge";
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "original";
+        };
+    }
+}
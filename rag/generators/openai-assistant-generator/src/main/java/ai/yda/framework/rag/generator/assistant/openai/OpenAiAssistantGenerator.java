@@ -109,4 +109,14 @@ public class OpenAiAssistantGenerator implements Generator<Query, RagResponse> {
                 .result(assistantService.createRunAndWaitForResponse(threadId, assistantId, query.text()))
                 .build();
     }
+
+    /**
+     * Returns {@code true}, as the conversation is kept in the Thread referenced from the Session.
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
 }
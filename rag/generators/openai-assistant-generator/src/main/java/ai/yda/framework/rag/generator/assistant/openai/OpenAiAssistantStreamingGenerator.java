@@ -107,4 +107,14 @@ public class OpenAiAssistantStreamingGenerator implements StreamingGenerator<Que
                 .flatMapMany(threadId -> assistantService.createRunStream(threadId, assistantId, query.text()))
                 .map(deltaMessage -> RagResponse.builder().result(deltaMessage).build());
     }
+
+    /**
+     * Returns {@code true}, as the conversation is kept in the Thread referenced from the Session.
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
 }
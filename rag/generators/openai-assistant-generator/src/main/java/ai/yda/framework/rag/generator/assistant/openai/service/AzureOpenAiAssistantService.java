@@ -206,7 +206,7 @@ public class AzureOpenAiAssistantService {
      * @return the concatenated delta content as a string.
      */
     private String extractDeltaContent(final MessageDeltaChunk delta) {
-        return delta.getDelta().getContent().parallelStream()
+        return delta.getDelta().getContent().stream()
                 .map(content ->
                         ((MessageDeltaTextContentObject) content).getText().getValue())
                 .collect(Collectors.joining(". "));
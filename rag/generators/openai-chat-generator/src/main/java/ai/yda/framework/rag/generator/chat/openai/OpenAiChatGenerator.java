@@ -19,18 +19,23 @@
 */
 package ai.yda.framework.rag.generator.chat.openai;
 
+import java.util.concurrent.CompletableFuture;
+
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.openai.OpenAiChatModel;
 import org.springframework.ai.rag.Query;
 
+import ai.yda.framework.rag.core.generator.AsyncGenerator;
 import ai.yda.framework.rag.core.generator.Generator;
 import ai.yda.framework.rag.core.model.RagResponse;
 
 /**
  * Generates Responses using an OpenAI Chat Model. This class is designed to interact with a Chat Model to process User
- * Requests and generate Responses based on the provided Context.
+ * Requests and generate Responses based on the provided Context. Responses can be generated either synchronously or
+ * asynchronously without blocking a thread for the duration of the Chat Model call.
  * <p>
  * The class relies on the {@link OpenAiChatModel} for interacting with the Chat service, which processes the User's
  * Requests and generates a Responses.
@@ -42,7 +47,7 @@ import ai.yda.framework.rag.core.model.RagResponse;
  * @since 0.1.0
  */
 @Slf4j
-public class OpenAiChatGenerator implements Generator<Query, RagResponse> {
+public class OpenAiChatGenerator implements Generator<Query, RagResponse>, AsyncGenerator<Query, RagResponse> {
 
     private final OpenAiChatModel chatModel;
 
@@ -74,4 +79,36 @@ public class OpenAiChatGenerator implements Generator<Query, RagResponse> {
         var response = chatModel.call(prompt).getResult().getOutput();
         return RagResponse.builder().result(response.getText()).build();
     }
+
+    /**
+     * Generates a Response for a given Request using the OpenAI Chat Model without blocking the calling thread. The
+     * Response is consumed as a non-blocking stream of chunks which are concatenated into the final Content. The
+     * current Observation is captured into the Reactor Context, so the Chat Model call joins the trace of the Request.
+     *
+     * @param query the {@link Query} object containing the query from the User.
+     * @return a {@link CompletableFuture} completed with a {@link RagResponse} containing the Content of the Chat
+     * Model's Response.
+     */
+    @Override
+    public CompletableFuture<RagResponse> generateAsync(final Query query) {
+        var prompt = new PromptTemplate(query.text()).create();
+
+        if (log.isDebugEnabled()) {
+            log.debug("Async Chat Completion Call:\nQuery: {}", query.text());
+        }
+
+        return chatModel.stream(prompt)
+                .mapNotNull(this::extractText)
+                .collect(StringBuilder::new, StringBuilder::append)
+                .map(content -> RagResponse.builder().result(content.toString()).build())
+                .contextCapture()
+                .toFuture();
+    }
+
+    private String extractText(final ChatResponse chatResponse) {
+        var result = chatResponse.getResult();
+        return result == null || result.getOutput() == null
+                ? null
+                : result.getOutput().getText();
+    }
 }
@@ -26,6 +26,8 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,6 +38,7 @@ import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.lang.NonNull;
 
 import ai.yda.framework.rag.core.retriever.BaseRetriever;
+import ai.yda.framework.rag.core.retriever.BatchSimilaritySearch;
 import ai.yda.framework.rag.retriever.filesystem.service.FilesystemService;
 
 /**
@@ -66,7 +69,7 @@ public class FilesystemRetriever extends BaseRetriever {
      */
     private final Integer topK;
 
-    private final FilesystemService filesystemService = new FilesystemService();
+    private final FilesystemService filesystemService;
 
     /**
      * Constructs a new {@link FilesystemRetriever} instance with the specified vectorStore, fileStoragePath, topK and
@@ -88,12 +91,38 @@ public class FilesystemRetriever extends BaseRetriever {
             final @NonNull String fileStoragePath,
             final @NonNull Integer topK,
             final @NonNull Boolean isProcessingEnabled) {
+        this(vectorStore, fileStoragePath, topK, isProcessingEnabled, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new {@link FilesystemRetriever} instance with the specified vectorStore, fileStoragePath, topK,
+     * isProcessingEnabled and processingExecutor parameters.
+     *
+     * @param vectorStore         the {@link VectorStore} instance used for storing and retrieving vector data.
+     *                            This parameter cannot be {@code null} and is used to interact with the Vector Store.
+     * @param fileStoragePath     the path to the directory where files are stored. This parameter cannot be
+     *                            {@code null} and is used to process and store files to the Vector Store.
+     * @param topK                the number of top results to retrieve from the Vector Store. This value must be a
+     *                            positive integer.
+     * @param isProcessingEnabled a {@link Boolean} flag indicating whether file processing should be enabled during
+     *                            initialization. If {@code true}, the method {@link #processFileStorageFolder()} will
+     *                            be called to process the files in the specified storage path.
+     * @param processingExecutor  the {@link Executor} used to read and split the files concurrently.
+     * @throws IllegalArgumentException if {@code topK} is not a positive number.
+     */
+    public FilesystemRetriever(
+            final @NonNull VectorStore vectorStore,
+            final @NonNull String fileStoragePath,
+            final @NonNull Integer topK,
+            final @NonNull Boolean isProcessingEnabled,
+            final @NonNull Executor processingExecutor) {
         if (topK <= 0) {
             throw new IllegalArgumentException("TopK must be a positive number.");
         }
         this.vectorStore = vectorStore;
         this.fileStoragePath = Paths.get(fileStoragePath);
         this.topK = topK;
+        this.filesystemService = new FilesystemService(processingExecutor);
 
         if (isProcessingEnabled) {
             processFileStorageFolder();
@@ -108,8 +137,27 @@ public class FilesystemRetriever extends BaseRetriever {
      */
     @Override
     public @NonNull List<Document> retrieve(final @NonNull Query query) {
-        return Objects.requireNonNull(vectorStore.similaritySearch(
-                SearchRequest.builder().query(query.text()).topK(topK).build()));
+        return Objects.requireNonNull(vectorStore.similaritySearch(toSearchRequest(query)));
+    }
+
+    /**
+     * Retrieves Context data for several Requests. If the Vector Store supports {@link BatchSimilaritySearch}, all
+     * Requests are embedded with a single Embedding Model call, otherwise they are searched one by one.
+     *
+     * @param queries the transformed Requests to retrieve Documents for.
+     * @return the lists of retrieved {@link Document}, in the order of the Requests.
+     */
+    @Override
+    protected List<List<Document>> retrieveBatch(final List<Query> queries) {
+        if (vectorStore instanceof BatchSimilaritySearch batchSimilaritySearch) {
+            return batchSimilaritySearch.similaritySearchBatch(
+                    queries.stream().map(this::toSearchRequest).toList());
+        }
+        return super.retrieveBatch(queries);
+    }
+
+    private SearchRequest toSearchRequest(final Query query) {
+        return SearchRequest.builder().query(query.text()).topK(topK).build();
     }
 
     /**
@@ -129,6 +177,7 @@ public class FilesystemRetriever extends BaseRetriever {
 
             var documents = filesystemService.createChunkDocumentsFromFiles(fileList);
             vectorStore.add(documents);
+            invalidateRetrievalCache();
             moveFilesToProcessedFolder(fileList);
 
         } catch (IOException e) {
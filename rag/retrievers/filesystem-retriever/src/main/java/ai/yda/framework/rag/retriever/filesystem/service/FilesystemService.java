@@ -22,12 +22,15 @@ package ai.yda.framework.rag.retriever.filesystem.service;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.ai.document.Document;
 
-import ai.yda.framework.rag.core.util.ContentUtil;
+import ai.yda.framework.rag.core.util.TextChunker;
 import ai.yda.framework.rag.retriever.filesystem.util.FileUtil;
 
 /**
@@ -39,7 +42,7 @@ import ai.yda.framework.rag.retriever.filesystem.util.FileUtil;
  * @author Iryna Kopchak
  * @author Dmitry Marchuk
  * @see FileUtil
- * @see ContentUtil
+ * @see TextChunker
  * @since 0.1.0
  */
 @Slf4j
@@ -51,9 +54,40 @@ public class FilesystemService {
     private static final int CHUNK_MAX_LENGTH = 1000;
 
     /**
-     * Default constructor for {@link FilesystemService}.
+     * The maximum number of characters shared by consecutive chunks.
      */
-    public FilesystemService() {}
+    private static final int CHUNK_OVERLAP_LENGTH = 100;
+
+    /**
+     * The {@link TextChunker} normalizing the extracted text and splitting it into chunks.
+     */
+    private static final TextChunker CHUNKER = TextChunker.builder()
+            .maxCharacters(CHUNK_MAX_LENGTH)
+            .overlapCharacters(CHUNK_OVERLAP_LENGTH)
+            .lowerCase(true)
+            .build();
+
+    /**
+     * The {@link Executor} used to read and split files concurrently.
+     */
+    private final Executor executor;
+
+    /**
+     * Constructs a new {@link FilesystemService} instance that processes files on the
+     * {@link ForkJoinPool#commonPool()}.
+     */
+    public FilesystemService() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new {@link FilesystemService} instance that processes files on the given {@link Executor}.
+     *
+     * @param executor the {@link Executor} used to read and split files concurrently.
+     */
+    public FilesystemService(final Executor executor) {
+        this.executor = executor;
+    }
 
     /**
      * Processes a list of file paths, reads each file, preprocesses the content, splits it into chunks, and then
@@ -63,17 +97,20 @@ public class FilesystemService {
      * @return a list of {@link Document} objects created from the chunks of files.
      */
     public List<Document> createChunkDocumentsFromFiles(final List<Path> filePathList) {
-        return filePathList.parallelStream()
-                .map(this::splitFileIntoChunkDocuments)
+        var futures = filePathList.stream()
+                .map(filePath -> CompletableFuture.supplyAsync(() -> splitFileIntoChunkDocuments(filePath), executor))
+                .toList();
+        return futures.stream()
+                .map(CompletableFuture::join)
                 .flatMap(List::stream)
                 .toList();
     }
 
     /**
      * Preprocesses and split of each file into chunks of a maximum length defined by {@link #CHUNK_MAX_LENGTH}. The
-     * method reads the content of a PDF file, preprocesses it to clean and format the text, and then splits the
-     * preprocessed content into smaller chunks based on the maximum length. Each chunk is converted into a
-     * {@link Document} object with associated metadata.
+     * method reads the content of a PDF file and splits it with the {@link TextChunker} on sentence and word
+     * boundaries, normalizing the text in the same pass. Each chunk is converted into a {@link Document} object with
+     * associated metadata.
      *
      * @param filePath the {@link Path} of the file to be processed.
      * @return a list of {@link Document} objects created from the chunks of the file.
@@ -82,7 +119,7 @@ public class FilesystemService {
         var pdfContent = FileUtil.readPdf(filePath.toFile());
         var fileName = filePath.getFileName();
         log.debug("Processing file: {}", fileName);
-        return ContentUtil.preprocessAndSplitContent(pdfContent, CHUNK_MAX_LENGTH).parallelStream()
+        return CHUNKER.chunks(pdfContent)
                 .map(documentChunk -> new Document(documentChunk, Map.of("fileName", fileName)))
                 .toList();
     }
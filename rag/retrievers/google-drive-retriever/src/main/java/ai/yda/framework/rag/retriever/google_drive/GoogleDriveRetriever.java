@@ -118,6 +118,7 @@ public class GoogleDriveRetriever extends BaseRetriever {
         this.documentContentPort = documentContentPort;
 
         this.googleDriveService = googleDriveService;
+        this.googleDriveService.addCorpusChangeListener(this::invalidateRetrievalCache);
 
         if (isProcessingEnabled) {
             log.info("Starting Google Drive retriever...");
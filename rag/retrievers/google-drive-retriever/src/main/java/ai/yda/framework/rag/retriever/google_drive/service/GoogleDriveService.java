@@ -25,6 +25,7 @@ import java.security.GeneralSecurityException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
@@ -69,6 +70,8 @@ public class GoogleDriveService {
 
     private final DocumentAiDescriptionService documentAiDescriptionService;
 
+    private final List<Runnable> corpusChangeListeners = new CopyOnWriteArrayList<>();
+
     /**
      * Constructs a new instance of {@link GoogleDriveService}.
      * Initializes the Google Drive API client using the provided Service Account JSON InputStream.
@@ -135,6 +138,17 @@ public class GoogleDriveService {
                 log.error(unsupportedExtensionException.getMessage());
             }
         }
+        corpusChangeListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Registers a listener notified after {@link #syncDriveAndProcessDocuments()} has changed the stored documents,
+     * e.g. to invalidate cached retrieval results.
+     *
+     * @param listener the listener to run after each synchronization.
+     */
+    public void addCorpusChangeListener(final Runnable listener) {
+        corpusChangeListeners.add(listener);
     }
 
     /**
@@ -22,6 +22,9 @@ package ai.yda.framework.rag.retriever.website;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -32,7 +35,8 @@ import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.lang.NonNull;
 
 import ai.yda.framework.rag.core.retriever.BaseRetriever;
-import ai.yda.framework.rag.core.util.ContentUtil;
+import ai.yda.framework.rag.core.retriever.BatchSimilaritySearch;
+import ai.yda.framework.rag.core.util.TextChunker;
 import ai.yda.framework.rag.retriever.website.extractor.WebExtractor;
 
 /**
@@ -53,6 +57,21 @@ public class WebsiteRetriever extends BaseRetriever {
      */
     public static final int CHUNK_MAX_LENGTH = 1000;
 
+    /**
+     * The maximum number of characters shared by consecutive chunks.
+     */
+    public static final int CHUNK_OVERLAP_LENGTH = 100;
+
+    /**
+     * The {@link TextChunker} stripping markup from the page content and splitting it into chunks.
+     */
+    private static final TextChunker CHUNKER = TextChunker.builder()
+            .maxCharacters(CHUNK_MAX_LENGTH)
+            .overlapCharacters(CHUNK_OVERLAP_LENGTH)
+            .stripMarkup(true)
+            .lowerCase(true)
+            .build();
+
     /**
      * The Vector Store used to retrieve Context data for user Request through similarity search.
      */
@@ -73,6 +92,11 @@ public class WebsiteRetriever extends BaseRetriever {
      */
     private final WebExtractor webExtractor;
 
+    /**
+     * The {@link Executor} used to split the extracted pages concurrently.
+     */
+    private final Executor processingExecutor;
+
     /**
      * Constructs a new {@link WebsiteRetriever} instance with the specified vectorStore, url, topK and
      * isProcessingEnabled parameters.
@@ -95,6 +119,33 @@ public class WebsiteRetriever extends BaseRetriever {
             final @NonNull String url,
             final @NonNull Integer topK,
             final @NonNull Boolean isProcessingEnabled) {
+        this(webExtractor, vectorStore, url, topK, isProcessingEnabled, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new {@link WebsiteRetriever} instance with the specified vectorStore, url, topK,
+     * isProcessingEnabled and processingExecutor parameters.
+     *
+     * @param webExtractor        the extractor used for crawling and extracting web content.
+     * @param vectorStore         the {@link VectorStore} instance used for storing and retrieving vector data.
+     *                            This parameter cannot be {@code null} and is used to interact with the Vector Store.
+     * @param url                 the website or sitemap url. This parameter cannot be {@code null} and is used to
+     *                            process and store data to the Vector Store.
+     * @param topK                the number of top results to retrieve from the Vector Store. This value must be a
+     *                            positive integer.
+     * @param isProcessingEnabled a {@link Boolean} flag indicating whether website processing should be enabled during
+     *                            initialization. If {@code true}, the method {@link #processUrl()} will
+     *                            be called to process the files in the specified storage path.
+     * @param processingExecutor  the {@link Executor} used to split the extracted pages concurrently.
+     * @throws IllegalArgumentException if {@code topK} is not a positive number.
+     */
+    public WebsiteRetriever(
+            final @NonNull WebExtractor webExtractor,
+            final @NonNull VectorStore vectorStore,
+            final @NonNull String url,
+            final @NonNull Integer topK,
+            final @NonNull Boolean isProcessingEnabled,
+            final @NonNull Executor processingExecutor) {
         if (topK <= 0) {
             throw new IllegalArgumentException("TopK must be a positive number.");
         }
@@ -102,6 +153,7 @@ public class WebsiteRetriever extends BaseRetriever {
         this.vectorStore = vectorStore;
         this.url = url;
         this.topK = topK;
+        this.processingExecutor = processingExecutor;
 
         if (isProcessingEnabled) {
             processUrl();
@@ -116,21 +168,45 @@ public class WebsiteRetriever extends BaseRetriever {
      */
     @Override
     public @NonNull List<Document> retrieve(final @NonNull Query query) {
-        return Objects.requireNonNull(vectorStore.similaritySearch(
-                SearchRequest.builder().query(query.text()).topK(topK).build()));
+        return Objects.requireNonNull(vectorStore.similaritySearch(toSearchRequest(query)));
+    }
+
+    /**
+     * Retrieves Context data for several Requests. If the Vector Store supports {@link BatchSimilaritySearch}, all
+     * Requests are embedded with a single Embedding Model call, otherwise they are searched one by one.
+     *
+     * @param queries the transformed Requests to retrieve Documents for.
+     * @return the lists of retrieved {@link Document}, in the order of the Requests.
+     */
+    @Override
+    protected List<List<Document>> retrieveBatch(final List<Query> queries) {
+        if (vectorStore instanceof BatchSimilaritySearch batchSimilaritySearch) {
+            return batchSimilaritySearch.similaritySearchBatch(
+                    queries.stream().map(this::toSearchRequest).toList());
+        }
+        return super.retrieveBatch(queries);
+    }
+
+    private SearchRequest toSearchRequest(final Query query) {
+        return SearchRequest.builder().query(query.text()).topK(topK).build();
     }
 
     /**
      * Extracts data from url and processes by creating document chunks and adding them to the Vector Store.
      */
     private void processUrl() {
-        var pageDocuments = webExtractor.extract(url).parallelStream()
-                .map(result ->
-                        ContentUtil.preprocessAndSplitContent(result.getContent(), CHUNK_MAX_LENGTH).parallelStream()
+        var futures = webExtractor.extract(url).stream()
+                .map(result -> CompletableFuture.supplyAsync(
+                        () -> CHUNKER.chunks(result.getContent())
                                 .map(chunkContent -> new Document(chunkContent, Map.of("url", result.getUrl())))
-                                .toList())
+                                .toList(),
+                        processingExecutor))
+                .toList();
+        var pageDocuments = futures.stream()
+                .map(CompletableFuture::join)
                 .flatMap(List::stream)
                 .toList();
         vectorStore.add(pageDocuments);
+        invalidateRetrievalCache();
     }
 }
@@ -0,0 +1,89 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An immutable, already compacted view of a conversation kept by a {@link ConversationHistoryStore}: the rolling
+ * summary of the earlier messages, if any, followed by the most recent messages which fit into the token budget.
+ *
+ * @param <M> the type of the messages.
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public final class ConversationHistory<M> {
+
+    private final M summary;
+
+    private final List<M> messages;
+
+    private final int tokenCount;
+
+    ConversationHistory(final M summary, final List<M> messages, final int tokenCount) {
+        this.summary = summary;
+        this.messages = List.copyOf(messages);
+        this.tokenCount = tokenCount;
+    }
+
+    /**
+     * Returns the summary of the messages which no longer fit into the token budget.
+     *
+     * @return the summary, empty if no message was summarized yet.
+     */
+    public Optional<M> getSummary() {
+        return Optional.ofNullable(summary);
+    }
+
+    /**
+     * Returns the most recent messages, the oldest first.
+     *
+     * @return the messages.
+     */
+    public List<M> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Returns the number of tokens of the summary and the messages.
+     *
+     * @return the number of tokens.
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Returns the summary, if any, followed by the messages, e.g. to build a prompt.
+     *
+     * @return the summary and the messages.
+     */
+    public List<M> toList() {
+        if (summary == null) {
+            return messages;
+        }
+        var result = new ArrayList<M>(messages.size() + 1);
+        result.add(summary);
+        result.addAll(messages);
+        return result;
+    }
+}
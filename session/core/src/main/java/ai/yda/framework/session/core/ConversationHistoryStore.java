@@ -0,0 +1,339 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+import lombok.Builder;
+
+/**
+ * Keeps the history of each conversation incrementally within a token budget, so that prompts do not grow with the
+ * length of a conversation and the history does not have to be rebuilt for every message.
+ * <p>
+ * The recent messages are kept in a sliding window. When a new message pushes the summary and the window over the
+ * {@code tokenBudget}, the oldest messages slide out and, given a {@link HistorySummarizer}, are folded into a rolling
+ * summary in the background. Until the summary catches up, the slid-out messages are left out of the history rather
+ * than delaying the caller. {@link #find(String)} returns a cached {@link ConversationHistory} which only changes
+ * when the conversation does.
+ * </p>
+ * <p>
+ * The least recently used conversations are dropped beyond {@code maxConversations}.
+ * </p>
+ *
+ * @param <M> the type of the messages.
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class ConversationHistoryStore<M> {
+
+    public static final int DEFAULT_TOKEN_BUDGET = 4000;
+
+    public static final long DEFAULT_MAX_CONVERSATIONS = 10_000;
+
+    private static final System.Logger LOGGER = System.getLogger(ConversationHistoryStore.class.getName());
+
+    private final int tokenBudget;
+
+    private final long maxConversations;
+
+    private final ToIntFunction<M> tokenCounter;
+
+    private final HistorySummarizer<M> summarizer;
+
+    private final Executor summarizationExecutor;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The conversations in access order, the least recently used first, guarded by the lock.
+     */
+    private final LinkedHashMap<String, Conversation> conversations = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Constructs a new {@link ConversationHistoryStore} instance.
+     *
+     * @param tokenBudget           the maximum number of tokens of the summary and the messages of a conversation,
+     *                              {@link #DEFAULT_TOKEN_BUDGET} by default. The most recent message is kept even if
+     *                              it alone exceeds the budget.
+     * @param maxConversations      the maximum number of conversations, {@link #DEFAULT_MAX_CONVERSATIONS} by default.
+     * @param tokenCounter          the function counting the tokens of a message.
+     * @param summarizer            the {@link HistorySummarizer} of the slid-out messages. Without it, the history is
+     *                              a plain sliding window.
+     * @param summarizationExecutor the {@link Executor} running the summarizer, a shared pool of daemon threads by
+     *                              default.
+     * @throws IllegalArgumentException if the token counter is missing or a bound is not positive.
+     */
+    @Builder
+    public ConversationHistoryStore(
+            final Integer tokenBudget,
+            final Long maxConversations,
+            final ToIntFunction<M> tokenCounter,
+            final HistorySummarizer<M> summarizer,
+            final Executor summarizationExecutor) {
+        if (tokenCounter == null) {
+            throw new IllegalArgumentException("tokenCounter is required");
+        }
+        this.tokenBudget = tokenBudget != null ? positive(tokenBudget, "tokenBudget") : DEFAULT_TOKEN_BUDGET;
+        this.maxConversations =
+                maxConversations != null ? positive(maxConversations, "maxConversations") : DEFAULT_MAX_CONVERSATIONS;
+        this.tokenCounter = tokenCounter;
+        this.summarizer = summarizer;
+        this.summarizationExecutor =
+                summarizationExecutor != null ? summarizationExecutor : DefaultExecutorHolder.EXECUTOR;
+    }
+
+    private static <T extends Number> T positive(final T value, final String name) {
+        if (value.longValue() <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    /**
+     * Returns the compacted history of a conversation.
+     *
+     * @param conversationId the ID of the conversation.
+     * @return the history, empty if the conversation is not known, e.g. after a restart.
+     */
+    public Optional<ConversationHistory<M>> find(final String conversationId) {
+        lock.lock();
+        Conversation conversation;
+        try {
+            conversation = conversations.get(conversationId);
+        } finally {
+            lock.unlock();
+        }
+        return conversation == null ? Optional.empty() : Optional.of(conversation.history());
+    }
+
+    /**
+     * Starts a conversation with the messages loaded from elsewhere, e.g. the history of a chat platform, unless the
+     * conversation is known already.
+     *
+     * @param conversationId the ID of the conversation.
+     * @param messages       the messages of the conversation, the oldest first.
+     * @return the compacted history of the conversation.
+     */
+    public ConversationHistory<M> seed(final String conversationId, final List<M> messages) {
+        var created = new boolean[1];
+        var conversation = getOrCreate(conversationId, created);
+        if (created[0]) {
+            conversation.appendAll(messages);
+        }
+        return conversation.history();
+    }
+
+    /**
+     * Appends a message to a conversation, starting the conversation if it is not known.
+     *
+     * @param conversationId the ID of the conversation.
+     * @param message        the message.
+     * @return the compacted history of the conversation.
+     */
+    public ConversationHistory<M> append(final String conversationId, final M message) {
+        Objects.requireNonNull(message, "message");
+        var conversation = getOrCreate(conversationId, new boolean[1]);
+        conversation.appendAll(List.of(message));
+        return conversation.history();
+    }
+
+    /**
+     * Forgets a conversation.
+     *
+     * @param conversationId the ID of the conversation.
+     */
+    public void remove(final String conversationId) {
+        lock.lock();
+        try {
+            conversations.remove(conversationId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of conversations in the store.
+     *
+     * @return the number of conversations.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return conversations.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Conversation getOrCreate(final String conversationId, final boolean[] created) {
+        lock.lock();
+        try {
+            var conversation = conversations.get(conversationId);
+            if (conversation == null) {
+                conversation = new Conversation();
+                conversations.put(conversationId, conversation);
+                created[0] = true;
+                var iterator = conversations.values().iterator();
+                while (conversations.size() > maxConversations && iterator.hasNext()) {
+                    if (iterator.next() != conversation) {
+                        iterator.remove();
+                    }
+                }
+            }
+            return conversation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Item<M>(M message, int tokens) {}
+
+    /**
+     * The state of a conversation, guarded by its own lock so that conversations do not contend with each other.
+     */
+    private final class Conversation {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Deque<Item<M>> window = new ArrayDeque<>();
+
+        /**
+         * The messages slid out of the window and not summarized yet, the oldest first.
+         */
+        private final List<Item<M>> pending = new ArrayList<>();
+
+        private int windowTokens;
+
+        private M summary;
+
+        private int summaryTokens;
+
+        private boolean summarizing;
+
+        private ConversationHistory<M> history;
+
+        private void appendAll(final List<M> messages) {
+            lock.lock();
+            try {
+                for (var message : messages) {
+                    var item = new Item<>(message, tokenCounter.applyAsInt(message));
+                    window.addLast(item);
+                    windowTokens += item.tokens();
+                }
+                compact();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private ConversationHistory<M> history() {
+            lock.lock();
+            try {
+                if (history == null) {
+                    var messages = new ArrayList<M>(window.size());
+                    window.forEach(item -> messages.add(item.message()));
+                    history = new ConversationHistory<>(summary, messages, summaryTokens + windowTokens);
+                }
+                return history;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Slides the oldest messages out of the window while over the budget and summarizes them unless a
+         * summarization is running already. Called with the lock held.
+         */
+        private void compact() {
+            history = null;
+            while (summaryTokens + windowTokens > tokenBudget && window.size() > 1) {
+                var item = window.removeFirst();
+                windowTokens -= item.tokens();
+                if (summarizer != null) {
+                    pending.add(item);
+                }
+            }
+            if (!pending.isEmpty() && !summarizing) {
+                summarize();
+            }
+        }
+
+        private void summarize() {
+            var previousSummary = summary;
+            var batch = new ArrayList<M>(pending.size());
+            pending.forEach(item -> batch.add(item.message()));
+            summarizing = true;
+            try {
+                summarizationExecutor.execute(() -> {
+                    M nextSummary = null;
+                    try {
+                        nextSummary = summarizer.summarize(previousSummary, batch);
+                    } catch (RuntimeException e) {
+                        LOGGER.log(System.Logger.Level.WARNING, "Failed to summarize the conversation history", e);
+                    }
+                    completeSummary(nextSummary, batch.size());
+                });
+            } catch (RejectedExecutionException e) {
+                // The slid-out messages are kept for the next attempt
+                summarizing = false;
+            }
+        }
+
+        private void completeSummary(final M nextSummary, final int summarizedCount) {
+            lock.lock();
+            try {
+                summarizing = false;
+                // A failed batch is dropped, like the slid-out messages of a plain sliding window
+                pending.subList(0, summarizedCount).clear();
+                if (nextSummary != null) {
+                    summary = nextSummary;
+                    summaryTokens = tokenCounter.applyAsInt(nextSummary);
+                }
+                compact();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class DefaultExecutorHolder {
+
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "yda-history-summarization-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.util.List;
+
+/**
+ * Folds the messages which no longer fit into the token budget of a {@link ConversationHistoryStore} into a rolling
+ * summary. It is called in the background, one call at a time per conversation.
+ *
+ * @param <M> the type of the messages.
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface HistorySummarizer<M> {
+
+    /**
+     * Summarizes the conversation so far.
+     *
+     * @param previousSummary the summary of the earlier messages, or {@code null} if there is none yet.
+     * @param messages        the messages to add to the summary, the oldest first.
+     * @return the new summary, which should stay well within the token budget.
+     */
+    M summarize(M previousSummary, List<M> messages);
+}
@@ -19,25 +19,398 @@
 */
 package ai.yda.framework.session.core;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
 
+import lombok.Builder;
+
+/**
+ * Keeps the {@link Session} instances in memory within configurable bounds:
+ * <ul>
+ *     <li>{@code maxEntries} - the least recently used Sessions are evicted beyond this number of Sessions.</li>
+ *     <li>{@code maxWeight} - the least recently used Sessions are evicted beyond this total weight, as computed by the
+ *     {@code weigher}, by default one plus the number of attributes of the Session.</li>
+ *     <li>{@code idleTimeToLive} - Sessions not accessed for this long expire.</li>
+ *     <li>{@code absoluteTimeToLive} - Sessions expire this long after their creation, regardless of their use.</li>
+ * </ul>
+ * Lookups are lock-free: a read of an existing Session only updates its access time and records it in a lossy read
+ * buffer. The access order, the weights and the expiry are maintained under a lock by the writes, by
+ * {@link #cleanUp()}, and by a read which finds the buffer half full or the timing wheel due, provided no other thread
+ * holds the lock already.
+ * <p>
+ * Expired Sessions are found with a hashed timing wheel, so that expiry costs a bucket visit per elapsed tick instead
+ * of a scan of all Sessions; a Session whose deadline was extended is moved to a later bucket when its current bucket
+ * is visited. Removed Sessions are reported to the {@link SessionRemovalListener} instances.
+ * </p>
+ * <p>
+ * A store created with the default constructor is unbounded and never expires its Sessions.
+ * </p>
+ *
+ * @author Nikita Litvinov
+ * @since 0.1.0
+ */
 public class InMemorySessionStore implements SessionStore {
-    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * The default duration of a tick of the timing wheel.
+     */
+    public static final Duration DEFAULT_TICK_DURATION = Duration.ofSeconds(1);
+
+    private static final long NO_DEADLINE = TimingWheel.NO_DEADLINE;
+
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private final long maxEntries;
+
+    private final long maxWeight;
+
+    private final ToLongFunction<Session> weigher;
+
+    private final long idleTimeToLiveNanos;
+
+    private final long absoluteTimeToLiveNanos;
+
+    private final List<SessionRemovalListener> removalListeners;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The Sessions in access order, the least recently used first, guarded by the lock.
+     */
+    private final LinkedHashMap<String, Entry> accessOrder = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The reads not replayed into the access order yet; reads are dropped while it is full.
+     */
+    private final Queue<Entry> readBuffer = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger readBufferSize = new AtomicInteger();
+
+    private final TimingWheel<Entry> timingWheel;
+
+    private final long origin = System.nanoTime();
+
+    private final Map<RemovalCause, AtomicLong> removalCounts = new EnumMap<>(RemovalCause.class);
+
+    private long totalWeight;
+
+    public InMemorySessionStore() {
+        this(null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Constructs a new {@link InMemorySessionStore} instance. Bounds left {@code null} are not enforced. Use
+     * {@link #builder()} to set only some of them.
+     *
+     * @param maxEntries         the maximum number of Sessions.
+     * @param maxWeight          the maximum total weight of the Sessions.
+     * @param weigher            the function computing the weight of a Session, one plus its number of attributes by
+     *                           default. The weight is recomputed when an access of the Session is maintained.
+     * @param idleTimeToLive     the time after the last access at which a Session expires.
+     * @param absoluteTimeToLive the time after the creation at which a Session expires.
+     * @param tickDuration       the precision of the expiry, {@link #DEFAULT_TICK_DURATION} by default.
+     * @param removalListeners   the {@link SessionRemovalListener} instances notified of removed Sessions.
+     * @throws IllegalArgumentException if a bound or duration is not positive.
+     */
+    @Builder
+    public InMemorySessionStore(
+            final Long maxEntries,
+            final Long maxWeight,
+            final ToLongFunction<Session> weigher,
+            final Duration idleTimeToLive,
+            final Duration absoluteTimeToLive,
+            final Duration tickDuration,
+            final List<SessionRemovalListener> removalListeners) {
+        this.maxEntries = maxEntries != null ? positive(maxEntries, "maxEntries") : Long.MAX_VALUE;
+        this.maxWeight = maxWeight != null ? positive(maxWeight, "maxWeight") : Long.MAX_VALUE;
+        this.weigher = weigher != null ? weigher : session -> 1L + session.getAttributeCount();
+        this.idleTimeToLiveNanos = idleTimeToLive != null ? positive(idleTimeToLive, "idleTimeToLive") : NO_DEADLINE;
+        this.absoluteTimeToLiveNanos =
+                absoluteTimeToLive != null ? positive(absoluteTimeToLive, "absoluteTimeToLive") : NO_DEADLINE;
+        this.timingWheel = new TimingWheel<>(
+                positive(tickDuration != null ? tickDuration : DEFAULT_TICK_DURATION, "tickDuration"));
+        this.removalListeners = removalListeners != null ? List.copyOf(removalListeners) : List.of();
+        for (var cause : RemovalCause.values()) {
+            removalCounts.put(cause, new AtomicLong());
+        }
+    }
+
+    private static long positive(final long value, final String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    private static long positive(final Duration duration, final String name) {
+        return positive(duration.toNanos(), name);
+    }
 
     @Override
     public Optional<Session> findById(String sessionId) {
-        return Optional.ofNullable(sessions.get(sessionId));
+        var now = now();
+        var entry = entries.get(sessionId);
+        if (entry == null || entry.deadline() <= now) {
+            // An expired Session is removed by the maintenance
+            afterRead(null, now);
+            return Optional.empty();
+        }
+        afterRead(entry, now);
+        return Optional.of(entry.session);
     }
 
     @Override
     public Session createSession(String sessionId) {
-        return sessions.computeIfAbsent(sessionId, Session::new);
+        return getOrCreate(sessionId);
+    }
+
+    @Override
+    public Session getOrCreate(final String sessionId) {
+        var now = now();
+        var entry = entries.get(sessionId);
+        if (entry != null && entry.deadline() > now) {
+            afterRead(entry, now);
+            return entry.session;
+        }
+
+        var removals = new ArrayList<Removal>();
+        lock.lock();
+        try {
+            maintain(now, removals);
+            entry = entries.get(sessionId);
+            if (entry != null && entry.deadline() <= now) {
+                remove(entry, RemovalCause.EXPIRED, removals);
+                entry = null;
+            }
+            if (entry != null) {
+                entry.lastAccess = now;
+                accessOrder.get(sessionId);
+                return entry.session;
+            }
+
+            entry = new Entry(new Session(sessionId), now);
+            entry.weight = weigher.applyAsLong(entry.session);
+            entries.put(sessionId, entry);
+            accessOrder.put(sessionId, entry);
+            totalWeight += entry.weight;
+            timingWheel.schedule(entry);
+            evictIfNeeded(entry, removals);
+            return entry.session;
+        } finally {
+            lock.unlock();
+            notifyListeners(removals);
+        }
     }
 
     @Override
     public void delete(String sessionId) {
-        sessions.remove(sessionId);
+        var removals = new ArrayList<Removal>();
+        lock.lock();
+        try {
+            maintain(now(), removals);
+            var entry = entries.get(sessionId);
+            if (entry != null) {
+                remove(entry, RemovalCause.EXPLICIT, removals);
+            }
+        } finally {
+            lock.unlock();
+            notifyListeners(removals);
+        }
+    }
+
+    /**
+     * Removes the expired Sessions without waiting for the next store operation, e.g. from a scheduled task of an
+     * application that may stay idle for long.
+     */
+    public void cleanUp() {
+        var removals = new ArrayList<Removal>();
+        lock.lock();
+        try {
+            maintain(now(), removals);
+        } finally {
+            lock.unlock();
+            notifyListeners(removals);
+        }
+    }
+
+    /**
+     * Returns the number of Sessions in the store, including expired Sessions not removed yet.
+     *
+     * @return the number of Sessions.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the total weight of the Sessions in the store, as of their last maintained access.
+     *
+     * @return the total weight.
+     */
+    public long getWeight() {
+        lock.lock();
+        try {
+            return totalWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of Sessions removed for the given cause so far.
+     *
+     * @param cause the {@link RemovalCause} of the removals.
+     * @return the number of removed Sessions.
+     */
+    public long getRemovalCount(final RemovalCause cause) {
+        return removalCounts.get(cause).get();
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+
+    /**
+     * Records a read in the lossy read buffer and maintains the store if the buffer is half full or the timing wheel
+     * is due to advance, unless another thread is maintaining it already.
+     */
+    private void afterRead(final Entry entry, final long now) {
+        var drain = false;
+        if (entry != null) {
+            entry.lastAccess = now;
+            if (readBufferSize.incrementAndGet() <= READ_BUFFER_SIZE) {
+                readBuffer.offer(entry);
+            } else {
+                readBufferSize.decrementAndGet();
+            }
+            drain = readBufferSize.get() >= READ_BUFFER_SIZE / 2;
+        }
+        if ((drain || timingWheel.isDue(now)) && lock.tryLock()) {
+            var removals = new ArrayList<Removal>();
+            try {
+                maintain(now, removals);
+            } finally {
+                lock.unlock();
+                notifyListeners(removals);
+            }
+        }
+    }
+
+    /**
+     * Replays the buffered reads into the access order and the weights, expires the due Sessions and evicts the
+     * Sessions beyond the bounds. Called with the lock held.
+     */
+    private void maintain(final long now, final List<Removal> removals) {
+        Entry entry;
+        while ((entry = readBuffer.poll()) != null) {
+            readBufferSize.decrementAndGet();
+            if (!entry.removed) {
+                accessOrder.get(entry.session.getSessionId());
+                var weight = weigher.applyAsLong(entry.session);
+                totalWeight += weight - entry.weight;
+                entry.weight = weight;
+            }
+        }
+        timingWheel.advance(now, expired -> remove(expired, RemovalCause.EXPIRED, removals));
+        evictIfNeeded(null, removals);
+    }
+
+    /**
+     * Evicts the least recently used Sessions until the store is within its bounds. The given Session, which has just
+     * been created, is kept even if it alone exceeds the maximum weight.
+     */
+    private void evictIfNeeded(final Entry retained, final List<Removal> removals) {
+        var iterator = accessOrder.values().iterator();
+        while ((accessOrder.size() > maxEntries || totalWeight > maxWeight) && iterator.hasNext()) {
+            var eldest = iterator.next();
+            if (eldest == retained) {
+                continue;
+            }
+            iterator.remove();
+            entries.remove(eldest.session.getSessionId(), eldest);
+            removed(eldest, RemovalCause.SIZE, removals);
+        }
+    }
+
+    private void remove(final Entry entry, final RemovalCause cause, final List<Removal> removals) {
+        var sessionId = entry.session.getSessionId();
+        entries.remove(sessionId, entry);
+        accessOrder.remove(sessionId, entry);
+        removed(entry, cause, removals);
+    }
+
+    private void removed(final Entry entry, final RemovalCause cause, final List<Removal> removals) {
+        entry.removed = true;
+        totalWeight -= entry.weight;
+        removalCounts.get(cause).incrementAndGet();
+        removals.add(new Removal(entry.session, cause));
+    }
+
+    /**
+     * Notifies every listener of every removal; a failing listener does not prevent the others from being notified,
+     * its exception is rethrown afterwards.
+     */
+    private void notifyListeners(final List<Removal> removals) {
+        RuntimeException failure = null;
+        for (var removal : removals) {
+            for (var listener : removalListeners) {
+                try {
+                    listener.onRemoval(removal.session(), removal.cause());
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private record Removal(Session session, RemovalCause cause) {}
+
+    /**
+     * A stored Session with its bookkeeping. The access time is written by lock-free reads, the rest is guarded by the
+     * lock of the store.
+     */
+    private final class Entry extends TimingWheel.Node {
+
+        private final Session session;
+
+        private final long createdAt;
+
+        private volatile long lastAccess;
+
+        private long weight;
+
+        private Entry(final Session session, final long createdAt) {
+            this.session = session;
+            this.createdAt = createdAt;
+            this.lastAccess = createdAt;
+        }
+
+        @Override
+        long deadline() {
+            return Math.min(
+                    TimingWheel.saturatedAdd(lastAccess, idleTimeToLiveNanos),
+                    TimingWheel.saturatedAdd(createdAt, absoluteTimeToLiveNanos));
+        }
     }
 }
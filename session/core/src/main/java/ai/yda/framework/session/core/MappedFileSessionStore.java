@@ -0,0 +1,668 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+import lombok.Builder;
+
+/**
+ * Persists the {@link Session} instances in a local memory-mapped, append-only file, so that they survive restarts
+ * of the application without an external service.
+ * <p>
+ * Every change of a Session appends a snapshot of all its attributes, a deletion appends a tombstone. Only the
+ * position of the latest snapshot of each Session is kept on-heap; the attributes are decoded from the mapped file
+ * on every {@link #findById(String)}, and the returned Session applies its changes to the latest persisted snapshot
+ * under the write lock of the store, so that concurrent updates and version checks hold across instances. On startup
+ * the file is replayed to rebuild the positions, stopping at the first record torn by a crash.
+ * </p>
+ * <p>
+ * The on-heap index costs about 120 bytes per Session on a 64-bit JVM with compressed references, plus the Session
+ * ID itself: an entry of the access-ordered map, the positions and times of the Session, and its slot in the timing
+ * wheel. A million Sessions thus take roughly 200 MB of heap with UUID identifiers.
+ * </p>
+ * <p>
+ * Superseded snapshots and tombstones are garbage; once they exceed the {@code compactionThreshold} share of a file
+ * of at least {@code minCompactionSize} bytes, the live snapshots are copied into a new file which atomically
+ * replaces the old one. The copy runs without the lock of the store; only the snapshots written meanwhile are copied
+ * under the write lock before the files are swapped. The mapped pages are written to the storage device every
+ * {@code flushInterval} and on {@link #close()}.
+ * </p>
+ * <p>
+ * The store may be bounded like an {@link InMemorySessionStore}: Sessions not accessed for {@code idleTimeToLive} or
+ * created more than {@code absoluteTimeToLive} ago expire, and the least recently used Sessions are evicted beyond
+ * {@code maxEntries}. Expired Sessions are found with a hashed timing wheel ticking every {@code expirationInterval}
+ * and the access order is kept in a linked map, so that enforcing the bounds costs time proportional to the removed
+ * Sessions rather than to all of them. Lookups under the read lock record their access in a lossy buffer, which is
+ * replayed into the access order once half full and on clean-up. The bounds are enforced every
+ * {@code expirationInterval} and by {@link #cleanUp()}, so the store may briefly exceed them; expired Sessions are
+ * never returned though. Access and creation
+ * times are kept on-heap only: Sessions recovered on startup are considered created and accessed at that time.
+ * </p>
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class MappedFileSessionStore implements SessionStore, Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.5;
+
+    public static final long DEFAULT_MIN_COMPACTION_SIZE = 16 * 1024 * 1024;
+
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+    public static final Duration DEFAULT_COMPACTION_INTERVAL = Duration.ofMinutes(1);
+
+    public static final Duration DEFAULT_EXPIRATION_INTERVAL = Duration.ofSeconds(1);
+
+    private static final long NO_DEADLINE = TimingWheel.NO_DEADLINE;
+
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private static final System.Logger LOGGER = System.getLogger(MappedFileSessionStore.class.getName());
+
+    private final Path path;
+
+    private final Path compactionPath;
+
+    private final double compactionThreshold;
+
+    private final long minCompactionSize;
+
+    private final long maxEntries;
+
+    private final long idleTimeToLiveNanos;
+
+    private final long absoluteTimeToLiveNanos;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Serializes the compactions and keeps the file open while a compaction copies it without holding the lock.
+     */
+    private final ReentrantLock compactionLock = new ReentrantLock();
+
+    /**
+     * The Sessions in access order, the least recently used first, guarded by the lock. The map is kept in insertion
+     * order, so that lookups under the read lock do not modify it; an access is recorded by re-inserting the Session.
+     */
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * The lookups not replayed into the access order yet; lookups are dropped while it is full.
+     */
+    private final Queue<Entry> readBuffer = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger readBufferSize = new AtomicInteger();
+
+    private final TimingWheel<Entry> timingWheel;
+
+    private final long origin = System.nanoTime();
+
+    private final ScheduledExecutorService maintenanceExecutor;
+
+    private MappedLog log;
+
+    private long liveBytes;
+
+    /**
+     * Constructs a new {@link MappedFileSessionStore} instance, creating the file or recovering the Sessions from it.
+     *
+     * @param path                the path of the file.
+     * @param segmentSize         the size of the mapped segments of a new file, {@link #DEFAULT_SEGMENT_SIZE} by
+     *                            default. It bounds the size of a single Session snapshot.
+     * @param compactionThreshold the share of garbage in the file which triggers a compaction,
+     *                            {@link #DEFAULT_COMPACTION_THRESHOLD} by default.
+     * @param minCompactionSize   the size below which the file is not compacted, {@link #DEFAULT_MIN_COMPACTION_SIZE}
+     *                            by default.
+     * @param flushInterval       the interval of writing the mapped pages to the storage device,
+     *                            {@link #DEFAULT_FLUSH_INTERVAL} by default.
+     * @param compactionInterval  the interval of checking whether the file needs a compaction,
+     *                            {@link #DEFAULT_COMPACTION_INTERVAL} by default.
+     * @param maxEntries          the maximum number of Sessions, not enforced if {@code null}.
+     * @param idleTimeToLive      the time after the last access at which a Session expires, none if {@code null}.
+     * @param absoluteTimeToLive  the time after the creation at which a Session expires, none if {@code null}.
+     * @param expirationInterval  the interval of enforcing the bounds and the precision of the expiry,
+     *                            {@link #DEFAULT_EXPIRATION_INTERVAL} by default.
+     * @throws UncheckedIOException     if the file cannot be opened or recovered.
+     * @throws IllegalArgumentException if a bound or duration is not positive.
+     */
+    @Builder
+    public MappedFileSessionStore(
+            final Path path,
+            final Integer segmentSize,
+            final Double compactionThreshold,
+            final Long minCompactionSize,
+            final Duration flushInterval,
+            final Duration compactionInterval,
+            final Long maxEntries,
+            final Duration idleTimeToLive,
+            final Duration absoluteTimeToLive,
+            final Duration expirationInterval) {
+        this.path = path;
+        this.compactionPath = path.resolveSibling(path.getFileName() + ".compact");
+        this.compactionThreshold = compactionThreshold != null ? compactionThreshold : DEFAULT_COMPACTION_THRESHOLD;
+        this.minCompactionSize = minCompactionSize != null ? minCompactionSize : DEFAULT_MIN_COMPACTION_SIZE;
+        this.maxEntries = maxEntries != null ? positive(maxEntries, "maxEntries") : Long.MAX_VALUE;
+        this.idleTimeToLiveNanos = idleTimeToLive != null ? positive(idleTimeToLive, "idleTimeToLive") : NO_DEADLINE;
+        this.absoluteTimeToLiveNanos =
+                absoluteTimeToLive != null ? positive(absoluteTimeToLive, "absoluteTimeToLive") : NO_DEADLINE;
+        var expirationNanos = positive(
+                expirationInterval != null ? expirationInterval : DEFAULT_EXPIRATION_INTERVAL, "expirationInterval");
+        this.timingWheel = new TimingWheel<>(expirationNanos);
+        try {
+            // A compaction interrupted by a crash left the original file untouched
+            Files.deleteIfExists(compactionPath);
+            log = new MappedLog(path, segmentSize != null ? segmentSize : DEFAULT_SEGMENT_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open the session store " + path, e);
+        }
+        log.recover(this::replay);
+        entries.values().forEach(timingWheel::schedule);
+
+        maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "yda-session-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        var flushNanos = (flushInterval != null ? flushInterval : DEFAULT_FLUSH_INTERVAL).toNanos();
+        var compactionNanos = (compactionInterval != null ? compactionInterval : DEFAULT_COMPACTION_INTERVAL).toNanos();
+        maintenanceExecutor.scheduleWithFixedDelay(this::flush, flushNanos, flushNanos, TimeUnit.NANOSECONDS);
+        maintenanceExecutor.scheduleWithFixedDelay(
+                this::compactIfNeeded, compactionNanos, compactionNanos, TimeUnit.NANOSECONDS);
+        if (isBounded()) {
+            maintenanceExecutor.scheduleWithFixedDelay(
+                    this::cleanUp, expirationNanos, expirationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static long positive(final long value, final String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    private static long positive(final Duration duration, final String name) {
+        return positive(duration.toNanos(), name);
+    }
+
+    @Override
+    public Optional<Session> findById(String sessionId) {
+        Entry entry;
+        Session session;
+        lock.readLock().lock();
+        try {
+            var now = now();
+            entry = entries.get(sessionId);
+            if (entry == null || entry.deadline() <= now) {
+                // An expired Session is removed by the maintenance
+                return Optional.empty();
+            }
+            entry.accessedAt = now;
+            session = decode(sessionId, log.read(entry.position));
+        } finally {
+            lock.readLock().unlock();
+        }
+        afterRead(entry);
+        return Optional.of(session);
+    }
+
+    @Override
+    public Session createSession(String sessionId) {
+        lock.writeLock().lock();
+        try {
+            var entry = entries.get(sessionId);
+            if (entry != null && entry.deadline() <= now()) {
+                remove(entry);
+                entry = null;
+            }
+            if (entry != null) {
+                touch(entry);
+                return decode(sessionId, log.read(entry.position));
+            }
+            append(sessionId, SessionCodec.encodeSnapshot(sessionId, 0, Map.of()));
+            return new PersistentSession(sessionId, Map.of(), 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Session getOrCreate(final String sessionId) {
+        return createSession(sessionId);
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        lock.writeLock().lock();
+        try {
+            var entry = entries.get(sessionId);
+            if (entry != null) {
+                remove(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the expired Sessions and evicts the least recently used ones beyond {@code maxEntries}. It runs every
+     * {@code expirationInterval} when the store is bounded.
+     */
+    public void cleanUp() {
+        lock.writeLock().lock();
+        try {
+            drainReadBuffer();
+            timingWheel.advance(now(), this::remove);
+            while (entries.size() > maxEntries) {
+                remove(entries.values().iterator().next());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of Sessions in the store.
+     *
+     * @return the number of Sessions.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the live snapshots into a new file which replaces the current one, regardless of the share of garbage.
+     * The snapshots are copied without the lock of the store; the write lock is only held to copy the snapshots
+     * written meanwhile and to swap the files.
+     *
+     * @throws UncheckedIOException if the new file cannot be written; the current file stays in use.
+     */
+    public void compact() {
+        compactionLock.lock();
+        try {
+            doCompact();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact the session store " + path, e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the mapped pages to the storage device, stops the maintenance and closes the file. A running compaction
+     * is completed first.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        maintenanceExecutor.shutdownNow();
+        compactionLock.lock();
+        lock.writeLock().lock();
+        try {
+            log.force();
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Applies an update of a Session to its latest persisted snapshot, so that updates through different instances
+     * of the same Session are serialized. An unconditional update of a Session deleted while the caller held it
+     * recreates the Session, so that the write is not lost.
+     *
+     * @return the persisted snapshot, or {@code null} if the Session did not have the expected version, including
+     * when a conditional update finds it deleted.
+     */
+    private SessionCodec.Snapshot update(
+            final String sessionId, final long expectedVersion, final UnaryOperator<Map<String, Object>> function) {
+        lock.writeLock().lock();
+        try {
+            var entry = entries.get(sessionId);
+            if (entry == null && expectedVersion != Session.ANY_VERSION) {
+                return null;
+            }
+            if (entry != null) {
+                touch(entry);
+            }
+            var current = entry != null
+                    ? SessionCodec.decodeSnapshot(log.read(entry.position))
+                    : new SessionCodec.Snapshot(0, Map.of());
+            if (expectedVersion != Session.ANY_VERSION && current.version() != expectedVersion) {
+                return null;
+            }
+            var attributes = Map.copyOf(current.attributes());
+            var updated = function.apply(attributes);
+            if (updated == attributes) {
+                return current;
+            }
+            var snapshot = new SessionCodec.Snapshot(current.version() + 1, updated);
+            append(sessionId, SessionCodec.encodeSnapshot(sessionId, snapshot.version(), snapshot.attributes()));
+            return snapshot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isBounded() {
+        return maxEntries != Long.MAX_VALUE
+                || idleTimeToLiveNanos != NO_DEADLINE
+                || absoluteTimeToLiveNanos != NO_DEADLINE;
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+
+    /**
+     * Records a lookup in the lossy read buffer and replays the buffer into the access order once it is half full,
+     * unless another thread holds the lock. Only the access order of a store bounded by {@code maxEntries} needs it.
+     */
+    private void afterRead(final Entry entry) {
+        if (maxEntries == Long.MAX_VALUE) {
+            return;
+        }
+        if (readBufferSize.incrementAndGet() <= READ_BUFFER_SIZE) {
+            readBuffer.offer(entry);
+        } else {
+            readBufferSize.decrementAndGet();
+        }
+        if (readBufferSize.get() >= READ_BUFFER_SIZE / 2 && lock.writeLock().tryLock()) {
+            try {
+                drainReadBuffer();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Replays the buffered lookups into the access order. Called with the write lock held.
+     */
+    private void drainReadBuffer() {
+        Entry entry;
+        while ((entry = readBuffer.poll()) != null) {
+            readBufferSize.decrementAndGet();
+            if (!entry.removed && entries.remove(entry.sessionId, entry)) {
+                entries.put(entry.sessionId, entry);
+            }
+        }
+    }
+
+    /**
+     * Records an access of a Session and moves it to the end of the access order. Called with the write lock held.
+     */
+    private void touch(final Entry entry) {
+        entry.accessedAt = now();
+        entries.remove(entry.sessionId);
+        entries.put(entry.sessionId, entry);
+    }
+
+    private void remove(final Entry entry) {
+        entries.remove(entry.sessionId, entry);
+        entry.removed = true;
+        liveBytes -= log.recordSize(entry.position);
+        appendRecord(SessionCodec.encodeTombstone(entry.sessionId));
+    }
+
+    private void append(final String sessionId, final byte[] snapshot) {
+        var position = appendRecord(snapshot);
+        var entry = entries.get(sessionId);
+        if (entry == null) {
+            entry = new Entry(sessionId, now());
+            entries.put(sessionId, entry);
+            timingWheel.schedule(entry);
+        } else {
+            liveBytes -= log.recordSize(entry.position);
+            touch(entry);
+        }
+        entry.position = position;
+        liveBytes += MappedLog.RECORD_HEADER_SIZE + snapshot.length;
+    }
+
+    private long appendRecord(final byte[] record) {
+        try {
+            return log.append(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write to the session store " + path, e);
+        }
+    }
+
+    private void replay(final long position, final byte[] record) {
+        var sessionId = SessionCodec.decodeSessionId(record);
+        var entry = entries.remove(sessionId);
+        if (entry != null) {
+            liveBytes -= log.recordSize(entry.position);
+        }
+        if (SessionCodec.type(record) == SessionCodec.SNAPSHOT) {
+            if (entry == null) {
+                entry = new Entry(sessionId, now());
+            }
+            entry.position = position;
+            entries.put(sessionId, entry);
+            liveBytes += MappedLog.RECORD_HEADER_SIZE + record.length;
+        }
+    }
+
+    /**
+     * Copies the snapshots written before the start of the compaction under no lock, then, under the write lock,
+     * writes the tombstones of the Sessions deleted meanwhile and copies the snapshots written meanwhile, so that the
+     * new file replays to the current state, and swaps the files. Called with the compaction lock held.
+     */
+    private void doCompact() throws IOException {
+        MappedLog source;
+        List<Entry> copied;
+        long[] positions;
+        long copiedUpTo;
+        lock.readLock().lock();
+        try {
+            source = log;
+            copiedUpTo = source.getWritePosition();
+            copied = new ArrayList<>(entries.values());
+            positions = new long[copied.size()];
+            for (var i = 0; i < positions.length; i++) {
+                positions[i] = copied.get(i).position;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Files.deleteIfExists(compactionPath);
+        var compacted = new MappedLog(compactionPath, source.getSegmentSize());
+        try {
+            // Records behind the write position are immutable, so they are read concurrently with the appends
+            for (var i = 0; i < positions.length; i++) {
+                copied.get(i).compactedPosition = compacted.append(source.read(positions[i]));
+            }
+            compacted.force();
+        } catch (IOException | RuntimeException e) {
+            discard(compacted);
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            long compactedBytes;
+            try {
+                compactedBytes = catchUp(source, compacted, copied, copiedUpTo);
+                compacted.force();
+                Files.move(compactionPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException | RuntimeException e) {
+                discard(compacted);
+                throw e;
+            }
+            // The channel of the compacted log follows the moved file
+            for (var entry : entries.values()) {
+                entry.position = entry.compactedPosition;
+            }
+            log = compacted;
+            liveBytes = compactedBytes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        source.close();
+    }
+
+    /**
+     * Brings the compacted log up to date with the writes made while it was copied, and returns its live bytes. The
+     * positions of the Sessions in the compacted log are left in their entries until the files are swapped. Called
+     * with the write lock held.
+     */
+    private long catchUp(
+            final MappedLog source, final MappedLog compacted, final List<Entry> copied, final long copiedUpTo)
+            throws IOException {
+        for (var entry : copied) {
+            if (entry.removed) {
+                compacted.append(SessionCodec.encodeTombstone(entry.sessionId));
+            }
+        }
+        var compactedBytes = 0L;
+        for (var entry : entries.values()) {
+            if (entry.position >= copiedUpTo) {
+                entry.compactedPosition = compacted.append(source.read(entry.position));
+            }
+            compactedBytes += compacted.recordSize(entry.compactedPosition);
+        }
+        return compactedBytes;
+    }
+
+    private void discard(final MappedLog compacted) throws IOException {
+        compacted.close();
+        Files.deleteIfExists(compactionPath);
+    }
+
+    private Session decode(final String sessionId, final byte[] record) {
+        var snapshot = SessionCodec.decodeSnapshot(record);
+        return new PersistentSession(sessionId, snapshot.attributes(), snapshot.version());
+    }
+
+    private void flush() {
+        lock.readLock().lock();
+        try {
+            log.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        long size;
+        long garbage;
+        lock.readLock().lock();
+        try {
+            size = log.getWritePosition();
+            garbage = size - liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (size >= minCompactionSize && garbage >= size * compactionThreshold) {
+            try {
+                compact();
+            } catch (UncheckedIOException e) {
+                // Keep the schedule alive, the compaction is retried at the next interval
+                LOGGER.log(System.Logger.Level.WARNING, "Failed to compact the session store " + path, e);
+            }
+        }
+    }
+
+    /**
+     * The index entry of a Session: the position of its latest snapshot and its access and creation times. The
+     * positions are guarded by the lock, the access time is updated under the read lock as well.
+     */
+    private final class Entry extends TimingWheel.Node {
+
+        private final String sessionId;
+
+        private final long createdAt;
+
+        private volatile long accessedAt;
+
+        private long position;
+
+        /**
+         * The position of the snapshot in the log being compacted, written by the compacting thread only.
+         */
+        private long compactedPosition;
+
+        private Entry(final String sessionId, final long now) {
+            this.sessionId = sessionId;
+            this.createdAt = now;
+            this.accessedAt = now;
+        }
+
+        @Override
+        long deadline() {
+            return Math.min(
+                    TimingWheel.saturatedAdd(accessedAt, idleTimeToLiveNanos),
+                    TimingWheel.saturatedAdd(createdAt, absoluteTimeToLiveNanos));
+        }
+    }
+
+    /**
+     * A {@link Session} writing its attribute changes through to the store.
+     */
+    private final class PersistentSession extends Session {
+
+        private PersistentSession(final String sessionId, final Map<String, Object> attributes, final long version) {
+            super(sessionId, attributes, version);
+        }
+
+        @Override
+        boolean update(final long expectedVersion, final UnaryOperator<Map<String, Object>> function) {
+            var snapshot = MappedFileSessionStore.this.update(getSessionId(), expectedVersion, function);
+            if (snapshot == null) {
+                return false;
+            }
+            reset(snapshot.version(), snapshot.attributes());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only log of records in a memory-mapped file. The file is mapped in fixed-size segments, so that it may
+ * grow beyond the 2 GiB limit of a single mapping; a record never spans two segments, the unused tail of a segment is
+ * left zeroed. Each record is framed as {@code [length][CRC32C][payload]} and its length is written last.
+ * <p>
+ * The file starts with a header holding a magic number, the format version and the segment size, so that a file is
+ * always read with the segment size it was written with. {@link #recover(RecordConsumer)} replays the valid records
+ * and stops at the first torn or corrupted one, which is overwritten by the next appends.
+ * </p>
+ * <p>
+ * {@link #close()} unmaps the segments right away where the JVM allows it, through {@code sun.misc.Unsafe}, so that
+ * the mappings and the disk space of a file replaced by a compaction are released without waiting for the garbage
+ * collector; elsewhere they are released once the segments are collected. The segments must therefore not be
+ * accessed after the log is closed.
+ * </p>
+ * <p>
+ * The log is not thread-safe, its owner guards it. The only exception is {@link #read(long)} of records appended
+ * before a point which happens-before the read: it may run concurrently with appends, which never touch the bytes of
+ * earlier records and publish new segments through a copy-on-write list.
+ * </p>
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+final class MappedLog implements Closeable {
+
+    static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private static final int MAGIC = 0x59444153;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+
+    private static final byte[] ZEROS = new byte[8192];
+
+    private static final System.Logger LOGGER = System.getLogger(MappedLog.class.getName());
+
+    /**
+     * Invokes the cleaner of a mapped buffer, or {@code null} if the JVM does not allow it.
+     */
+    private static final MethodHandle UNMAPPER = unmapper();
+
+    private final FileChannel channel;
+
+    private final int segmentSize;
+
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+
+    private long writePosition = HEADER_SIZE;
+
+    /**
+     * Opens or creates the log file.
+     *
+     * @param path        the path of the file.
+     * @param segmentSize the size of the mapped segments of a new file.
+     * @throws IOException if the file cannot be opened or was not written by a {@link MappedLog}.
+     */
+    MappedLog(final Path path, final int segmentSize) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                this.segmentSize = segmentSize;
+                var segment = map(0);
+                segment.putInt(0, MAGIC).putInt(Integer.BYTES, VERSION).putInt(2 * Integer.BYTES, segmentSize);
+            } else {
+                var header = ByteBuffer.allocate(HEADER_SIZE);
+                channel.read(header, 0);
+                if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION) {
+                    throw new IOException(path + " is not a session store file");
+                }
+                this.segmentSize = header.getInt(2 * Integer.BYTES);
+                var segmentCount = (channel.size() + this.segmentSize - 1) / this.segmentSize;
+                for (var i = 0; i < segmentCount; i++) {
+                    map(i);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Replays the records of the log and positions it after the last valid one. The rest of the file is zeroed if a
+     * torn record was found, so that stale records behind it cannot be replayed later.
+     *
+     * @param consumer the consumer of the position and payload of each record.
+     */
+    void recover(final RecordConsumer consumer) {
+        var position = (long) HEADER_SIZE;
+        var torn = false;
+        while (true) {
+            var segmentIndex = (int) (position / segmentSize);
+            var offset = (int) (position % segmentSize);
+            if (segmentIndex >= segments.size()) {
+                break;
+            }
+            var segment = segments.get(segmentIndex);
+            var length = offset + RECORD_HEADER_SIZE <= segmentSize ? segment.getInt(offset) : 0;
+            if (length == 0) {
+                // Either the end of the log, or a record did not fit into the rest of the segment
+                if (segmentIndex + 1 < segments.size()
+                        && segments.get(segmentIndex + 1).getInt(0) != 0) {
+                    position = (long) (segmentIndex + 1) * segmentSize;
+                    continue;
+                }
+                break;
+            }
+            if (length < 0 || offset + RECORD_HEADER_SIZE + length > segmentSize) {
+                torn = true;
+                break;
+            }
+            var payload = new byte[length];
+            segment.get(offset + RECORD_HEADER_SIZE, payload);
+            if (checksum(payload) != segment.getInt(offset + Integer.BYTES)) {
+                torn = true;
+                break;
+            }
+            consumer.accept(position, payload);
+            position += RECORD_HEADER_SIZE + length;
+        }
+        writePosition = position;
+        if (torn) {
+            zeroFrom(position);
+        }
+    }
+
+    /**
+     * Appends a record, mapping a new segment when the current one is full.
+     *
+     * @param payload the payload of the record.
+     * @return the position of the record.
+     * @throws IOException if a new segment cannot be mapped.
+     */
+    long append(final byte[] payload) throws IOException {
+        var size = RECORD_HEADER_SIZE + payload.length;
+        if (size > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException(
+                    "Record of " + payload.length + " bytes exceeds the segment size " + segmentSize);
+        }
+        if (writePosition % segmentSize + size > segmentSize) {
+            writePosition = (writePosition / segmentSize + 1) * segmentSize;
+        }
+        var segmentIndex = (int) (writePosition / segmentSize);
+        var offset = (int) (writePosition % segmentSize);
+        var segment = segmentIndex < segments.size() ? segments.get(segmentIndex) : map(segmentIndex);
+        segment.put(offset + RECORD_HEADER_SIZE, payload);
+        segment.putInt(offset + Integer.BYTES, checksum(payload));
+        segment.putInt(offset, payload.length);
+
+        var position = writePosition;
+        writePosition += size;
+        return position;
+    }
+
+    /**
+     * Reads the payload of the record at the given position.
+     *
+     * @param position the position returned by {@link #append(byte[])} or passed to the {@link RecordConsumer}.
+     * @return the payload.
+     */
+    byte[] read(final long position) {
+        var segment = segments.get((int) (position / segmentSize));
+        var offset = (int) (position % segmentSize);
+        var payload = new byte[segment.getInt(offset)];
+        segment.get(offset + RECORD_HEADER_SIZE, payload);
+        return payload;
+    }
+
+    /**
+     * Returns the size of the record at the given position, including its framing.
+     *
+     * @param position the position of the record.
+     * @return the size of the record.
+     */
+    int recordSize(final long position) {
+        return RECORD_HEADER_SIZE + segments.get((int) (position / segmentSize)).getInt((int) (position % segmentSize));
+    }
+
+    long getWritePosition() {
+        return writePosition;
+    }
+
+    int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Writes the modified pages of all segments to the storage device.
+     */
+    void force() {
+        segments.forEach(MappedByteBuffer::force);
+    }
+
+    /**
+     * Unmaps the segments and closes the file. The log must not be used afterwards.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (UNMAPPER != null) {
+            for (var segment : segments) {
+                unmap(segment);
+            }
+        }
+        segments.clear();
+        channel.close();
+    }
+
+    private MappedByteBuffer map(final int segmentIndex) throws IOException {
+        var segment = channel.map(FileChannel.MapMode.READ_WRITE, (long) segmentIndex * segmentSize, segmentSize);
+        segments.add(segment);
+        return segment;
+    }
+
+    private void zeroFrom(final long position) {
+        for (var segmentIndex = (int) (position / segmentSize); segmentIndex < segments.size(); segmentIndex++) {
+            var segment = segments.get(segmentIndex);
+            var offset = segmentIndex == position / segmentSize ? (int) (position % segmentSize) : 0;
+            while (offset < segmentSize) {
+                var length = Math.min(ZEROS.length, segmentSize - offset);
+                segment.put(offset, ZEROS, 0, length);
+                offset += length;
+            }
+        }
+    }
+
+    private static void unmap(final MappedByteBuffer segment) {
+        try {
+            UNMAPPER.invokeExact((ByteBuffer) segment);
+        } catch (Throwable e) {
+            LOGGER.log(System.Logger.Level.DEBUG, "Failed to unmap a segment, it is released on garbage collection", e);
+        }
+    }
+
+    private static MethodHandle unmapper() {
+        try {
+            var unsafeClass = Class.forName("sun.misc.Unsafe");
+            var theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.log(System.Logger.Level.DEBUG, "Mapped segments are released on garbage collection", e);
+            return null;
+        }
+    }
+
+    private static int checksum(final byte[] payload) {
+        var crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Receives the records replayed by {@link #recover(RecordConsumer)}.
+     */
+    @FunctionalInterface
+    interface RecordConsumer {
+
+        void accept(long position, byte[] payload);
+    }
+}
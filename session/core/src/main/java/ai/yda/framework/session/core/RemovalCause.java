@@ -0,0 +1,45 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+/**
+ * The reasons for a {@link Session} to be removed from a {@link SessionStore}.
+ *
+ * @author Nikita Litvinov
+ * @see SessionRemovalListener
+ * @since 0.2.0
+ */
+public enum RemovalCause {
+
+    /**
+     * The Session was deleted through {@link SessionStore#delete(String)}.
+     */
+    EXPLICIT,
+
+    /**
+     * The Session outlived its idle or absolute time to live.
+     */
+    EXPIRED,
+
+    /**
+     * The Session was evicted to keep the store within its maximum number of entries or weight.
+     */
+    SIZE
+}
@@ -19,22 +19,244 @@
 */
 package ai.yda.framework.session.core;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
 
-import lombok.RequiredArgsConstructor;
+import lombok.Getter;
 
-@RequiredArgsConstructor
+/**
+ * Holds the attributes of a conversation. The attributes are an immutable snapshot stamped with a version, replaced
+ * with a compare-and-set on every change, so that reads never block and updates such as
+ * {@link #computeAttribute(String, BiFunction)} are atomic without locking. A Session has only a few attributes, such
+ * as a thread ID, so the snapshot keeps them inline in a single array of alternating names and values, scanned
+ * linearly, rather than in a hash map. An update racing with another one is
+ * retried, hence the functions passed to the updates should be free of side effects. The version lets a caller apply
+ * a change only if the Session was not modified since it read it, see {@link #setAttributes(Map, long)}.
+ *
+ * @author Nikita Litvinov
+ * @since 0.1.0
+ */
 public class Session {
+
+    /**
+     * The expected version matching any version of the Session.
+     */
+    static final long ANY_VERSION = -1;
+
+    @Getter
     private final String sessionId;
-    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    private static final VarHandle ATTRIBUTES;
+
+    static {
+        try {
+            ATTRIBUTES = MethodHandles.lookup().findVarHandle(Session.class, "attributes", Attributes.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Attributes attributes;
+
+    public Session(final String sessionId) {
+        this(sessionId, Map.of(), 0);
+    }
+
+    Session(final String sessionId, final Map<String, Object> attributes, final long version) {
+        this.sessionId = sessionId;
+        this.attributes = new Attributes(version, Attributes.entries(attributes));
+    }
 
     public void setAttribute(String name, Object value) {
-        attributes.put(name, value);
+        Objects.requireNonNull(value, "value");
+        update(ANY_VERSION, values -> with(values, Map.of(name, value)));
     }
 
     public Optional<Object> getAttribute(String name) {
         return Optional.ofNullable(attributes.get(name));
     }
+
+    /**
+     * Returns an immutable snapshot of all attributes.
+     *
+     * @return the attributes by name.
+     */
+    public Map<String, Object> getAttributes() {
+        return attributes.toMap();
+    }
+
+    /**
+     * Returns the given attributes as read from a single snapshot. Attributes which are not set are left out.
+     *
+     * @param names the names of the attributes.
+     * @return the attributes by name.
+     */
+    public Map<String, Object> getAttributes(final Collection<String> names) {
+        var current = attributes;
+        var result = new HashMap<String, Object>();
+        for (var name : names) {
+            var value = current.get(name);
+            if (value != null) {
+                result.put(name, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sets the given attributes in a single update.
+     *
+     * @param values the attributes by name.
+     */
+    public void setAttributes(final Map<String, Object> values) {
+        update(ANY_VERSION, current -> with(current, values));
+    }
+
+    /**
+     * Sets the given attributes in a single update if the Session still has the expected version.
+     *
+     * @param values          the attributes by name.
+     * @param expectedVersion the version read by the caller, see {@link #getVersion()}.
+     * @return {@code true} if the attributes were set, {@code false} if the Session was modified in between.
+     */
+    public boolean setAttributes(final Map<String, Object> values, final long expectedVersion) {
+        return update(expectedVersion, current -> with(current, values));
+    }
+
+    /**
+     * Atomically computes an attribute from its current value, like {@link Map#compute(Object, BiFunction)}.
+     *
+     * @param name      the name of the attribute.
+     * @param remapping the function computing the new value from the name and the current value, or {@code null}
+     *                  if it is not set. Returning {@code null} removes the attribute.
+     * @return the new value, empty if the attribute was removed.
+     */
+    public Optional<Object> computeAttribute(final String name, final BiFunction<String, Object, Object> remapping) {
+        var result = new Object[1];
+        update(ANY_VERSION, current -> {
+            var value = remapping.apply(name, current.get(name));
+            result[0] = value;
+            return value != null ? with(current, Map.of(name, value)) : without(current, name);
+        });
+        return Optional.ofNullable(result[0]);
+    }
+
+    /**
+     * Atomically merges a value into an attribute, like {@link Map#merge(Object, Object, BiFunction)}.
+     *
+     * @param name      the name of the attribute.
+     * @param value     the value set if the attribute is not set.
+     * @param remapping the function merging the current value with the given one. Returning {@code null} removes
+     *                  the attribute.
+     * @return the new value, or {@code null} if the attribute was removed.
+     */
+    public Object mergeAttribute(
+            final String name, final Object value, final BiFunction<Object, Object, Object> remapping) {
+        Objects.requireNonNull(value, "value");
+        return computeAttribute(name, (key, current) -> current == null ? value : remapping.apply(current, value))
+                .orElse(null);
+    }
+
+    /**
+     * Returns the version of the Session, incremented by every change of its attributes.
+     *
+     * @return the version.
+     */
+    public long getVersion() {
+        return attributes.version();
+    }
+
+    public int getAttributeCount() {
+        return attributes.entries().length / 2;
+    }
+
+    /**
+     * Replaces the attributes with the result of the function, retrying if another update won the race.
+     *
+     * @param expectedVersion the version the Session must have, or {@link #ANY_VERSION}.
+     * @param function        the function computing the new attributes from the current ones; returning the same
+     *                        instance leaves the Session unchanged.
+     * @return {@code false} if the Session did not have the expected version.
+     */
+    boolean update(final long expectedVersion, final UnaryOperator<Map<String, Object>> function) {
+        while (true) {
+            var current = attributes;
+            if (expectedVersion != ANY_VERSION && current.version() != expectedVersion) {
+                return false;
+            }
+            var values = current.toMap();
+            var updated = function.apply(values);
+            if (updated == values
+                    || ATTRIBUTES.compareAndSet(
+                            this, current, new Attributes(current.version() + 1, Attributes.entries(updated)))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Replaces the snapshot of the attributes, e.g. with the one persisted by the {@link SessionStore}.
+     */
+    void reset(final long version, final Map<String, Object> values) {
+        attributes = new Attributes(version, Attributes.entries(values));
+    }
+
+    static Map<String, Object> with(final Map<String, Object> current, final Map<String, Object> values) {
+        if (values.isEmpty()) {
+            return current;
+        }
+        var result = new HashMap<>(current);
+        result.putAll(values);
+        return result;
+    }
+
+    static Map<String, Object> without(final Map<String, Object> current, final String name) {
+        if (!current.containsKey(name)) {
+            return current;
+        }
+        var result = new HashMap<>(current);
+        result.remove(name);
+        return result;
+    }
+
+    /**
+     * A snapshot of the attributes, the names at the even and the values at the odd indices of the entries.
+     */
+    private record Attributes(long version, Object[] entries) {
+
+        private Object get(final String name) {
+            for (var i = 0; i < entries.length; i += 2) {
+                if (entries[i].equals(name)) {
+                    return entries[i + 1];
+                }
+            }
+            return null;
+        }
+
+        private Map<String, Object> toMap() {
+            var map = new HashMap<String, Object>(entries.length);
+            for (var i = 0; i < entries.length; i += 2) {
+                map.put((String) entries[i], entries[i + 1]);
+            }
+            return Collections.unmodifiableMap(map);
+        }
+
+        private static Object[] entries(final Map<String, Object> values) {
+            var entries = new Object[values.size() * 2];
+            var i = 0;
+            for (var value : values.entrySet()) {
+                entries[i++] = Objects.requireNonNull(value.getKey(), "name");
+                entries[i++] = Objects.requireNonNull(value.getValue(), "value");
+            }
+            return entries;
+        }
+    }
 }
@@ -0,0 +1,218 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes the records of a {@link MappedFileSessionStore}: a snapshot of the version and all attributes of a
+ * {@link Session}, or a tombstone of a deleted Session. Strings, numbers, booleans and byte arrays are written with a
+ * one-byte tag and a varint length where needed; any other {@link Serializable} value falls back to Java
+ * serialization.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+final class SessionCodec {
+
+    static final byte SNAPSHOT = 1;
+
+    static final byte TOMBSTONE = 2;
+
+    private static final byte STRING = 1;
+
+    private static final byte INTEGER = 2;
+
+    private static final byte LONG = 3;
+
+    private static final byte DOUBLE = 4;
+
+    private static final byte BOOLEAN = 5;
+
+    private static final byte BYTES = 6;
+
+    private static final byte SERIALIZED = 7;
+
+    private SessionCodec() {}
+
+    static byte[] encodeSnapshot(final String sessionId, final long version, final Map<String, Object> attributes) {
+        var bytes = new ByteArrayOutputStream(64);
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeByte(SNAPSHOT);
+            writeString(output, sessionId);
+            output.writeLong(version);
+            writeVarInt(output, attributes.size());
+            for (var attribute : attributes.entrySet()) {
+                writeString(output, attribute.getKey());
+                writeValue(output, attribute.getKey(), attribute.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] encodeTombstone(final String sessionId) {
+        var bytes = new ByteArrayOutputStream(32);
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeByte(TOMBSTONE);
+            writeString(output, sessionId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte type(final byte[] record) {
+        return record[0];
+    }
+
+    static String decodeSessionId(final byte[] record) {
+        try (var input = new DataInputStream(new ByteArrayInputStream(record, 1, record.length - 1))) {
+            return readString(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Snapshot decodeSnapshot(final byte[] record) {
+        try (var input = new DataInputStream(new ByteArrayInputStream(record, 1, record.length - 1))) {
+            readString(input);
+            var version = input.readLong();
+            var count = readVarInt(input);
+            var attributes = new HashMap<String, Object>(count * 4 / 3 + 1);
+            for (var i = 0; i < count; i++) {
+                var name = readString(input);
+                attributes.put(name, readValue(input));
+            }
+            return new Snapshot(version, attributes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    record Snapshot(long version, Map<String, Object> attributes) {}
+
+    private static void writeValue(final DataOutputStream output, final String name, final Object value)
+            throws IOException {
+        if (value instanceof String string) {
+            output.writeByte(STRING);
+            writeString(output, string);
+        } else if (value instanceof Integer integer) {
+            output.writeByte(INTEGER);
+            output.writeInt(integer);
+        } else if (value instanceof Long number) {
+            output.writeByte(LONG);
+            output.writeLong(number);
+        } else if (value instanceof Double number) {
+            output.writeByte(DOUBLE);
+            output.writeDouble(number);
+        } else if (value instanceof Boolean bool) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean(bool);
+        } else if (value instanceof byte[] array) {
+            output.writeByte(BYTES);
+            writeBytes(output, array);
+        } else if (value instanceof Serializable) {
+            var bytes = new ByteArrayOutputStream();
+            try (var objectOutput = new ObjectOutputStream(bytes)) {
+                objectOutput.writeObject(value);
+            } catch (NotSerializableException e) {
+                throw new IllegalArgumentException("Session attribute " + name + " is not serializable", e);
+            }
+            output.writeByte(SERIALIZED);
+            writeBytes(output, bytes.toByteArray());
+        } else {
+            throw new IllegalArgumentException("Session attribute " + name + " is not serializable");
+        }
+    }
+
+    private static Object readValue(final DataInputStream input) throws IOException {
+        var tag = input.readByte();
+        return switch (tag) {
+            case STRING -> readString(input);
+            case INTEGER -> input.readInt();
+            case LONG -> input.readLong();
+            case DOUBLE -> input.readDouble();
+            case BOOLEAN -> input.readBoolean();
+            case BYTES -> readBytes(input);
+            case SERIALIZED -> {
+                try (var objectInput = new ObjectInputStream(new ByteArrayInputStream(readBytes(input)))) {
+                    yield objectInput.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException("Unknown class of a session attribute", e);
+                }
+            }
+            default -> throw new IOException("Unknown session attribute tag " + tag);
+        };
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        writeBytes(output, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String readString(final DataInputStream input) throws IOException {
+        return new String(readBytes(input), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(final DataOutputStream output, final byte[] value) throws IOException {
+        writeVarInt(output, value.length);
+        output.write(value);
+    }
+
+    private static byte[] readBytes(final DataInputStream input) throws IOException {
+        var value = new byte[readVarInt(input)];
+        input.readFully(value);
+        return value;
+    }
+
+    private static void writeVarInt(final DataOutputStream output, final int value) throws IOException {
+        var remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            output.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        output.writeByte(remaining);
+    }
+
+    private static int readVarInt(final DataInputStream input) throws IOException {
+        var value = 0;
+        for (var shift = 0; shift < 32; shift += 7) {
+            var b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
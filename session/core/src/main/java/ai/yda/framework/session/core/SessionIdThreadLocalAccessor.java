@@ -0,0 +1,53 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import io.micrometer.context.ThreadLocalAccessor;
+
+/**
+ * Exposes the Session ID bound by {@link ThreadLocalSessionContext} to the Micrometer context propagation, so that
+ * context snapshots, the executors propagating them and Reactor carry the Session ID across thread hand-offs. It is
+ * registered through the {@link java.util.ServiceLoader}.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class SessionIdThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+    @Override
+    public Object key() {
+        return ThreadLocalSessionContext.KEY;
+    }
+
+    @Override
+    public String getValue() {
+        return ThreadLocalSessionContext.SESSION_ID.get();
+    }
+
+    @Override
+    public void setValue(final String value) {
+        ThreadLocalSessionContext.SESSION_ID.set(value);
+    }
+
+    @Override
+    public void setValue() {
+        ThreadLocalSessionContext.SESSION_ID.remove();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+/**
+ * Listens for {@link Session} instances removed from a {@link SessionStore}, e.g. to release the resources kept for a
+ * conversation. Listeners are called after the removal, outside the locks of the store, on the thread that triggered
+ * it.
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface SessionRemovalListener {
+
+    /**
+     * Called after a {@link Session} has been removed.
+     *
+     * @param session the removed {@link Session}.
+     * @param cause   the {@link RemovalCause} of the removal.
+     */
+    void onRemoval(Session session, RemovalCause cause);
+}
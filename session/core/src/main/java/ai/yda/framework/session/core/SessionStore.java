@@ -19,12 +19,110 @@
 */
 package ai.yda.framework.session.core;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.BiFunction;
 
+/**
+ * Stores the {@link Session} instances by their IDs. The attribute operations are atomic per Session and create the
+ * Session if it does not exist yet; implementations override the defaults when they can perform an operation with
+ * fewer lookups.
+ *
+ * @author Nikita Litvinov
+ * @since 0.1.0
+ */
 public interface SessionStore {
     Optional<Session> findById(String sessionId);
 
     Session createSession(String sessionId);
 
     void delete(String sessionId);
+
+    /**
+     * Returns the Session with the given ID, creating it if it does not exist.
+     *
+     * @param sessionId the ID of the Session.
+     * @return the Session.
+     */
+    default Session getOrCreate(final String sessionId) {
+        return findById(sessionId).orElseGet(() -> createSession(sessionId));
+    }
+
+    /**
+     * Atomically computes an attribute of a Session, see {@link Session#computeAttribute(String, BiFunction)}.
+     *
+     * @param sessionId the ID of the Session.
+     * @param name      the name of the attribute.
+     * @param remapping the function computing the new value from the name and the current value.
+     * @return the new value, empty if the attribute was removed.
+     */
+    default Optional<Object> compute(
+            final String sessionId, final String name, final BiFunction<String, Object, Object> remapping) {
+        return getOrCreate(sessionId).computeAttribute(name, remapping);
+    }
+
+    /**
+     * Atomically merges a value into an attribute of a Session, see
+     * {@link Session#mergeAttribute(String, Object, BiFunction)}.
+     *
+     * @param sessionId the ID of the Session.
+     * @param name      the name of the attribute.
+     * @param value     the value set if the attribute is not set.
+     * @param remapping the function merging the current value with the given one.
+     * @return the new value, or {@code null} if the attribute was removed.
+     */
+    default Object merge(
+            final String sessionId,
+            final String name,
+            final Object value,
+            final BiFunction<Object, Object, Object> remapping) {
+        return getOrCreate(sessionId).mergeAttribute(name, value, remapping);
+    }
+
+    /**
+     * Returns the given attributes of a Session as read from a single snapshot.
+     *
+     * @param sessionId the ID of the Session.
+     * @param names     the names of the attributes.
+     * @return the attributes by name, empty if the Session does not exist.
+     */
+    default Map<String, Object> getAll(final String sessionId, final Collection<String> names) {
+        return findById(sessionId).map(session -> session.getAttributes(names)).orElseGet(Map::of);
+    }
+
+    /**
+     * Sets the given attributes of a Session in a single update.
+     *
+     * @param sessionId  the ID of the Session.
+     * @param attributes the attributes by name.
+     */
+    default void putAll(final String sessionId, final Map<String, Object> attributes) {
+        getOrCreate(sessionId).setAttributes(attributes);
+    }
+
+    /**
+     * Sets the given attributes of a Session in a single update if it still has the expected version.
+     *
+     * @param sessionId       the ID of the Session.
+     * @param attributes      the attributes by name.
+     * @param expectedVersion the version read by the caller, see {@link #getVersion(String)}.
+     * @return {@code true} if the attributes were set, {@code false} if the Session was modified in between.
+     */
+    default boolean putAll(final String sessionId, final Map<String, Object> attributes, final long expectedVersion) {
+        return getOrCreate(sessionId).setAttributes(attributes, expectedVersion);
+    }
+
+    /**
+     * Returns the version of a Session, see {@link Session#getVersion()}.
+     *
+     * @param sessionId the ID of the Session.
+     * @return the version, empty if the Session does not exist.
+     */
+    default OptionalLong getVersion(final String sessionId) {
+        return findById(sessionId)
+                .map(session -> OptionalLong.of(session.getVersion()))
+                .orElseGet(OptionalLong::empty);
+    }
 }
@@ -0,0 +1,369 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.Builder;
+
+/**
+ * Keeps the {@link Session} instances in memory, split into shards by the hash of the Session ID, for workloads with
+ * many concurrently active Sessions. Each shard keeps its Sessions in access order under its own lock, so writes to
+ * Sessions of different shards do not contend, and each shard enforces its share of the bounds on its own:
+ * <ul>
+ *     <li>{@code maxEntries} - the least recently used Sessions of a shard are evicted beyond its share of this
+ *     number of Sessions.</li>
+ *     <li>{@code idleTimeToLive} - Sessions not accessed for this long expire. As the least recently used Sessions
+ *     of a shard come first, expiry only visits the expired Sessions of the shard being accessed.</li>
+ * </ul>
+ * Lookups take no lock: like in {@link InMemorySessionStore}, a read only updates the access time of the Session and
+ * records it in the lossy read buffer of its shard, which is replayed into the access order by the next write to the
+ * shard, or by a read which finds the buffer half full, provided no other thread holds the lock of the shard.
+ * <p>
+ * Unlike {@link InMemorySessionStore}, the bounds are approximate, as a shard may evict while another has room, and
+ * there is neither an absolute time to live nor a weight bound. Removed Sessions are reported to the
+ * {@link SessionRemovalListener} instances.
+ * </p>
+ *
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+public class ShardedSessionStore implements SessionStore {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private static final int READ_BUFFER_SIZE = 32;
+
+    private final Shard[] shards;
+
+    private final int shardMask;
+
+    private final long maxEntriesPerShard;
+
+    private final long idleTimeToLiveNanos;
+
+    private final List<SessionRemovalListener> removalListeners;
+
+    private final Map<RemovalCause, LongAdder> removalCounts = new EnumMap<>(RemovalCause.class);
+
+    private final long origin = System.nanoTime();
+
+    /**
+     * Constructs a new {@link ShardedSessionStore} instance. Bounds left {@code null} are not enforced.
+     *
+     * @param shardCount       the number of shards, rounded up to a power of two. Four times the number of available
+     *                         processors by default.
+     * @param maxEntries       the maximum number of Sessions, divided evenly among the shards.
+     * @param idleTimeToLive   the time after the last access at which a Session expires.
+     * @param removalListeners the {@link SessionRemovalListener} instances notified of removed Sessions.
+     * @throws IllegalArgumentException if a bound or duration is not positive.
+     */
+    @Builder
+    public ShardedSessionStore(
+            final Integer shardCount,
+            final Long maxEntries,
+            final Duration idleTimeToLive,
+            final List<SessionRemovalListener> removalListeners) {
+        var count = shardCount != null
+                ? positive(shardCount, "shardCount")
+                : 4 * Runtime.getRuntime().availableProcessors();
+        // The highest power of two not below the count, so that a shard is selected by masking the hash
+        count = Math.max(1, Integer.highestOneBit(count - 1) << 1);
+        shards = new Shard[count];
+        for (var i = 0; i < count; i++) {
+            shards[i] = new Shard();
+        }
+        shardMask = count - 1;
+        maxEntriesPerShard =
+                maxEntries != null ? (positive(maxEntries, "maxEntries") + count - 1) / count : Long.MAX_VALUE;
+        idleTimeToLiveNanos =
+                idleTimeToLive != null ? positive(idleTimeToLive.toNanos(), "idleTimeToLive") : NO_DEADLINE;
+        this.removalListeners = removalListeners != null ? List.copyOf(removalListeners) : List.of();
+        for (var cause : RemovalCause.values()) {
+            removalCounts.put(cause, new LongAdder());
+        }
+    }
+
+    private static <T extends Number> T positive(final T value, final String name) {
+        if (value.longValue() <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    @Override
+    public Optional<Session> findById(String sessionId) {
+        var removals = new ArrayList<Removal>(0);
+        try {
+            return Optional.ofNullable(shard(sessionId).find(sessionId, now(), removals));
+        } finally {
+            notifyListeners(removals);
+        }
+    }
+
+    @Override
+    public Session createSession(String sessionId) {
+        return getOrCreate(sessionId);
+    }
+
+    @Override
+    public Session getOrCreate(final String sessionId) {
+        var removals = new ArrayList<Removal>(0);
+        try {
+            return shard(sessionId).getOrCreate(sessionId, now(), removals);
+        } finally {
+            notifyListeners(removals);
+        }
+    }
+
+    @Override
+    public void delete(String sessionId) {
+        var removals = new ArrayList<Removal>(0);
+        try {
+            shard(sessionId).delete(sessionId, removals);
+        } finally {
+            notifyListeners(removals);
+        }
+    }
+
+    /**
+     * Returns the number of Sessions in the store, including expired Sessions not removed yet.
+     *
+     * @return the number of Sessions.
+     */
+    public int size() {
+        var size = 0;
+        for (var shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return the number of shards.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the number of Sessions removed for the given cause so far.
+     *
+     * @param cause the {@link RemovalCause} of the removals.
+     * @return the number of removed Sessions.
+     */
+    public long getRemovalCount(final RemovalCause cause) {
+        return removalCounts.get(cause).sum();
+    }
+
+    private Shard shard(final String sessionId) {
+        var hash = sessionId.hashCode();
+        // Spread the high bits, which the mask would otherwise ignore
+        return shards[(hash ^ (hash >>> 16)) & shardMask];
+    }
+
+    private long now() {
+        return System.nanoTime() - origin;
+    }
+
+    /**
+     * Notifies every listener of every removal; a failing listener does not prevent the others from being notified,
+     * its exception is rethrown afterwards.
+     */
+    private void notifyListeners(final List<Removal> removals) {
+        RuntimeException failure = null;
+        for (var removal : removals) {
+            for (var listener : removalListeners) {
+                try {
+                    listener.onRemoval(removal.session(), removal.cause());
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private record Removal(Session session, RemovalCause cause) {}
+
+    /**
+     * A stored Session. The access time is written by lock-free reads, the removal flag under the lock of the shard.
+     */
+    private static final class Entry {
+
+        private final Session session;
+
+        private volatile long lastAccess;
+
+        private volatile boolean removed;
+
+        private Entry(final Session session, final long lastAccess) {
+            this.session = session;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * A shard of the Sessions. The lookup map is read without a lock; it and the access order, the least recently used
+     * first, are written under the lock of the shard.
+     */
+    private final class Shard {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        /**
+         * The reads not replayed into the access order yet; reads are dropped while it is full.
+         */
+        private final Queue<Entry> readBuffer = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger readBufferSize = new AtomicInteger();
+
+        private Session find(final String sessionId, final long now, final List<Removal> removals) {
+            var entry = index.get(sessionId);
+            if (entry != null && now - entry.lastAccess >= idleTimeToLiveNanos) {
+                // An expired Session is removed by the next maintenance of the shard
+                entry = null;
+            }
+            if (entry != null) {
+                entry.lastAccess = now;
+                if (readBufferSize.incrementAndGet() <= READ_BUFFER_SIZE) {
+                    readBuffer.offer(entry);
+                } else {
+                    readBufferSize.decrementAndGet();
+                }
+            }
+            if (readBufferSize.get() >= READ_BUFFER_SIZE / 2 && lock.tryLock()) {
+                try {
+                    maintain(now, removals);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return entry != null ? entry.session : null;
+        }
+
+        private Session getOrCreate(final String sessionId, final long now, final List<Removal> removals) {
+            lock.lock();
+            try {
+                maintain(now, removals);
+                var entry = entries.get(sessionId);
+                if (entry != null && now - entry.lastAccess >= idleTimeToLiveNanos) {
+                    entries.remove(sessionId);
+                    removed(entry, RemovalCause.EXPIRED, removals);
+                    entry = null;
+                }
+                if (entry != null) {
+                    entry.lastAccess = now;
+                    return entry.session;
+                }
+
+                entry = new Entry(new Session(sessionId), now);
+                entries.put(sessionId, entry);
+                index.put(sessionId, entry);
+                // The new Session is the most recently used, it is never the eldest while the shard is over its bound
+                var iterator = entries.values().iterator();
+                while (entries.size() > maxEntriesPerShard) {
+                    var eldest = iterator.next();
+                    iterator.remove();
+                    removed(eldest, RemovalCause.SIZE, removals);
+                }
+                return entry.session;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void delete(final String sessionId, final List<Removal> removals) {
+            lock.lock();
+            try {
+                var entry = entries.remove(sessionId);
+                if (entry != null) {
+                    removed(entry, RemovalCause.EXPLICIT, removals);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            return index.size();
+        }
+
+        /**
+         * Replays the buffered reads into the access order, then removes the expired Sessions, which are the least
+         * recently used ones at the head of the shard. Called with the lock held.
+         */
+        private void maintain(final long now, final List<Removal> removals) {
+            Entry entry;
+            while ((entry = readBuffer.poll()) != null) {
+                readBufferSize.decrementAndGet();
+                if (!entry.removed) {
+                    entries.get(entry.session.getSessionId());
+                }
+            }
+            if (idleTimeToLiveNanos == NO_DEADLINE) {
+                return;
+            }
+            var iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                var eldest = iterator.next();
+                if (now - eldest.lastAccess < idleTimeToLiveNanos) {
+                    return;
+                }
+                iterator.remove();
+                removed(eldest, RemovalCause.EXPIRED, removals);
+            }
+        }
+
+        /**
+         * Completes the removal of a Session already removed from the access order.
+         */
+        private void removed(final Entry entry, final RemovalCause cause, final List<Removal> removals) {
+            index.remove(entry.session.getSessionId(), entry);
+            entry.removed = true;
+            removalCounts.get(cause).increment();
+            removals.add(new Removal(entry.session, cause));
+        }
+    }
+}
@@ -19,18 +19,124 @@
 */
 package ai.yda.framework.session.core;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Binds the ID of the current Session to the running thread for the duration of a task, in the manner of a scoped
+ * value: {@link #run(String, Runnable)} and {@link #call(String, Callable)} restore the previous binding when the task
+ * completes, so that nothing leaks into the next task of a pooled or virtual thread. The binding is not inherited by
+ * child threads; it is carried over explicitly:
+ * <ul>
+ *     <li>by the {@code wrap} methods, e.g. for an {@code ExecutorService} or the tasks of a parallel stream,</li>
+ *     <li>by the {@link SessionIdThreadLocalAccessor} registered with the Micrometer context propagation, which
+ *     covers context snapshots and Reactor, where the ID is available under {@link #KEY} once the context is
+ *     captured.</li>
+ * </ul>
+ *
+ * @author Nikita Litvinov
+ * @since 0.1.0
+ */
 public class ThreadLocalSessionContext {
-    private final ThreadLocal<String> threadLocal = new InheritableThreadLocal<>();
 
+    /**
+     * The key of the Session ID in a context snapshot or a Reactor Context.
+     */
+    public static final String KEY = "ai.yda.framework.session.id";
+
+    static final ThreadLocal<String> SESSION_ID = new ThreadLocal<>();
+
+    /**
+     * Runs the task with the given Session ID bound to the current thread.
+     *
+     * @param sessionId the ID of the Session.
+     * @param task      the task to run.
+     */
+    public void run(final String sessionId, final Runnable task) {
+        var previous = SESSION_ID.get();
+        SESSION_ID.set(sessionId);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Calls the task with the given Session ID bound to the current thread.
+     *
+     * @param sessionId the ID of the Session.
+     * @param task      the task to call.
+     * @param <T>       the type of the result.
+     * @return the result of the task.
+     * @throws Exception if the task fails.
+     */
+    public <T> T call(final String sessionId, final Callable<T> task) throws Exception {
+        var previous = SESSION_ID.get();
+        SESSION_ID.set(sessionId);
+        try {
+            return task.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Wraps the task so that it runs with the Session ID bound to the current thread, wherever it is run.
+     *
+     * @param task the task to wrap.
+     * @return the wrapped task, or the task itself if no Session ID is bound.
+     */
+    public Runnable wrap(final Runnable task) {
+        var sessionId = SESSION_ID.get();
+        return sessionId == null ? task : () -> run(sessionId, task);
+    }
+
+    /**
+     * Wraps the task so that it is called with the Session ID bound to the current thread, wherever it is called.
+     *
+     * @param task the task to wrap.
+     * @param <T>  the type of the result.
+     * @return the wrapped task, or the task itself if no Session ID is bound.
+     */
+    public <T> Callable<T> wrap(final Callable<T> task) {
+        var sessionId = SESSION_ID.get();
+        return sessionId == null ? task : () -> call(sessionId, task);
+    }
+
+    /**
+     * Wraps the {@link Executor} so that its tasks run with the Session ID bound to the submitting thread.
+     *
+     * @param executor the {@link Executor} to wrap.
+     * @return the wrapped {@link Executor}.
+     */
+    public Executor wrap(final Executor executor) {
+        return command -> executor.execute(wrap(command));
+    }
+
+    /**
+     * Binds the Session ID to the current thread until {@link #clear()} is called. Prefer
+     * {@link #run(String, Runnable)}, which cannot leak the binding into later tasks of the thread.
+     *
+     * @param sessionId the ID of the Session.
+     */
     public void setSessionId(String sessionId) {
-        threadLocal.set(sessionId);
+        SESSION_ID.set(sessionId);
     }
 
     public String getSessionId() {
-        return threadLocal.get();
+        return SESSION_ID.get();
     }
 
     public void clear() {
-        threadLocal.remove();
+        SESSION_ID.remove();
+    }
+
+    private static void restore(final String previous) {
+        if (previous == null) {
+            SESSION_ID.remove();
+        } else {
+            SESSION_ID.set(previous);
+        }
     }
 }
@@ -34,13 +34,18 @@ public class ThreadLocalSessionProvider implements SessionProvider {
     @Override
     public void put(final String key, final Object value) {
         var sessionId = threadLocalSessionContext.getSessionId();
-        var session = sessionStore.findById(sessionId).orElse(sessionStore.createSession(sessionId));
-        session.setAttribute(key, value);
+        if (sessionId == null) {
+            throw new IllegalStateException("No session is bound to the current thread");
+        }
+        sessionStore.getOrCreate(sessionId).setAttribute(key, value);
     }
 
     @Override
     public Optional<Object> get(final String key) {
         var sessionId = threadLocalSessionContext.getSessionId();
+        if (sessionId == null) {
+            return Optional.empty();
+        }
         return sessionStore.findById(sessionId).flatMap(session -> session.getAttribute(key));
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel of Session deadlines, shared by the bounded {@link SessionStore} implementations, so that
+ * expiry costs a bucket visit per elapsed tick instead of a scan of all Sessions. Each bucket holds the entries due in
+ * the ticks mapped to it; an entry due in a later turn of the wheel stays in its bucket until then, and an entry whose
+ * deadline was extended is moved to a later bucket when its current bucket is visited.
+ * <p>
+ * The wheel is not thread-safe, its owner guards it. Times are nanoseconds relative to an origin chosen by the owner.
+ * </p>
+ *
+ * @param <E> the type of the scheduled entries.
+ * @author Nikita Litvinov
+ * @since 0.2.0
+ */
+final class TimingWheel<E extends TimingWheel.Node> {
+
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * The number of buckets; deadlines further away than a full turn take several rounds.
+     */
+    private static final int WHEEL_SIZE = 512;
+
+    private final long tickNanos;
+
+    private final List<List<E>> buckets = new ArrayList<>(WHEEL_SIZE);
+
+    private volatile long currentTick;
+
+    TimingWheel(final long tickNanos) {
+        this.tickNanos = tickNanos;
+        for (var i = 0; i < WHEEL_SIZE; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Adds the given time and duration, saturating at {@link #NO_DEADLINE}.
+     *
+     * @param time     the time.
+     * @param duration the duration, {@link #NO_DEADLINE} if unbounded.
+     * @return the sum, or {@link #NO_DEADLINE} if it overflows.
+     */
+    static long saturatedAdd(final long time, final long duration) {
+        return duration == NO_DEADLINE || time > NO_DEADLINE - duration ? NO_DEADLINE : time + duration;
+    }
+
+    void schedule(final E entry) {
+        var deadline = entry.deadline();
+        if (deadline == NO_DEADLINE) {
+            entry.wheelTick = -1;
+            return;
+        }
+        // Round up, so that an entry is never visited before its deadline
+        var tick = Math.max(deadline / tickNanos + (deadline % tickNanos == 0 ? 0 : 1), currentTick + 1);
+        entry.wheelTick = tick;
+        buckets.get((int) (tick % WHEEL_SIZE)).add(entry);
+    }
+
+    boolean isDue(final long now) {
+        return now / tickNanos > currentTick;
+    }
+
+    /**
+     * Visits the buckets of the ticks elapsed since the last call and passes the entries past their deadline to the
+     * given consumer, which is expected to mark them removed.
+     *
+     * @param now    the current time.
+     * @param expire the consumer of the expired entries.
+     */
+    void advance(final long now, final Consumer<E> expire) {
+        var targetTick = now / tickNanos;
+        if (targetTick <= currentTick) {
+            return;
+        }
+        var fromTick = currentTick + 1;
+        currentTick = targetTick;
+        // After a long pause every bucket is visited once
+        var ticks = Math.min(targetTick - fromTick + 1, WHEEL_SIZE);
+        for (var tick = fromTick; tick < fromTick + ticks; tick++) {
+            visit((int) (tick % WHEEL_SIZE), now, targetTick, expire);
+        }
+    }
+
+    private void visit(final int index, final long now, final long targetTick, final Consumer<E> expire) {
+        var bucket = buckets.get(index);
+        if (bucket.isEmpty()) {
+            return;
+        }
+        buckets.set(index, new ArrayList<>());
+        for (var entry : bucket) {
+            if (entry.removed) {
+                continue;
+            }
+            if (entry.wheelTick > targetTick) {
+                buckets.get(index).add(entry);
+            } else if (entry.deadline() <= now) {
+                expire.accept(entry);
+            } else {
+                schedule(entry);
+            }
+        }
+    }
+
+    /**
+     * An entry of the wheel. It is skipped once marked removed.
+     */
+    abstract static class Node {
+
+        volatile boolean removed;
+
+        long wheelTick = -1;
+
+        /**
+         * Returns the time at which the entry expires.
+         *
+         * @return the deadline, or {@link #NO_DEADLINE} if the entry never expires.
+         */
+        abstract long deadline();
+    }
+}
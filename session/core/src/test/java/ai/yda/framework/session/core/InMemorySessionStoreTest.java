@@ -0,0 +1,189 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemorySessionStoreTest {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+
+    private final List<Map.Entry<String, RemovalCause>> removals = new CopyOnWriteArrayList<>();
+
+    @Test
+    void evictsLeastRecentlyUsedSessions() {
+        var store = InMemorySessionStore.builder()
+                .maxEntries(2L)
+                .removalListeners(List.of(this::recordRemoval))
+                .build();
+        store.createSession("first");
+        store.createSession("second");
+        store.findById("first");
+
+        store.createSession("third");
+
+        assertEquals(2, store.size());
+        assertTrue(store.findById("first").isPresent());
+        assertTrue(store.findById("second").isEmpty());
+        assertEquals(List.of(Map.entry("second", RemovalCause.SIZE)), removals);
+        assertEquals(1, store.getRemovalCount(RemovalCause.SIZE));
+    }
+
+    @Test
+    void keepsFrequentlyReadSessionBeyondReadBufferCapacity() {
+        var store = InMemorySessionStore.builder().maxEntries(3L).build();
+        store.createSession("hot");
+        store.createSession("first");
+        store.createSession("second");
+        for (var i = 0; i < 1000; i++) {
+            store.findById("hot");
+        }
+
+        store.createSession("third");
+
+        assertTrue(store.findById("hot").isPresent());
+        assertTrue(store.findById("first").isEmpty());
+    }
+
+    @Test
+    void evictsBeyondMaxWeight() {
+        var store = InMemorySessionStore.builder()
+                .maxWeight(3L)
+                .weigher(session -> 2L)
+                .removalListeners(List.of(this::recordRemoval))
+                .build();
+        store.createSession("first");
+
+        store.createSession("second");
+
+        assertEquals(1, store.size());
+        assertEquals(2, store.getWeight());
+        assertEquals(List.of(Map.entry("first", RemovalCause.SIZE)), removals);
+    }
+
+    @Test
+    void expiresIdleSessions() throws InterruptedException {
+        var store = InMemorySessionStore.builder()
+                .idleTimeToLive(Duration.ofMillis(100))
+                .tickDuration(TICK)
+                .removalListeners(List.of(this::recordRemoval))
+                .build();
+        store.createSession("idle");
+        store.createSession("active");
+        for (var i = 0; i < 10; i++) {
+            Thread.sleep(20);
+            assertTrue(store.findById("active").isPresent());
+        }
+
+        store.cleanUp();
+
+        assertTrue(store.findById("active").isPresent());
+        assertEquals(1, store.size());
+        assertEquals(List.of(Map.entry("idle", RemovalCause.EXPIRED)), removals);
+        assertEquals(1, store.getRemovalCount(RemovalCause.EXPIRED));
+    }
+
+    @Test
+    void expiresSessionsAfterAbsoluteTimeToLiveDespiteAccess() throws InterruptedException {
+        var store = InMemorySessionStore.builder()
+                .absoluteTimeToLive(Duration.ofMillis(100))
+                .tickDuration(TICK)
+                .build();
+        var session = store.createSession("session");
+        for (var i = 0; i < 10 && store.findById("session").isPresent(); i++) {
+            Thread.sleep(20);
+        }
+
+        assertTrue(store.findById("session").isEmpty());
+        var recreated = store.getOrCreate("session");
+        assertNotSame(session, recreated);
+        assertEquals(1, store.getRemovalCount(RemovalCause.EXPIRED));
+    }
+
+    @Test
+    void treatsExpiredSessionsAsAbsentBeforeCleanUp() throws InterruptedException {
+        var store = InMemorySessionStore.builder()
+                .idleTimeToLive(Duration.ofMillis(50))
+                .tickDuration(Duration.ofHours(1))
+                .build();
+        store.createSession("session");
+        Thread.sleep(100);
+
+        assertTrue(store.findById("session").isEmpty());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void reportsExplicitRemovals() {
+        var store = InMemorySessionStore.builder()
+                .removalListeners(List.of(this::recordRemoval))
+                .build();
+        var session = store.createSession("session");
+        assertSame(session, store.getOrCreate("session"));
+
+        store.delete("session");
+        store.delete("session");
+
+        assertEquals(0, store.size());
+        assertEquals(List.of(Map.entry("session", RemovalCause.EXPLICIT)), removals);
+    }
+
+    @Test
+    void staysWithinBoundsUnderConcurrentAccess() {
+        var store = InMemorySessionStore.builder().maxEntries(100L).build();
+        var workers = new ArrayList<CompletableFuture<Void>>();
+        for (var i = 0; i < 8; i++) {
+            workers.add(CompletableFuture.runAsync(() -> {
+                var random = ThreadLocalRandom.current();
+                for (var j = 0; j < 50_000; j++) {
+                    var sessionId = "session-" + random.nextInt(500);
+                    if (random.nextInt(4) == 0) {
+                        store.getOrCreate(sessionId);
+                    } else {
+                        store.findById(sessionId);
+                    }
+                }
+            }));
+        }
+        workers.forEach(CompletableFuture::join);
+
+        store.cleanUp();
+
+        assertTrue(store.size() <= 100);
+        assertEquals(store.size(), store.getWeight());
+    }
+
+    private void recordRemoval(final Session session, final RemovalCause cause) {
+        removals.add(Map.entry(session.getSessionId(), cause));
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedFileSessionStoreTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversSessionsAfterRestart() throws IOException {
+        var file = directory.resolve("sessions");
+        try (var store = open(file)) {
+            store.createSession("kept").setAttribute("topic", "billing");
+            store.createSession("deleted").setAttribute("topic", "refunds");
+            store.delete("deleted");
+        }
+
+        try (var store = open(file)) {
+            assertEquals(1, store.size());
+            var session = store.findById("kept").orElseThrow();
+            assertEquals(Optional.of("billing"), session.getAttribute("topic"));
+            assertEquals(1, session.getVersion());
+            assertTrue(store.findById("deleted").isEmpty());
+        }
+    }
+
+    @Test
+    void recoversLatestSnapshotAcrossSegments() throws IOException {
+        var file = directory.resolve("sessions");
+        try (var store = open(file)) {
+            var session = store.createSession("session");
+            for (var i = 0; i < 200; i++) {
+                session.setAttribute("counter", i);
+            }
+        }
+        assertTrue(Files.size(file) > SEGMENT_SIZE);
+
+        try (var store = open(file)) {
+            var session = store.findById("session").orElseThrow();
+            assertEquals(Optional.of(199), session.getAttribute("counter"));
+            assertEquals(200, session.getVersion());
+        }
+    }
+
+    @Test
+    void compactsToLiveSessions() throws IOException {
+        var file = directory.resolve("sessions");
+        try (var store = open(file)) {
+            var session = store.createSession("session");
+            for (var i = 0; i < 200; i++) {
+                session.setAttribute("counter", i);
+            }
+            store.createSession("deleted");
+            store.delete("deleted");
+            var size = Files.size(file);
+
+            store.compact();
+            assertTrue(Files.size(file) < size);
+            assertFalse(Files.exists(directory.resolve("sessions.compact")));
+            // The Session keeps working on the compacted file
+            session.setAttribute("counter", 200);
+        }
+
+        try (var store = open(file)) {
+            assertEquals(1, store.size());
+            var session = store.findById("session").orElseThrow();
+            assertEquals(Optional.of(200), session.getAttribute("counter"));
+            assertEquals(201, session.getVersion());
+        }
+    }
+
+    @Test
+    void compactsWhileSessionsChange() throws IOException {
+        var file = directory.resolve("sessions");
+        var expected = new HashMap<String, Optional<Object>>();
+        try (var store = open(file)) {
+            var stopped = new AtomicBoolean();
+            var writer = CompletableFuture.runAsync(() -> {
+                for (var i = 0; !stopped.get(); i++) {
+                    var sessionId = "session-" + i % 20;
+                    if (i % 7 == 0) {
+                        store.delete(sessionId);
+                    } else {
+                        store.getOrCreate(sessionId).setAttribute("counter", i);
+                    }
+                }
+            });
+            for (var i = 0; i < 20; i++) {
+                store.compact();
+            }
+            stopped.set(true);
+            writer.join();
+
+            for (var i = 0; i < 20; i++) {
+                var sessionId = "session-" + i;
+                expected.put(sessionId, store.findById(sessionId).flatMap(session -> session.getAttribute("counter")));
+            }
+        }
+
+        try (var store = open(file)) {
+            expected.forEach((sessionId, counter) -> assertEquals(
+                    counter, store.findById(sessionId).flatMap(session -> session.getAttribute("counter"))));
+        }
+    }
+
+    @Test
+    void recreatesSessionDeletedWhileHeld() throws IOException {
+        try (var store = open(directory.resolve("sessions"))) {
+            var session = store.createSession("session");
+            store.delete("session");
+
+            session.setAttribute("topic", "billing");
+
+            var recreated = store.findById("session").orElseThrow();
+            assertEquals(Optional.of("billing"), recreated.getAttribute("topic"));
+            assertFalse(recreated.setAttributes(Map.of("topic", "refunds"), 0));
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedSessions() throws IOException {
+        try (var store = MappedFileSessionStore.builder()
+                .path(directory.resolve("sessions"))
+                .segmentSize(SEGMENT_SIZE)
+                .maxEntries(2L)
+                .build()) {
+            store.createSession("first");
+            store.createSession("second");
+            store.createSession("third");
+            store.findById("first");
+
+            store.cleanUp();
+
+            assertEquals(2, store.size());
+            assertTrue(store.findById("second").isEmpty());
+        }
+    }
+
+    @Test
+    void expiresIdleSessions() throws IOException, InterruptedException {
+        try (var store = MappedFileSessionStore.builder()
+                .path(directory.resolve("sessions"))
+                .segmentSize(SEGMENT_SIZE)
+                .idleTimeToLive(Duration.ofMillis(200))
+                .expirationInterval(Duration.ofHours(1))
+                .build()) {
+            store.createSession("idle");
+            Thread.sleep(300);
+            store.createSession("active");
+
+            store.cleanUp();
+
+            assertTrue(store.findById("idle").isEmpty());
+            assertTrue(store.findById("active").isPresent());
+        }
+    }
+
+    @Test
+    void removesExpiredSessionsOnCleanUp() throws IOException, InterruptedException {
+        try (var store = MappedFileSessionStore.builder()
+                .path(directory.resolve("sessions"))
+                .segmentSize(SEGMENT_SIZE)
+                .absoluteTimeToLive(Duration.ofMillis(100))
+                .expirationInterval(Duration.ofMillis(20))
+                .build()) {
+            store.createSession("first");
+            store.createSession("second");
+            assertEquals(2, store.size());
+            Thread.sleep(200);
+
+            store.cleanUp();
+
+            assertEquals(0, store.size());
+            assertEquals("second", store.createSession("second").getSessionId());
+            assertEquals(1, store.size());
+        }
+    }
+
+    private static MappedFileSessionStore open(final Path file) {
+        return MappedFileSessionStore.builder()
+                .path(file)
+                .segmentSize(SEGMENT_SIZE)
+                .build();
+    }
+}
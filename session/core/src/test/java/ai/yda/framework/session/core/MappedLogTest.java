@@ -0,0 +1,198 @@
+/*
+ * YDA - Open-Source Java AI Assistant.
+ * Copyright (C) 2024 Love Vector OÜ <https://vector-inc.dev/>
+
+ * This file is part of YDA.
+
+ * YDA is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+
+ * YDA is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with YDA.  If not, see <https://www.gnu.org/licenses/>.
+*/
+package ai.yda.framework.session.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedLogTest {
+
+    /**
+     * Small enough for a few records to fill a segment: the file header takes 12 bytes and a record of a 20-byte
+     * payload takes 28 bytes, so the first segment holds one such record and the following ones two.
+     */
+    private static final int SEGMENT_SIZE = 64;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversAppendedRecords() throws IOException {
+        var file = directory.resolve("log");
+        var positions = new ArrayList<Long>();
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            positions.add(log.append(payload("first")));
+            positions.add(log.append(payload("second")));
+            assertEquals("second", text(log.read(positions.get(1))));
+        }
+
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            var records = new ArrayList<String>();
+            var recoveredPositions = new ArrayList<Long>();
+            log.recover((position, payload) -> {
+                recoveredPositions.add(position);
+                records.add(text(payload));
+            });
+            assertEquals(List.of("first", "second"), records);
+            assertEquals(positions, recoveredPositions);
+        }
+    }
+
+    @Test
+    void rollsOverToNextSegment() throws IOException {
+        var file = directory.resolve("log");
+        var positions = new ArrayList<Long>();
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            for (var i = 0; i < 5; i++) {
+                positions.add(log.append(payload(20, i)));
+            }
+        }
+        // A record never spans two segments, the rest of a segment is skipped
+        assertEquals(List.of(12L, 64L, 92L, 128L, 156L), positions);
+
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            assertEquals(List.of(0, 1, 2, 3, 4), markers(log));
+            assertEquals(184L, log.getWritePosition());
+        }
+    }
+
+    @Test
+    void rejectsRecordLargerThanSegment() throws IOException {
+        try (var log = new MappedLog(directory.resolve("log"), SEGMENT_SIZE)) {
+            assertThrows(IllegalArgumentException.class, () -> log.append(new byte[SEGMENT_SIZE]));
+        }
+    }
+
+    @Test
+    void stopsAtCorruptedRecord() throws IOException {
+        var file = directory.resolve("log");
+        long second;
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            log.append(payload("first"));
+            second = log.append(payload("second"));
+            log.append(payload("third"));
+        }
+        flipByte(file, second + MappedLog.RECORD_HEADER_SIZE + 1);
+
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            assertEquals(List.of("first"), recover(log));
+            // The torn record and everything behind it is overwritten by the next appends
+            assertEquals(second, log.append(payload("fourth")));
+        }
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            assertEquals(List.of("first", "fourth"), recover(log));
+        }
+    }
+
+    @Test
+    void stopsAtTruncatedRecord() throws IOException {
+        var file = directory.resolve("log");
+        long second;
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            log.append(payload("first"));
+            second = log.append(payload("second"));
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(second + MappedLog.RECORD_HEADER_SIZE + 2);
+        }
+
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            assertEquals(List.of("first"), recover(log));
+            assertEquals(second, log.getWritePosition());
+        }
+    }
+
+    @Test
+    void stopsAtCorruptedRecordInLaterSegment() throws IOException {
+        var file = directory.resolve("log");
+        var positions = new ArrayList<Long>();
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            for (var i = 0; i < 5; i++) {
+                positions.add(log.append(payload(20, i)));
+            }
+        }
+        flipByte(file, positions.get(3) + MappedLog.RECORD_HEADER_SIZE);
+
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            assertEquals(List.of(0, 1, 2), markers(log));
+            assertEquals(positions.get(3), log.append(payload(20, 9)));
+        }
+        // The record behind the torn one, in the next segment, was zeroed and is not replayed after the new append
+        try (var log = new MappedLog(file, SEGMENT_SIZE)) {
+            assertEquals(List.of(0, 1, 2, 9), markers(log));
+        }
+    }
+
+    @Test
+    void rejectsForeignFile() throws IOException {
+        var file = directory.resolve("log");
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap("not a session store".getBytes(StandardCharsets.UTF_8)));
+        }
+        assertThrows(IOException.class, () -> new MappedLog(file, SEGMENT_SIZE));
+    }
+
+    private static List<String> recover(final MappedLog log) {
+        var records = new ArrayList<String>();
+        log.recover((position, payload) -> records.add(text(payload)));
+        return records;
+    }
+
+    private static List<Integer> markers(final MappedLog log) {
+        var markers = new ArrayList<Integer>();
+        log.recover((position, payload) -> markers.add((int) payload[0]));
+        return markers;
+    }
+
+    private static void flipByte(final Path file, final long position) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.put(0, (byte) ~buffer.get(0)).rewind();
+            channel.write(buffer, position);
+        }
+    }
+
+    private static byte[] payload(final String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] payload(final int length, final int marker) {
+        var payload = new byte[length];
+        payload[0] = (byte) marker;
+        return payload;
+    }
+
+    private static String text(final byte[] payload) {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}